@@ -23,6 +23,7 @@ package org.vast.ows;
 import java.io.*;
 import java.util.Map;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamReader;
 import org.vast.xml.DOMHelper;
 import org.vast.xml.DOMHelperException;
 import org.w3c.dom.Element;
@@ -61,6 +62,20 @@ public abstract class AbstractRequestReader<RequestType extends OWSRequest> exte
     }
     
     
+    /**
+     * Reads common XML request parameters from the request element start tag
+     * and fill up the OWSQuery accordingly
+     * @param reader StAX reader positioned on the start tag of the request element
+     * @param request
+     */
+    public static void readCommonXML(XMLStreamReader reader, OWSRequest request)
+    {
+        request.setOperation(reader.getLocalName());
+        request.setService(reader.getAttributeValue(null, "service"));
+        request.setVersion(reader.getAttributeValue(null, "version"));
+    }
+    
+    
 	@Override
 	public RequestType readURLQuery(String queryString) throws OWSException
 	{
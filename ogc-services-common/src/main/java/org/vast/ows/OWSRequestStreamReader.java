@@ -0,0 +1,48 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.ows;
+
+import javax.xml.stream.XMLStreamReader;
+
+
+/**
+ * <p>
+ * Interface for OWS request readers that can also parse XML requests
+ * directly from a StAX stream, without building a DOM tree first.<br/>
+ * {@link OWSUtils} and the OWS servlet use this method instead of the
+ * DOM based one whenever the reader registered for a request implements
+ * this interface.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ * @param <RequestType> Type of request object supported by this reader
+ */
+public interface OWSRequestStreamReader<RequestType extends OWSRequest> extends OWSRequestReader<RequestType>
+{
+
+    /**
+     * Reads XML request parameters from the given StAX reader.<br/>
+     * When this method returns, the reader is positioned on the end tag
+     * of the request element, unless the returned request reads some of
+     * its content lazily, in which case the underlying stream must be left
+     * open until the request has been handled.
+     * @param reader StAX reader positioned on the start tag of the request element
+     * @return request object generated from the XML stream
+     * @throws OWSException
+     */
+    public RequestType readXMLQuery(XMLStreamReader reader) throws OWSException;
+
+}
@@ -32,6 +32,8 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.util.Map;
 import java.util.ServiceLoader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.vast.ogc.OGCException;
@@ -39,6 +41,7 @@ import org.vast.ogc.OGCExceptionReader;
 import org.vast.ogc.OGCRegistry;
 import org.vast.xml.DOMHelper;
 import org.vast.xml.DOMHelperException;
+import org.vast.xml.XMLImplFinder;
 import org.w3c.dom.Element;
 
 
@@ -61,6 +64,11 @@ public class OWSUtils extends OWSCommonUtils
     public static final String XML_MIME_TYPE2 = "application/xml";
     public static final String JSON_MIME_TYPE = "application/json";
     public static final String BINARY_MIME_TYPE = "application/octet-stream";
+    
+    /* max number of bytes read while looking for the request element of an XML
+       stream. The stream cannot be reset to build a DOM tree past this limit */
+    public static final int MAX_XML_PEEK_SIZE = 1024*1024;
+    
     public static final String SOAP11_URI = "http://schemas.xmlsoap.org/soap/envelope/";
     public static final String SOAP12_URI = "http://www.w3.org/2003/05/soap-envelope";
     
@@ -207,7 +215,49 @@ public class OWSUtils extends OWSCommonUtils
     
     
     /**
-     * Helper method to parse any OWS query directly from an InputStream
+     * Helper method to find a reader able to parse the request directly from
+     * the XML stream
+     * @param reader StAX reader positioned on the start tag of the request element
+     * @param serviceType service type to check if service in query is correct
+     * @param defaultVersion version used in case no version is specified in the query
+     * @return the streaming request reader or null if the reader registered for
+     * this type of request only supports DOM parsing
+     * @throws OWSException if common request parameters are missing or invalid 
+     */
+    public OWSRequestStreamReader<OWSRequest> getStreamRequestReader(XMLStreamReader reader, String serviceType, String defaultVersion) throws OWSException
+    {
+        // read common params and check that they're present
+        OWSRequest request = new OWSRequest();
+        request.setVersion(defaultVersion);
+        AbstractRequestReader.readCommonXML(reader, request);
+        OWSExceptionReport report = new OWSExceptionReport();
+        AbstractRequestReader.checkParameters(request, report, serviceType);
+        report.process();
+        
+        try
+        {
+            Object requestReader = OGCRegistry.createReader(request.service, request.operation, request.version);
+            if (requestReader instanceof OWSRequestStreamReader)
+            {
+                @SuppressWarnings("unchecked")
+                var streamReader = (OWSRequestStreamReader<OWSRequest>)requestReader;
+                return streamReader;
+            }
+            
+            return null;
+        }
+        catch (IllegalStateException e)
+        {
+            String spec = request.service + " " + request.operation + " v" + request.version;
+            throw new OWSException(UNSUPPORTED_SPEC_MSG + spec, e);
+        }
+    }
+    
+    
+    /**
+     * Helper method to parse any OWS query directly from an InputStream.<br/>
+     * The request is parsed from the XML stream if the corresponding reader
+     * supports it, otherwise a DOM tree is built first.
      * @param is input stream containing the XML document to read from
      * @param serviceType service type to check if service parameter in query is correct 
      * @return OWS request object filled with all parameters parsed from XML request
@@ -217,11 +267,40 @@ public class OWSUtils extends OWSCommonUtils
     {
     	try
 		{
+            if (!is.markSupported())
+                is = new BufferedInputStream(is);
+            
+            // parse from stream if possible
+            is.mark(MAX_XML_PEEK_SIZE);
+            XMLStreamReader reader = null;
+            OWSRequestStreamReader<OWSRequest> streamReader = null;
+            try
+            {
+                reader = XMLImplFinder.getStaxInputFactory().createXMLStreamReader(is);
+                reader.nextTag();
+                streamReader = getStreamRequestReader(reader, serviceType, null);
+            }
+            catch (Exception e)
+            {
+                // errors will be reported by the DOM parser
+                log.trace("Cannot parse request from XML stream", e);
+            }
+            
+            if (streamReader != null)
+            {
+                is.mark(0); // no need to keep buffered data anymore
+                return streamReader.readXMLQuery(reader);
+            }
+            
+            // otherwise rewind and build DOM
+            if (reader != null)
+                reader.close();
+            is.reset();
 			DOMHelper dom = new DOMHelper(is, false);
 			OWSRequest request = readXMLQuery(dom, dom.getRootElement(), serviceType);
 			return request;
 		}
-		catch (DOMHelperException e)
+		catch (XMLStreamException | IOException e)
 		{
 			throw new OWSException(AbstractRequestReader.invalidXML, e);
 		}
@@ -32,14 +32,19 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.vast.ows.OWSException;
 import org.vast.ows.OWSRequest;
+import org.vast.ows.OWSRequestStreamReader;
 import org.vast.ows.OWSResponse;
 import org.vast.ows.OWSUtils;
 import org.vast.ows.util.PostRequestFilter;
 import org.vast.xml.DOMHelper;
+import org.vast.xml.XMLImplFinder;
 import org.w3c.dom.Element;
 
 
@@ -67,6 +72,7 @@ public abstract class OWSServlet extends HttpServlet
     
     protected final transient Logger log;
     protected final transient OWSUtils owsUtils;
+    private final boolean streamParsingEnabled;
     
         
     public OWSServlet()
@@ -91,6 +97,28 @@ public abstract class OWSServlet extends HttpServlet
     {
         this.owsUtils = owsUtils;
         this.log = log;
+        
+        // don't bypass custom DOM parsing implemented by subclasses
+        this.streamParsingEnabled = !overridesDomParsing(getClass());
+    }
+    
+    
+    private static boolean overridesDomParsing(Class<?> servletClass)
+    {
+        for (Class<?> c = servletClass; c != OWSServlet.class; c = c.getSuperclass())
+        {
+            try
+            {
+                c.getDeclaredMethod("parseRequest", DOMHelper.class, Element.class);
+                return true;
+            }
+            catch (NoSuchMethodException e)
+            {
+                // check superclass
+            }
+        }
+        
+        return false;
     }
     
     
@@ -237,20 +265,28 @@ public abstract class OWSServlet extends HttpServlet
             if (isXmlRequest)
             {
                 InputStream xmlRequest = new PostRequestFilter(new BufferedInputStream(req.getInputStream()));
-                dom = new DOMHelper(xmlRequest, false);
-                Element requestElt = dom.getBaseElement();
                 
-                // detect and skip SOAP envelope if present
-                soapVersion = getSoapVersion(dom);
-                if (soapVersion != null)
-                    requestElt = getSoapBody(dom);
+                // parse directly from XML stream if reader supports it
+                owsRequest = parseRequestFromStream(req, xmlRequest);
                 
-                // log request
-                logRequest(req, requestElt.getLocalName());
+                if (owsRequest == null)
+                {
+                    dom = new DOMHelper(xmlRequest, false);
+                    Element requestElt = dom.getBaseElement();
+                    
+                    // detect and skip SOAP envelope if present
+                    soapVersion = getSoapVersion(dom);
+                    if (soapVersion != null)
+                        requestElt = getSoapBody(dom);
+                    
+                    // log request
+                    logRequest(req, requestElt.getLocalName());
+                    
+                    // parse request
+                    owsRequest = parseRequest(dom, requestElt);
+                    owsRequest.setSoapVersion(soapVersion);
+                }
                 
-                // parse request
-                owsRequest = parseRequest(dom, requestElt);
-                owsRequest.setSoapVersion(soapVersion);
                 owsRequest.setPostServer(requestURL);
             }
             else
@@ -297,6 +333,127 @@ public abstract class OWSServlet extends HttpServlet
     }
     
     
+    /**
+     * Peeks at the request element and parses the request directly from the
+     * XML stream if the registered reader supports it. Otherwise, the stream
+     * is reset so the request can be parsed from a DOM tree.<br/>
+     * Stream parsing is never used when a subclass overrides
+     * {@link #parseRequest(DOMHelper, Element)}, and any error occurring
+     * while peeking also triggers the DOM fallback so that errors are
+     * reported the usual way. The fallback requires that the request element
+     * (including the SOAP header, if any) is found within the first
+     * {@link #getMaxXmlPeekSize()} bytes of the request.
+     * @param req
+     * @param xmlRequest XML request stream (must support mark/reset)
+     * @return the parsed request or null if the request must be parsed from a DOM
+     * @throws IOException if the stream cannot be reset
+     * @throws XMLStreamException
+     * @throws OWSException
+     */
+    protected OWSRequest parseRequestFromStream(HttpServletRequest req, InputStream xmlRequest) throws IOException, XMLStreamException, OWSException
+    {
+        if (!streamParsingEnabled)
+            return null;
+        
+        xmlRequest.mark(getMaxXmlPeekSize());
+        XMLStreamReader reader = null;
+        OWSRequestStreamReader<OWSRequest> streamReader = null;
+        String soapVersion = null;
+        
+        try
+        {
+            reader = XMLImplFinder.getStaxInputFactory().createXMLStreamReader(xmlRequest);
+            reader.nextTag();
+            
+            // detect and skip SOAP envelope if present
+            soapVersion = getSoapVersion(reader);
+            if (soapVersion != null)
+                skipToSoapBody(reader);
+            
+            streamReader = owsUtils.getStreamRequestReader(reader, null, null);
+        }
+        catch (Exception e)
+        {
+            // errors will be reported by the DOM parser
+            log.trace("Cannot parse request from XML stream", e);
+        }
+        
+        if (streamReader == null)
+        {
+            if (reader != null)
+                reader.close();
+            xmlRequest.reset();
+            return null;
+        }
+        
+        // no need to keep buffered data anymore
+        xmlRequest.mark(0);
+        
+        // log request
+        logRequest(req, reader.getLocalName());
+        
+        // parse request
+        OWSRequest owsRequest = streamReader.readXMLQuery(reader);
+        owsRequest.setSoapVersion(soapVersion);
+        return owsRequest;
+    }
+    
+    
+    /**
+     * @return max number of bytes that can be read while looking for the
+     * request element before the XML stream can no longer be reset
+     */
+    protected int getMaxXmlPeekSize()
+    {
+        return OWSUtils.MAX_XML_PEEK_SIZE;
+    }
+    
+    
+    protected String getSoapVersion(XMLStreamReader reader)
+    {
+        String nsUri = reader.getNamespaceURI();
+        if (OWSUtils.SOAP11_URI.equals(nsUri) || OWSUtils.SOAP12_URI.equals(nsUri))
+            return nsUri;
+        return null;
+    }
+    
+    
+    /*
+     * Move reader from SOAP envelope start tag to first element in SOAP body
+     */
+    protected void skipToSoapBody(XMLStreamReader reader) throws IOException, XMLStreamException
+    {
+        // skip SOAP header if any
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+        {
+            if ("Body".equals(reader.getLocalName()))
+            {
+                if (reader.nextTag() != XMLStreamConstants.START_ELEMENT)
+                    break;
+                return;
+            }
+            
+            skipElement(reader);
+        }
+        
+        throw new IOException("No request in SOAP body");
+    }
+    
+    
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException
+    {
+        int depth = 1;
+        while (depth > 0)
+        {
+            int eventType = reader.next();
+            if (eventType == XMLStreamConstants.START_ELEMENT)
+                depth++;
+            else if (eventType == XMLStreamConstants.END_ELEMENT)
+                depth--;
+        }
+    }
+    
+    
     protected String getSoapVersion(DOMHelper dom)
     {
         Element requestElt = dom.getBaseElement();
@@ -18,33 +18,50 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import net.opengis.swe.v20.DataBlock;
 import net.opengis.swe.v20.DataComponent;
 import net.opengis.swe.v20.DataEncoding;
 import org.vast.xml.DOMHelper;
 import org.w3c.dom.Element;
 import org.vast.ows.OWSException;
 import org.vast.ows.OWSExceptionReport;
+import org.vast.ows.OWSRequestStreamReader;
 import org.vast.ows.OWSUtils;
 import org.vast.ows.SweEncodedMessageProcessor;
 import org.vast.ows.swe.SWERequestReader;
+import org.vast.ows.swe.SWESUtils;
 import org.vast.swe.DataSourceDOM;
 import org.vast.swe.DataSourceURI;
+import org.vast.swe.DataSourceXMLStream;
 import org.vast.swe.SWEData;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.SWEInputDataStream;
 
 
 /**
  * <p>
  * Provides methods to parse a KVP or SOAP/XML SOS InsertResult
  * request and create a InsertResultRequest object for version 2.0
+ * </p><p>
+ * XML requests can also be read directly from a StAX stream. In this case,
+ * result values are not parsed by the reader. Instead, the request data source
+ * reads them directly from the request stream so the handler can process
+ * records as they arrive using {@link InsertResultRequest#getResultDataStream}.
+ * Call {@link #setParseResultValues(boolean)} to parse them eagerly like when
+ * reading from DOM.
  * </p>
  *
- * @author Alex Robin
+ * @author Alex Robin
  * @date Feb 2, 2014
  * */
-public class InsertResultReaderV20 extends SWERequestReader<InsertResultRequest> implements SweEncodedMessageProcessor
+public class InsertResultReaderV20 extends SWERequestReader<InsertResultRequest> implements SweEncodedMessageProcessor, OWSRequestStreamReader<InsertResultRequest>
 {
     protected DataComponent resultStructure;
     protected DataEncoding resultEncoding;
+    protected boolean parseResultValues;
     
     
     public InsertResultReaderV20()
@@ -59,6 +76,19 @@ public class InsertResultReaderV20 extends SWERequestReader<InsertResultRequest>
         this.resultStructure = structure;
         this.resultEncoding = encoding;
     }
+    
+    
+    /**
+     * Sets whether result values read from a StAX stream are parsed eagerly
+     * into memory (as when reading from DOM) or left in the request stream
+     * to be parsed lazily by the request handler. Eager parsing also requires
+     * the result structure and encoding to be set.
+     * @param parseResultValues true to parse result values eagerly
+     */
+    public void setParseResultValues(boolean parseResultValues)
+    {
+        this.parseResultValues = parseResultValues;
+    }
 
 
     @Override
@@ -136,6 +166,88 @@ public class InsertResultReaderV20 extends SWERequestReader<InsertResultRequest>
 	}
     
     
+    @Override
+    public InsertResultRequest readXMLQuery(XMLStreamReader reader) throws OWSException
+    {
+        OWSExceptionReport report = new OWSExceptionReport(OWSException.VERSION_11);
+        InsertResultRequest request = new InsertResultRequest();
+        
+        // do common stuffs like version, request name and service type
+        readCommonXML(reader, request);
+        
+        try
+        {
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+            {
+                String eltName = reader.getLocalName();
+                
+                if ("extension".equals(eltName))
+                {
+                    SWESUtils.readXMLExtension(reader, request.getExtensions());
+                }
+                
+                else if ("template".equals(eltName))
+                {
+                    request.setTemplateId(reader.getElementText());
+                }
+                
+                // result values are always last
+                else if ("resultValues".equals(eltName))
+                {
+                    readResultValues(reader, request);
+                    break;
+                }
+                
+                else
+                    throw new SOSException(OWSException.invalid_param_code, eltName, null, "Unexpected element " + eltName);
+            }
+        }
+        catch (XMLStreamException e)
+        {
+            throw new SOSException(invalidXML, e);
+        }
+        catch (IOException e)
+        {
+            throw new SOSException(OWSException.invalid_param_code, "resultValues", e);
+        }
+        
+        this.checkParameters(request, report);
+        return request;
+    }
+    
+    
+    /*
+     * Wrap the XML stream so result values are parsed lazily by the request
+     * handler using structure and encoding from the result template, or parse
+     * them now with the known structure if eager parsing was requested
+     */
+    protected void readResultValues(XMLStreamReader reader, InsertResultRequest request) throws IOException
+    {
+        DataSourceXMLStream streamSrc = new DataSourceXMLStream(reader);
+        
+        // parse now only if requested and data structure and encoding are set
+        if (parseResultValues && resultStructure != null && resultEncoding != null)
+        {
+            SWEData sweData = new SWEData();
+            sweData.setElementType(resultStructure);
+            sweData.setEncoding(resultEncoding);
+            
+            // records are parsed directly from the XML stream
+            DataEncoding encoding = SWEHelper.ensureXmlCompatible(resultEncoding);
+            try (SWEInputDataStream dataStream = new SWEInputDataStream(resultStructure, encoding, streamSrc))
+            {
+                DataBlock dataBlk;
+                while ((dataBlk = dataStream.getNextDataBlock()) != null)
+                    sweData.addData(dataBlk);
+            }
+            
+            request.setResultData(sweData);
+        }
+        else
+            request.setResultDataSource(streamSrc);
+    }
+    
+    
     /**
      * Checks that InsertResult mandatory parameters are present
      * @param request
@@ -25,9 +25,18 @@
 
 package org.vast.ows.sos;
 
+import java.io.IOException;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataEncoding;
+import net.opengis.swe.v20.XMLEncoding;
 import org.vast.cdm.common.DataSource;
 import org.vast.ows.OWSRequest;
+import org.vast.swe.DataSourceDOM;
+import org.vast.swe.DataSourceXMLStream;
 import org.vast.swe.SWEData;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.SWEInputDataStream;
+import org.vast.util.Asserts;
 
 
 /**
@@ -86,4 +95,38 @@ public class InsertResultRequest extends OWSRequest
     {
         this.resultData = resultData;
     }    
+    
+    
+    /**
+     * Gets result records as a stream that is parsed lazily from the request
+     * data source, so that the handler can process records one at a time as
+     * they arrive. If result values were already parsed by the request reader,
+     * records are read from memory instead.
+     * @param structure result structure from the result template
+     * @param encoding result encoding from the result template
+     * @return stream of result records
+     * @throws IOException if result values cannot be read
+     */
+    public SWEInputDataStream getResultDataStream(DataComponent structure, DataEncoding encoding) throws IOException
+    {
+        if (resultData != null)
+            return new SWEInputDataStream(resultData);
+        
+        Asserts.checkState(resultDataSource != null, "No result values in request");
+        
+        // XML encoded values already loaded in a DOM tree are parsed from it
+        if (encoding instanceof XMLEncoding && resultDataSource instanceof DataSourceDOM)
+        {
+            SWEData sweData = new SWEData();
+            sweData.setElementType(structure);
+            sweData.setEncoding(encoding);
+            sweData.parseData(resultDataSource);
+            return new SWEInputDataStream(sweData);
+        }
+        
+        if (resultDataSource instanceof DataSourceDOM || resultDataSource instanceof DataSourceXMLStream)
+            encoding = SWEHelper.ensureXmlCompatible(encoding);
+        
+        return new SWEInputDataStream(structure, encoding, resultDataSource);
+    }
 }
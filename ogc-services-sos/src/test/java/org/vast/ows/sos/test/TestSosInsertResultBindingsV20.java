@@ -17,14 +17,20 @@ package org.vast.ows.sos.test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import javax.xml.stream.XMLStreamReader;
+import net.opengis.swe.v20.DataBlock;
 import net.opengis.swe.v20.DataRecord;
 import net.opengis.swe.v20.TextEncoding;
 import org.vast.ows.OWSUtils;
+import org.vast.ows.sos.InsertResultReaderV20;
 import org.vast.ows.sos.InsertResultRequest;
 import org.vast.ows.sos.InsertResultTemplateRequest;
 import org.vast.ows.sos.SOSUtils;
 import org.vast.ows.test.OWSTestCase;
+import org.vast.swe.SWEData;
+import org.vast.swe.SWEInputDataStream;
 import org.vast.xml.DOMHelper;
+import org.vast.xml.XMLImplFinder;
 
 
 public class TestSosInsertResultBindingsV20 extends OWSTestCase
@@ -47,6 +53,23 @@ public class TestSosInsertResultBindingsV20 extends OWSTestCase
     }
     
     
+    protected InsertResultRequest readXmlInsertResultFromStream(String path, String templatePath) throws Exception
+    {
+        InsertResultTemplateRequest template = (InsertResultTemplateRequest)readXmlRequest(templatePath);
+        
+        InsertResultReaderV20 reader = new InsertResultReaderV20();
+        reader.setSweCommonStructure(template.getResultStructure(), template.getResultEncoding());
+        reader.setParseResultValues(true);
+        
+        try (InputStream is = TestSosInsertResultBindingsV20.class.getResourceAsStream(path))
+        {
+            XMLStreamReader xmlReader = XMLImplFinder.getStaxInputFactory().createXMLStreamReader(is);
+            xmlReader.nextTag();
+            return reader.readXMLQuery(xmlReader);
+        }
+    }
+    
+    
     protected void readReadWriteCompareXmlInsertResult(String path, String templatePath) throws Exception
     {
         InsertResultTemplateRequest template = (InsertResultTemplateRequest)readXmlRequest(templatePath);
@@ -86,6 +109,60 @@ public class TestSosInsertResultBindingsV20 extends OWSTestCase
     }
     
     
+    public void testReadXmlInsertResultFromStream() throws Exception
+    {
+        String path = "examples_v20/resultHandling/InsertResult1.xml";
+        String templatePath = "examples_v20/resultHandling/InsertResultTemplate1.xml";
+        InsertResultRequest domRequest = readXmlInsertResult(path, templatePath);
+        InsertResultRequest streamRequest = readXmlInsertResultFromStream(path, templatePath);
+        assertEquals(domRequest.getTemplateId(), streamRequest.getTemplateId());
+        
+        // result values are parsed the same way as from DOM
+        SWEData domData = domRequest.getResultData();
+        SWEData streamData = streamRequest.getResultData();
+        assertEquals(domData.getNumElements(), streamData.getNumElements());
+        for (int i = 0; i < domData.getNumElements(); i++)
+        {
+            DataBlock domBlock = domData.getComponent(i).getData();
+            DataBlock streamBlock = streamData.getComponent(i).getData();
+            for (int j = 0; j < domBlock.getAtomCount(); j++)
+                assertEquals(domBlock.getStringValue(j), streamBlock.getStringValue(j));
+        }
+    }
+    
+    
+    public void testReadXmlInsertResultFromStreamLazily() throws Exception
+    {
+        String path = "examples_v20/resultHandling/InsertResult1.xml";
+        String templatePath = "examples_v20/resultHandling/InsertResultTemplate1.xml";
+        InsertResultTemplateRequest template = (InsertResultTemplateRequest)readXmlRequest(templatePath);
+        SWEData domData = readXmlInsertResult(path, templatePath).getResultData();
+        
+        try (InputStream is = TestSosInsertResultBindingsV20.class.getResourceAsStream(path))
+        {
+            XMLStreamReader xmlReader = XMLImplFinder.getStaxInputFactory().createXMLStreamReader(is);
+            xmlReader.nextTag();
+            InsertResultRequest request = new InsertResultReaderV20().readXMLQuery(xmlReader);
+            assertNull(request.getResultData());
+            assertNotNull(request.getResultDataSource());
+            
+            // result values are parsed from the request stream by the handler
+            try (SWEInputDataStream dataStream = request.getResultDataStream(template.getResultStructure(), template.getResultEncoding()))
+            {
+                int i = 0;
+                DataBlock streamBlock;
+                while ((streamBlock = dataStream.getNextDataBlock()) != null)
+                {
+                    DataBlock domBlock = domData.getComponent(i++).getData();
+                    for (int j = 0; j < domBlock.getAtomCount(); j++)
+                        assertEquals(domBlock.getStringValue(j), streamBlock.getStringValue(j));
+                }
+                assertEquals(domData.getNumElements(), i);
+            }
+        }
+    }
+    
+    
     public void testWriteXmlInsertResult() throws Exception
     {
         readReadWriteCompareXmlInsertResult("examples_v20/resultHandling/InsertResult1.xml", "examples_v20/resultHandling/InsertResultTemplate1.xml");
@@ -24,12 +24,18 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.vast.ogc.OGCRegistry;
 import org.vast.ows.OWSUtils;
 import org.vast.sensorML.SMLUtils;
 import org.vast.util.DateTimeFormat;
 import org.vast.xml.DOMHelper;
+import org.vast.xml.XMLImplFinder;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
@@ -71,6 +77,82 @@ public class SWESUtils extends OWSUtils
 	}
 	
 	
+    /**
+     * Reads a single extension from a StAX reader and converts its content to a DOM element
+     * @param reader StAX reader positioned on the start tag of the extension element
+     * (the reader is left on the end tag of the same element)
+     * @param extList map to add the extension content to
+     * @throws XMLStreamException
+     */
+    public static void readXMLExtension(XMLStreamReader reader, Map<QName, Object> extList) throws XMLStreamException
+    {
+        // skip empty extension
+        if (reader.nextTag() != XMLStreamConstants.START_ELEMENT)
+            return;
+        
+        Document doc = XMLImplFinder.getDOMImplementation().createDocument(null, null, null);
+        Element contentElt = null;
+        Element currentElt = null;
+        int depth = 0;
+        
+        do
+        {
+            switch (reader.getEventType())
+            {
+                case XMLStreamConstants.START_ELEMENT:
+                    String prefix = reader.getPrefix();
+                    String qName = (prefix == null || prefix.isEmpty()) ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+                    Element elt = doc.createElementNS(reader.getNamespaceURI(), qName);
+                    
+                    for (int i = 0; i < reader.getNamespaceCount(); i++)
+                    {
+                        String nsPrefix = reader.getNamespacePrefix(i);
+                        String attName = (nsPrefix == null || nsPrefix.isEmpty()) ? XMLConstants.XMLNS_ATTRIBUTE : XMLConstants.XMLNS_ATTRIBUTE + ":" + nsPrefix;
+                        elt.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attName, reader.getNamespaceURI(i));
+                    }
+                    
+                    for (int i = 0; i < reader.getAttributeCount(); i++)
+                    {
+                        String attPrefix = reader.getAttributePrefix(i);
+                        String attName = (attPrefix == null || attPrefix.isEmpty()) ? reader.getAttributeLocalName(i) : attPrefix + ":" + reader.getAttributeLocalName(i);
+                        elt.setAttributeNS(reader.getAttributeNamespace(i), attName, reader.getAttributeValue(i));
+                    }
+                    
+                    if (currentElt == null)
+                        contentElt = elt;
+                    else
+                        currentElt.appendChild(elt);
+                    currentElt = elt;
+                    depth++;
+                    break;
+                    
+                case XMLStreamConstants.END_ELEMENT:
+                    if (--depth > 0)
+                        currentElt = (Element)currentElt.getParentNode();
+                    break;
+                    
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    currentElt.appendChild(doc.createTextNode(reader.getText()));
+                    break;
+                    
+                default:
+            }
+            
+            if (depth > 0)
+                reader.next();
+        }
+        while (depth > 0);
+        
+        // move to extension end tag
+        reader.nextTag();
+        
+        QName extName = new QName(contentElt.getNamespaceURI(), contentElt.getLocalName());
+        extList.put(extName, contentElt);
+    }
+	
+	
 	public static void writeXMLExtensions(DOMHelper dom, Element parentElt, String prefix, String nsUri, Map<QName, Object> extObjs)
 	{
 		if (extObjs == null)
@@ -0,0 +1,260 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.process;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.vast.util.Asserts;
+import net.opengis.swe.v20.DataBlock;
+
+
+/**
+ * <p>
+ * Bounded data queue backed by a lock-free ring buffer.<br/>
+ * This queue is meant to be used with a single producer (the source process
+ * thread) and a single consumer (the destination process thread). The
+ * {@link OverflowPolicy} decides what happens when the producer publishes
+ * data while the queue is full.
+ * </p><p>
+ * Consumed slots are not cleared so the queue keeps references to at most
+ * capacity data blocks until they are overwritten.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class BoundedDataQueue extends DataQueue
+{
+    public static final int DEFAULT_CAPACITY = 64;
+
+
+    public enum OverflowPolicy
+    {
+        /** producer waits until there is room in the queue */
+        BLOCK,
+
+        /** oldest block in the queue is dropped to make room for the new one */
+        DROP_OLDEST,
+
+        /** new block is dropped */
+        DROP_NEWEST,
+
+        /** consumer only receives the most recent block, older blocks are dropped */
+        COALESCE
+    }
+
+
+    protected final OverflowPolicy policy;
+    protected final DataBlock[] buffer;
+    protected final int mask;
+
+    // head is also advanced by the producer when dropping the oldest block
+    protected final AtomicLong head = new AtomicLong();
+    protected volatile long tail;
+    protected volatile Thread waitingProducer;
+    protected volatile Thread waitingConsumer;
+    protected final AtomicLong publishedCount = new AtomicLong();
+    protected final AtomicLong droppedCount = new AtomicLong();
+
+
+    public BoundedDataQueue()
+    {
+        this(DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+
+    /**
+     * @param capacity Max number of data blocks in the queue
+     * (rounded up to the next power of 2)
+     * @param policy Behavior when data is published on a full queue
+     */
+    public BoundedDataQueue(int capacity, OverflowPolicy policy)
+    {
+        Asserts.checkArgument(capacity > 0 && capacity <= 1 << 30, "Invalid capacity");
+        this.policy = Asserts.checkNotNull(policy, "policy");
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        this.buffer = new DataBlock[size];
+        this.mask = size - 1;
+    }
+
+
+    @Override
+    public void publishData() throws InterruptedException
+    {
+        Asserts.checkState(sourceComponent.hasData(), "Source component has no data");
+        DataBlock data = sourceComponent.getData();
+        publishedCount.incrementAndGet();
+        long t = tail;
+
+        // handle full queue according to policy
+        while (t - head.get() >= buffer.length)
+        {
+            switch (policy)
+            {
+                case BLOCK:
+                    waitingProducer = Thread.currentThread();
+                    try
+                    {
+                        if (t - head.get() >= buffer.length)
+                            park();
+                    }
+                    finally
+                    {
+                        waitingProducer = null;
+                    }
+                    break;
+
+                case DROP_NEWEST:
+                    droppedCount.incrementAndGet();
+                    return;
+
+                default:
+                    // drop oldest block unless consumer took it in the meantime
+                    long h = head.get();
+                    if (t - h >= buffer.length && head.compareAndSet(h, h + 1))
+                        droppedCount.incrementAndGet();
+            }
+        }
+
+        buffer[(int)t & mask] = data;
+        tail = t + 1;
+        LockSupport.unpark(waitingConsumer);
+    }
+
+
+    @Override
+    public boolean transferData(boolean block) throws InterruptedException
+    {
+        if (log.isTraceEnabled())
+        {
+            log.trace("{}.{} -> {}.{}: size={}",
+                sourceProcess.getInstanceName(), sourceComponent.getName(),
+                destinationProcess.getInstanceName(), destinationComponent.getName(),
+                getQueueSize());
+        }
+
+        while (true)
+        {
+            long h = head.get();
+            long t = tail;
+
+            if (t == h)
+            {
+                if (!block)
+                    return false;
+
+                waitingConsumer = Thread.currentThread();
+                try
+                {
+                    if (tail == head.get())
+                        park();
+                }
+                finally
+                {
+                    waitingConsumer = null;
+                }
+                continue;
+            }
+
+            // when coalescing, skip to the most recent block
+            long next = (policy == OverflowPolicy.COALESCE) ? t - 1 : h;
+            DataBlock srcBlock = buffer[(int)next & mask];
+
+            // slots are only overwritten after head has moved past them
+            // so the block we read is valid if we're the one moving head
+            if (head.compareAndSet(h, next + 1))
+            {
+                if (next > h)
+                    droppedCount.addAndGet(next - h);
+                LockSupport.unpark(waitingProducer);
+                transferBlock(srcBlock);
+                return true;
+            }
+        }
+    }
+
+
+    protected void park() throws InterruptedException
+    {
+        LockSupport.park(this);
+        if (Thread.interrupted())
+            throw new InterruptedException();
+    }
+
+
+    @Override
+    public void clear()
+    {
+        long h;
+        do { h = head.get(); }
+        while (!head.compareAndSet(h, Math.max(h, tail)));
+        LockSupport.unpark(waitingProducer);
+    }
+
+
+    @Override
+    public boolean isDataAvailable()
+    {
+        return tail != head.get();
+    }
+
+
+    @Override
+    public int getQueueSize()
+    {
+        long h = head.get();
+        return (int)Math.max(0, tail - h);
+    }
+
+
+    /**
+     * @return Max number of data blocks in the queue
+     */
+    public int getCapacity()
+    {
+        return buffer.length;
+    }
+
+
+    /**
+     * @return Behavior of this queue when data is published while it is full
+     */
+    public OverflowPolicy getOverflowPolicy()
+    {
+        return policy;
+    }
+
+
+    /**
+     * @return Total number of data blocks published on this queue,
+     * including the ones that were later dropped
+     */
+    public long getPublishedCount()
+    {
+        return publishedCount.get();
+    }
+
+
+    /**
+     * @return Total number of data blocks dropped because of the overflow policy
+     */
+    public long getDroppedCount()
+    {
+        return droppedCount.get();
+    }
+}
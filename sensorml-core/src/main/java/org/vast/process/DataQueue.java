@@ -67,26 +67,7 @@ public class DataQueue extends DataConnection
         
         if (block || isDataAvailable())
         {
-            DataBlock srcBlock = queue.take();
-            
-            // apply unit conversion if needed
-            // TODO add support for unit conversion in queues
-            /*if (!componentConverters.isEmpty())
-            {
-                if (destBlock == null)
-                    destinationComponent.assignNewDataBlock();
-                
-                Iterator<ComponentConverter> it = componentConverters.iterator();
-                while (it.hasNext())
-                    it.next().convert();
-            }*/
-            
-            destinationComponent.setData(srcBlock);
-            
-            // update parent choice if needed
-            if (destinationChoice != null)
-                destinationChoice.setSelectedItem(destinationChoiceIdx);
-            
+            transferBlock(queue.take());
             return true;
         }
         else
@@ -94,6 +75,31 @@ public class DataQueue extends DataConnection
     }
     
     
+    /*
+     * Assigns a data block taken from the queue to the destination component
+     */
+    protected void transferBlock(DataBlock srcBlock)
+    {
+        // apply unit conversion if needed
+        // TODO add support for unit conversion in queues
+        /*if (!componentConverters.isEmpty())
+        {
+            if (destBlock == null)
+                destinationComponent.assignNewDataBlock();
+            
+            Iterator<ComponentConverter> it = componentConverters.iterator();
+            while (it.hasNext())
+                it.next().convert();
+        }*/
+        
+        destinationComponent.setData(srcBlock);
+        
+        // update parent choice if needed
+        if (destinationChoice != null)
+            destinationChoice.setSelectedItem(destinationChoiceIdx);
+    }
+    
+    
 	@Override
     public synchronized void clear()
     {
@@ -22,12 +22,15 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.vast.data.AbstractRecordImpl;
 import org.vast.swe.SWEHelper;
+import org.vast.util.Asserts;
 import net.opengis.swe.v20.DataComponent;
 
 
@@ -39,6 +42,16 @@ import net.opengis.swe.v20.DataComponent;
  * execution capability, but this will only work if all components
  * of the aggregate also have an executable implementation associated
  * to them.
+ * </p><p>
+ * Child processes can be executed in three different ways:
+ * <ul>
+ * <li>sequentially in the calling thread, in dependency order (default)</li>
+ * <li>in parallel on an executor, running independent branches of the
+ * chain concurrently during each call to {@link #execute()}
+ * (see {@link #setUseParallelExec(boolean)})</li>
+ * <li>each in its own thread, exchanging data through queues
+ * (see {@link #setUseChildrenThreads(boolean)})</li>
+ * </ul>
  * </p>
  *
  * @author Alex Robin
@@ -60,6 +73,9 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
     protected boolean needSync;
     protected boolean childrenThreadsStarted = false;
     protected ExecutorService threadPool;
+    protected boolean useParallelExec = false;
+    protected Executor parallelExecutor = ForkJoinPool.commonPool();
+    protected ProcessExecGraph processExecGraph;
     
     
     public ExecutableChainImpl()
@@ -90,6 +106,8 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
         
         process.setParentLogger(getLogger());
         process.setInstanceName(name);
+        if (metricsListener != null)
+            process.setMetricsListener(metricsListener);
         
         processTable.put(name, process);
         return process;
@@ -159,8 +177,14 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
     public IDataConnection connect(IProcessExec srcProcess, DataComponent srcComponent,
                         IProcessExec destProcess, DataComponent destComponent) throws ProcessException
     {
-        IDataConnection conn = useChildrenThreads ? new DataQueue() : new DataConnection();
-                
+        return connect(srcProcess, srcComponent, destProcess, destComponent, createConnection());
+    }
+    
+    
+    @Override
+    public IDataConnection connect(IProcessExec srcProcess, DataComponent srcComponent,
+                        IProcessExec destProcess, DataComponent destComponent, IDataConnection conn) throws ProcessException
+    {
         // connect source
         if (srcProcess == this)
             connectInternal(srcComponent, conn);
@@ -177,6 +201,15 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
     }
     
     
+    /*
+     * Creates the default connection used between child processes
+     */
+    protected IDataConnection createConnection()
+    {
+        return useChildrenThreads ? new DataQueue() : new DataConnection();
+    }
+    
+    
     /*
      * Connects one of the process chain ports with an internal connection
      */
@@ -254,6 +287,17 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
                     if (childProcess.needSync())
                         this.needSync = true;
                 }
+                
+                // build dependency graph for parallel execution
+                processExecGraph = null;
+                if (useParallelExec)
+                {
+                    var graph = new ProcessExecGraph(processExecList, this);
+                    if (graph.isAcyclic())
+                        processExecGraph = graph;
+                    else
+                        getLogger().warn("Process chain has feedback loops. Falling back to sequential execution");
+                }
             }
             else
             {
@@ -339,6 +383,9 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
     @Override
     public void execute() throws ProcessException
     {
+        var metricsListener = this.metricsListener;
+        long t0 = metricsListener != null ? System.nanoTime() : 0L;
+        
         try
         {
             // combine input blocks
@@ -366,14 +413,21 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
                             moreToRun = false;
                             
                             // execute all child processes if they can run
-                            for (IProcessExec childProcess: processExecList)
+                            if (processExecGraph != null)
                             {
-                                // continue only if process can run
-                                if (childProcess.canRun())
+                                moreToRun = processExecGraph.run(parallelExecutor, true, getLogger());
+                            }
+                            else
+                            {
+                                for (IProcessExec childProcess: processExecList)
                                 {
-                                    getLogger().debug("Running process '{}'", childProcess.getInstanceName());
-                                    childProcess.run();
-                                    moreToRun = true;
+                                    // continue only if process can run
+                                    if (childProcess.canRun())
+                                    {
+                                        getLogger().debug("Running process '{}'", childProcess.getInstanceName());
+                                        childProcess.run();
+                                        moreToRun = true;
+                                    }
                                 }
                             }
                         }
@@ -384,6 +438,10 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
                         setNeededInputs(inputConnections, internalInputConnections);
                         setNeededInputs(paramConnections, internalParamConnections);
                     }
+                    else if (processExecGraph != null)
+                    {
+                        processExecGraph.run(parallelExecutor, false, getLogger());
+                    }
                     else
                     {
                         for (IProcessExec childProcess: processExecList)
@@ -400,6 +458,9 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
             //transferOutputData();
             consumeData(internalOutputConnections, true);
             combineOutputBlocks();
+            
+            if (metricsListener != null)
+                metricsListener.onExecute(this, System.nanoTime() - t0);
         }  
         catch (InterruptedException e)
         {
@@ -595,6 +656,45 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
         this.useChildrenThreads = useThreads;
     }
     
+    
+    public boolean isUseParallelExec()
+    {
+        return useParallelExec;
+    }
+    
+    
+    /**
+     * Enables parallel execution of child processes.<br/>
+     * When enabled, a dependency graph is built from the internal connections
+     * when the chain is initialized, and independent branches of the chain
+     * are run concurrently on the parallel executor each time the chain is
+     * executed. This mode is ignored if children threads are used, and the
+     * chain falls back to sequential execution if it contains feedback loops.
+     * This must be called before {@link #init()}.
+     * @param parallel True to enable parallel execution, false otherwise
+     */
+    public void setUseParallelExec(boolean parallel)
+    {
+        this.useParallelExec = parallel;
+    }
+    
+    
+    public Executor getParallelExecutor()
+    {
+        return parallelExecutor;
+    }
+    
+    
+    /**
+     * Sets the executor used to run child processes when parallel execution
+     * is enabled. The common fork/join pool is used by default.
+     * @param executor Executor to use
+     */
+    public void setParallelExecutor(Executor executor)
+    {
+        this.parallelExecutor = Asserts.checkNotNull(executor, Executor.class);
+    }
+    
 
     @Override
     public boolean needSync()
@@ -640,4 +740,25 @@ public class ExecutableChainImpl extends ExecutableProcessImpl implements IProce
         for (IProcessExec child: processTable.values())
             child.setParentLogger(getLogger());
     }
+
+
+    /*
+     * Execution time is already reported by execute() since it is also
+     * called directly when the chain is not itself part of a chain
+     */
+    @Override
+    protected void executeWithMetrics() throws ProcessException
+    {
+        execute();
+    }
+
+
+    @Override
+    public void setMetricsListener(IProcessMetricsListener listener)
+    {
+        super.setMetricsListener(listener);
+        
+        for (IProcessExec child: processTable.values())
+            child.setMetricsListener(listener);
+    }
 }
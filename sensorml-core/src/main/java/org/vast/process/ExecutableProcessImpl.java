@@ -59,6 +59,7 @@ public abstract class ExecutableProcessImpl implements IProcessExec
     protected volatile boolean started = false;
     protected boolean usingOutputQueues = false;
     protected Future<?> execFuture;
+    protected volatile IProcessMetricsListener metricsListener;
 
     
     protected ExecutableProcessImpl(ProcessInfo processInfo)
@@ -178,7 +179,7 @@ public abstract class ExecutableProcessImpl implements IProcessExec
             // fetch inputs, execute process and publish outputs
             consumeInputData();
             consumeParamData();
-            execute();
+            executeWithMetrics();
             if (!Thread.currentThread().isInterrupted())
                 publishData();
         }
@@ -194,6 +195,24 @@ public abstract class ExecutableProcessImpl implements IProcessExec
     }
     
     
+    /*
+     * Execute process and report execution time to metrics listener, if any
+     */
+    protected void executeWithMetrics() throws ProcessException
+    {
+        var metricsListener = this.metricsListener;
+        if (metricsListener == null)
+        {
+            execute();
+            return;
+        }
+        
+        long t0 = System.nanoTime();
+        execute();
+        metricsListener.onExecute(this, System.nanoTime() - t0);
+    }
+    
+    
     @Override
     public void start(Consumer<Throwable> onError) throws ProcessException
     {
@@ -285,8 +304,23 @@ public abstract class ExecutableProcessImpl implements IProcessExec
             if (connectionList.isNeeded())
             {
                 // loop through all connections
+                var metricsListener = this.metricsListener;
                 for (IDataConnection connection: connectionList)
-                    connection.transferData(block);
+                {
+                    if (metricsListener == null)
+                    {
+                        connection.transferData(block);
+                    }
+                    else
+                    {
+                        int queueSize = (connection instanceof DataQueue) ?
+                            ((DataQueue)connection).getQueueSize() :
+                            (connection.isDataAvailable() ? 1 : 0);
+                        long t0 = System.nanoTime();
+                        connection.transferData(block);
+                        metricsListener.onInputWait(this, connection, System.nanoTime() - t0, queueSize);
+                    }
+                }
             }
         }
     }
@@ -471,6 +505,13 @@ public abstract class ExecutableProcessImpl implements IProcessExec
     }
     
     
+    @Override
+    public void setMetricsListener(IProcessMetricsListener listener)
+    {
+        this.metricsListener = listener;
+    }
+    
+    
     @Override
     public void setInstanceName(String name)
     {
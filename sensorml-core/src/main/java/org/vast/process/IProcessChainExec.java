@@ -57,6 +57,25 @@ public interface IProcessChainExec extends IProcessExec
     public IDataConnection connect(IProcessExec srcProcess, DataComponent srcComponent,
                                    IProcessExec destProcess, DataComponent destComponent) throws ProcessException;
 
+    
+    /**
+     * Create connection between ports of two child processes, using the
+     * provided connection object.<br/>
+     * This allows selecting the connection type on a per connection basis
+     * (e.g. a {@link BoundedDataQueue} with a specific overflow policy when
+     * child processes run in separate threads)
+     * @param srcProcess
+     * @param srcComponent
+     * @param destProcess
+     * @param destComponent
+     * @param conn Connection object to use (must not be connected yet)
+     * @return the connection object
+     * @throws ProcessException
+     */
+    public IDataConnection connect(IProcessExec srcProcess, DataComponent srcComponent,
+                                   IProcessExec destProcess, DataComponent destComponent,
+                                   IDataConnection conn) throws ProcessException;
+
 
     /**
      * Completely remove an internal connection between two child processes
@@ -180,5 +180,16 @@ public interface IProcessExec
      * @param log
      */
     public void setParentLogger(Logger log);
+    
+    
+    /**
+     * Set the listener receiving execution metrics from this process.<br/>
+     * Process chains also forward the listener to all their child processes.
+     * The default implementation doesn't collect any metrics.
+     * @param listener Metrics listener or null to disable metrics collection
+     */
+    public default void setMetricsListener(IProcessMetricsListener listener)
+    {
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.process;
+
+
+/**
+ * <p>
+ * Interface for listeners receiving execution metrics from processes.<br/>
+ * Callbacks are invoked synchronously from the thread running the process
+ * so implementations must be thread-safe and return quickly.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public interface IProcessMetricsListener
+{
+
+    /**
+     * Called each time a process has been executed
+     * @param process Process that was executed
+     * @param execTimeNanos Execution time, in nanoseconds
+     */
+    public void onExecute(IProcessExec process, long execTimeNanos);
+
+
+    /**
+     * Called each time a process has fetched data from one of its
+     * input or parameter connections
+     * @param process Process that fetched the data
+     * @param connection Connection the data was fetched from
+     * @param waitTimeNanos Time spent waiting for data, in nanoseconds
+     * @param queueSize Number of data blocks that were in the connection
+     * queue before the data was fetched
+     */
+    public void onInputWait(IProcessExec process, IDataConnection connection, long waitTimeNanos, int queueSize);
+}
@@ -0,0 +1,134 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.process;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vast.util.Asserts;
+
+
+/**
+ * <p>
+ * Metrics collector that also registers the metrics of each process as
+ * an MXBean so they can be monitored with any JMX client.<br/>
+ * MXBeans are registered with names of the form
+ * {@code <domain>:type=ProcessMetrics,name=<instance name>}.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class JmxProcessMetricsCollector extends ProcessMetricsCollector
+{
+    static final Logger log = LoggerFactory.getLogger(JmxProcessMetricsCollector.class);
+    public static final String DEFAULT_DOMAIN = "org.vast.process";
+
+    protected final MBeanServer mbeanServer;
+    protected final String domain;
+    protected final Map<IProcessExec, ObjectName> objectNames = new ConcurrentHashMap<>();
+
+
+    public JmxProcessMetricsCollector()
+    {
+        this(ManagementFactory.getPlatformMBeanServer(), DEFAULT_DOMAIN);
+    }
+
+
+    /**
+     * @param mbeanServer MBean server to register MXBeans with
+     * @param domain Domain of registered MXBean names
+     */
+    public JmxProcessMetricsCollector(MBeanServer mbeanServer, String domain)
+    {
+        this.mbeanServer = Asserts.checkNotNull(mbeanServer, MBeanServer.class);
+        this.domain = Asserts.checkNotNullOrEmpty(domain, "domain");
+    }
+
+
+    @Override
+    protected ProcessMetrics createMetrics(IProcessExec process)
+    {
+        var metrics = super.createMetrics(process);
+
+        try
+        {
+            // add suffix if another process with same name is registered
+            // retry on conflict since the name can be taken concurrently
+            String quotedName = ObjectName.quote(metrics.getProcessName());
+            var objName = new ObjectName(domain + ":type=ProcessMetrics,name=" + quotedName);
+            for (int i = 2; ; i++)
+            {
+                try
+                {
+                    mbeanServer.registerMBean(metrics, objName);
+                    break;
+                }
+                catch (InstanceAlreadyExistsException e)
+                {
+                    objName = new ObjectName(domain + ":type=ProcessMetrics,name=" + quotedName + ",index=" + i);
+                }
+            }
+
+            objectNames.put(process, objName);
+        }
+        catch (JMException e)
+        {
+            log.error("Cannot register metrics MXBean for process '{}'", metrics.getProcessName(), e);
+        }
+
+        return metrics;
+    }
+
+
+    /**
+     * @param process
+     * @return Name of the MXBean registered for the given process or null
+     * if none was registered yet
+     */
+    public ObjectName getObjectName(IProcessExec process)
+    {
+        return objectNames.get(process);
+    }
+
+
+    /**
+     * Unregisters all MXBeans and clears metrics of all processes
+     */
+    @Override
+    public void clear()
+    {
+        for (var objName: objectNames.values())
+        {
+            try
+            {
+                mbeanServer.unregisterMBean(objName);
+            }
+            catch (JMException e)
+            {
+                log.warn("Cannot unregister MXBean {}", objName, e);
+            }
+        }
+
+        objectNames.clear();
+        super.clear();
+    }
+}
@@ -0,0 +1,297 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.process;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.vast.util.Asserts;
+
+
+/**
+ * <p>
+ * Dependency graph of the child processes of a chain, used to run
+ * independent branches of the chain in parallel.<br/>
+ * An edge is created from process A to process B whenever one of B's
+ * inputs or parameters is connected to one of A's outputs. During each
+ * pass, a process is only started once all its upstream processes have
+ * completed, so the data published on its connections is always visible
+ * to it.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+class ProcessExecGraph
+{
+    final IProcessExec[] processes;
+    final int[][] successors;
+    final int[] numPredecessors;
+    final int[] roots;
+    final boolean acyclic;
+
+
+    /**
+     * Builds the graph of the given processes
+     * @param processExecList Child processes, sorted in execution order
+     * @param chain Parent chain (connections from the chain itself are ignored)
+     */
+    ProcessExecGraph(List<IProcessExec> processExecList, IProcessExec chain)
+    {
+        int numProcesses = processExecList.size();
+        this.processes = processExecList.toArray(new IProcessExec[numProcesses]);
+        this.numPredecessors = new int[numProcesses];
+        this.successors = new int[numProcesses][];
+
+        List<Set<Integer>> successorSets = new ArrayList<>(numProcesses);
+        for (int i = 0; i < numProcesses; i++)
+            successorSets.add(new LinkedHashSet<>());
+
+        for (int i = 0; i < numProcesses; i++)
+        {
+            Set<Integer> predecessors = new LinkedHashSet<>();
+            addPredecessors(processes[i].getInputConnections().values(), processExecList, chain, predecessors);
+            addPredecessors(processes[i].getParamConnections().values(), processExecList, chain, predecessors);
+
+            numPredecessors[i] = predecessors.size();
+            for (int p: predecessors)
+                successorSets.get(p).add(i);
+        }
+
+        int numRoots = 0;
+        for (int i = 0; i < numProcesses; i++)
+        {
+            successors[i] = successorSets.get(i).stream().mapToInt(Integer::intValue).toArray();
+            if (numPredecessors[i] == 0)
+                numRoots++;
+        }
+
+        this.roots = new int[numRoots];
+        for (int i = 0, r = 0; i < numProcesses; i++)
+        {
+            if (numPredecessors[i] == 0)
+                roots[r++] = i;
+        }
+
+        this.acyclic = checkAcyclic();
+    }
+
+
+    /*
+     * Check that all processes can be reached from the roots
+     * (i.e. there is no feedback loop in the chain)
+     */
+    private boolean checkAcyclic()
+    {
+        int[] pending = numPredecessors.clone();
+        int[] stack = new int[processes.length];
+        int stackSize = 0, numVisited = 0;
+
+        for (int r: roots)
+            stack[stackSize++] = r;
+
+        while (stackSize > 0)
+        {
+            int index = stack[--stackSize];
+            numVisited++;
+            for (int s: successors[index])
+            {
+                if (--pending[s] == 0)
+                    stack[stackSize++] = s;
+            }
+        }
+
+        return numVisited == processes.length;
+    }
+
+
+    /**
+     * @return True if the graph has no cycle and can be run in parallel
+     */
+    boolean isAcyclic()
+    {
+        return acyclic;
+    }
+
+
+    private void addPredecessors(Collection<DataConnectionList> connectionGroup, List<IProcessExec> processExecList, IProcessExec chain, Set<Integer> predecessors)
+    {
+        for (DataConnectionList connectionList: connectionGroup)
+        {
+            for (IDataConnection connection: connectionList)
+            {
+                IProcessExec upStreamProcess = connection.getSourceProcess();
+                if (upStreamProcess != chain)
+                {
+                    int index = processExecList.indexOf(upStreamProcess);
+                    if (index >= 0)
+                        predecessors.add(index);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Runs all processes once, in dependency order, and waits until they complete.
+     * @param executor Executor used to run independent processes concurrently
+     * @param checkCanRun If true, each process is only run if its
+     * {@link IProcessExec#canRun()} method returns true once all its upstream
+     * processes have completed
+     * @param log Logger to use
+     * @return True if at least one process was run
+     * @throws ProcessException if one of the processes failed
+     * @throws InterruptedException if interrupted while waiting for completion
+     */
+    boolean run(Executor executor, boolean checkCanRun, Logger log) throws ProcessException, InterruptedException
+    {
+        Asserts.checkState(acyclic, "Cannot run process graph with cycles");
+        if (processes.length == 0)
+            return false;
+
+        var pass = new ExecPass(executor, checkCanRun, log);
+
+        // first root is run in the calling thread
+        for (int r = 1; r < roots.length; r++)
+            pass.schedule(roots[r]);
+        pass.runFrom(roots[0]);
+
+        ForkJoinPool.managedBlock(pass);
+
+        Throwable error = pass.error.get();
+        if (error instanceof ProcessException)
+            throw (ProcessException)error;
+        else if (error instanceof RuntimeException)
+            throw (RuntimeException)error;
+        else if (error instanceof Error)
+            throw (Error)error;
+        else if (error != null)
+            throw new ProcessException("Error while running child process", error);
+
+        return pass.processRan;
+    }
+
+
+    /*
+     * State of a single execution of the graph
+     */
+    private class ExecPass implements ForkJoinPool.ManagedBlocker
+    {
+        final Executor executor;
+        final boolean checkCanRun;
+        final Logger log;
+        final AtomicIntegerArray pendingPredecessors;
+        final CountDownLatch done;
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        volatile boolean processRan;
+
+
+        ExecPass(Executor executor, boolean checkCanRun, Logger log)
+        {
+            this.executor = executor;
+            this.checkCanRun = checkCanRun;
+            this.log = log;
+            this.pendingPredecessors = new AtomicIntegerArray(numPredecessors);
+            this.done = new CountDownLatch(processes.length);
+        }
+
+
+        void schedule(int index)
+        {
+            try
+            {
+                executor.execute(() -> runFrom(index));
+            }
+            catch (RuntimeException e)
+            {
+                // run in current thread if executor rejected the task
+                runFrom(index);
+            }
+        }
+
+
+        /*
+         * Runs the process at the given index, then schedules successors
+         * that are ready and keeps running the first one in the same thread
+         */
+        void runFrom(int index)
+        {
+            while (index >= 0)
+            {
+                runProcess(processes[index]);
+
+                int next = -1;
+                for (int s: successors[index])
+                {
+                    if (pendingPredecessors.decrementAndGet(s) == 0)
+                    {
+                        if (next < 0)
+                            next = s;
+                        else
+                            schedule(s);
+                    }
+                }
+
+                done.countDown();
+                index = next;
+            }
+        }
+
+
+        void runProcess(IProcessExec process)
+        {
+            // skip remaining processes as soon as one has failed
+            if (error.get() != null)
+                return;
+
+            try
+            {
+                if (!checkCanRun || process.canRun())
+                {
+                    log.debug("Running process '{}'", process.getInstanceName());
+                    process.run();
+                    processRan = true;
+                }
+            }
+            catch (Throwable e)
+            {
+                error.compareAndSet(null, e);
+            }
+        }
+
+
+        @Override
+        public boolean block() throws InterruptedException
+        {
+            done.await();
+            return true;
+        }
+
+
+        @Override
+        public boolean isReleasable()
+        {
+            return done.getCount() == 0;
+        }
+    }
+}
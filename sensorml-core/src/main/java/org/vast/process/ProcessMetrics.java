@@ -0,0 +1,275 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.process;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.vast.util.Asserts;
+
+
+/**
+ * <p>
+ * Execution metrics of a single process instance.<br/>
+ * Execution times are recorded in a log-linear histogram with 4 sub-buckets
+ * per power of 2, so percentiles are computed with a relative error of at
+ * most 25% without storing individual samples. All methods are thread-safe.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class ProcessMetrics implements ProcessMetricsMXBean
+{
+    static final int SUB_BUCKET_BITS = 2;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int NUM_BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    protected final String processName;
+    protected final LongAdder invocationCount = new LongAdder();
+    protected final LongAdder totalExecTime = new LongAdder();
+    protected final LongAccumulator maxExecTime = new LongAccumulator(Math::max, 0);
+    protected final AtomicLongArray execTimeHistogram = new AtomicLongArray(NUM_BUCKETS);
+    protected final LongAdder inputWaitCount = new LongAdder();
+    protected final LongAdder totalInputWaitTime = new LongAdder();
+    protected final LongAccumulator maxQueueSize = new LongAccumulator(Math::max, 0);
+    protected volatile int lastQueueSize;
+
+
+    public ProcessMetrics(String processName)
+    {
+        this.processName = processName;
+    }
+
+
+    /**
+     * Records one execution of the process
+     * @param execTimeNanos Execution time, in nanoseconds
+     */
+    public void recordExecution(long execTimeNanos)
+    {
+        long t = Math.max(0, execTimeNanos);
+        invocationCount.increment();
+        totalExecTime.add(t);
+        maxExecTime.accumulate(t);
+        execTimeHistogram.incrementAndGet(getBucketIndex(t));
+    }
+
+
+    /**
+     * Records the time spent waiting for input data
+     * @param waitTimeNanos Wait time, in nanoseconds
+     * @param queueSize Size of the input queue before data was fetched
+     */
+    public void recordInputWait(long waitTimeNanos, int queueSize)
+    {
+        inputWaitCount.increment();
+        totalInputWaitTime.add(Math.max(0, waitTimeNanos));
+        maxQueueSize.accumulate(queueSize);
+        lastQueueSize = queueSize;
+    }
+
+
+    static int getBucketIndex(long value)
+    {
+        if (value < SUB_BUCKETS)
+            return (int)value;
+
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int)(value >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exp - SUB_BUCKET_BITS) * SUB_BUCKETS + sub;
+    }
+
+
+    static long getBucketUpperBound(int index)
+    {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        int exp = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long sub = SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((sub + 1) << exp) - 1;
+    }
+
+
+    /**
+     * @return Name of the process instance these metrics are collected for
+     */
+    @Override
+    public String getProcessName()
+    {
+        return processName;
+    }
+
+
+    /**
+     * @return Number of times the process was executed
+     */
+    @Override
+    public long getInvocationCount()
+    {
+        return invocationCount.sum();
+    }
+
+
+    /**
+     * @return Total execution time, in nanoseconds
+     */
+    @Override
+    public long getTotalExecTime()
+    {
+        return totalExecTime.sum();
+    }
+
+
+    /**
+     * @return Mean execution time, in nanoseconds
+     */
+    @Override
+    public double getMeanExecTime()
+    {
+        long count = invocationCount.sum();
+        return count > 0 ? (double)totalExecTime.sum() / count : 0.0;
+    }
+
+
+    /**
+     * @return Max execution time, in nanoseconds
+     */
+    @Override
+    public long getMaxExecTime()
+    {
+        return maxExecTime.get();
+    }
+
+
+    /**
+     * Computes a percentile of the execution time distribution
+     * @param percentile Percentile between 0 and 100
+     * @return Upper bound of the execution time percentile, in nanoseconds
+     */
+    public long getExecTimePercentile(double percentile)
+    {
+        Asserts.checkArgument(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100");
+
+        long[] counts = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++)
+            total += counts[i] = execTimeHistogram.get(i);
+
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long)Math.ceil(percentile / 100.0 * total));
+        long cumul = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++)
+        {
+            cumul += counts[i];
+            if (cumul >= rank)
+                return Math.min(getBucketUpperBound(i), getMaxExecTime());
+        }
+
+        return getMaxExecTime();
+    }
+
+
+    @Override
+    public long getExecTimeP50()
+    {
+        return getExecTimePercentile(50);
+    }
+
+
+    @Override
+    public long getExecTimeP95()
+    {
+        return getExecTimePercentile(95);
+    }
+
+
+    @Override
+    public long getExecTimeP99()
+    {
+        return getExecTimePercentile(99);
+    }
+
+
+    /**
+     * @return Number of times input data was fetched
+     */
+    @Override
+    public long getInputWaitCount()
+    {
+        return inputWaitCount.sum();
+    }
+
+
+    /**
+     * @return Total time spent waiting for input data, in nanoseconds
+     */
+    @Override
+    public long getTotalInputWaitTime()
+    {
+        return totalInputWaitTime.sum();
+    }
+
+
+    /**
+     * @return Size of the input queue the last time data was fetched
+     */
+    @Override
+    public int getLastQueueSize()
+    {
+        return lastQueueSize;
+    }
+
+
+    /**
+     * @return Max size of input queues observed when fetching data
+     */
+    @Override
+    public int getMaxQueueSize()
+    {
+        return (int)maxQueueSize.get();
+    }
+
+
+    /**
+     * Resets all metrics to zero
+     */
+    @Override
+    public void reset()
+    {
+        invocationCount.reset();
+        totalExecTime.reset();
+        maxExecTime.reset();
+        for (int i = 0; i < NUM_BUCKETS; i++)
+            execTimeHistogram.set(i, 0);
+        inputWaitCount.reset();
+        totalInputWaitTime.reset();
+        maxQueueSize.reset();
+        lastQueueSize = 0;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s: count=%d, mean=%.3fms, p50=%.3fms, p99=%.3fms, max=%.3fms, wait=%.3fms, maxQueue=%d",
+            processName, getInvocationCount(), getMeanExecTime()/1e6,
+            getExecTimePercentile(50)/1e6, getExecTimePercentile(99)/1e6, getMaxExecTime()/1e6,
+            getTotalInputWaitTime()/1e6, getMaxQueueSize());
+    }
+}
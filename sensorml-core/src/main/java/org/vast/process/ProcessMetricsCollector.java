@@ -0,0 +1,95 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.process;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * <p>
+ * Metrics listener aggregating metrics in memory for each process instance.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class ProcessMetricsCollector implements IProcessMetricsListener
+{
+    protected final Map<IProcessExec, ProcessMetrics> metricsMap = new ConcurrentHashMap<>();
+
+
+    @Override
+    public void onExecute(IProcessExec process, long execTimeNanos)
+    {
+        getOrCreateMetrics(process).recordExecution(execTimeNanos);
+    }
+
+
+    @Override
+    public void onInputWait(IProcessExec process, IDataConnection connection, long waitTimeNanos, int queueSize)
+    {
+        getOrCreateMetrics(process).recordInputWait(waitTimeNanos, queueSize);
+    }
+
+
+    protected ProcessMetrics getOrCreateMetrics(IProcessExec process)
+    {
+        var metrics = metricsMap.get(process);
+        if (metrics == null)
+            metrics = metricsMap.computeIfAbsent(process, this::createMetrics);
+        return metrics;
+    }
+
+
+    protected ProcessMetrics createMetrics(IProcessExec process)
+    {
+        String name = process.getInstanceName();
+        if (name == null)
+            name = process.getClass().getSimpleName();
+        return new ProcessMetrics(name);
+    }
+
+
+    /**
+     * @param process
+     * @return Metrics collected for the given process or null if none
+     * were collected yet
+     */
+    public ProcessMetrics getMetrics(IProcessExec process)
+    {
+        return metricsMap.get(process);
+    }
+
+
+    /**
+     * @return Metrics of all processes for which data was collected
+     */
+    public Collection<ProcessMetrics> getAllMetrics()
+    {
+        return Collections.unmodifiableCollection(metricsMap.values());
+    }
+
+
+    /**
+     * Clears metrics of all processes
+     */
+    public void clear()
+    {
+        metricsMap.clear();
+    }
+}
@@ -0,0 +1,54 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.process;
+
+
+/**
+ * <p>
+ * Management interface exposing the execution metrics of a process
+ * through JMX. All times are in nanoseconds.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public interface ProcessMetricsMXBean
+{
+    public String getProcessName();
+
+    public long getInvocationCount();
+
+    public long getTotalExecTime();
+
+    public double getMeanExecTime();
+
+    public long getMaxExecTime();
+
+    public long getExecTimeP50();
+
+    public long getExecTimeP95();
+
+    public long getExecTimeP99();
+
+    public long getInputWaitCount();
+
+    public long getTotalInputWaitTime();
+
+    public int getLastQueueSize();
+
+    public int getMaxQueueSize();
+
+    public void reset();
+}
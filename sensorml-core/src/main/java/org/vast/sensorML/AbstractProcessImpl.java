@@ -29,6 +29,7 @@ import org.vast.process.ProcessException;
 import org.vast.process.ProcessInfo;
 import org.vast.unit.Unit;
 import org.vast.util.Asserts;
+import net.opengis.OgcProperty;
 import net.opengis.gml.v32.Reference;
 import net.opengis.sensorml.v20.AbstractModes;
 import net.opengis.sensorml.v20.AbstractProcess;
@@ -57,7 +58,7 @@ import net.opengis.swe.v20.HasUom;
  * @author Alex Robin
  * @since Feb 28, 2015
  */
-public abstract class AbstractProcessImpl extends DescribedObjectImpl implements AbstractProcess, IProcessExec
+public abstract class AbstractProcessImpl extends DescribedObjectImpl implements AbstractProcess, IProcessExec, Cloneable
 {
     private static final long serialVersionUID = -6639992874400892845L;
     
@@ -399,6 +400,60 @@ public abstract class AbstractProcessImpl extends DescribedObjectImpl implements
             throw new IllegalStateException("Process '" + getName() + "' is not executable");
     }
     
+    
+    /**
+     * Creates a copy of this process description that can be made executable
+     * independently of this one.<br/>
+     * Only input, output and parameter components (including their data) and
+     * child processes are copied. Other properties such as identification,
+     * documentation or capabilities are shared with this instance and must
+     * not be modified on either instance.
+     * @return the new process instance (not executable)
+     * @throws IllegalStateException if this process is already executable
+     */
+    public AbstractProcessImpl copyForExecution()
+    {
+        Asserts.checkState(!isExecutable(), "Process '{}' is already executable", getName());
+        
+        try
+        {
+            AbstractProcessImpl newProcess = (AbstractProcessImpl)clone();
+            newProcess.inputData = copyIOList(inputData);
+            newProcess.outputData = copyIOList(outputData);
+            newProcess.paramData = copyIOList(paramData);
+            return newProcess;
+        }
+        catch (CloneNotSupportedException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    
+    protected IOPropertyList copyIOList(IOPropertyList ioList)
+    {
+        IOPropertyList newList = new IOPropertyList();
+        newList.setId(ioList.getId());
+        
+        for (OgcProperty<AbstractSWEIdentifiable> prop: ioList.getProperties())
+        {
+            // component trees are copied with the property but not their data
+            OgcProperty<AbstractSWEIdentifiable> newProp = prop.copy();
+            AbstractSWEIdentifiable ioDesc = prop.getValue();
+            if (ioDesc instanceof DataComponent)
+            {
+                if (((DataComponent)ioDesc).hasData())
+                    ((DataComponent)newProp.getValue()).setData(((DataComponent)ioDesc).getData().clone());
+            }
+            else if (ioDesc != null)
+                newProp.setValue(SMLUtils.deepClone(ioDesc));
+            
+            newList.add(newProp);
+        }
+        
+        return newList;
+    }
+    
 
     @Override
     public String toString()
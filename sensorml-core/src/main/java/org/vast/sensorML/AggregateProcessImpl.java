@@ -186,6 +186,32 @@ public class AggregateProcessImpl extends AbstractProcessImpl implements Aggrega
     }*/
 
 
+    @Override
+    public AggregateProcessImpl copyForExecution()
+    {
+        AggregateProcessImpl newProcess = (AggregateProcessImpl)super.copyForExecution();
+        
+        // copy child processes
+        // unresolved ones keep their href so they are resolved for each instance
+        newProcess.components = new OgcPropertyList<>(components.size());
+        for (OgcProperty<AbstractProcess> prop: components.getProperties())
+        {
+            OgcProperty<AbstractProcess> newProp = prop.copy();
+            AbstractProcess child = prop.getValue();
+            if (child instanceof AbstractProcessImpl && !((AbstractProcessImpl)child).isExecutable())
+                newProp.setValue(((AbstractProcessImpl)child).copyForExecution());
+            else if (child != null)
+                newProp.setValue(SMLUtils.deepClone(child));
+            newProcess.components.add(newProp);
+        }
+        
+        // links are not modified when making the chain executable
+        newProcess.connections = new ArrayList<>(connections);
+        
+        return newProcess;
+    }
+
+
     @Override
     public String toString()
     {
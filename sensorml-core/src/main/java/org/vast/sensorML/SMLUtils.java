@@ -81,6 +81,8 @@ public class SMLUtils extends XMLBindingsUtils
     public static final String V2_0 = "2.0";
     public static final String V2_1 = "2.1";
     
+    static final Cloner CLONER = new Cloner();
+    
     IProcessFactory processFactory = new ProcessLoader();
     
     
@@ -88,6 +90,7 @@ public class SMLUtils extends XMLBindingsUtils
     {
         IC = "IC";
         SENSORML = "SensorML";
+        CLONER.setDontCloneInstanceOf(HrefResolver.class);
         loadRegistry();
     }
     
@@ -318,7 +321,9 @@ public class SMLUtils extends XMLBindingsUtils
     
     
     /**
-     * Generate a new process description configured for runtime execution
+     * Generate a new process description configured for runtime execution.<br/>
+     * Only I/O components and child processes are copied, other metadata is
+     * shared with the source description (see {@link AbstractProcessImpl#copyForExecution()}).
      * @param process static, unconfigured process description (i.e. not executable)
      * @param useThreads true to use separate threads for child processes (only applicable to aggregate processes)
      * @return the new executable process instance
@@ -326,14 +331,27 @@ public class SMLUtils extends XMLBindingsUtils
      */
     public AbstractProcessImpl getExecutableInstance(AbstractProcessImpl process, boolean useThreads) throws SMLException
     {
-        Cloner cloner = new Cloner();
-        cloner.setDontCloneInstanceOf(HrefResolver.class);
-        AbstractProcessImpl newInstance = cloner.deepClone(process);
+        // executable processes are deep cloned since their implementation can hold any state
+        AbstractProcessImpl newInstance;
+        if (process.isExecutable())
+            newInstance = deepClone(process);
+        else
+            newInstance = process.copyForExecution();
+        
         makeProcessExecutable(newInstance, useThreads);
         return newInstance;
     }
     
     
+    /*
+     * Deep clones an object graph by reflection, sharing href resolvers
+     */
+    static <T> T deepClone(T obj)
+    {
+        return CLONER.deepClone(obj);
+    }
+    
+    
     /**
      * Makes a process executable by instantiating and wrapping an implementation of IProcessExec.<br/>
      * The actual implementation is found using the method or typeOf URI.
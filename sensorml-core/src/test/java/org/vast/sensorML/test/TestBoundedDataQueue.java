@@ -0,0 +1,244 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.sensorML.test;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.vast.process.BoundedDataQueue;
+import org.vast.process.BoundedDataQueue.OverflowPolicy;
+import org.vast.swe.SWEHelper;
+import net.opengis.swe.v20.DataComponent;
+
+
+public class TestBoundedDataQueue
+{
+    DataComponent src;
+    DataComponent dest;
+    
+    
+    /* exposes the waiting threads so tests can check they're cleared */
+    static class InspectableQueue extends BoundedDataQueue
+    {
+        InspectableQueue(int capacity, OverflowPolicy policy)
+        {
+            super(capacity, policy);
+        }
+        
+        Thread getWaitingProducer()
+        {
+            return waitingProducer;
+        }
+        
+        Thread getWaitingConsumer()
+        {
+            return waitingConsumer;
+        }
+    }
+    
+    
+    protected InspectableQueue createQueue(int capacity, OverflowPolicy policy)
+    {
+        SWEHelper fac = new SWEHelper();
+        src = fac.createQuantity().build();
+        dest = fac.createQuantity().build();
+        
+        InspectableQueue queue = new InspectableQueue(capacity, policy);
+        queue.setSource(null, src);
+        queue.setDestination(null, dest);
+        return queue;
+    }
+    
+    
+    protected void publish(BoundedDataQueue queue, double... values) throws InterruptedException
+    {
+        for (double val: values)
+        {
+            src.setData(src.createDataBlock());
+            src.getData().setDoubleValue(val);
+            queue.publishData();
+        }
+    }
+    
+    
+    protected List<Double> drain(BoundedDataQueue queue) throws InterruptedException
+    {
+        List<Double> values = new ArrayList<>();
+        while (queue.transferData(false))
+            values.add(dest.getData().getDoubleValue());
+        return values;
+    }
+    
+    
+    @Test
+    public void testCapacityRoundedToPowerOfTwo()
+    {
+        assertEquals(1, createQueue(1, OverflowPolicy.BLOCK).getCapacity());
+        assertEquals(8, createQueue(5, OverflowPolicy.BLOCK).getCapacity());
+        assertEquals(16, createQueue(16, OverflowPolicy.BLOCK).getCapacity());
+    }
+    
+    
+    @Test
+    public void testDropNewest() throws Exception
+    {
+        BoundedDataQueue queue = createQueue(4, OverflowPolicy.DROP_NEWEST);
+        publish(queue, 1, 2, 3, 4, 5, 6);
+        assertEquals(4, queue.getQueueSize());
+        assertEquals(List.of(1., 2., 3., 4.), drain(queue));
+        assertEquals(6, queue.getPublishedCount());
+        assertEquals(2, queue.getDroppedCount());
+        assertFalse(queue.isDataAvailable());
+    }
+    
+    
+    @Test
+    public void testDropOldest() throws Exception
+    {
+        BoundedDataQueue queue = createQueue(4, OverflowPolicy.DROP_OLDEST);
+        publish(queue, 1, 2, 3, 4, 5, 6);
+        assertEquals(4, queue.getQueueSize());
+        assertEquals(List.of(3., 4., 5., 6.), drain(queue));
+        assertEquals(2, queue.getDroppedCount());
+    }
+    
+    
+    @Test
+    public void testCoalesce() throws Exception
+    {
+        BoundedDataQueue queue = createQueue(4, OverflowPolicy.COALESCE);
+        publish(queue, 1, 2, 3);
+        assertEquals(List.of(3.), drain(queue));
+        assertEquals(2, queue.getDroppedCount());
+        
+        publish(queue, 4, 5, 6, 7, 8, 9);
+        assertEquals(List.of(9.), drain(queue));
+        assertEquals(7, queue.getDroppedCount());
+        assertEquals(0, queue.getQueueSize());
+    }
+    
+    
+    @Test
+    public void testClear() throws Exception
+    {
+        BoundedDataQueue queue = createQueue(4, OverflowPolicy.BLOCK);
+        publish(queue, 1, 2, 3);
+        queue.clear();
+        assertFalse(queue.isDataAvailable());
+        publish(queue, 4);
+        assertEquals(List.of(4.), drain(queue));
+    }
+    
+    
+    @Test
+    public void testBlockingProducerConsumer() throws Exception
+    {
+        BoundedDataQueue queue = createQueue(8, OverflowPolicy.BLOCK);
+        int numValues = 100000;
+        
+        // consumer thread
+        List<Double> received = new ArrayList<>(numValues);
+        Thread consumer = new Thread(() -> {
+            try
+            {
+                for (int i = 0; i < numValues; i++)
+                {
+                    queue.transferData(true);
+                    received.add(dest.getData().getDoubleValue());
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        
+        // publish from this thread
+        for (int i = 0; i < numValues; i++)
+            publish(queue, i);
+        
+        consumer.join(10000);
+        assertFalse("Consumer didn't receive all values", consumer.isAlive());
+        assertEquals(numValues, received.size());
+        for (int i = 0; i < numValues; i++)
+            assertEquals(i, received.get(i), 0.0);
+        assertEquals(0, queue.getDroppedCount());
+    }
+    
+    
+    protected void waitUntilParked(Thread t) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (t.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline)
+            Thread.sleep(1);
+        assertEquals(Thread.State.WAITING, t.getState());
+    }
+    
+    
+    @Test
+    public void testInterruptedConsumerIsCleared() throws Exception
+    {
+        InspectableQueue queue = createQueue(4, OverflowPolicy.BLOCK);
+        
+        Thread consumer = new Thread(() -> {
+            try
+            {
+                queue.transferData(true);
+            }
+            catch (InterruptedException e)
+            {
+                // expected
+            }
+        });
+        consumer.start();
+        waitUntilParked(consumer);
+        assertSame(consumer, queue.getWaitingConsumer());
+        
+        consumer.interrupt();
+        consumer.join(10000);
+        assertFalse(consumer.isAlive());
+        assertNull(queue.getWaitingConsumer());
+    }
+    
+    
+    @Test
+    public void testInterruptedProducerIsCleared() throws Exception
+    {
+        InspectableQueue queue = createQueue(2, OverflowPolicy.BLOCK);
+        publish(queue, 1, 2);
+        
+        Thread producer = new Thread(() -> {
+            try
+            {
+                publish(queue, 3);
+            }
+            catch (InterruptedException e)
+            {
+                // expected
+            }
+        });
+        producer.start();
+        waitUntilParked(producer);
+        assertSame(producer, queue.getWaitingProducer());
+        
+        producer.interrupt();
+        producer.join(10000);
+        assertFalse(producer.isAlive());
+        assertNull(queue.getWaitingProducer());
+        assertEquals(List.of(1., 2.), drain(queue));
+    }
+}
@@ -0,0 +1,149 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.sensorML.test;
+
+import static org.junit.Assert.*;
+import java.lang.management.ManagementFactory;
+import org.junit.Test;
+import org.vast.process.ExecutableChainImpl;
+import org.vast.process.IProcessExec;
+import org.vast.process.JmxProcessMetricsCollector;
+import org.vast.process.ProcessMetrics;
+import org.vast.process.ProcessMetricsCollector;
+import org.vast.swe.SWEHelper;
+
+
+public class TestProcessMetrics
+{
+
+    protected ExecutableChainImpl createChain(boolean useThreads) throws Exception
+    {
+        SWEHelper fac = new SWEHelper();
+
+        ExecutableChainImpl chain = new ExecutableChainImpl(useThreads);
+        chain.setInstanceName("chain");
+        chain.getInputList().add("in", fac.newQuantity());
+        chain.getOutputList().add("out", fac.newQuantity());
+
+        IProcessExec p0 = chain.addProcess("affine", new AffineTransform1D_Process());
+        IProcessExec p1 = chain.addProcess("clip", new Clip_Process());
+
+        chain.connect(chain, chain.getInputList().getComponent("in"), p0, p0.getInputList().getComponent("x"));
+        chain.connect(p0, p0.getOutputList().getComponent("y"), p1, p1.getInputList().getComponent("valueIn"));
+        chain.connect(p1, p1.getOutputList().getComponent("passValue"), chain, chain.getOutputList().getComponent("out"));
+
+        chain.init();
+        p0.getParameterList().getComponent("slope").getData().setDoubleValue(2.0);
+        p0.getParameterList().getComponent("intercept").getData().setDoubleValue(3.0);
+        return chain;
+    }
+
+
+    protected void execute(ExecutableChainImpl chain, int numRuns) throws Exception
+    {
+        for (int i=0; i<numRuns; i++)
+        {
+            chain.getInputList().getComponent("in").getData().setDoubleValue(i);
+            chain.execute();
+            double output = chain.getOutputList().getComponent("out").getData().getDoubleValue();
+            assertEquals("Invalid output", i*2.0+3.0, output, 1e-10);
+        }
+    }
+
+
+    @Test
+    public void testPercentiles()
+    {
+        var metrics = new ProcessMetrics("test");
+        for (int i = 1; i <= 1000; i++)
+            metrics.recordExecution(i * 1000L);
+
+        assertEquals(1000, metrics.getInvocationCount());
+        assertEquals(1000000L, metrics.getMaxExecTime());
+        assertEquals(500500.0, metrics.getMeanExecTime(), 1e-6);
+
+        // percentiles are accurate within 25%
+        assertEquals(500000.0, metrics.getExecTimeP50(), 500000*0.25);
+        assertEquals(950000.0, metrics.getExecTimeP95(), 950000*0.25);
+        assertEquals(990000.0, metrics.getExecTimeP99(), 990000*0.25);
+        assertEquals(metrics.getMaxExecTime(), metrics.getExecTimePercentile(100));
+        assertTrue(metrics.getExecTimeP50() <= metrics.getExecTimeP95());
+
+        metrics.reset();
+        assertEquals(0, metrics.getInvocationCount());
+        assertEquals(0, metrics.getExecTimeP99());
+    }
+
+
+    @Test
+    public void testCollectChainMetrics() throws Exception
+    {
+        var chain = createChain(false);
+        var collector = new ProcessMetricsCollector();
+        chain.setMetricsListener(collector);
+
+        int numRuns = 20;
+        execute(chain, numRuns);
+
+        var chainMetrics = collector.getMetrics(chain);
+        assertEquals("chain", chainMetrics.getProcessName());
+        assertEquals(numRuns, chainMetrics.getInvocationCount());
+
+        for (var p: chain.getChildProcesses().values())
+        {
+            var metrics = collector.getMetrics(p);
+            assertEquals(p.getInstanceName(), metrics.getProcessName());
+            assertEquals(numRuns, metrics.getInvocationCount());
+            assertEquals(numRuns, metrics.getInputWaitCount());
+            assertEquals(1, metrics.getMaxQueueSize());
+            assertTrue(metrics.getTotalExecTime() > 0);
+            assertTrue(chainMetrics.getTotalExecTime() >= metrics.getTotalExecTime());
+        }
+
+        // check nothing is collected once listener is removed
+        chain.setMetricsListener(null);
+        execute(chain, 5);
+        assertEquals(numRuns, chainMetrics.getInvocationCount());
+    }
+
+
+    @Test
+    public void testRegisterJmxBeans() throws Exception
+    {
+        var chain = createChain(true);
+        var mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        var collector = new JmxProcessMetricsCollector(mbeanServer, "org.vast.process.test");
+        chain.setMetricsListener(collector);
+
+        try
+        {
+            execute(chain, 10);
+
+            var p0 = chain.getChildProcesses().get("affine");
+            var objName = collector.getObjectName(p0);
+            assertNotNull(objName);
+            assertTrue(mbeanServer.isRegistered(objName));
+            assertEquals(10L, mbeanServer.getAttribute(objName, "InvocationCount"));
+            assertEquals("affine", mbeanServer.getAttribute(objName, "ProcessName"));
+
+            collector.clear();
+            assertFalse(mbeanServer.isRegistered(objName));
+        }
+        finally
+        {
+            chain.dispose();
+        }
+    }
+}
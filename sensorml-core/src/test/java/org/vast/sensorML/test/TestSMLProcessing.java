@@ -16,12 +16,17 @@ package org.vast.sensorML.test;
 
 import static org.junit.Assert.*;
 import java.net.URL;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.opengis.sensorml.v20.AbstractProcess;
 import net.opengis.sensorml.v20.AggregateProcess;
 import net.opengis.swe.v20.DataComponent;
 import org.junit.Before;
 import org.junit.Test;
+import org.vast.process.BoundedDataQueue;
+import org.vast.process.BoundedDataQueue.OverflowPolicy;
 import org.vast.process.DataConnection;
+import org.vast.process.DataQueue;
 import org.vast.process.ExecutableChainImpl;
 import org.vast.process.IProcessExec;
 import org.vast.sensorML.AbstractProcessImpl;
@@ -165,6 +170,104 @@ public class TestSMLProcessing
     }
     
     
+    @Test
+    public void testCreateAndExecProcessChainWithBoundedQueues() throws Exception
+    {
+        SWEHelper fac = new SWEHelper();
+        
+        ExecutableChainImpl chain = new ExecutableChainImpl(true);
+        chain.getInputList().add("in", fac.newQuantity());
+        chain.getOutputList().add("out", fac.newQuantity());
+        
+        IProcessExec p0 = chain.addProcess("affine", new AffineTransform1D_Process());
+        IProcessExec p1 = chain.addProcess("clip", new Clip_Process());
+        
+        // select queue type for each connection
+        var inQueue = new BoundedDataQueue(1, OverflowPolicy.BLOCK);
+        var midQueue = new BoundedDataQueue(4, OverflowPolicy.DROP_OLDEST);
+        chain.connect(chain, chain.getInputList().getComponent("in"), p0, p0.getInputList().getComponent("x"), inQueue);
+        chain.connect(p0, p0.getOutputList().getComponent("y"), p1, p1.getInputList().getComponent("valueIn"), midQueue);
+        var outQueue = chain.connect(p1, p1.getOutputList().getComponent("passValue"), chain, chain.getOutputList().getComponent("out"));
+        assertTrue(outQueue instanceof DataQueue);
+        
+        chain.init();
+        p0.getParameterList().getComponent("slope").getData().setDoubleValue(2.0);
+        p0.getParameterList().getComponent("intercept").getData().setDoubleValue(3.0);
+        
+        for (int i=0; i<10; i++)
+        {
+            chain.getInputList().getComponent("in").getData().setDoubleValue(i);
+            chain.execute();
+            double output = chain.getOutputList().getComponent("out").getData().getDoubleValue();
+            assertEquals("Invalid output", i*2.0+3.0, output, 1e-10);
+        }
+        
+        assertEquals(10, inQueue.getPublishedCount());
+        assertEquals(0, inQueue.getDroppedCount());
+        chain.dispose();
+    }
+    
+    
+    @Test
+    public void testCreateAndExecProcessChainInParallel() throws Exception
+    {
+        SWEHelper fac = new SWEHelper();
+        
+        ExecutableChainImpl chain = new ExecutableChainImpl();
+        chain.getInputList().add("in", fac.newQuantity());
+        chain.getOutputList().add("out1", fac.newQuantity());
+        chain.getOutputList().add("out2", fac.newQuantity());
+        
+        // two independent branches fed by the same input
+        IProcessExec p0 = chain.addProcess("affine1", new AffineTransform1D_Process());
+        IProcessExec p1 = chain.addProcess("clip1", new Clip_Process());
+        IProcessExec p2 = chain.addProcess("affine2", new AffineTransform1D_Process());
+        IProcessExec p3 = chain.addProcess("clip2", new Clip_Process());
+        
+        chain.connect(chain, chain.getInputList().getComponent("in"), p0, p0.getInputList().getComponent("x"));
+        chain.connect(p0, p0.getOutputList().getComponent("y"), p1, p1.getInputList().getComponent("valueIn"));
+        chain.connect(p1, p1.getOutputList().getComponent("passValue"), chain, chain.getOutputList().getComponent("out1"));
+        chain.connect(chain, chain.getInputList().getComponent("in"), p2, p2.getInputList().getComponent("x"));
+        chain.connect(p2, p2.getOutputList().getComponent("y"), p3, p3.getInputList().getComponent("valueIn"));
+        chain.connect(p3, p3.getOutputList().getComponent("passValue"), chain, chain.getOutputList().getComponent("out2"));
+        
+        var threadPool = Executors.newFixedThreadPool(4);
+        var numTasks = new AtomicInteger();
+        chain.setUseParallelExec(true);
+        chain.setParallelExecutor(task -> {
+            numTasks.incrementAndGet();
+            threadPool.execute(task);
+        });
+        chain.init();
+        
+        p0.getParameterList().getComponent("slope").getData().setDoubleValue(2.0);
+        p0.getParameterList().getComponent("intercept").getData().setDoubleValue(3.0);
+        p2.getParameterList().getComponent("slope").getData().setDoubleValue(0.5);
+        p2.getParameterList().getComponent("intercept").getData().setDoubleValue(1.0);
+        
+        try
+        {
+            for (int i=0; i<100; i++)
+            {
+                chain.getInputList().getComponent("in").getData().setDoubleValue(i);
+                chain.execute();
+                double output1 = chain.getOutputList().getComponent("out1").getData().getDoubleValue();
+                double output2 = chain.getOutputList().getComponent("out2").getData().getDoubleValue();
+                assertEquals("Invalid output", i*2.0+3.0, output1, 1e-10);
+                assertEquals("Invalid output", i*0.5+1.0, output2, 1e-10);
+            }
+            
+            // one branch must have been offloaded to executor at each run
+            assertTrue(numTasks.get() >= 100);
+        }
+        finally
+        {
+            threadPool.shutdown();
+            chain.dispose();
+        }
+    }
+    
+    
     @Test
     public void testReadSimpleProcessPortsDefined() throws Exception
     {
@@ -401,6 +504,40 @@ public class TestSMLProcessing
     }
     
     
+    @Test
+    public void testExecutableInstancesAreIndependent() throws Exception
+    {
+        AbstractProcessImpl process = (AbstractProcessImpl)smlUtils.readProcess(
+            TestSMLProcessing.class.getResourceAsStream("examples_v20/AggregateProcess.xml"));
+
+        AbstractProcessImpl p1 = smlUtils.getExecutableInstance(process, false);
+        AbstractProcessImpl p2 = smlUtils.getExecutableInstance(process, false);
+        p1.init();
+        p2.init();
+
+        // source description is left untouched and metadata is shared
+        assertFalse(process.isExecutable());
+        assertSame(process.getIdentificationList(), p1.getIdentificationList());
+        assertNotSame(process.getInputComponent("valueIn"), p1.getInputComponent("valueIn"));
+        assertNotSame(p1.getInputComponent("valueIn"), p2.getInputComponent("valueIn"));
+
+        // change parameter on one instance only
+        AbstractProcessImpl scale2 = (AbstractProcessImpl)((AggregateProcess)p2).getComponent("scale");
+        scale2.getParameterComponent("intercept").getData().setDoubleValue(10.0);
+
+        p1.getInputComponent("valueIn").getData().setDoubleValue(10.0);
+        p2.getInputComponent("valueIn").getData().setDoubleValue(10.0);
+        p1.execute();
+        p2.execute();
+
+        assertEquals(2.3*10.0 + 1.76, p1.getOutputComponent("valueOut").getData().getDoubleValue(), 1e-12);
+        assertEquals(2.3*10.0 + 10.0, p2.getOutputComponent("valueOut").getData().getDoubleValue(), 1e-12);
+
+        AbstractProcessImpl scale = (AbstractProcessImpl)((AggregateProcess)process).getComponent("scale");
+        assertEquals(1.76, scale.getParameterComponent("intercept").getData().getDoubleValue(), 0.0);
+    }
+
+
     @Test
     public void testReadAndExecNestedChainsWithThreads() throws Exception
     {
@@ -0,0 +1,136 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.bench;
+
+import org.vast.cdm.common.DataStreamParser;
+import org.vast.cdm.common.DataStreamWriter;
+import org.vast.data.JSONEncodingImpl;
+import org.vast.data.TextEncodingImpl;
+import org.vast.data.XMLEncodingImpl;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.fast.BinaryDataParser;
+import org.vast.swe.fast.BinaryDataWriter;
+import org.vast.swe.fast.JsonDataParserGson;
+import org.vast.swe.fast.JsonDataWriter;
+import org.vast.swe.fast.JsonDataWriterGson;
+import org.vast.swe.fast.JsonDataWriterUtf8;
+import org.vast.swe.fast.TextDataParser;
+import org.vast.swe.fast.TextDataWriter;
+import org.vast.swe.fast.XmlDataParser;
+import org.vast.swe.fast.XmlDataWriter;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataEncoding;
+
+
+/**
+ * <p>
+ * Encodings and corresponding parser/writer implementations from the
+ * swe.fast package that are covered by the benchmarks.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public enum BenchEncodings
+{
+    TEXT,
+    BINARY,
+    XML,
+    XML_DIRECT,
+    JSON,
+    JSON_GSON,
+    JSON_UTF8;
+
+
+    /**
+     * @param dataStruct
+     * @return Encoding to use with the given data structure
+     */
+    public DataEncoding getEncoding(DataComponent dataStruct)
+    {
+        switch (this)
+        {
+            case TEXT:
+                return new TextEncodingImpl(",", "\n");
+
+            case BINARY:
+                return SWEHelper.getDefaultBinaryEncoding(dataStruct);
+
+            case XML:
+            case XML_DIRECT:
+                return new XMLEncodingImpl();
+
+            default:
+                return new JSONEncodingImpl();
+        }
+    }
+
+
+    /**
+     * @return New writer instance for this encoding
+     */
+    public DataStreamWriter createWriter()
+    {
+        switch (this)
+        {
+            case TEXT:
+                return new TextDataWriter();
+
+            case BINARY:
+                return new BinaryDataWriter();
+
+            case XML:
+                return new XmlDataWriter();
+
+            case XML_DIRECT:
+                var xmlWriter = new XmlDataWriter();
+                xmlWriter.setDirectOutput(true);
+                return xmlWriter;
+
+            case JSON:
+                return new JsonDataWriter();
+
+            case JSON_UTF8:
+                return new JsonDataWriterUtf8();
+
+            default:
+                return new JsonDataWriterGson();
+        }
+    }
+
+
+    /**
+     * @return New parser instance for this encoding
+     * (the Gson parser is used to read back all JSON variants)
+     */
+    public DataStreamParser createParser()
+    {
+        switch (this)
+        {
+            case TEXT:
+                return new TextDataParser();
+
+            case BINARY:
+                return new BinaryDataParser();
+
+            case XML:
+            case XML_DIRECT:
+                return new XmlDataParser();
+
+            default:
+                return new JsonDataParserGson();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.vast.data.DataChoiceImpl;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.helper.GeoPosHelper;
+import org.vast.swe.helper.RasterHelper;
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataType;
+
+
+/**
+ * <p>
+ * Representative data structures used by the benchmarks, along with
+ * helpers to generate random records for each of them.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public enum BenchSchemas
+{
+    /** flat record with all scalar types */
+    FLAT_RECORD(1000),
+
+    /** record with nested location, orientation and velocity vectors */
+    NESTED_VECTORS(1000),
+
+    /** record with variable size array of 2D points */
+    VAR_SIZE_ARRAY(200),
+
+    /** choice between a measurement record and a status message record */
+    CHOICE(1000),
+
+    /** 640x480 RGB image */
+    IMAGE(2);
+
+
+    static final int IMG_WIDTH = 640;
+    static final int IMG_HEIGHT = 480;
+    static final int MAX_ARRAY_SIZE = 100;
+
+    final int numRecords;
+
+
+    BenchSchemas(int numRecords)
+    {
+        this.numRecords = numRecords;
+    }
+
+
+    /**
+     * @return Number of records to process per benchmark invocation
+     */
+    public int getNumRecords()
+    {
+        return numRecords;
+    }
+
+
+    /**
+     * @return A new instance of the data structure
+     */
+    public DataComponent build()
+    {
+        var swe = new SWEHelper();
+        var geo = new GeoPosHelper();
+
+        switch (this)
+        {
+            case FLAT_RECORD:
+                return swe.createRecord()
+                    .name("rec")
+                    .addSamplingTimeIsoUTC("time")
+                    .addField("temp", swe.createQuantity()
+                        .uomCode("Cel"))
+                    .addField("press", swe.createQuantity()
+                        .uomCode("hPa"))
+                    .addField("count", swe.createCount())
+                    .addField("flag", swe.createBoolean())
+                    .addField("status", swe.createCategory())
+                    .addField("msg", swe.createText())
+                    .build();
+
+            case NESTED_VECTORS:
+                return geo.createRecord()
+                    .name("nav")
+                    .addSamplingTimeIsoUTC("time")
+                    .addField("location", geo.createLocationVectorLLA())
+                    .addField("attitude", geo.createEulerOrientationNED("deg"))
+                    .addField("velocity", geo.createVelocityVectorNED("m/s"))
+                    .build();
+
+            case VAR_SIZE_ARRAY:
+                Count sizeField;
+                return swe.createRecord()
+                    .name("track")
+                    .addSamplingTimeIsoUTC("time")
+                    .addField("numPoints", sizeField = swe.createCount()
+                        .id("NUM_POINTS")
+                        .build())
+                    .addField("points", swe.createArray()
+                        .withSizeComponent(sizeField)
+                        .withElement("point", swe.createVector()
+                            .addCoordinate("x", swe.createQuantity().build())
+                            .addCoordinate("y", swe.createQuantity().build())
+                            .build())
+                        .build())
+                    .build();
+
+            case CHOICE:
+                return swe.createChoice()
+                    .name("msg")
+                    .addItem("meas", swe.createRecord()
+                        .addSamplingTimeIsoUTC("time")
+                        .addField("temp", swe.createQuantity().uomCode("Cel"))
+                        .addField("hum", swe.createQuantity().uomCode("%")))
+                    .addItem("status", swe.createRecord()
+                        .addSamplingTimeIsoUTC("time")
+                        .addField("code", swe.createCount())
+                        .addField("text", swe.createText()))
+                    .build();
+
+            case IMAGE:
+                var img = new RasterHelper().newRgbImage(IMG_WIDTH, IMG_HEIGHT, DataType.BYTE);
+                img.setName("img");
+                return img;
+
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+
+    /**
+     * Generates random records for the given data structure
+     * @param dataStruct Data structure created by {@link #build()}
+     * @param seed Seed of random generator
+     * @return The list of generated records
+     */
+    public List<DataBlock> generateRecords(DataComponent dataStruct, long seed)
+    {
+        var random = new Random(seed);
+        var records = new ArrayList<DataBlock>(numRecords);
+        double time = 1.6e9;
+
+        for (int r = 0; r < numRecords; r++)
+        {
+            DataBlock rec;
+
+            switch (this)
+            {
+                case VAR_SIZE_ARRAY:
+                    int arraySize = 1 + random.nextInt(MAX_ARRAY_SIZE);
+                    ((DataArray)dataStruct.getComponent("points")).updateSize(arraySize);
+                    rec = dataStruct.createDataBlock();
+                    fillRandom(rec, random);
+                    rec.setIntValue(1, arraySize);
+                    break;
+
+                case CHOICE:
+                    var choice = (DataChoiceImpl)dataStruct;
+                    choice.setSelectedItem(r % choice.getNumItems());
+                    rec = dataStruct.createDataBlock();
+                    fillRandom(rec, random);
+                    rec.setIntValue(0, choice.getSelected());
+                    break;
+
+                default:
+                    rec = dataStruct.createDataBlock();
+                    fillRandom(rec, random);
+            }
+
+            // set time stamp (after choice index in case of choice)
+            if (this == CHOICE)
+                rec.setDoubleValue(1, time + r*0.1);
+            else if (this != IMAGE)
+                rec.setDoubleValue(0, time + r*0.1);
+
+            records.add(rec);
+        }
+
+        return records;
+    }
+
+
+    protected void fillRandom(DataBlock rec, Random random)
+    {
+        for (int i = 0; i < rec.getAtomCount(); i++)
+        {
+            switch (rec.getDataType(i))
+            {
+                case BOOLEAN:
+                    rec.setBooleanValue(i, random.nextBoolean());
+                    break;
+
+                case BYTE:
+                case UBYTE:
+                    rec.setByteValue(i, (byte)random.nextInt(128));
+                    break;
+
+                case SHORT:
+                case USHORT:
+                case INT:
+                case UINT:
+                case LONG:
+                case ULONG:
+                    rec.setIntValue(i, random.nextInt(10000));
+                    break;
+
+                case FLOAT:
+                case DOUBLE:
+                    rec.setDoubleValue(i, Math.round(random.nextGaussian()*1e6)/1e3);
+                    break;
+
+                case ASCII_STRING:
+                case UTF_STRING:
+                    rec.setStringValue(i, "str" + random.nextInt(1000));
+                    break;
+
+                default:
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vast.data.DataBlockCodec;
+import org.vast.swe.fast.BinaryDataParser;
+import org.vast.swe.fast.BinaryDataWriter;
+import org.vast.util.Asserts;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataEncoding;
+
+
+/**
+ * <p>
+ * Compares the compact data block codec with Java serialization and with
+ * the SWE binary encoding. Each invocation encodes or decodes all records
+ * generated for the data structure to/from an in-memory buffer.
+ * </p><p>
+ * The CODEC_VIEW format decodes records without copying numerical values
+ * from the encoded buffer.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DataBlockCodecBenchmark
+{
+    public enum Format
+    {
+        CODEC,
+        CODEC_VIEW,
+        JAVA_SERIALIZATION,
+        SWE_BINARY
+    }
+
+    @Param
+    BenchSchemas schema;
+
+    @Param
+    Format format;
+
+    DataComponent dataStruct;
+    DataEncoding dataEncoding;
+    List<DataBlock> records;
+    DataBlockCodec codec;
+    ByteArrayOutputStream os;
+    byte[] encodedData;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        dataStruct = schema.build();
+        dataEncoding = BenchEncodings.BINARY.getEncoding(dataStruct);
+        records = schema.generateRecords(dataStruct, 42);
+        codec = new DataBlockCodec();
+        os = new ByteArrayOutputStream(1024*1024);
+
+        encode(new IOCounters());
+        encodedData = os.toByteArray();
+    }
+
+
+    @Benchmark
+    public void encode(IOCounters counters) throws IOException
+    {
+        os.reset();
+
+        switch (format)
+        {
+            case CODEC:
+            case CODEC_VIEW:
+                for (var rec: records)
+                    codec.write(rec, os);
+                break;
+
+            case JAVA_SERIALIZATION:
+                var oos = new ObjectOutputStream(os);
+                for (var rec: records)
+                    oos.writeObject(rec);
+                oos.flush();
+                break;
+
+            case SWE_BINARY:
+                var writer = new BinaryDataWriter();
+                writer.setDataComponents(dataStruct);
+                writer.setDataEncoding(dataEncoding);
+                writer.setOutput(os);
+                for (var rec: records)
+                    writer.write(rec);
+                writer.flush();
+                break;
+        }
+
+        counters.records += records.size();
+        counters.bytes += os.size();
+    }
+
+
+    @Benchmark
+    public void decode(IOCounters counters, Blackhole bh) throws IOException, ClassNotFoundException
+    {
+        int count = 0;
+
+        switch (format)
+        {
+            case CODEC:
+                var is = new ByteArrayInputStream(encodedData);
+                DataBlock dataBlk;
+                while ((dataBlk = codec.read(is)) != null)
+                {
+                    bh.consume(dataBlk);
+                    count++;
+                }
+                break;
+
+            case CODEC_VIEW:
+                // records are read with a length prefix by the stream API
+                var buf = ByteBuffer.wrap(encodedData);
+                while (buf.hasRemaining())
+                {
+                    skipLength(buf);
+                    bh.consume(codec.decodeView(buf));
+                    count++;
+                }
+                break;
+
+            case JAVA_SERIALIZATION:
+                var ois = new ObjectInputStream(new ByteArrayInputStream(encodedData));
+                for (int i = 0; i < records.size(); i++)
+                {
+                    bh.consume(ois.readObject());
+                    count++;
+                }
+                break;
+
+            case SWE_BINARY:
+                var parser = new BinaryDataParser();
+                parser.setDataComponents(dataStruct);
+                parser.setDataEncoding(dataEncoding);
+                parser.setInput(new ByteArrayInputStream(encodedData));
+                parser.setRenewDataBlock(true);
+                while ((dataBlk = parser.parseNextBlock()) != null)
+                {
+                    bh.consume(dataBlk);
+                    count++;
+                }
+                break;
+        }
+
+        Asserts.checkState(count == records.size(), "Wrong number of records decoded");
+        counters.records += count;
+        counters.bytes += encodedData.length;
+    }
+
+
+    static void skipLength(ByteBuffer buf)
+    {
+        while (buf.get() < 0);
+    }
+}
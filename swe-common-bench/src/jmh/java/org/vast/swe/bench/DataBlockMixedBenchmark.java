@@ -0,0 +1,136 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.vast.data.AbstractDataBlock;
+import org.vast.data.DataBlockDouble;
+import org.vast.data.DataBlockMixed;
+
+
+/**
+ * <p>
+ * Compares random access to values of a DataBlockMixed using the offset
+ * table with the previous implementation that scanned child blocks
+ * linearly on each access.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DataBlockMixedBenchmark
+{
+    static final int NUM_READS = 4096;
+
+    public enum Lookup
+    {
+        OFFSET_TABLE,
+        LINEAR_SCAN
+    }
+
+    @Param({"4", "16", "64"})
+    int numChildren;
+
+    @Param({"true", "false"})
+    boolean uniform;
+
+    @Param
+    Lookup lookup;
+
+    DataBlockMixed block;
+    int[] indexes;
+
+
+    /*
+     * Previous implementation, kept for comparison
+     */
+    static class LinearScanDataBlockMixed extends DataBlockMixed
+    {
+        int blockIndex;
+        int localIndex;
+
+        LinearScanDataBlockMixed(AbstractDataBlock... childBlocks)
+        {
+            super(childBlocks);
+        }
+
+        void scanBlocks(int index)
+        {
+            int i = 0;
+            int cumul = 0;
+            int size;
+            int desiredIndex = startIndex + index;
+
+            do
+            {
+                size = blockArray[i].getAtomCount();
+                cumul += size;
+                i++;
+            }
+            while (desiredIndex >= cumul);
+
+            blockIndex = i - 1;
+            localIndex = desiredIndex - (cumul - size);
+        }
+
+        @Override
+        public double getDoubleValue(int index)
+        {
+            scanBlocks(index);
+            return blockArray[blockIndex].getDoubleValue(localIndex);
+        }
+    }
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        AbstractDataBlock[] children = new AbstractDataBlock[numChildren];
+        for (int i = 0; i < numChildren; i++)
+            children[i] = new DataBlockDouble(uniform ? 4 : 1 + i % 7);
+
+        if (lookup == Lookup.LINEAR_SCAN)
+            block = new LinearScanDataBlockMixed(children);
+        else
+            block = new DataBlockMixed(children);
+
+        // pseudo random access pattern
+        indexes = new int[NUM_READS];
+        for (int i = 0; i < NUM_READS; i++)
+            indexes[i] = (int)((i * 2654435761L) % block.getAtomCount());
+    }
+
+
+    @Benchmark
+    public double readRandom()
+    {
+        double sum = 0;
+        for (int i: indexes)
+            sum += block.getDoubleValue(i);
+        return sum;
+    }
+}
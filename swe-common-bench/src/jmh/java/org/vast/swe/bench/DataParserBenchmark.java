@@ -0,0 +1,111 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vast.swe.fast.JsonDataParserGson;
+import org.vast.util.Asserts;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataEncoding;
+
+
+/**
+ * <p>
+ * Measures throughput of swe.fast parsers for each encoding and data
+ * structure. The input stream is generated once per trial using the
+ * corresponding writer, and each invocation parses all records from it,
+ * including parser setup.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DataParserBenchmark
+{
+    @Param
+    BenchSchemas schema;
+    
+    @Param
+    BenchEncodings encoding;
+    
+    DataComponent dataStruct;
+    DataEncoding dataEncoding;
+    byte[] encodedData;
+    int numRecords;
+    
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        dataStruct = schema.build();
+        dataEncoding = encoding.getEncoding(dataStruct);
+        var records = schema.generateRecords(dataStruct, 42);
+        numRecords = records.size();
+        
+        var os = new ByteArrayOutputStream(1024*1024);
+        var writer = encoding.createWriter();
+        writer.setDataComponents(dataStruct.copy());
+        writer.setDataEncoding(dataEncoding);
+        writer.setOutput(os);
+        writer.startStream(true);
+        for (var rec: records)
+            writer.write(rec);
+        writer.endStream();
+        writer.flush();
+        encodedData = os.toByteArray();
+    }
+    
+    
+    @Benchmark
+    public void parse(IOCounters counters, Blackhole bh) throws IOException
+    {
+        var parser = encoding.createParser();
+        parser.setDataComponents(dataStruct);
+        parser.setDataEncoding(dataEncoding);
+        parser.setInput(new ByteArrayInputStream(encodedData));
+        parser.setRenewDataBlock(true);
+        if (parser instanceof JsonDataParserGson)
+            ((JsonDataParserGson)parser).setHasArrayWrapper();
+        
+        int count = 0;
+        DataBlock dataBlk;
+        while ((dataBlk = parser.parseNextBlock()) != null)
+        {
+            bh.consume(dataBlk);
+            count++;
+        }
+        
+        Asserts.checkState(count == numRecords, "Wrong number of records parsed");
+        counters.records += count;
+        counters.bytes += encodedData.length;
+    }
+}
@@ -0,0 +1,91 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataEncoding;
+
+
+/**
+ * <p>
+ * Measures throughput of swe.fast writers for each encoding and data
+ * structure. Each invocation writes a complete stream of records to an
+ * in-memory buffer, including writer setup, so the cost of building the
+ * processor tree is amortized over the records of the stream.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DataWriterBenchmark
+{
+    @Param
+    BenchSchemas schema;
+    
+    @Param
+    BenchEncodings encoding;
+    
+    DataComponent dataStruct;
+    DataEncoding dataEncoding;
+    List<DataBlock> records;
+    ByteArrayOutputStream os;
+    
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        dataStruct = schema.build();
+        dataEncoding = encoding.getEncoding(dataStruct);
+        records = schema.generateRecords(dataStruct, 42);
+        os = new ByteArrayOutputStream(1024*1024);
+    }
+    
+    
+    @Benchmark
+    public void write(IOCounters counters) throws IOException
+    {
+        os.reset();
+        
+        var writer = encoding.createWriter();
+        writer.setDataComponents(dataStruct);
+        writer.setDataEncoding(dataEncoding);
+        writer.setOutput(os);
+        writer.startStream(true);
+        for (var rec: records)
+            writer.write(rec);
+        writer.endStream();
+        writer.flush();
+        
+        counters.records += records.size();
+        counters.bytes += os.size();
+    }
+}
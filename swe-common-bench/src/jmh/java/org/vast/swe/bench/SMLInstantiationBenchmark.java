@@ -0,0 +1,94 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.vast.sensorML.AbstractProcessImpl;
+import org.vast.sensorML.ProcessLoader;
+import org.vast.sensorML.SMLUtils;
+import com.rits.cloning.Cloner;
+import net.opengis.HrefResolver;
+
+
+/**
+ * <p>
+ * Measures the time needed to create an executable instance of a SensorML
+ * process chain, using the structural copy done by
+ * {@link SMLUtils#getExecutableInstance} or the reflective deep clone that
+ * was used before. Memory allocated per instance is reported by the gc
+ * profiler (gc.alloc.rate.norm).
+ * </p><p>
+ * The chain and its process implementations are loaded from the sensorml-core
+ * test resources.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SMLInstantiationBenchmark
+{
+    static final String RESOURCE_PATH = "/org/vast/sensorML/test/";
+
+    public enum Method
+    {
+        COPY,
+        DEEP_CLONE
+    }
+
+    @Param
+    Method method;
+
+    SMLUtils smlUtils;
+    AbstractProcessImpl process;
+    Cloner cloner;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        ProcessLoader.loadMaps(getClass().getResource(RESOURCE_PATH + "ProcessMap.xml").toString(), true);
+
+        smlUtils = new SMLUtils(SMLUtils.V2_0);
+        process = (AbstractProcessImpl)smlUtils.readProcess(
+            getClass().getResourceAsStream(RESOURCE_PATH + "examples_v20/AggregateProcess.xml"));
+
+        cloner = new Cloner();
+        cloner.setDontCloneInstanceOf(HrefResolver.class);
+    }
+
+
+    @Benchmark
+    public AbstractProcessImpl instantiate() throws Exception
+    {
+        if (method == Method.COPY)
+            return smlUtils.getExecutableInstance(process, false);
+
+        AbstractProcessImpl newInstance = cloner.deepClone(process);
+        smlUtils.makeProcessExecutable(newInstance, false);
+        return newInstance;
+    }
+}
@@ -22,6 +22,7 @@ package org.vast.cdm.common;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -67,4 +68,124 @@ public interface DataInputExt extends DataInput
 	 * @throws IOException
 	 */
 	public String readASCII() throws IOException;
+
+    
+    /**
+     * Reads len short values into the given array.<br/>
+     * The default implementation reads values one at a time, but implementations
+     * should override it to convert values in bulk.
+     * @param dst destination array
+     * @param off offset of first value in destination array
+     * @param len number of values to read
+     * @throws IOException
+     */
+    public default void readShorts(short[] dst, int off, int len) throws IOException
+    {
+        for (int i = off; i < off+len; i++)
+            dst[i] = readShort();
+    }
+
+    
+    /**
+     * Reads len int values into the given array.<br/>
+     * The default implementation reads values one at a time, but implementations
+     * should override it to convert values in bulk.
+     * @param dst destination array
+     * @param off offset of first value in destination array
+     * @param len number of values to read
+     * @throws IOException
+     */
+    public default void readInts(int[] dst, int off, int len) throws IOException
+    {
+        for (int i = off; i < off+len; i++)
+            dst[i] = readInt();
+    }
+
+    
+    /**
+     * Reads len long values into the given array.<br/>
+     * The default implementation reads values one at a time, but implementations
+     * should override it to convert values in bulk.
+     * @param dst destination array
+     * @param off offset of first value in destination array
+     * @param len number of values to read
+     * @throws IOException
+     */
+    public default void readLongs(long[] dst, int off, int len) throws IOException
+    {
+        for (int i = off; i < off+len; i++)
+            dst[i] = readLong();
+    }
+
+    
+    /**
+     * Reads len float values into the given array.<br/>
+     * The default implementation reads values one at a time, but implementations
+     * should override it to convert values in bulk.
+     * @param dst destination array
+     * @param off offset of first value in destination array
+     * @param len number of values to read
+     * @throws IOException
+     */
+    public default void readFloats(float[] dst, int off, int len) throws IOException
+    {
+        for (int i = off; i < off+len; i++)
+            dst[i] = readFloat();
+    }
+
+    
+    /**
+     * Reads len double values into the given array.<br/>
+     * The default implementation reads values one at a time, but implementations
+     * should override it to convert values in bulk.
+     * @param dst destination array
+     * @param off offset of first value in destination array
+     * @param len number of values to read
+     * @throws IOException
+     */
+    public default void readDoubles(double[] dst, int off, int len) throws IOException
+    {
+        for (int i = off; i < off+len; i++)
+            dst[i] = readDouble();
+    }
+
+    
+    /**
+     * Reads values of valueSize bytes into the given buffer, from its position
+     * to its limit. Values are converted from the byte order of this input to
+     * the byte order of the buffer, so the buffer can be the storage of a
+     * data block (including off-heap ones).<br/>
+     * The default implementation reads values one at a time, but implementations
+     * should override it to copy bytes in bulk.
+     * @param dst destination buffer
+     * @param valueSize size of each value in bytes (1, 2, 4 or 8)
+     * @throws IOException
+     */
+    public default void readValues(ByteBuffer dst, int valueSize) throws IOException
+    {
+        while (dst.remaining() >= valueSize)
+        {
+            switch (valueSize)
+            {
+                case 1:
+                    dst.put(readByte());
+                    break;
+                    
+                case 2:
+                    dst.putShort(readShort());
+                    break;
+                    
+                case 4:
+                    dst.putInt(readInt());
+                    break;
+                    
+                case 8:
+                    dst.putLong(readLong());
+                    break;
+                    
+                default:
+                    throw new IllegalArgumentException("Unsupported value size: " + valueSize);
+            }
+        }
+    }
 }
@@ -22,6 +22,7 @@ package org.vast.cdm.common;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -92,4 +93,124 @@ public interface DataOutputExt extends DataOutput
 	 * @throws IOException
 	 */
 	public void close() throws IOException;
+
+    
+    /**
+     * Writes len short values from the given array.<br/>
+     * The default implementation writes values one at a time, but implementations
+     * should override it to convert values in bulk.
+     * @param src source array
+     * @param off offset of first value in source array
+     * @param len number of values to write
+     * @throws IOException
+     */
+    public default void writeShorts(short[] src, int off, int len) throws IOException
+    {
+        for (int i = off; i < off+len; i++)
+            writeShort(src[i]);
+    }
+
+    
+    /**
+     * Writes len int values from the given array.<br/>
+     * The default implementation writes values one at a time, but implementations
+     * should override it to convert values in bulk.
+     * @param src source array
+     * @param off offset of first value in source array
+     * @param len number of values to write
+     * @throws IOException
+     */
+    public default void writeInts(int[] src, int off, int len) throws IOException
+    {
+        for (int i = off; i < off+len; i++)
+            writeInt(src[i]);
+    }
+
+    
+    /**
+     * Writes len long values from the given array.<br/>
+     * The default implementation writes values one at a time, but implementations
+     * should override it to convert values in bulk.
+     * @param src source array
+     * @param off offset of first value in source array
+     * @param len number of values to write
+     * @throws IOException
+     */
+    public default void writeLongs(long[] src, int off, int len) throws IOException
+    {
+        for (int i = off; i < off+len; i++)
+            writeLong(src[i]);
+    }
+
+    
+    /**
+     * Writes len float values from the given array.<br/>
+     * The default implementation writes values one at a time, but implementations
+     * should override it to convert values in bulk.
+     * @param src source array
+     * @param off offset of first value in source array
+     * @param len number of values to write
+     * @throws IOException
+     */
+    public default void writeFloats(float[] src, int off, int len) throws IOException
+    {
+        for (int i = off; i < off+len; i++)
+            writeFloat(src[i]);
+    }
+
+    
+    /**
+     * Writes len double values from the given array.<br/>
+     * The default implementation writes values one at a time, but implementations
+     * should override it to convert values in bulk.
+     * @param src source array
+     * @param off offset of first value in source array
+     * @param len number of values to write
+     * @throws IOException
+     */
+    public default void writeDoubles(double[] src, int off, int len) throws IOException
+    {
+        for (int i = off; i < off+len; i++)
+            writeDouble(src[i]);
+    }
+
+    
+    /**
+     * Writes values of valueSize bytes from the given buffer, from its position
+     * to its limit. Values are converted from the byte order of the buffer to
+     * the byte order of this output, so the buffer can be the storage of a
+     * data block (including off-heap ones).<br/>
+     * The default implementation writes values one at a time, but implementations
+     * should override it to copy bytes in bulk.
+     * @param src source buffer
+     * @param valueSize size of each value in bytes (1, 2, 4 or 8)
+     * @throws IOException
+     */
+    public default void writeValues(ByteBuffer src, int valueSize) throws IOException
+    {
+        while (src.remaining() >= valueSize)
+        {
+            switch (valueSize)
+            {
+                case 1:
+                    writeByte(src.get());
+                    break;
+                    
+                case 2:
+                    writeShort(src.getShort());
+                    break;
+                    
+                case 4:
+                    writeInt(src.getInt());
+                    break;
+                    
+                case 8:
+                    writeLong(src.getLong());
+                    break;
+                    
+                default:
+                    throw new IllegalArgumentException("Unsupported value size: " + valueSize);
+            }
+        }
+    }
 }
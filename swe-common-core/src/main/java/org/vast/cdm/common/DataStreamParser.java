@@ -93,6 +93,21 @@ public interface DataStreamParser
 	public DataBlock parseNextBlock() throws IOException;
 	
 	
+	/**
+	 * Parses the next records into a batch data block, until the batch is
+	 * full or the end of the stream is reached. Value j of record i is stored
+	 * at index i*recordSize+j of the batch, so the batch is typically a columnar
+	 * block created with DataBlockFactory.createParallelBlock(DataComponent, int).
+	 * @param batch Data block to parse records into
+	 * @return Number of records actually parsed (0 if there was no more data)
+	 * @throws IOException if a record cannot be parsed
+	 */
+	public default int parseNextBlocks(DataBlock batch) throws IOException
+	{
+	    throw new UnsupportedOperationException();
+	}
+	
+	
 	public void close() throws IOException;
 	
 	
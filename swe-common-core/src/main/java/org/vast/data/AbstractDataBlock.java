@@ -77,6 +77,16 @@ public abstract class AbstractDataBlock implements DataBlock
 	}
 	
 	
+	/**
+     * @return index of the first value of this block in the underlying
+     * storage, when this block is a view on a larger block
+     */
+    public int getStartIndex()
+    {
+        return startIndex;
+    }
+	
+	
 	/**
      * Recompute atom count after new child blocks have been added
      */
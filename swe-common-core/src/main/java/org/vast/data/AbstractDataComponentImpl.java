@@ -15,6 +15,7 @@ Copyright (C) 2012-2015 Sensia Software LLC. All Rights Reserved.
 package org.vast.data;
 
 import java.util.*;
+import org.vast.data.DataBlockFactory.LayoutHint;
 import org.vast.util.Asserts;
 import net.opengis.swe.v20.BinaryMember;
 import net.opengis.swe.v20.DataBlock;
@@ -43,6 +44,7 @@ public abstract class AbstractDataComponentImpl extends AbstractSWEIdentifiableI
     protected AbstractDataBlock dataBlock;
 	protected int scalarCount = -1;
 	protected BinaryMember encodingInfo;
+	protected LayoutHint dataBlockHint = LayoutHint.DEFAULT;
 	
 	private String name; // can we get rid of this? it is also in property object but it's convenient to have it here    
 
@@ -65,6 +67,7 @@ public abstract class AbstractDataComponentImpl extends AbstractSWEIdentifiableI
 	    other.name = name;
 	    other.parent = null;
 	    other.scalarCount = scalarCount;
+	    other.dataBlockHint = dataBlockHint;
 	}
 	
 	
@@ -115,6 +118,24 @@ public abstract class AbstractDataComponentImpl extends AbstractSWEIdentifiableI
     public abstract AbstractDataBlock createDataBlock();
     
     
+    /**
+     * Sets a hint telling which kind of data block {@link #createDataBlock()}
+     * should create. The hint is ignored if the component structure cannot
+     * be carried by the selected kind of data block.
+     * @param hint
+     */
+    public void setDataBlockHint(LayoutHint hint)
+    {
+        this.dataBlockHint = Asserts.checkNotNull(hint, LayoutHint.class);
+    }
+    
+    
+    public LayoutHint getDataBlockHint()
+    {
+        return dataBlockHint;
+    }
+    
+    
 	@Override
     public void assignNewDataBlock()
 	{
@@ -15,6 +15,7 @@ Copyright (C) 2012-2015 Sensia Software LLC. All Rights Reserved.
 package org.vast.data;
 
 import java.util.*;
+import org.vast.data.DataBlockFactory.LayoutHint;
 import org.vast.util.Asserts;
 import net.opengis.swe.v20.BinaryBlock;
 import net.opengis.swe.v20.DataBlock;
@@ -84,7 +85,11 @@ public abstract class AbstractRecordImpl<ComponentType extends DataComponent> ex
     protected void updateAtomCount(int childAtomCountDiff)
     {
         if (dataBlock != null)
+        {
             dataBlock.atomCount += childAtomCountDiff;
+            if (dataBlock instanceof DataBlockMixed)
+                ((DataBlockMixed)dataBlock).invalidateBlockOffsets();
+        }
         
         if (parent != null)
             parent.updateAtomCount(childAtomCountDiff);
@@ -215,6 +220,14 @@ public abstract class AbstractRecordImpl<ComponentType extends DataComponent> ex
     @Override
     public AbstractDataBlock createDataBlock() 
     {
+        // use a flat block if requested and record has a fixed layout
+        if (dataBlockHint == LayoutHint.FLAT || dataBlockHint == LayoutHint.OFF_HEAP)
+        {
+            DataBlockFlat.Layout layout = DataBlockFlat.Layout.compile(this);
+            if (layout != null)
+                return new DataBlockFlat(layout, 1, dataBlockHint == LayoutHint.OFF_HEAP);
+        }
+        
     	DataType currentType;
         DataType previousType = DataType.OTHER;
         AbstractDataBlock newBlock = null;
@@ -337,6 +350,8 @@ public abstract class AbstractRecordImpl<ComponentType extends DataComponent> ex
             dataBlk.blockArray[i] = childComponent.dataBlock;
             dataBlk.atomCount += childComponent.dataBlock.atomCount;
         }
+        
+        dataBlk.invalidateBlockOffsets();
     }
     
     
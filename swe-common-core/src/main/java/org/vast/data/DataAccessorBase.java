@@ -0,0 +1,100 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.vast.cdm.common.DataStreamWriter;
+import org.vast.swe.SWEHelper;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+
+
+/**
+ * <p>
+ * Base class of accessor classes generated by {@link DataAccessorGenerator}.
+ * Generated subclasses implement the get/set methods of the target interface
+ * by reading and writing the wrapped data block directly at a fixed index.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public abstract class DataAccessorBase implements IDataAccessor
+{
+    protected final DataComponent recordSchema;
+    protected DataBlock dataBlk;
+
+
+    protected DataAccessorBase(DataComponent recordSchema)
+    {
+        this.recordSchema = recordSchema.copy();
+    }
+
+
+    @Override
+    public void wrap(DataBlock db)
+    {
+        this.dataBlk = db;
+    }
+
+
+    @Override
+    public DataBlock getDataBlock()
+    {
+        return dataBlk;
+    }
+
+
+    /**
+     * @return The wrapped data block
+     * @throws IllegalStateException if no data block has been assigned
+     */
+    protected final DataBlock getAssignedDataBlock()
+    {
+        if (dataBlk == null)
+            throw new IllegalStateException("No datablock has been assigned");
+        return dataBlk;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        // only assign data to schema here since it is not needed by accessor methods
+        recordSchema.setData(dataBlk);
+        return toJson(recordSchema);
+    }
+
+
+    static String toJson(DataComponent recordSchema)
+    {
+        try
+        {
+            var baos = new ByteArrayOutputStream();
+            DataStreamWriter sweWriter = SWEHelper.createDataWriter(new JSONEncodingImpl());
+            sweWriter.setDataComponents(recordSchema);
+            sweWriter.setOutput(baos);
+            sweWriter.write(recordSchema.getData());
+            sweWriter.flush();
+            return baos.toString(StandardCharsets.UTF_8);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Error writing to String", e);
+        }
+    }
+}
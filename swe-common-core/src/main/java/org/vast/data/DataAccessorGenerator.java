@@ -0,0 +1,563 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.ScalarIndexer;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataChoice;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.GeometryData;
+import net.opengis.swe.v20.ScalarComponent;
+
+
+/**
+ * <p>
+ * This class generates accessor classes at runtime, using a data component
+ * schema and an interface with annotations that maps get/set methods to
+ * component paths (see {@link DataBlockProxy} for mapping rules).
+ * </p><p>
+ * Each get/set method of the generated class directly reads or writes the
+ * wrapped data block at the index of the mapped scalar component, so no
+ * reflection or boxing is involved. Generated classes are defined in the
+ * package of the target interface with {@link MethodHandles.Lookup#defineClass}
+ * and are cached, so they are only generated once per interface and
+ * record layout.
+ * </p><p>
+ * Only records made of scalars, ranges, vectors and nested records, and
+ * get/set methods of scalar values are supported. In all other
+ * cases, the generator falls back to {@link DataBlockProxy}.
+ * </p><p>
+ * Like with the proxy, accessor methods throw an {@link IllegalStateException}
+ * when called before a data block has been assigned with
+ * {@link IDataAccessor#wrap(DataBlock)}.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class DataAccessorGenerator
+{
+    static final Logger log = LoggerFactory.getLogger(DataAccessorGenerator.class);
+
+    static final String BASE_CLASS = internalName(DataAccessorBase.class);
+    static final String DATABLOCK_CLASS = internalName(DataBlock.class);
+    static final String DATABLOCK_DESC = "L" + DATABLOCK_CLASS + ";";
+    static final String CONSTRUCTOR_DESC = "(L" + internalName(DataComponent.class) + ";)V";
+    static final AtomicInteger classCounter = new AtomicInteger();
+
+    // generated class constructors, by target interface and then by record layout
+    // (empty if the class could not be defined and the proxy must be used)
+    static final ClassValue<Map<String, Optional<MethodHandle>>> constructorCache = new ClassValue<>() {
+        @Override
+        protected Map<String, Optional<MethodHandle>> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+
+    /*
+     * Mapping of a get or set method to a DataBlock method
+     */
+    static class MethodMapping
+    {
+        Method method;
+        boolean isSetter;
+        Class<?> valueType;
+        int dataIndex;
+    }
+
+
+    private DataAccessorGenerator()
+    {
+    }
+
+
+    /**
+     * Generates an accessor for the given record schema
+     * @param recordSchema Schema of records the accessor will wrap
+     * @param targetInterface Accessor interface
+     * @return A new instance of the generated accessor class, or a
+     * {@link DataBlockProxy} if the schema or interface is not supported
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends IDataAccessor> T generate(DataComponent recordSchema, Class<T> targetInterface)
+    {
+        var mappings = getMethodMappings(recordSchema, targetInterface);
+        if (mappings == null)
+            return DataBlockProxy.createProxy(recordSchema, targetInterface);
+
+        var cache = constructorCache.get(targetInterface);
+        var constructor = cache.computeIfAbsent(getLayoutKey(mappings),
+            k -> tryDefineClass(targetInterface, mappings));
+        if (constructor.isEmpty())
+            return DataBlockProxy.createProxy(recordSchema, targetInterface);
+
+        try
+        {
+            return (T)constructor.get().invoke(recordSchema);
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException("Error creating accessor for " + targetInterface.getName(), e);
+        }
+    }
+
+
+    /*
+     * Define the accessor class, or return an empty constructor if it
+     * cannot be defined in the interface package (e.g. due to module or
+     * class loader restrictions), so the proxy is used for this layout
+     */
+    static Optional<MethodHandle> tryDefineClass(Class<?> targetInterface, List<MethodMapping> mappings)
+    {
+        try
+        {
+            return Optional.of(defineClass(targetInterface, mappings));
+        }
+        catch (IllegalAccessException | SecurityException | LinkageError e)
+        {
+            log.warn("Cannot generate accessor class for {}. Using proxy.", targetInterface.getName(), e);
+            return Optional.empty();
+        }
+    }
+
+
+    /*
+     * Map all accessor methods to scalar components, or return null if some
+     * of them are not supported
+     */
+    static List<MethodMapping> getMethodMappings(DataComponent recordSchema, Class<?> targetInterface)
+    {
+        // check record layout is fixed and can be indexed by ScalarIndexer
+        for (var c: new DataIterator(recordSchema))
+        {
+            if (c instanceof DataChoice || c instanceof DataArray || c instanceof GeometryData)
+                return null;
+        }
+
+        var mappings = new ArrayList<MethodMapping>();
+        for (var m: targetInterface.getMethods())
+        {
+            if (!Modifier.isAbstract(m.getModifiers()) ||
+                m.getDeclaringClass() == IDataAccessor.class)
+                continue;
+
+            var mapping = new MethodMapping();
+            mapping.method = m;
+            if (isGetMethod(m))
+                mapping.valueType = m.getReturnType();
+            else if (isSetMethod(m))
+            {
+                mapping.isSetter = true;
+                mapping.valueType = m.getParameterTypes()[0];
+            }
+
+            if (mapping.valueType == null || getDataBlockMethodSuffix(mapping.valueType) == null)
+                return null;
+
+            var annotations = m.getAnnotationsByType(IDataAccessor.SweMapping.class);
+            if (annotations.length == 0)
+                return null;
+
+            try
+            {
+                var comp = SWEHelper.findComponentByPath(recordSchema, annotations[0].path());
+                if (!(comp instanceof ScalarComponent))
+                    return null;
+                mapping.dataIndex = new ScalarIndexer(recordSchema, (ScalarComponent)comp).getDataIndex(null);
+            }
+            catch (Exception e)
+            {
+                return null;
+            }
+
+            mappings.add(mapping);
+        }
+
+        // sort to always generate identical classes for identical layouts
+        mappings.sort(Comparator.comparing(mapping -> mapping.method.toString()));
+        return mappings;
+    }
+
+
+    static String getLayoutKey(List<MethodMapping> mappings)
+    {
+        var indexes = new int[mappings.size()];
+        for (int i = 0; i < indexes.length; i++)
+            indexes[i] = mappings.get(i).dataIndex;
+        return Arrays.toString(indexes);
+    }
+
+
+    static boolean isGetMethod(Method m)
+    {
+        return m.getName().startsWith("get") &&
+               m.getReturnType() != void.class &&
+               m.getParameterCount() == 0;
+    }
+
+
+    static boolean isSetMethod(Method m)
+    {
+        return m.getName().startsWith("set") &&
+               !m.getName().startsWith("setNum") &&
+               m.getReturnType() == void.class &&
+               m.getParameterCount() == 1;
+    }
+
+
+    /*
+     * Gets suffix of DataBlock get/set method name for the given value type
+     */
+    static String getDataBlockMethodSuffix(Class<?> type)
+    {
+        if (type == boolean.class)
+            return "BooleanValue";
+        else if (type == byte.class)
+            return "ByteValue";
+        else if (type == short.class)
+            return "ShortValue";
+        else if (type == int.class)
+            return "IntValue";
+        else if (type == long.class)
+            return "LongValue";
+        else if (type == float.class)
+            return "FloatValue";
+        else if (type == double.class)
+            return "DoubleValue";
+        else if (type == String.class)
+            return "StringValue";
+        else if (type == Instant.class)
+            return "TimeStamp";
+        else if (type == OffsetDateTime.class)
+            return "DateTime";
+        else
+            return null;
+    }
+
+
+    static MethodHandle defineClass(Class<?> targetInterface, List<MethodMapping> mappings) throws IllegalAccessException
+    {
+        var className = internalName(targetInterface) + "$$SweAccessor" + classCounter.incrementAndGet();
+        byte[] classBytes;
+        try
+        {
+            classBytes = new ClassFileWriter(className, internalName(targetInterface), mappings).toByteArray();
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Error writing accessor class " + className, e);
+        }
+
+        var lookup = MethodHandles.privateLookupIn(targetInterface, MethodHandles.lookup());
+        var clazz = lookup.defineClass(classBytes);
+        try
+        {
+            return lookup.findConstructor(clazz, MethodType.methodType(void.class, DataComponent.class))
+                .asType(MethodType.methodType(IDataAccessor.class, DataComponent.class));
+        }
+        catch (NoSuchMethodException e)
+        {
+            throw new IllegalStateException("Missing constructor in accessor class " + className, e);
+        }
+    }
+
+
+    static String internalName(Class<?> clazz)
+    {
+        return clazz.getName().replace('.', '/');
+    }
+
+
+    /*
+     * Minimal class file writer for the accessor classes.
+     * Generated methods have no branches so no stack map frames are needed.
+     */
+    static class ClassFileWriter
+    {
+        static final int CLASS_VERSION = 55; // Java 11
+        static final int ACC_PUBLIC = 0x0001;
+        static final int ACC_FINAL = 0x0010;
+        static final int ACC_SUPER = 0x0020;
+
+        static final int ALOAD_0 = 0x2a;
+        static final int ALOAD_1 = 0x2b;
+        static final int ICONST_0 = 0x03;
+        static final int BIPUSH = 0x10;
+        static final int SIPUSH = 0x11;
+        static final int LDC_W = 0x13;
+        static final int INVOKEVIRTUAL = 0xb6;
+        static final int INVOKESPECIAL = 0xb7;
+        static final int INVOKEINTERFACE = 0xb9;
+        static final int RETURN = 0xb1;
+
+        static final int CONSTANT_Utf8 = 1;
+        static final int CONSTANT_Integer = 3;
+        static final int CONSTANT_Class = 7;
+        static final int CONSTANT_Methodref = 10;
+        static final int CONSTANT_InterfaceMethodref = 11;
+        static final int CONSTANT_NameAndType = 12;
+
+        final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+        final DataOutputStream pool = new DataOutputStream(poolBytes);
+        final Map<String, Integer> poolIndexes = new HashMap<>();
+        final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+        final DataOutputStream methods = new DataOutputStream(methodBytes);
+        int methodCount;
+        final int thisClass, superClass, itfClass, codeAttr;
+
+
+        ClassFileWriter(String className, String itfName, List<MethodMapping> mappings) throws IOException
+        {
+            thisClass = classRef(className);
+            superClass = classRef(BASE_CLASS);
+            itfClass = classRef(itfName);
+            codeAttr = utf8("Code");
+
+            writeConstructor();
+            for (var mapping: mappings)
+                writeAccessorMethod(mapping);
+        }
+
+
+        void writeConstructor() throws IOException
+        {
+            var codeBytes = new ByteArrayOutputStream();
+            var code = new DataOutputStream(codeBytes);
+            code.writeByte(ALOAD_0);
+            code.writeByte(ALOAD_1);
+            code.writeByte(INVOKESPECIAL);
+            code.writeShort(memberRef(CONSTANT_Methodref, BASE_CLASS, "<init>", CONSTRUCTOR_DESC));
+            code.writeByte(RETURN);
+            writeMethod("<init>", CONSTRUCTOR_DESC, codeBytes.toByteArray(), 2, 2);
+        }
+
+
+        void writeAccessorMethod(MethodMapping mapping) throws IOException
+        {
+            var valueType = mapping.valueType;
+            var typeDesc = MethodType.methodType(valueType).toMethodDescriptorString().substring(2);
+            var valueSlots = (valueType == long.class || valueType == double.class) ? 2 : 1;
+            var codeBytes = new ByteArrayOutputStream();
+            var code = new DataOutputStream(codeBytes);
+
+            // load data block and index
+            // the data block getter checks that a block was assigned so the
+            // generated code doesn't need any branch
+            code.writeByte(ALOAD_0);
+            code.writeByte(INVOKEVIRTUAL);
+            code.writeShort(memberRef(CONSTANT_Methodref, BASE_CLASS, "getAssignedDataBlock", "()" + DATABLOCK_DESC));
+            pushInt(code, mapping.dataIndex);
+
+            // argument slots include data block and index
+            String methodName, methodDesc;
+            int argSlots;
+            if (mapping.isSetter)
+            {
+                code.writeByte(loadOpcode(valueType));
+                methodName = "set" + getDataBlockMethodSuffix(valueType);
+                methodDesc = "(I" + typeDesc + ")V";
+                argSlots = 2 + valueSlots;
+            }
+            else
+            {
+                methodName = "get" + getDataBlockMethodSuffix(valueType);
+                methodDesc = "(I)" + typeDesc;
+                argSlots = 2;
+            }
+
+            // call DataBlock method
+            code.writeByte(INVOKEINTERFACE);
+            code.writeShort(memberRef(CONSTANT_InterfaceMethodref, DATABLOCK_CLASS, methodName, methodDesc));
+            code.writeByte(argSlots);
+            code.writeByte(0);
+            code.writeByte(mapping.isSetter ? RETURN : returnOpcode(valueType));
+
+            var m = mapping.method;
+            var desc = MethodType.methodType(m.getReturnType(), m.getParameterTypes()).toMethodDescriptorString();
+            writeMethod(m.getName(), desc, codeBytes.toByteArray(), argSlots, mapping.isSetter ? 1 + valueSlots : 1);
+        }
+
+
+        void writeMethod(String name, String desc, byte[] codeBytes, int maxStack, int maxLocals) throws IOException
+        {
+            methods.writeShort(ACC_PUBLIC);
+            methods.writeShort(utf8(name));
+            methods.writeShort(utf8(desc));
+            methods.writeShort(1); // attribute count
+            methods.writeShort(codeAttr);
+            methods.writeInt(12 + codeBytes.length);
+            methods.writeShort(maxStack);
+            methods.writeShort(maxLocals);
+            methods.writeInt(codeBytes.length);
+            methods.write(codeBytes);
+            methods.writeShort(0); // exception table length
+            methods.writeShort(0); // code attribute count
+            methodCount++;
+        }
+
+
+        void pushInt(DataOutputStream code, int val) throws IOException
+        {
+            if (val <= 5)
+                code.writeByte(ICONST_0 + val);
+            else if (val <= Byte.MAX_VALUE)
+            {
+                code.writeByte(BIPUSH);
+                code.writeByte(val);
+            }
+            else if (val <= Short.MAX_VALUE)
+            {
+                code.writeByte(SIPUSH);
+                code.writeShort(val);
+            }
+            else
+            {
+                code.writeByte(LDC_W);
+                code.writeShort(constant(CONSTANT_Integer, Integer.toString(val), () -> pool.writeInt(val)));
+            }
+        }
+
+
+        int loadOpcode(Class<?> type)
+        {
+            if (type == long.class)
+                return 0x1f; // lload_1
+            else if (type == float.class)
+                return 0x23; // fload_1
+            else if (type == double.class)
+                return 0x27; // dload_1
+            else if (type.isPrimitive())
+                return 0x1b; // iload_1
+            else
+                return 0x2b; // aload_1
+        }
+
+
+        int returnOpcode(Class<?> type)
+        {
+            if (type == long.class)
+                return 0xad; // lreturn
+            else if (type == float.class)
+                return 0xae; // freturn
+            else if (type == double.class)
+                return 0xaf; // dreturn
+            else if (type.isPrimitive())
+                return 0xac; // ireturn
+            else
+                return 0xb0; // areturn
+        }
+
+
+        interface PoolEntryWriter
+        {
+            void write() throws IOException;
+        }
+
+
+        int constant(int tag, String key, PoolEntryWriter entryWriter) throws IOException
+        {
+            var fullKey = tag + ":" + key;
+            var index = poolIndexes.get(fullKey);
+            if (index == null)
+            {
+                pool.writeByte(tag);
+                entryWriter.write();
+                index = poolIndexes.size() + 1;
+                poolIndexes.put(fullKey, index);
+            }
+            return index;
+        }
+
+
+        int utf8(String s) throws IOException
+        {
+            return constant(CONSTANT_Utf8, s, () -> pool.writeUTF(s));
+        }
+
+
+        int classRef(String name) throws IOException
+        {
+            int nameIdx = utf8(name);
+            return constant(CONSTANT_Class, name, () -> pool.writeShort(nameIdx));
+        }
+
+
+        int memberRef(int tag, String owner, String name, String desc) throws IOException
+        {
+            int ownerIdx = classRef(owner);
+            int nameIdx = utf8(name);
+            int descIdx = utf8(desc);
+            int natIdx = constant(CONSTANT_NameAndType, name + desc, () -> {
+                pool.writeShort(nameIdx);
+                pool.writeShort(descIdx);
+            });
+            return constant(tag, owner + "." + name + desc, () -> {
+                pool.writeShort(ownerIdx);
+                pool.writeShort(natIdx);
+            });
+        }
+
+
+        byte[] toByteArray() throws IOException
+        {
+            var bytes = new ByteArrayOutputStream();
+            var out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_VERSION);
+            out.writeShort(poolIndexes.size() + 1);
+            out.write(poolBytes.toByteArray());
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1); // interface count
+            out.writeShort(itfClass);
+            out.writeShort(0); // field count
+            out.writeShort(methodCount);
+            out.write(methodBytes.toByteArray());
+            out.writeShort(0); // attribute count
+            return bytes.toByteArray();
+        }
+    }
+}
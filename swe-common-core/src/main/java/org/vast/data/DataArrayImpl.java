@@ -15,6 +15,7 @@ Copyright (C) 2012-2015 Sensia Software LLC. All Rights Reserved.
 package org.vast.data;
 
 import java.util.List;
+import org.vast.data.DataBlockFactory.LayoutHint;
 import org.vast.util.Asserts;
 import net.opengis.swe.v20.BinaryBlock;
 import net.opengis.swe.v20.Count;
@@ -299,10 +300,29 @@ public class DataArrayImpl extends AbstractArrayImpl
      * Create the right data block to carry this array data
      * It can be either a scalar array (DataBlockDouble, etc...)
      * or a group of mixed types parallel arrays (DataBlockMixed)
+     * Flat or off-heap blocks are created according to the data block hint
+     * and the off-heap size threshold (see {@link DataBlockFactory})
      */
     @Override
     public AbstractDataBlock createDataBlock()
     {
+        boolean offHeap = dataBlockHint == LayoutHint.OFF_HEAP;
+        
+        // use a flat block holding all records if requested and array has a fixed layout
+        // that fits in a single buffer
+        if ((dataBlockHint == LayoutHint.FLAT || offHeap) && !isVariableSize() && !(encodingInfo instanceof BinaryBlock))
+        {
+            DataBlockFlat.Layout layout = DataBlockFlat.Layout.compile(getArrayComponent());
+            int arraySize = getComponentCount();
+            if (layout != null && (long)arraySize * layout.getRecordSize() <= DataBlockFlat.MAX_SIZE)
+            {
+                offHeap |= DataBlockFactory.isAboveOffHeapThreshold((long)arraySize * layout.getRecordSize());
+                DataBlockFlat newBlock = new DataBlockFlat(layout, arraySize, offHeap);
+                scalarCount = newBlock.atomCount;
+                return newBlock;
+            }
+        }
+        
         AbstractDataBlock childBlock = getArrayComponent().createDataBlock();
     	AbstractDataBlock newBlock = null;
     	int arraySize = getComponentCount();
@@ -346,8 +366,20 @@ public class DataArrayImpl extends AbstractArrayImpl
 	        // if child is already a primitive block, create bigger primitive block
 	        else
 	        {
-	        	newBlock = childBlock.copy();
                 newSize = childBlock.atomCount * arraySize;
+                
+                // store large arrays outside of java heap if possible
+                int valueSize = DataBlockFlat.Layout.getSize(childBlock.getDataType());
+                if (childBlock instanceof DataBlockFlat)
+                {
+                    DataBlockFlat.Layout layout = ((DataBlockFlat)childBlock).getLayout();
+                    offHeap |= DataBlockFactory.isAboveOffHeapThreshold((long)arraySize * layout.getRecordSize());
+                    newBlock = new DataBlockFlat(layout, 0, offHeap);
+                }
+                else if (valueSize > 0 && (offHeap || DataBlockFactory.isAboveOffHeapThreshold((long)newSize * valueSize)))
+                    newBlock = DataBlockFactory.createOffHeapBlock(childBlock.getDataType(), 0);
+                else
+                    newBlock = childBlock.copy();
 	        }
 	        
 	        newBlock.resize(newSize);
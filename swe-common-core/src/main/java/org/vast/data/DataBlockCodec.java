@@ -0,0 +1,988 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.data;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataType;
+
+
+/**
+ * <p>
+ * Compact binary codec for data block trees, to persist data blocks or
+ * send them to other nodes without the overhead of Java serialization.
+ * </p><p>
+ * Each block is written as a type tag followed by its start index and atom
+ * count encoded as var-ints, then by its child blocks or its values.
+ * Numerical values are written as raw little endian arrays, booleans are
+ * packed in bits, and only the values visible through each block view are
+ * written. The structure of the block tree is carried by the type tags so
+ * no data component is needed to decode it. Shared child blocks are written
+ * once per reference.
+ * </p><p>
+ * Blocks can also be decoded without copying numerical values with
+ * {@link #decodeView(ByteBuffer)}, in which case primitive arrays are
+ * returned as {@link DataBlockFlat} instances wrapping the source buffer.
+ * </p><p>
+ * Instances of this class reuse internal buffers and are not thread-safe.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class DataBlockCodec
+{
+    static final int INITIAL_BUFFER_SIZE = 4096;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final byte TAG_NULL = 0;
+    static final byte TAG_BOOLEAN = 1;
+    static final byte TAG_BYTE = 2;
+    static final byte TAG_UBYTE = 3;
+    static final byte TAG_SHORT = 4;
+    static final byte TAG_USHORT = 5;
+    static final byte TAG_INT = 6;
+    static final byte TAG_UINT = 7;
+    static final byte TAG_LONG = 8;
+    static final byte TAG_ULONG = 9;
+    static final byte TAG_FLOAT = 10;
+    static final byte TAG_DOUBLE = 11;
+    static final byte TAG_STRING = 12;
+    static final byte TAG_INSTANT = 13;
+    static final byte TAG_DATETIME = 14;
+    static final byte TAG_MIXED = 16;
+    static final byte TAG_PARALLEL = 17;
+    static final byte TAG_TUPLE = 18;
+    static final byte TAG_LIST = 19;
+    static final byte TAG_FLAT = 20;
+    static final byte TAG_COMPRESSED = 21;
+
+    // data types of scalar tags, as used in flat block layouts
+    static final DataType[] TAG_TYPES = {
+        null,
+        DataType.BOOLEAN,
+        DataType.BYTE,
+        DataType.UBYTE,
+        DataType.SHORT,
+        DataType.USHORT,
+        DataType.INT,
+        DataType.UINT,
+        DataType.LONG,
+        DataType.ULONG,
+        DataType.FLOAT,
+        DataType.DOUBLE
+    };
+
+    ByteBuffer outBuf = ByteBuffer.allocate(INITIAL_BUFFER_SIZE).order(BYTE_ORDER);
+    byte[] inBytes = new byte[INITIAL_BUFFER_SIZE];
+    byte[] strBytes = new byte[256];
+    final byte[] lengthBytes = new byte[5];
+    final DataBlockFlat.Layout[] valueLayouts = new DataBlockFlat.Layout[TAG_TYPES.length];
+
+
+    /**
+     * Encodes the data block tree to a new byte array
+     * @param block Data block to encode
+     * @return Encoded bytes
+     * @throws IllegalArgumentException if the tree contains unsupported blocks
+     */
+    public byte[] encode(DataBlock block)
+    {
+        encodeToBuffer(block);
+
+        byte[] bytes = new byte[outBuf.position()];
+        System.arraycopy(outBuf.array(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+
+    /**
+     * Writes the data block tree to the output stream, prefixed by its
+     * length so that several blocks can be written to the same stream
+     * @param block Data block to write
+     * @param os Output stream
+     * @throws IOException if the block cannot be written to the stream
+     * @throws IllegalArgumentException if the tree contains unsupported blocks
+     */
+    public void write(DataBlock block, OutputStream os) throws IOException
+    {
+        encodeToBuffer(block);
+
+        int length = outBuf.position();
+        int n = 0;
+        while ((length & ~0x7F) != 0)
+        {
+            lengthBytes[n++] = (byte)((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        lengthBytes[n++] = (byte)length;
+
+        os.write(lengthBytes, 0, n);
+        os.write(outBuf.array(), 0, outBuf.position());
+    }
+
+
+    /**
+     * Reads the next data block tree written by {@link #write(DataBlock, OutputStream)}
+     * @param is Input stream
+     * @return The decoded data block or null if the end of stream was reached
+     * @throws IOException if the block cannot be read or is invalid
+     */
+    public DataBlock read(InputStream is) throws IOException
+    {
+        // read length prefix
+        int length = 0;
+        for (int shift = 0; ; shift += 7)
+        {
+            int b = is.read();
+            if (b < 0)
+            {
+                if (shift == 0)
+                    return null;
+                throw new EOFException("Truncated data block length");
+            }
+
+            if (shift > 28)
+                throw new IOException("Invalid data block length");
+
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                break;
+        }
+
+        if (length > inBytes.length)
+            inBytes = new byte[Math.max(length, inBytes.length * 2)];
+
+        int offset = 0;
+        while (offset < length)
+        {
+            int count = is.read(inBytes, offset, length - offset);
+            if (count < 0)
+                throw new EOFException("Truncated data block");
+            offset += count;
+        }
+
+        // values are always copied since input buffer is reused
+        try
+        {
+            ByteBuffer in = ByteBuffer.wrap(inBytes, 0, length).order(BYTE_ORDER);
+            return readBlock(in, false);
+        }
+        catch (BufferUnderflowException | IllegalArgumentException e)
+        {
+            throw new IOException("Invalid data block encoding", e);
+        }
+    }
+
+
+    /**
+     * Decodes a data block tree from the buffer, copying all values.<br/>
+     * The buffer position is advanced to the end of the encoded block.
+     * @param buf Buffer containing the encoded block
+     * @return The decoded data block
+     * @throws BufferUnderflowException if the buffer doesn't contain a complete block
+     */
+    public DataBlock decode(ByteBuffer buf)
+    {
+        return decode(buf, false);
+    }
+
+
+    /**
+     * Decodes a data block tree from the buffer, without copying numerical
+     * values. Primitive numerical blocks are decoded as {@link DataBlockFlat}
+     * views on the buffer, so the buffer content must not be modified as long
+     * as the blocks are in use, and changes made to their values are written
+     * to the buffer (or fail if the buffer is read-only).<br/>
+     * The buffer position is advanced to the end of the encoded block.
+     * @param buf Buffer containing the encoded block
+     * @return The decoded data block
+     * @throws BufferUnderflowException if the buffer doesn't contain a complete block
+     */
+    public DataBlock decodeView(ByteBuffer buf)
+    {
+        return decode(buf, true);
+    }
+
+
+    protected DataBlock decode(ByteBuffer buf, boolean view)
+    {
+        ByteBuffer in = buf.duplicate().order(BYTE_ORDER);
+        DataBlock block = readBlock(in, view);
+        buf.position(in.position());
+        return block;
+    }
+
+
+    protected void encodeToBuffer(DataBlock block)
+    {
+        outBuf.clear();
+        writeBlock(block, false);
+    }
+
+
+    /*
+     * Writes a block and its children recursively.
+     * If fullArray is true, the whole underlying array of primitive blocks is
+     * written, which is needed for children of parallel blocks since they are
+     * accessed with indexes relative to their underlying array.
+     */
+    protected void writeBlock(DataBlock block, boolean fullArray)
+    {
+        if (block == null)
+        {
+            putByte(TAG_NULL);
+        }
+        else if (block instanceof DataBlockMixed)
+        {
+            DataBlockMixed mixed = (DataBlockMixed)block;
+            writeHeader(TAG_MIXED, mixed.startIndex, mixed.atomCount);
+            writeChildren(mixed.blockArray, false);
+        }
+        else if (block instanceof DataBlockParallel)
+        {
+            DataBlockParallel parallel = (DataBlockParallel)block;
+            writeHeader(TAG_PARALLEL, parallel.startIndex, parallel.atomCount);
+            writeChildren(parallel.blockArray, true);
+        }
+        else if (block instanceof DataBlockTuple)
+        {
+            DataBlockTuple tuple = (DataBlockTuple)block;
+            writeHeader(TAG_TUPLE, tuple.startIndex, tuple.atomCount);
+            writeChildren(tuple.blockArray, false);
+        }
+        else if (block instanceof DataBlockList)
+        {
+            writeList((DataBlockList)block);
+        }
+        else if (block instanceof DataBlockFlat)
+        {
+            writeFlat((DataBlockFlat)block, fullArray);
+        }
+        else if (block instanceof DataBlockCompressed)
+        {
+            DataBlockCompressed compressed = (DataBlockCompressed)block;
+            writeHeader(TAG_COMPRESSED, compressed.startIndex, compressed.atomCount);
+            putVarInt(compressed.compressionType);
+            putBytes(compressed.compressedData);
+            writeBlock(compressed.uncompressedData, false);
+        }
+        else if (block instanceof AbstractDataBlock)
+        {
+            writePrimitive((AbstractDataBlock)block, fullArray);
+        }
+        else
+            throw unsupportedBlock(block);
+    }
+
+
+    protected void writeHeader(byte tag, int startIndex, int atomCount)
+    {
+        putByte(tag);
+        putVarInt(startIndex);
+        putVarInt(atomCount);
+    }
+
+
+    protected void writeChildren(AbstractDataBlock[] blockArray, boolean fullArray)
+    {
+        putVarInt(blockArray.length);
+        for (AbstractDataBlock child: blockArray)
+            writeBlock(child, fullArray);
+    }
+
+
+    protected void writeList(DataBlockList list)
+    {
+        writeHeader(TAG_LIST, list.startIndex, list.atomCount);
+        putByte((byte)((list.equalBlockSize ? 1 : 0) | (list.blockList instanceof ArrayList ? 2 : 0)));
+        putVarInt(list.blockAtomCount + 1);
+        putVarInt(list.blockList.size());
+        for (DataBlock child: list.blockList)
+            writeBlock(child, false);
+    }
+
+
+    protected void writeFlat(DataBlockFlat block, boolean fullArray)
+    {
+        DataBlockFlat.Layout layout = block.layout;
+        ByteBuffer buf = block.buffer();
+        int numFields = layout.types.length;
+
+        // only write records overlapping the view
+        int firstRecord = 0;
+        int numRecords = buf.capacity() / layout.recordSize;
+        if (!fullArray)
+        {
+            firstRecord = block.startIndex / numFields;
+            numRecords = block.atomCount > 0 ? (block.startIndex + block.atomCount - 1) / numFields - firstRecord + 1 : 0;
+        }
+
+        writeHeader(TAG_FLAT, block.startIndex - firstRecord * numFields, block.atomCount);
+        putVarInt(numFields);
+        for (DataType type: layout.types)
+            putByte(getTypeTag(type));
+        putByte((byte)((buf.order() == ByteOrder.BIG_ENDIAN ? 1 : 0) | (buf.isDirect() ? 2 : 0)));
+        putVarInt(numRecords);
+
+        ByteBuffer src = buf.duplicate();
+        src.limit((firstRecord + numRecords) * layout.recordSize);
+        src.position(firstRecord * layout.recordSize);
+        ensureCapacity(src.remaining());
+        outBuf.put(src);
+    }
+
+
+    protected void writePrimitive(AbstractDataBlock block, boolean fullArray)
+    {
+        byte tag = getPrimitiveTag(block);
+        Object array = block.getUnderlyingObject();
+        int arrayLength = array != null ? java.lang.reflect.Array.getLength(array) : 0;
+
+        int start = fullArray ? 0 : block.startIndex;
+        int count = fullArray ? arrayLength : Math.max(0, Math.min(block.atomCount, arrayLength - start));
+        writeHeader(tag, fullArray ? block.startIndex : 0, block.atomCount);
+        putVarInt(count);
+
+        switch (tag)
+        {
+            case TAG_BOOLEAN:
+                putBooleans((boolean[])array, start, count);
+                break;
+
+            case TAG_BYTE:
+            case TAG_UBYTE:
+                ensureCapacity(count);
+                outBuf.put((byte[])array, start, count);
+                break;
+
+            case TAG_SHORT:
+            case TAG_USHORT:
+                ensureCapacity(count * 2);
+                outBuf.asShortBuffer().put((short[])array, start, count);
+                outBuf.position(outBuf.position() + count * 2);
+                break;
+
+            case TAG_INT:
+            case TAG_UINT:
+                ensureCapacity(count * 4);
+                outBuf.asIntBuffer().put((int[])array, start, count);
+                outBuf.position(outBuf.position() + count * 4);
+                break;
+
+            case TAG_LONG:
+                ensureCapacity(count * 8);
+                outBuf.asLongBuffer().put((long[])array, start, count);
+                outBuf.position(outBuf.position() + count * 8);
+                break;
+
+            case TAG_FLOAT:
+                ensureCapacity(count * 4);
+                outBuf.asFloatBuffer().put((float[])array, start, count);
+                outBuf.position(outBuf.position() + count * 4);
+                break;
+
+            case TAG_DOUBLE:
+                ensureCapacity(count * 8);
+                outBuf.asDoubleBuffer().put((double[])array, start, count);
+                outBuf.position(outBuf.position() + count * 8);
+                break;
+
+            case TAG_STRING:
+                String[] strings = (String[])array;
+                for (int i = start; i < start + count; i++)
+                    putBytes(strings[i] != null ? strings[i].getBytes(StandardCharsets.UTF_8) : null);
+                break;
+
+            case TAG_INSTANT:
+                Instant[] instants = (Instant[])array;
+                for (int i = start; i < start + count; i++)
+                    putInstant(instants[i]);
+                break;
+
+            case TAG_DATETIME:
+                OffsetDateTime[] dateTimes = (OffsetDateTime[])array;
+                for (int i = start; i < start + count; i++)
+                {
+                    OffsetDateTime dt = dateTimes[i];
+                    putInstant(dt != null ? dt.toInstant() : null);
+                    if (dt != null)
+                        putVarInt(zigZag(dt.getOffset().getTotalSeconds()));
+                }
+                break;
+
+            default:
+                throw unsupportedBlock(block);
+        }
+    }
+
+
+    protected byte getPrimitiveTag(AbstractDataBlock block)
+    {
+        if (block instanceof DataBlockDouble)
+            return TAG_DOUBLE;
+        else if (block instanceof DataBlockFloat)
+            return TAG_FLOAT;
+        else if (block instanceof DataBlockLong)
+            return TAG_LONG;
+        else if (block instanceof DataBlockInt)
+            return TAG_INT;
+        else if (block instanceof DataBlockUInt)
+            return TAG_UINT;
+        else if (block instanceof DataBlockShort)
+            return TAG_SHORT;
+        else if (block instanceof DataBlockUShort)
+            return TAG_USHORT;
+        else if (block instanceof DataBlockByte)
+            return TAG_BYTE;
+        else if (block instanceof DataBlockUByte)
+            return TAG_UBYTE;
+        else if (block instanceof DataBlockBoolean)
+            return TAG_BOOLEAN;
+        else if (block instanceof DataBlockString)
+            return TAG_STRING;
+        else if (block instanceof DataBlockInstant)
+            return TAG_INSTANT;
+        else if (block instanceof DataBlockDateTime)
+            return TAG_DATETIME;
+        else
+            throw unsupportedBlock(block);
+    }
+
+
+    protected byte getTypeTag(DataType dataType)
+    {
+        for (byte tag = 1; tag < TAG_TYPES.length; tag++)
+        {
+            if (TAG_TYPES[tag] == dataType)
+                return tag;
+        }
+
+        throw new IllegalArgumentException("Unsupported data type: " + dataType);
+    }
+
+
+    protected AbstractDataBlock readBlock(ByteBuffer in, boolean view)
+    {
+        byte tag = in.get();
+        if (tag == TAG_NULL)
+            return null;
+
+        int startIndex = getVarInt(in);
+        int atomCount = getVarInt(in);
+        AbstractDataBlock block;
+
+        switch (tag)
+        {
+            case TAG_MIXED:
+                DataBlockMixed mixed = new DataBlockMixed();
+                mixed.blockArray = readChildren(in, view);
+                block = mixed;
+                break;
+
+            case TAG_PARALLEL:
+                DataBlockParallel parallel = new DataBlockParallel();
+                parallel.blockArray = readChildren(in, view);
+                block = parallel;
+                break;
+
+            case TAG_TUPLE:
+                DataBlockTuple tuple = new DataBlockTuple();
+                tuple.blockArray = readChildren(in, view);
+                block = tuple;
+                break;
+
+            case TAG_LIST:
+                block = readList(in, view);
+                break;
+
+            case TAG_FLAT:
+                block = readFlat(in, view);
+                break;
+
+            case TAG_COMPRESSED:
+                DataBlockCompressed compressed = new DataBlockCompressed();
+                compressed.compressionType = getVarInt(in);
+                compressed.compressedData = getBytes(in);
+                compressed.uncompressedData = readBlock(in, view);
+                block = compressed;
+                break;
+
+            default:
+                block = readPrimitive(tag, in, view);
+        }
+
+        block.startIndex = startIndex;
+        block.atomCount = atomCount;
+        return block;
+    }
+
+
+    protected AbstractDataBlock[] readChildren(ByteBuffer in, boolean view)
+    {
+        AbstractDataBlock[] blockArray = new AbstractDataBlock[getLength(in, 8)];
+        for (int i = 0; i < blockArray.length; i++)
+            blockArray[i] = readBlock(in, view);
+        return blockArray;
+    }
+
+
+    protected DataBlockList readList(ByteBuffer in, boolean view)
+    {
+        byte flags = in.get();
+        int blockAtomCount = getVarInt(in) - 1;
+        int listSize = getLength(in, 8);
+
+        DataBlockList list = new DataBlockList(listSize, (flags & 2) != 0, (flags & 1) != 0);
+        list.blockAtomCount = blockAtomCount;
+        List<DataBlock> blockList = list.blockList;
+        for (int i = 0; i < listSize; i++)
+            blockList.add(readBlock(in, view));
+        return list;
+    }
+
+
+    protected DataBlockFlat readFlat(ByteBuffer in, boolean view)
+    {
+        DataType[] types = new DataType[getLength(in, 8)];
+        for (int i = 0; i < types.length; i++)
+            types[i] = getTagType(in.get());
+        DataBlockFlat block = new DataBlockFlat();
+        block.layout = types.length == 1 ? getValueLayout(getTypeTag(types[0])) : new DataBlockFlat.Layout(types);
+        byte flags = in.get();
+        int numRecords = getLength(in, block.layout.recordSize * 8);
+
+        ByteOrder byteOrder = (flags & 1) != 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        ByteBuffer src = getSlice(in, numRecords * block.layout.recordSize);
+
+        if (view)
+        {
+            block.setUnderlyingObject(src.order(byteOrder));
+        }
+        else
+        {
+            ByteBuffer buf = DataBlockFlat.allocate(src.remaining(), (flags & 2) != 0).order(byteOrder);
+            buf.put(src);
+            buf.clear();
+            block.setUnderlyingObject(buf);
+        }
+
+        return block;
+    }
+
+
+    protected AbstractDataBlock readPrimitive(byte tag, ByteBuffer in, boolean view)
+    {
+        // booleans are packed, other values take at least one byte
+        int itemBits = 8;
+        if (tag == TAG_BOOLEAN)
+            itemBits = 1;
+        else if (tag < TAG_TYPES.length)
+            itemBits = getValueLayout(tag).recordSize * 8;
+        int count = getLength(in, itemBits);
+
+        // wrap numerical values without copying them
+        if (view && tag > TAG_BOOLEAN && tag < TAG_TYPES.length)
+        {
+            DataBlockFlat.Layout layout = getValueLayout(tag);
+            DataBlockFlat block = new DataBlockFlat();
+            block.layout = layout;
+            block.setUnderlyingObject(getSlice(in, count * layout.recordSize).order(BYTE_ORDER));
+            return block;
+        }
+
+        switch (tag)
+        {
+            case TAG_BOOLEAN:
+                DataBlockBoolean booleans = new DataBlockBoolean();
+                booleans.primitiveArray = getBooleans(in, count);
+                return booleans;
+
+            case TAG_BYTE:
+                DataBlockByte bytes = new DataBlockByte();
+                bytes.primitiveArray = new byte[count];
+                in.get(bytes.primitiveArray);
+                return bytes;
+
+            case TAG_UBYTE:
+                DataBlockUByte ubytes = new DataBlockUByte();
+                ubytes.primitiveArray = new byte[count];
+                in.get(ubytes.primitiveArray);
+                return ubytes;
+
+            case TAG_SHORT:
+                DataBlockShort shorts = new DataBlockShort();
+                shorts.primitiveArray = new short[count];
+                in.asShortBuffer().get(shorts.primitiveArray);
+                skip(in, count * 2);
+                return shorts;
+
+            case TAG_USHORT:
+                DataBlockUShort ushorts = new DataBlockUShort();
+                ushorts.primitiveArray = new short[count];
+                in.asShortBuffer().get(ushorts.primitiveArray);
+                skip(in, count * 2);
+                return ushorts;
+
+            case TAG_INT:
+                DataBlockInt ints = new DataBlockInt();
+                ints.primitiveArray = new int[count];
+                in.asIntBuffer().get(ints.primitiveArray);
+                skip(in, count * 4);
+                return ints;
+
+            case TAG_UINT:
+                DataBlockUInt uints = new DataBlockUInt();
+                uints.primitiveArray = new int[count];
+                in.asIntBuffer().get(uints.primitiveArray);
+                skip(in, count * 4);
+                return uints;
+
+            case TAG_LONG:
+                DataBlockLong longs = new DataBlockLong();
+                longs.primitiveArray = new long[count];
+                in.asLongBuffer().get(longs.primitiveArray);
+                skip(in, count * 8);
+                return longs;
+
+            case TAG_FLOAT:
+                DataBlockFloat floats = new DataBlockFloat();
+                floats.primitiveArray = new float[count];
+                in.asFloatBuffer().get(floats.primitiveArray);
+                skip(in, count * 4);
+                return floats;
+
+            case TAG_DOUBLE:
+                DataBlockDouble doubles = new DataBlockDouble();
+                doubles.primitiveArray = new double[count];
+                in.asDoubleBuffer().get(doubles.primitiveArray);
+                skip(in, count * 8);
+                return doubles;
+
+            case TAG_STRING:
+                DataBlockString strings = new DataBlockString();
+                strings.primitiveArray = new String[count];
+                for (int i = 0; i < count; i++)
+                    strings.primitiveArray[i] = getString(in);
+                return strings;
+
+            case TAG_INSTANT:
+                DataBlockInstant instants = new DataBlockInstant();
+                instants.primitiveArray = new Instant[count];
+                for (int i = 0; i < count; i++)
+                    instants.primitiveArray[i] = getInstant(in);
+                return instants;
+
+            case TAG_DATETIME:
+                DataBlockDateTime dateTimes = new DataBlockDateTime();
+                dateTimes.primitiveArray = new OffsetDateTime[count];
+                for (int i = 0; i < count; i++)
+                {
+                    Instant t = getInstant(in);
+                    if (t != null)
+                        dateTimes.primitiveArray[i] = OffsetDateTime.ofInstant(t, ZoneOffset.ofTotalSeconds(unZigZag(getVarInt(in))));
+                }
+                return dateTimes;
+
+            default:
+                throw new IllegalArgumentException("Invalid data block tag: " + tag);
+        }
+    }
+
+
+    protected DataBlockFlat.Layout getValueLayout(byte tag)
+    {
+        DataBlockFlat.Layout layout = valueLayouts[tag];
+        if (layout == null)
+            valueLayouts[tag] = layout = new DataBlockFlat.Layout(new DataType[] {TAG_TYPES[tag]});
+        return layout;
+    }
+
+
+    protected DataType getTagType(byte tag)
+    {
+        if (tag <= TAG_NULL || tag >= TAG_TYPES.length)
+            throw new IllegalArgumentException("Invalid data type tag: " + tag);
+        return TAG_TYPES[tag];
+    }
+
+
+    protected void ensureCapacity(int numBytes)
+    {
+        if (outBuf.remaining() < numBytes)
+        {
+            int newSize = Math.max(outBuf.capacity() * 2, outBuf.position() + numBytes);
+            ByteBuffer newBuf = ByteBuffer.allocate(newSize).order(BYTE_ORDER);
+            outBuf.flip();
+            newBuf.put(outBuf);
+            outBuf = newBuf;
+        }
+    }
+
+
+    protected void putByte(byte b)
+    {
+        ensureCapacity(1);
+        outBuf.put(b);
+    }
+
+
+    protected void putVarInt(int value)
+    {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0)
+        {
+            outBuf.put((byte)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        outBuf.put((byte)value);
+    }
+
+
+    protected void putVarLong(long value)
+    {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0)
+        {
+            outBuf.put((byte)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        outBuf.put((byte)value);
+    }
+
+
+    /*
+     * Writes length + 1 followed by the bytes, or 0 if bytes is null
+     */
+    protected void putBytes(byte[] bytes)
+    {
+        if (bytes == null)
+        {
+            putVarInt(0);
+            return;
+        }
+
+        putVarInt(bytes.length + 1);
+        ensureCapacity(bytes.length);
+        outBuf.put(bytes);
+    }
+
+
+    protected void putBooleans(boolean[] values, int start, int count)
+    {
+        ensureCapacity((count + 7) / 8);
+        for (int i = 0; i < count; i += 8)
+        {
+            int bits = 0;
+            for (int j = 0; j < 8 && i + j < count; j++)
+            {
+                if (values[start + i + j])
+                    bits |= 1 << j;
+            }
+            outBuf.put((byte)bits);
+        }
+    }
+
+
+    /*
+     * Writes nanos + 1 followed by seconds, or 0 if instant is null
+     */
+    protected void putInstant(Instant t)
+    {
+        if (t == null)
+        {
+            putVarInt(0);
+            return;
+        }
+
+        putVarInt(t.getNano() + 1);
+        putVarLong(zigZag(t.getEpochSecond()));
+    }
+
+
+    protected int getVarInt(ByteBuffer in)
+    {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7)
+        {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+
+        throw new IllegalArgumentException("Invalid var-int");
+    }
+
+
+    protected long getVarLong(ByteBuffer in)
+    {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7)
+        {
+            byte b = in.get();
+            value |= (long)(b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+
+        throw new IllegalArgumentException("Invalid var-int");
+    }
+
+
+    /*
+     * Reads a number of items, checking the remaining input is large enough
+     * to hold them so corrupted input doesn't trigger huge allocations
+     */
+    protected int getLength(ByteBuffer in, int minItemBits)
+    {
+        int length = getVarInt(in);
+        if (length < 0 || ((long)length * minItemBits + 7) / 8 > in.remaining())
+            throw new IllegalArgumentException("Invalid length: " + length);
+        return length;
+    }
+
+
+    /*
+     * Reads the byte length of a nullable value, encoded as length+1
+     * with 0 meaning null, in which case -1 is returned
+     */
+    protected int getNullableLength(ByteBuffer in)
+    {
+        int length = getVarInt(in) - 1;
+        if (length < -1 || length > in.remaining())
+            throw new IllegalArgumentException("Invalid length: " + length);
+        return length;
+    }
+
+
+    protected ByteBuffer getSlice(ByteBuffer in, int numBytes)
+    {
+        if (numBytes > in.remaining())
+            throw new BufferUnderflowException();
+
+        ByteBuffer slice = in.duplicate();
+        slice.limit(in.position() + numBytes);
+        skip(in, numBytes);
+        return slice.slice();
+    }
+
+
+    protected void skip(ByteBuffer in, int numBytes)
+    {
+        in.position(in.position() + numBytes);
+    }
+
+
+    protected byte[] getBytes(ByteBuffer in)
+    {
+        int length = getNullableLength(in);
+        if (length < 0)
+            return null;
+
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+
+    protected String getString(ByteBuffer in)
+    {
+        int length = getNullableLength(in);
+        if (length < 0)
+            return null;
+
+        // decode directly from backing array if possible
+        String s;
+        if (in.hasArray())
+        {
+            s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            skip(in, length);
+        }
+        else
+        {
+            if (length > strBytes.length)
+                strBytes = new byte[Math.max(length, strBytes.length * 2)];
+            in.get(strBytes, 0, length);
+            s = new String(strBytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        return s;
+    }
+
+
+    protected boolean[] getBooleans(ByteBuffer in, int count)
+    {
+        boolean[] values = new boolean[count];
+        for (int i = 0; i < count; i += 8)
+        {
+            int bits = in.get();
+            for (int j = 0; j < 8 && i + j < count; j++)
+                values[i + j] = (bits & (1 << j)) != 0;
+        }
+        return values;
+    }
+
+
+    protected Instant getInstant(ByteBuffer in)
+    {
+        int nanos = getVarInt(in) - 1;
+        if (nanos < 0)
+            return null;
+        return Instant.ofEpochSecond(unZigZag(getVarLong(in)), nanos);
+    }
+
+
+    static int zigZag(int value)
+    {
+        return (value << 1) ^ (value >> 31);
+    }
+
+
+    static long zigZag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+
+    static int unZigZag(int value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+
+    static long unZigZag(long value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+
+    protected IllegalArgumentException unsupportedBlock(DataBlock block)
+    {
+        return new IllegalArgumentException("Unsupported data block type: " + block.getClass().getName());
+    }
+}
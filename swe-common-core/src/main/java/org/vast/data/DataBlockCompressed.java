@@ -14,9 +14,14 @@ Copyright (C) 2012-2015 Sensia Software LLC. All Rights Reserved.
 
 package org.vast.data;
 
+import java.lang.ref.WeakReference;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.concurrent.Executor;
+import net.opengis.swe.v20.BinaryBlock;
+import net.opengis.swe.v20.ByteOrder;
 import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
 import net.opengis.swe.v20.DataType;
 
 
@@ -26,6 +31,10 @@ import net.opengis.swe.v20.DataType;
  * Data is uncompressed on the fly when one of the get methods is called, and
  * set Methods are not implemented.<br/>
  * All data is casted to the correct types when requested.
+ * </p><p>
+ * Decoded data is kept in the shared {@link DecodedBlockCache} so that
+ * memory used by decoded blocks stays bounded. Decoding requires the codec
+ * info to be set with {@link #setCodecInfo(DataComponent, BinaryBlock, ByteOrder)}.
  * </p>
  *
  * @author Alex Robin
@@ -37,6 +46,10 @@ public class DataBlockCompressed extends AbstractDataBlock
     protected byte[] compressedData;
     protected DataBlock uncompressedData;
     protected int compressionType;
+    protected transient DataComponent blockComponent;
+    protected transient BinaryBlock binaryInfo;
+    protected transient ByteOrder byteOrder;
+    protected transient WeakReference<DataBlock> decodedDataRef;
 	
 	
 	public DataBlockCompressed()
@@ -56,8 +69,11 @@ public class DataBlockCompressed extends AbstractDataBlock
 	{
 		DataBlockCompressed newBlock = new DataBlockCompressed();
 		newBlock.compressedData = this.compressedData;
+		newBlock.uncompressedData = this.uncompressedData;
+		newBlock.decodedDataRef = this.decodedDataRef;
 		newBlock.startIndex = this.startIndex;
 		newBlock.atomCount = this.atomCount;
+		newBlock.copyCodecInfo(this);
 		return newBlock;
 	}
     
@@ -69,6 +85,7 @@ public class DataBlockCompressed extends AbstractDataBlock
         newBlock.compressedData = null;
         newBlock.startIndex = this.startIndex;
         newBlock.atomCount = this.atomCount;
+        newBlock.copyCodecInfo(this);
         return newBlock;
     }
     
@@ -79,11 +96,23 @@ public class DataBlockCompressed extends AbstractDataBlock
         DataBlockCompressed newBlock = new DataBlockCompressed();
         if (compressedData != null)
             newBlock.compressedData = this.compressedData.clone();
+        if (uncompressedData != null)
+            newBlock.uncompressedData = this.uncompressedData.clone();
         newBlock.atomCount = this.atomCount;
+        newBlock.copyCodecInfo(this);
         return newBlock;
     }
     
     
+    protected void copyCodecInfo(DataBlockCompressed other)
+    {
+        this.compressionType = other.compressionType;
+        this.blockComponent = other.blockComponent;
+        this.binaryInfo = other.binaryInfo;
+        this.byteOrder = other.byteOrder;
+    }
+    
+    
     public int getCompressionType()
     {
         return compressionType;
@@ -106,13 +135,68 @@ public class DataBlockCompressed extends AbstractDataBlock
     public void setUnderlyingObject(byte[] compressedData)
     {
         this.compressedData = compressedData;
+        this.decodedDataRef = null;
     }
     
     
     @Override
     public void setUnderlyingObject(Object obj)
     {
-    	this.compressedData = (byte[])obj;
+    	setUnderlyingObject((byte[])obj);
+    }
+    
+    
+    /**
+     * Sets the info needed to decode this block on first access
+     * @param blockComponent component describing the structure of decoded data
+     * (it is not modified, a copy is used for decoding)
+     * @param binaryInfo binary block encoding info, including compression type
+     * @param byteOrder byte order of the binary stream the block was read from
+     */
+    public void setCodecInfo(DataComponent blockComponent, BinaryBlock binaryInfo, ByteOrder byteOrder)
+    {
+        this.blockComponent = blockComponent;
+        this.binaryInfo = binaryInfo;
+        this.byteOrder = byteOrder;
+    }
+    
+    
+    public DataComponent getBlockComponent()
+    {
+        return blockComponent;
+    }
+    
+    
+    public BinaryBlock getBinaryInfo()
+    {
+        return binaryInfo;
+    }
+    
+    
+    public ByteOrder getByteOrder()
+    {
+        return byteOrder;
+    }
+    
+    
+    /**
+     * @return the uncompressed data or null if data hasn't been decoded yet
+     */
+    public DataBlock getUncompressedData()
+    {
+        return uncompressedData;
+    }
+    
+    
+    /**
+     * Sets the uncompressed data, when it was decoded by a codec.<br/>
+     * Compressed data can be null in this case if the block doesn't
+     * need to be written again in compressed form.
+     * @param uncompressedData
+     */
+    public void setUncompressedData(DataBlock uncompressedData)
+    {
+        this.uncompressedData = uncompressedData;
     }
     
     
@@ -153,90 +237,110 @@ public class DataBlockCompressed extends AbstractDataBlock
 	@Override
     public final boolean getBooleanValue(int index)
     {
-        ensureUncompressed();
-        return uncompressedData.getBooleanValue(index);
+        return getDecodedData().getBooleanValue(index);
     }
 
 
     @Override
     public final byte getByteValue(int index)
     {
-        ensureUncompressed();
-        return uncompressedData.getByteValue(index);
+        return getDecodedData().getByteValue(index);
     }
 
 
     @Override
     public final short getShortValue(int index)
     {
-        ensureUncompressed();
-        return uncompressedData.getShortValue(index);
+        return getDecodedData().getShortValue(index);
     }
 
 
     @Override
     public final int getIntValue(int index)
     {
-        ensureUncompressed();
-        return uncompressedData.getIntValue(index);
+        return getDecodedData().getIntValue(index);
     }
 
 
     @Override
     public final long getLongValue(int index)
     {
-        ensureUncompressed();
-        return uncompressedData.getLongValue(index);
+        return getDecodedData().getLongValue(index);
     }
 
 
     @Override
     public final float getFloatValue(int index)
     {
-        ensureUncompressed();
-        return uncompressedData.getFloatValue(index);
+        return getDecodedData().getFloatValue(index);
     }
 
 
     @Override
     public final double getDoubleValue(int index)
     {
-        ensureUncompressed();
-        return uncompressedData.getDoubleValue(index);
+        return getDecodedData().getDoubleValue(index);
     }
 
 
     @Override
     public final String getStringValue(int index)
     {
-        ensureUncompressed();
-        return uncompressedData.getStringValue(index);
+        return getDecodedData().getStringValue(index);
     }
 
 
     @Override
     public Instant getTimeStamp(int index)
     {
-        ensureUncompressed();
-        return uncompressedData.getTimeStamp(index);
+        return getDecodedData().getTimeStamp(index);
     }
 
 
     @Override
     public OffsetDateTime getDateTime(int index)
     {
-        ensureUncompressed();
-        return uncompressedData.getDateTime(index);
+        return getDecodedData().getDateTime(index);
     }
 
 
+    /**
+     * Decodes the compressed data if it is not available yet
+     * @throws IllegalStateException if the data cannot be decoded
+     */
     public final void ensureUncompressed()
 	{
-	    if (uncompressedData == null) 
-	    {
-	        // TODO call correct codec
-	    }
+	    getDecodedData();
 	}
+    
+    
+    /**
+     * Starts decoding this block in the background if it is not already
+     * decoded, so that a later access doesn't have to wait for the decoder
+     * @param executor executor used to run the decoder
+     */
+    public void prefetch(Executor executor)
+    {
+        if (uncompressedData == null && compressedData != null)
+            DecodedBlockCache.getInstance().prefetch(this, executor);
+    }
+    
+    
+    protected final DataBlock getDecodedData()
+    {
+        if (uncompressedData != null)
+            return uncompressedData;
+        
+        // use weak ref to avoid cache lookups while block is still cached
+        DataBlock decodedData = decodedDataRef != null ? decodedDataRef.get() : null;
+        if (decodedData == null)
+        {
+            decodedData = DecodedBlockCache.getInstance().get(this);
+            decodedDataRef = new WeakReference<>(decodedData);
+        }
+        
+        return decodedData;
+    }
 
 
 	@Override
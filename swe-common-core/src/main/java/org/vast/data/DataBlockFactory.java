@@ -14,8 +14,13 @@ Copyright (C) 2012-2015 Sensia Software LLC. All Rights Reserved.
 
 package org.vast.data;
 
+import org.vast.util.Asserts;
+import net.opengis.swe.v20.DataArray;
 import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataChoice;
+import net.opengis.swe.v20.DataComponent;
 import net.opengis.swe.v20.DataType;
+import net.opengis.swe.v20.GeometryData;
 
 
 /**
@@ -28,6 +33,50 @@ import net.opengis.swe.v20.DataType;
  * */
 public class DataBlockFactory
 {
+    
+    /**
+     * Hints telling data components which kind of data block to create
+     * @see AbstractDataComponentImpl#setDataBlockHint(LayoutHint)
+     */
+    public enum LayoutHint
+    {
+        /** default tree of primitive and composite blocks */
+        DEFAULT,
+        /** single buffer with fixed field offsets, see {@link DataBlockFlat} */
+        FLAT,
+        /** same as FLAT but with a direct buffer allocated outside of the Java heap */
+        OFF_HEAP
+    }
+    
+    private static volatile long offHeapThreshold = Long.MAX_VALUE;
+    
+    
+    /**
+     * Sets the size above which arrays of scalars are stored off-heap
+     * (see {@link #createOffHeapBlock(DataType, int)}), even when no hint
+     * is set on the array component. This is disabled by default.<br/>
+     * Arrays larger than {@link DataBlockFlat#MAX_SIZE} are always kept
+     * on the heap since they don't fit in a single buffer.
+     * @param numBytes Size threshold in bytes
+     */
+    public static void setOffHeapThreshold(long numBytes)
+    {
+        Asserts.checkArgument(numBytes >= 0, "numBytes must be >= 0");
+        offHeapThreshold = numBytes;
+    }
+    
+    
+    public static long getOffHeapThreshold()
+    {
+        return offHeapThreshold;
+    }
+    
+    
+    static boolean isAboveOffHeapThreshold(long numBytes)
+    {
+        return numBytes >= offHeapThreshold && numBytes <= DataBlockFlat.MAX_SIZE;
+    }
+    
 
 	public static DataBlock createBlock(DataType dataType)
 	{
@@ -67,6 +116,12 @@ public class DataBlockFactory
 			case UTF_STRING:
 			case ASCII_STRING:
 				return new DataBlockString();
+				
+			case INSTANT:
+			    return new DataBlockInstant();
+			    
+			case DATETIME:
+			    return new DataBlockDateTime();
 
 			default:
 				throw new IllegalArgumentException("Unsupported Data Type: " + dataType);
@@ -202,4 +257,73 @@ public class DataBlockFactory
         
         return block;
     }
+    
+    
+    /**
+     * Creates a columnar data block able to hold several records with the
+     * given structure. The block contains one primitive child block per
+     * scalar value of the record, so value j of record i is at index
+     * i*recordSize+j, and record i can be accessed with
+     * {@link DataBlockParallel#getRow(int)}.
+     * @param recordStruct Record structure (must have a fixed size)
+     * @param numRecords Number of records the block can hold
+     * @return The new data block
+     */
+    public static DataBlockParallel createParallelBlock(DataComponent recordStruct, int numRecords)
+    {
+        // check structure has a fixed size
+        for (DataComponent c: new DataIterator(recordStruct))
+        {
+            if (c instanceof DataChoice || c instanceof GeometryData ||
+               (c instanceof DataArray && ((DataArray)c).isVariableSize()))
+                throw new IllegalArgumentException("Columnar data blocks are only supported for fixed size records");
+        }
+        
+        // create one column per scalar value
+        DataBlock template = recordStruct.createDataBlock();
+        int recordSize = template.getAtomCount();
+        AbstractDataBlock[] columns = new AbstractDataBlock[recordSize];
+        for (int i = 0; i < recordSize; i++)
+        {
+            columns[i] = (AbstractDataBlock)createBlock(template.getDataType(i));
+            columns[i].resize(numRecords);
+        }
+        
+        return createParallelBlock(columns);
+    }
+    
+    
+    /**
+     * Creates a flat data block able to hold several records with the
+     * given structure, all packed in a single buffer.
+     * @param recordStruct Record structure (must have a fixed size and only
+     * contain numerical or boolean scalars)
+     * @param numRecords Number of records the block can hold
+     * @return The new data block
+     */
+    public static DataBlockFlat createFlatBlock(DataComponent recordStruct, int numRecords)
+    {
+        DataBlockFlat.Layout layout = DataBlockFlat.Layout.compile((AbstractDataComponentImpl)recordStruct);
+        if (layout == null)
+            throw new IllegalArgumentException("Flat data blocks are only supported for fixed size records of numerical values");
+        
+        return new DataBlockFlat(layout, numRecords);
+    }
+    
+    
+    /**
+     * Creates a data block storing an array of scalars outside of the Java heap.
+     * Memory is freed by the garbage collector once the block and all views
+     * of its buffer are no longer referenced.
+     * @param dataType Data type of array elements (must be a numerical or boolean type)
+     * @param size Number of array elements
+     * @return The new data block
+     */
+    public static DataBlockFlat createOffHeapBlock(DataType dataType, int size)
+    {
+        if (DataBlockFlat.Layout.getSize(dataType) <= 0)
+            throw new IllegalArgumentException("Unsupported off-heap data type: " + dataType);
+        
+        return new DataBlockFlat(new DataBlockFlat.Layout(new DataType[] {dataType}), size, true);
+    }
 }
@@ -0,0 +1,843 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.data;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.vast.util.Asserts;
+import net.opengis.swe.v20.BinaryBlock;
+import net.opengis.swe.v20.DataType;
+
+
+/**
+ * <p>
+ * Carries one record of fixed layout, or an array of such records, packed
+ * in a single ByteBuffer. Scalar values of mixed numerical types are stored
+ * at byte offsets precomputed once from the record structure (see
+ * {@link Layout#compile(AbstractDataComponentImpl)}), so that no child
+ * blocks are needed and creating, cloning or serializing the block is a
+ * single memory allocation and copy.
+ * </p><p>
+ * Only records containing numerical and boolean scalars, nested records
+ * and fixed size arrays can be carried by this block. All data is casted
+ * to other types when requested.
+ * </p><p>
+ * The buffer can also be allocated outside of the Java heap, to hold large
+ * arrays or coverages without increasing GC pauses. A layout with a single
+ * field is used for arrays of scalars.
+ * </p><p>
+ * Since the data is held by a single buffer, a block cannot be larger
+ * than {@link #MAX_SIZE} bytes.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class DataBlockFlat extends AbstractDataBlock implements AutoCloseable
+{
+    private static final long serialVersionUID = 6473825417001633209L;
+    
+    /** Maximum size of a block in bytes */
+    public static final long MAX_SIZE = Integer.MAX_VALUE;
+    
+    protected Layout layout;
+    protected transient Storage storage;
+
+
+    /*
+     * Holder of the buffer shared by all copies of a block, so that
+     * the buffer can be released for all of them at once
+     */
+    static final class Storage
+    {
+        ByteBuffer buffer;
+
+        Storage(ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+    }
+
+
+    /**
+     * Immutable layout of a record, shared by all blocks created for
+     * the same record structure
+     */
+    public static final class Layout implements Serializable
+    {
+        private static final long serialVersionUID = -2961546235846187310L;
+        final DataType[] types;
+        final int[] offsets;
+        final int recordSize;
+        final DataType dataType;
+
+
+        Layout(DataType[] types)
+        {
+            this.types = types;
+            this.offsets = new int[types.length];
+
+            // align each field on its own size like a C struct
+            int offset = 0;
+            int maxSize = 1;
+            DataType commonType = types.length > 0 ? types[0] : DataType.MIXED;
+            for (int i = 0; i < types.length; i++)
+            {
+                int size = getSize(types[i]);
+                offset = (offset + size - 1) / size * size;
+                offsets[i] = offset;
+                offset += size;
+                maxSize = Math.max(maxSize, size);
+                if (types[i] != commonType)
+                    commonType = DataType.MIXED;
+            }
+
+            this.recordSize = (offset + maxSize - 1) / maxSize * maxSize;
+            this.dataType = commonType;
+        }
+
+
+        /**
+         * Computes the layout of the given component
+         * @param component record, vector or fixed size array
+         * @return the new layout or null if the component structure
+         * cannot be carried by a flat block
+         */
+        public static Layout compile(AbstractDataComponentImpl component)
+        {
+            List<DataType> types = new ArrayList<>();
+            if (!addFields(component, types) || types.isEmpty())
+                return null;
+            return new Layout(types.toArray(new DataType[0]));
+        }
+
+
+        /*
+         * Adds types of all scalars found in the component tree, and also
+         * updates scalar counts like createDataBlock() would
+         */
+        private static boolean addFields(AbstractDataComponentImpl component, List<DataType> types)
+        {
+            int start = types.size();
+
+            if (component.encodingInfo instanceof BinaryBlock &&
+                ((BinaryBlock)component.encodingInfo).getCompression() != null)
+                return false;
+
+            if (component instanceof AbstractRecordImpl)
+            {
+                for (int i = 0; i < component.getComponentCount(); i++)
+                {
+                    if (!addFields(component.getComponent(i), types))
+                        return false;
+                }
+            }
+            else if (component instanceof DataArrayImpl)
+            {
+                DataArrayImpl array = (DataArrayImpl)component;
+                if (array.isVariableSize())
+                    return false;
+
+                if (!addFields((AbstractDataComponentImpl)array.getElementType(), types))
+                    return false;
+
+                List<DataType> eltTypes = new ArrayList<>(types.subList(start, types.size()));
+                for (int i = 1; i < array.getComponentCount(); i++)
+                    types.addAll(eltTypes);
+            }
+            else if (component instanceof AbstractSimpleComponentImpl)
+            {
+                DataType dataType = ((AbstractSimpleComponentImpl)component).getDataType();
+                if (getSize(dataType) <= 0)
+                    return false;
+
+                types.add(dataType);
+                if (component instanceof AbstractRangeComponentImpl)
+                    types.add(dataType);
+            }
+            else
+                return false;
+
+            component.scalarCount = types.size() - start;
+            return true;
+        }
+
+
+        /**
+         * @param dataType
+         * @return size of the given data type in bytes, or -1 if the type
+         * cannot be stored in a flat block
+         */
+        public static int getSize(DataType dataType)
+        {
+            switch (dataType)
+            {
+                case BOOLEAN:
+                case BYTE:
+                case UBYTE:
+                    return 1;
+
+                case SHORT:
+                case USHORT:
+                    return 2;
+
+                case INT:
+                case UINT:
+                case FLOAT:
+                    return 4;
+
+                case LONG:
+                case ULONG:
+                case DOUBLE:
+                    return 8;
+
+                default:
+                    return -1;
+            }
+        }
+
+
+        /**
+         * @return number of scalar values in one record
+         */
+        public int getFieldCount()
+        {
+            return types.length;
+        }
+
+
+        /**
+         * @return size of one record in bytes, including padding
+         */
+        public int getRecordSize()
+        {
+            return recordSize;
+        }
+
+
+        /**
+         * @param index index of field in the record
+         * @return byte offset of the field from the start of the record
+         */
+        public int getOffset(int index)
+        {
+            return offsets[index];
+        }
+
+
+        /**
+         * @param index index of field in the record
+         * @return data type of the field
+         */
+        public DataType getDataType(int index)
+        {
+            return types[index];
+        }
+    }
+
+
+    public DataBlockFlat()
+    {
+    }
+
+
+    public DataBlockFlat(Layout layout, int numRecords)
+    {
+        this(layout, numRecords, false);
+    }
+
+
+    /**
+     * Creates a block holding the given number of records
+     * @param layout layout of each record
+     * @param numRecords number of records
+     * @param offHeap true to allocate a direct buffer outside of the Java heap
+     */
+    public DataBlockFlat(Layout layout, int numRecords, boolean offHeap)
+    {
+        this.layout = layout;
+        this.storage = new Storage(allocate(getBufferSize(layout, numRecords), offHeap));
+        this.atomCount = numRecords * layout.types.length;
+    }
+
+
+    static int getBufferSize(Layout layout, long numRecords)
+    {
+        long numBytes = numRecords * layout.recordSize;
+        if (numRecords < 0 || numBytes > MAX_SIZE)
+            throw new IllegalArgumentException("Cannot allocate " + numRecords + " records of " + layout.recordSize +
+                " bytes in a single buffer (max " + MAX_SIZE + " bytes)");
+        return (int)numBytes;
+    }
+
+
+    static ByteBuffer allocate(int numBytes, boolean offHeap)
+    {
+        ByteBuffer buf = offHeap ? ByteBuffer.allocateDirect(numBytes) : ByteBuffer.allocate(numBytes);
+        return buf.order(ByteOrder.nativeOrder());
+    }
+
+
+    @Override
+    public DataBlockFlat copy()
+    {
+        DataBlockFlat newBlock = new DataBlockFlat();
+        newBlock.layout = this.layout;
+        newBlock.storage = this.storage;
+        newBlock.startIndex = this.startIndex;
+        newBlock.atomCount = this.atomCount;
+        return newBlock;
+    }
+
+
+    @Override
+    public DataBlockFlat renew()
+    {
+        int numFields = layout.types.length;
+        int firstRecord = startIndex / numFields;
+        int numRecords = (startIndex + atomCount + numFields - 1) / numFields - firstRecord;
+
+        DataBlockFlat newBlock = new DataBlockFlat(layout, numRecords, isOffHeap());
+        newBlock.startIndex = this.startIndex - firstRecord * numFields;
+        newBlock.atomCount = this.atomCount;
+        return newBlock;
+    }
+
+
+    @Override
+    public DataBlockFlat clone()
+    {
+        DataBlockFlat newBlock = renew();
+
+        // copy all records overlapping this block at once
+        int firstRecord = startIndex / layout.types.length;
+        ByteBuffer src = buffer().duplicate();
+        ByteBuffer dst = newBlock.buffer().duplicate();
+        src.position(firstRecord * layout.recordSize);
+        src.limit(src.position() + dst.capacity());
+        dst.put(src);
+
+        return newBlock;
+    }
+
+
+    /**
+     * @return the layout of records carried by this block
+     */
+    public Layout getLayout()
+    {
+        return layout;
+    }
+
+
+    /**
+     * @return true if data is stored in a direct buffer outside of the Java heap
+     */
+    public boolean isOffHeap()
+    {
+        return buffer().isDirect();
+    }
+
+
+    /**
+     * Releases the buffer carrying the data of this block and of all its
+     * copies sharing the same buffer (clones are not affected).<br/>
+     * None of the blocks sharing the buffer can be used after this call.
+     * Off-heap memory is freed by the garbage collector once the buffer
+     * and all views obtained from {@link #getUnderlyingObject()} or
+     * {@link #getBufferSlice(int, int)} are no longer referenced.
+     */
+    @Override
+    public void close()
+    {
+        storage.buffer = null;
+    }
+
+
+    /*
+     * Returns the buffer or throws an exception if it was released
+     */
+    protected final ByteBuffer buffer()
+    {
+        ByteBuffer buf = storage.buffer;
+        if (buf == null)
+            throw new IllegalStateException("Data block was closed");
+        return buf;
+    }
+
+
+    /**
+     * Returns a view of the buffer holding count consecutive values, so
+     * they can be read or written in bulk. This is only possible when all
+     * fields of the layout have the same data type.
+     * @param index index of the first value in the underlying buffer
+     * (i.e. start index is not added)
+     * @param count number of values
+     * @return view of the buffer, with the same byte order, positioned on
+     * the first value and limited to the last one
+     */
+    public ByteBuffer getBufferSlice(int index, int count)
+    {
+        Asserts.checkState(layout.dataType != DataType.MIXED, "Only supported with a single data type");
+        int valueSize = Layout.getSize(layout.dataType);
+
+        ByteBuffer buf = buffer();
+        ByteBuffer slice = buf.duplicate().order(buf.order());
+        slice.limit((index + count) * valueSize);
+        slice.position(index * valueSize);
+        return slice;
+    }
+
+
+    @Override
+    public ByteBuffer getUnderlyingObject()
+    {
+        return buffer();
+    }
+
+
+    /**
+     * Sets the buffer carrying the data of this block. The byte order of
+     * the buffer is used to read and write values.
+     * @param obj ByteBuffer instance
+     */
+    @Override
+    public void setUnderlyingObject(Object obj)
+    {
+        this.storage = new Storage((ByteBuffer)obj);
+        this.atomCount = storage.buffer.capacity() / layout.recordSize * layout.types.length;
+    }
+
+
+    @Override
+    public DataType getDataType()
+    {
+        return layout.dataType;
+    }
+
+
+    @Override
+    public DataType getDataType(int index)
+    {
+        if (layout.types.length == 1)
+            return layout.types[0];
+        return layout.types[(startIndex + index) % layout.types.length];
+    }
+
+
+    @Override
+    public void resize(int size)
+    {
+        int numFields = layout.types.length;
+        int numBytes = getBufferSize(layout, ((long)size + numFields - 1) / numFields);
+        this.storage = new Storage(allocate(numBytes, storage != null && isOffHeap()));
+        this.atomCount = size;
+    }
+
+
+    /*
+     * Computes the position of the value in the buffer
+     * The field index is returned in the low bits so it can be used to
+     * lookup the data type without dividing twice
+     */
+    private long locate(int index)
+    {
+        int field = startIndex + index;
+        int numFields = layout.types.length;
+        int pos = 0;
+
+        // case of primitive array
+        if (numFields == 1)
+            return (long)field * layout.recordSize << 32;
+
+        if (field >= numFields)
+        {
+            int record = field / numFields;
+            field -= record * numFields;
+            pos = record * layout.recordSize;
+        }
+
+        pos += layout.offsets[field];
+        return ((long)pos << 32) | field;
+    }
+
+
+    protected long readLong(int index)
+    {
+        long loc = locate(index);
+        return getLong(buffer(), (int)(loc >>> 32), layout.types[(int)loc]);
+    }
+
+
+    protected double readDouble(int index)
+    {
+        long loc = locate(index);
+        int pos = (int)(loc >>> 32);
+        DataType dataType = layout.types[(int)loc];
+        ByteBuffer buffer = buffer();
+
+        if (dataType == DataType.DOUBLE)
+            return buffer.getDouble(pos);
+        else if (dataType == DataType.FLOAT)
+            return buffer.getFloat(pos);
+        else
+            return getLong(buffer, pos, dataType);
+    }
+
+
+    protected void writeLong(int index, long value)
+    {
+        long loc = locate(index);
+        putLong(buffer(), (int)(loc >>> 32), layout.types[(int)loc], value);
+    }
+
+
+    protected void writeDouble(int index, double value)
+    {
+        long loc = locate(index);
+        int pos = (int)(loc >>> 32);
+        DataType dataType = layout.types[(int)loc];
+        ByteBuffer buffer = buffer();
+
+        if (dataType == DataType.DOUBLE)
+            buffer.putDouble(pos, value);
+        else if (dataType == DataType.FLOAT)
+            buffer.putFloat(pos, (float)value);
+        else if (dataType == DataType.BOOLEAN)
+            putLong(buffer, pos, dataType, (Double.isNaN(value) || Math.abs(value) < Math.ulp(0.0)) ? 0 : 1);
+        else
+            putLong(buffer, pos, dataType, Math.round(value));
+    }
+
+
+    private static long getLong(ByteBuffer buffer, int pos, DataType dataType)
+    {
+        switch (dataType)
+        {
+            case BOOLEAN:
+            case BYTE:
+                return buffer.get(pos);
+
+            case UBYTE:
+                return buffer.get(pos) & 0xFF;
+
+            case SHORT:
+                return buffer.getShort(pos);
+
+            case USHORT:
+                return buffer.getShort(pos) & 0xFFFF;
+
+            case INT:
+                return buffer.getInt(pos);
+
+            case UINT:
+                return buffer.getInt(pos) & 0xFFFFFFFFL;
+
+            case FLOAT:
+                return (long)buffer.getFloat(pos);
+
+            case DOUBLE:
+                return (long)buffer.getDouble(pos);
+
+            default:
+                return buffer.getLong(pos);
+        }
+    }
+
+
+    private static void putLong(ByteBuffer buffer, int pos, DataType dataType, long value)
+    {
+        switch (dataType)
+        {
+            case BOOLEAN:
+                buffer.put(pos, value != 0 ? DataBlockBoolean.TRUE_VAL : DataBlockBoolean.FALSE_VAL);
+                break;
+
+            case BYTE:
+                buffer.put(pos, (byte)value);
+                break;
+
+            case UBYTE:
+                buffer.put(pos, value < 0 ? 0 : (byte)value);
+                break;
+
+            case SHORT:
+                buffer.putShort(pos, (short)value);
+                break;
+
+            case USHORT:
+                buffer.putShort(pos, value < 0 ? 0 : (short)value);
+                break;
+
+            case INT:
+                buffer.putInt(pos, (int)value);
+                break;
+
+            case UINT:
+                buffer.putInt(pos, value < 0 ? 0 : (int)value);
+                break;
+
+            case FLOAT:
+                buffer.putFloat(pos, value);
+                break;
+
+            case DOUBLE:
+                buffer.putDouble(pos, value);
+                break;
+
+            default:
+                buffer.putLong(pos, value);
+        }
+    }
+
+
+    @Override
+    public boolean getBooleanValue(int index)
+    {
+        DataType dataType = getDataType(index);
+        if (dataType == DataType.FLOAT || dataType == DataType.DOUBLE)
+            return Math.abs(readDouble(index)) >= Math.ulp(0.0);
+        return readLong(index) != 0;
+    }
+
+
+    @Override
+    public byte getByteValue(int index)
+    {
+        return (byte)readLong(index);
+    }
+
+
+    @Override
+    public short getShortValue(int index)
+    {
+        return (short)readLong(index);
+    }
+
+
+    @Override
+    public int getIntValue(int index)
+    {
+        return (int)readLong(index);
+    }
+
+
+    @Override
+    public long getLongValue(int index)
+    {
+        return readLong(index);
+    }
+
+
+    @Override
+    public float getFloatValue(int index)
+    {
+        return (float)readDouble(index);
+    }
+
+
+    @Override
+    public double getDoubleValue(int index)
+    {
+        return readDouble(index);
+    }
+
+
+    @Override
+    public String getStringValue(int index)
+    {
+        switch (getDataType(index))
+        {
+            case BOOLEAN:
+                return Boolean.toString(readLong(index) != 0);
+
+            case FLOAT:
+            case DOUBLE:
+                return Double.toString(readDouble(index));
+
+            default:
+                return Long.toString(readLong(index));
+        }
+    }
+
+
+    @Override
+    public Instant getTimeStamp(int index)
+    {
+        DataType dataType = getDataType(index);
+        if (dataType == DataType.DOUBLE)
+            return DataBlockInstant.doubleToInstant(readDouble(index));
+        else if (dataType == DataType.LONG)
+            return DataBlockInstant.longToInstant(readLong(index));
+        else
+            throw conversionError(dataType, DataType.INSTANT);
+    }
+
+
+    @Override
+    public OffsetDateTime getDateTime(int index)
+    {
+        DataType dataType = getDataType(index);
+        if (dataType == DataType.DOUBLE)
+            return DataBlockDateTime.doubleToDateTime(readDouble(index));
+        else if (dataType == DataType.LONG)
+            return DataBlockDateTime.longToDateTime(readLong(index));
+        else
+            throw conversionError(dataType, DataType.DATETIME);
+    }
+
+
+    @Override
+    public void setBooleanValue(int index, boolean value)
+    {
+        writeLong(index, value ? DataBlockBoolean.TRUE_VAL : DataBlockBoolean.FALSE_VAL);
+    }
+
+
+    @Override
+    public void setByteValue(int index, byte value)
+    {
+        writeLong(index, value);
+    }
+
+
+    @Override
+    public void setShortValue(int index, short value)
+    {
+        writeLong(index, value);
+    }
+
+
+    @Override
+    public void setIntValue(int index, int value)
+    {
+        writeLong(index, value);
+    }
+
+
+    @Override
+    public void setLongValue(int index, long value)
+    {
+        writeLong(index, value);
+    }
+
+
+    @Override
+    public void setFloatValue(int index, float value)
+    {
+        writeDouble(index, value);
+    }
+
+
+    @Override
+    public void setDoubleValue(int index, double value)
+    {
+        writeDouble(index, value);
+    }
+
+
+    @Override
+    public void setStringValue(int index, String value)
+    {
+        switch (getDataType(index))
+        {
+            case BOOLEAN:
+                setBooleanValue(index, Boolean.parseBoolean(value));
+                break;
+
+            case FLOAT:
+            case DOUBLE:
+                writeDouble(index, Double.parseDouble(value));
+                break;
+
+            default:
+                writeLong(index, Long.parseLong(value));
+        }
+    }
+
+
+    @Override
+    public void setTimeStamp(int index, Instant value)
+    {
+        DataType dataType = getDataType(index);
+        if (dataType == DataType.DOUBLE)
+            writeDouble(index, DataBlockInstant.instantToDouble(value));
+        else if (dataType == DataType.LONG)
+            writeLong(index, DataBlockInstant.instantToLong(value));
+        else
+            throw conversionError(DataType.INSTANT, dataType);
+    }
+
+
+    @Override
+    public void setDateTime(int index, OffsetDateTime value)
+    {
+        DataType dataType = getDataType(index);
+        if (dataType == DataType.DOUBLE)
+            writeDouble(index, DataBlockDateTime.dateTimeToDouble(value));
+        else if (dataType == DataType.LONG)
+            writeLong(index, DataBlockDateTime.dateTimeToLong(value));
+        else
+            throw conversionError(DataType.DATETIME, dataType);
+    }
+
+
+    /*
+     * Buffer content is written as a single byte array
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        ByteBuffer buffer = buffer();
+        out.defaultWriteObject();
+        out.writeBoolean(buffer.isDirect());
+        out.writeBoolean(buffer.order() == ByteOrder.BIG_ENDIAN);
+        out.writeInt(buffer.capacity());
+        if (buffer.hasArray())
+        {
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.capacity());
+        }
+        else
+        {
+            byte[] bytes = new byte[buffer.capacity()];
+            ByteBuffer src = buffer.duplicate();
+            src.clear();
+            src.get(bytes);
+            out.write(bytes);
+        }
+    }
+
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        boolean offHeap = in.readBoolean();
+        ByteOrder byteOrder = in.readBoolean() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+
+        ByteBuffer buffer = allocate(bytes.length, offHeap).order(byteOrder);
+        buffer.put(bytes);
+        buffer.clear();
+        storage = new Storage(buffer);
+    }
+}
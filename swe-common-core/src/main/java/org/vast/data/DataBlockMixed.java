@@ -25,6 +25,10 @@ import net.opengis.swe.v20.DataType;
  * Uses the composite pattern to carry a fixed size array
  * of mixed types DataBlocks. If dynamic size is needed, use DataBlockList.
  * Children datablocks will be read sequentially.
+ * </p><p>
+ * Child blocks are located using a table of offsets that is computed
+ * lazily and recomputed when the block structure changes, so that
+ * concurrent reads of a block that is not modified are safe.
  * </p>
  *
  * @author Alex Robin
@@ -33,9 +37,70 @@ public class DataBlockMixed extends AbstractDataBlock
 {
 	private static final long serialVersionUID = 4082289189930783352L;
     protected AbstractDataBlock[] blockArray;
-	protected int blockIndex;
-	protected int localIndex;
-    //protected int lastBlockIndex, lastIndex, lastCumulIndex;
+	protected transient BlockOffsets blockOffsets;
+	
+	
+	/*
+	 * Immutable table of child block offsets, for a given block array
+	 * and atom count. Lookups are O(1) if all child blocks have the
+	 * same size, and O(log n) otherwise (a linear scan is faster when
+	 * there are only a few child blocks).
+	 */
+	protected static final class BlockOffsets
+	{
+	    static final int LINEAR_SEARCH_MAX_BLOCKS = 16;
+	    
+	    final AbstractDataBlock[] blockArray;
+	    final int atomCount;
+	    final int[] offsets;
+	    final int uniformSize;
+	    
+	    BlockOffsets(AbstractDataBlock[] blockArray, int atomCount)
+	    {
+	        this.blockArray = blockArray;
+	        this.atomCount = atomCount;
+	        this.offsets = new int[blockArray.length + 1];
+	        
+	        int size = blockArray.length > 0 ? blockArray[0].atomCount : 0;
+	        for (int i = 0; i < blockArray.length; i++)
+	        {
+	            int childSize = blockArray[i].atomCount;
+	            if (childSize != size)
+	                size = -1;
+	            offsets[i + 1] = offsets[i] + childSize;
+	        }
+	        this.uniformSize = size;
+	    }
+	    
+	    int findBlock(int desiredIndex)
+	    {
+	        if (uniformSize > 0)
+	            return desiredIndex / uniformSize;
+	        
+	        // find first block ending after desired index
+	        // (this skips empty blocks)
+	        if (offsets.length <= LINEAR_SEARCH_MAX_BLOCKS)
+	        {
+	            int i = 1;
+	            while (offsets[i] <= desiredIndex)
+	                i++;
+	            return i - 1;
+	        }
+	        
+	        int lo = 1;
+	        int hi = offsets.length - 1;
+	        while (lo < hi)
+	        {
+	            int mid = (lo + hi) >>> 1;
+	            if (offsets[mid] > desiredIndex)
+	                hi = mid;
+	            else
+	                lo = mid + 1;
+	        }
+	        
+	        return lo - 1;
+	    }
+	}
 
 
 	public DataBlockMixed()
@@ -71,6 +136,7 @@ public class DataBlockMixed extends AbstractDataBlock
 		newBlock.startIndex = this.startIndex;
 		newBlock.blockArray = this.blockArray;	
 		newBlock.atomCount = this.atomCount;
+		newBlock.blockOffsets = this.blockOffsets;
 		return newBlock;
 	}
     
@@ -123,6 +189,7 @@ public class DataBlockMixed extends AbstractDataBlock
     public void setUnderlyingObject(AbstractDataBlock[] blockArray)
     {
         this.blockArray = blockArray;
+        this.blockOffsets = null;
         updateAtomCount();
     }
     
@@ -137,6 +204,7 @@ public class DataBlockMixed extends AbstractDataBlock
             newAtomCount += block.getAtomCount();
         }
         this.atomCount = newAtomCount;
+        this.blockOffsets = null;
     }
     
     
@@ -144,6 +212,7 @@ public class DataBlockMixed extends AbstractDataBlock
     public void setUnderlyingObject(Object obj)
     {
     	this.blockArray = (AbstractDataBlock[])obj;
+    	this.blockOffsets = null;
     }
 	
 	
@@ -157,8 +226,8 @@ public class DataBlockMixed extends AbstractDataBlock
 	@Override
     public DataType getDataType(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getDataType(localIndex);
+		long loc = selectBlock(index);
+		return blockArray[blockIndex(loc)].getDataType(localIndex(loc));
 	}
 
 
@@ -169,53 +238,48 @@ public class DataBlockMixed extends AbstractDataBlock
 	}
 	
 	
-	protected void selectBlock(int index)
+	/**
+	 * Must be called when the size of child blocks is changed directly
+	 */
+	protected void invalidateBlockOffsets()
 	{
-        int i = 0;
-        int cumul = 0;
-        int size;
-        int desiredIndex = startIndex + index;
-        
-        do
-        {
-            size = blockArray[i].atomCount;
-            cumul += size;
-            i++;
-        }
-        while (desiredIndex >= cumul);
-
-        blockIndex = i - 1;
-        localIndex = desiredIndex - (cumul - size);
-        
-//		int i, size, cumul;
-//		int desiredIndex = startIndex + index;
-//		
-//        if (index > lastIndex)
-//        {
-//            i = lastBlockIndex;
-//            cumul = lastCumulIndex;
-//        }
-//        else
-//        {
-//            i = 0;
-//            cumul = 0;
-//        }
-//            
-//		do
-//		{
-//			size = blockArray[i].atomCount;
-//			cumul += size;
-//			i++;
-//		}
-//		while (desiredIndex >= cumul);
-//
-//		blockIndex = i - 1;
-//        lastCumulIndex = cumul - size;
-//		localIndex = desiredIndex - lastCumulIndex;
-//        
-//        lastIndex = index;
-//        lastBlockIndex = blockIndex;
-//        lastCumulIndex = cumul - size;
+	    this.blockOffsets = null;
+	}
+	
+	
+	protected final BlockOffsets getBlockOffsets()
+	{
+	    BlockOffsets offsets = blockOffsets;
+	    if (offsets == null || offsets.blockArray != blockArray || offsets.atomCount != atomCount)
+	        blockOffsets = offsets = new BlockOffsets(blockArray, atomCount);
+	    return offsets;
+	}
+	
+	
+	/*
+	 * Returns the index of the child block containing the atom at the
+	 * given index, and the index of the atom in this block, packed in a
+	 * long so that no state is stored between calls
+	 */
+	protected final long selectBlock(int index)
+	{
+	    BlockOffsets offsets = getBlockOffsets();
+	    int desiredIndex = startIndex + index;
+	    int blockIndex = offsets.findBlock(desiredIndex);
+	    int localIndex = desiredIndex - offsets.offsets[blockIndex];
+	    return ((long)blockIndex << 32) | localIndex;
+	}
+	
+	
+	protected static int blockIndex(long loc)
+	{
+	    return (int)(loc >>> 32);
+	}
+	
+	
+	protected static int localIndex(long loc)
+	{
+	    return (int)loc;
 	}
 
 
@@ -229,10 +293,8 @@ public class DataBlockMixed extends AbstractDataBlock
 
 		if (atomCount > 0)
 		{
-			selectBlock(0);
-			int start = blockIndex;
-			selectBlock(getAtomCount() - 1);
-			int stop = blockIndex + 1;
+			int start = blockIndex(selectBlock(0));
+			int stop = blockIndex(selectBlock(getAtomCount() - 1)) + 1;
 			
 			for (int i = start; i < stop; i++)
 			{
@@ -250,81 +312,80 @@ public class DataBlockMixed extends AbstractDataBlock
 	@Override
     public boolean getBooleanValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getBooleanValue(localIndex);
+		long loc = selectBlock(index);
+		return blockArray[blockIndex(loc)].getBooleanValue(localIndex(loc));
 	}
 
 
 	@Override
     public byte getByteValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getByteValue(localIndex);
+		long loc = selectBlock(index);
+		return blockArray[blockIndex(loc)].getByteValue(localIndex(loc));
 	}
 
 
 	@Override
     public short getShortValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getShortValue(localIndex);
+		long loc = selectBlock(index);
+		return blockArray[blockIndex(loc)].getShortValue(localIndex(loc));
 	}
 
 
 	@Override
     public int getIntValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getIntValue(localIndex);
+		long loc = selectBlock(index);
+		return blockArray[blockIndex(loc)].getIntValue(localIndex(loc));
 	}
 
 
 	@Override
     public long getLongValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getLongValue(localIndex);
+		long loc = selectBlock(index);
+		return blockArray[blockIndex(loc)].getLongValue(localIndex(loc));
 	}
 
 
 	@Override
     public float getFloatValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getFloatValue(localIndex);
+		long loc = selectBlock(index);
+		return blockArray[blockIndex(loc)].getFloatValue(localIndex(loc));
 	}
 
 
 	@Override
     public double getDoubleValue(int index)
 	{
-		selectBlock(index);
-        //System.out.println(blockIndex + " " + localIndex);
-		return blockArray[blockIndex].getDoubleValue(localIndex);
+		long loc = selectBlock(index);
+		return blockArray[blockIndex(loc)].getDoubleValue(localIndex(loc));
 	}
 
 
 	@Override
     public String getStringValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getStringValue(localIndex);
+		long loc = selectBlock(index);
+		return blockArray[blockIndex(loc)].getStringValue(localIndex(loc));
 	}
 
 
     @Override
     public Instant getTimeStamp(int index)
     {
-        selectBlock(index);
-        return blockArray[blockIndex].getTimeStamp(localIndex);
+        long loc = selectBlock(index);
+        return blockArray[blockIndex(loc)].getTimeStamp(localIndex(loc));
     }
 
 
     @Override
     public OffsetDateTime getDateTime(int index)
     {
-        selectBlock(index);
-        return blockArray[blockIndex].getDateTime(localIndex);
+        long loc = selectBlock(index);
+        return blockArray[blockIndex(loc)].getDateTime(localIndex(loc));
     }
 	
 
@@ -338,85 +399,86 @@ public class DataBlockMixed extends AbstractDataBlock
         
         // set actual child block
         blockArray[blockIndex] = dataBlock;
+        this.blockOffsets = null;
 	}
 	
 	
 	@Override
     public void setBooleanValue(int index, boolean value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setBooleanValue(localIndex, value);
+		long loc = selectBlock(index);
+		blockArray[blockIndex(loc)].setBooleanValue(localIndex(loc), value);
 	}
 
 
 	@Override
     public void setByteValue(int index, byte value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setByteValue(localIndex, value);
+		long loc = selectBlock(index);
+		blockArray[blockIndex(loc)].setByteValue(localIndex(loc), value);
 	}
 
 
 	@Override
     public void setShortValue(int index, short value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setShortValue(localIndex, value);
+		long loc = selectBlock(index);
+		blockArray[blockIndex(loc)].setShortValue(localIndex(loc), value);
 	}
 
 
 	@Override
     public void setIntValue(int index, int value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setIntValue(localIndex, value);
+		long loc = selectBlock(index);
+		blockArray[blockIndex(loc)].setIntValue(localIndex(loc), value);
 	}
 
 
 	@Override
     public void setLongValue(int index, long value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setLongValue(localIndex, value);
+		long loc = selectBlock(index);
+		blockArray[blockIndex(loc)].setLongValue(localIndex(loc), value);
 	}
 
 
 	@Override
     public void setFloatValue(int index, float value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setFloatValue(localIndex, value);
+		long loc = selectBlock(index);
+		blockArray[blockIndex(loc)].setFloatValue(localIndex(loc), value);
 	}
 
 
 	@Override
     public void setDoubleValue(int index, double value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setDoubleValue(localIndex, value);
+		long loc = selectBlock(index);
+		blockArray[blockIndex(loc)].setDoubleValue(localIndex(loc), value);
 	}
 
 
 	@Override
     public void setStringValue(int index, String value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setStringValue(localIndex, value);
+		long loc = selectBlock(index);
+		blockArray[blockIndex(loc)].setStringValue(localIndex(loc), value);
 	}
 
 
     @Override
     public void setTimeStamp(int index, Instant value)
     {
-        selectBlock(index);
-        blockArray[blockIndex].setTimeStamp(localIndex, value);
+        long loc = selectBlock(index);
+        blockArray[blockIndex(loc)].setTimeStamp(localIndex(loc), value);
     }
 
 
     @Override
     public void setDateTime(int index, OffsetDateTime value)
     {
-        selectBlock(index);
-        blockArray[blockIndex].setDateTime(localIndex, value);
+        long loc = selectBlock(index);
+        blockArray[blockIndex(loc)].setDateTime(localIndex(loc), value);
     }
 }
@@ -32,8 +32,6 @@ public class DataBlockParallel extends AbstractDataBlock
 {
 	private static final long serialVersionUID = 6492226220927792777L;
     protected AbstractDataBlock[] blockArray;
-	protected int blockIndex;
-	protected int localIndex;
 
 
 	public DataBlockParallel()
@@ -65,6 +63,33 @@ public class DataBlockParallel extends AbstractDataBlock
 	    // set actual child block
 	    blockArray[blockIndex] = dataBlock;
 	}
+
+    
+    /**
+     * Gets a view of a single row of this block, that is the values at the
+     * same position in every child block. When the block holds a batch of
+     * records (one child block per record field), this is one record.
+     * The returned block shares its data with this block.
+     * @param rowIndex Index of row, starting at 0
+     * @return Data block containing one value from each child block
+     */
+    public DataBlockParallel getRow(int rowIndex)
+    {
+        DataBlockParallel row = new DataBlockParallel();
+        row.blockArray = this.blockArray;
+        row.startIndex = this.startIndex + rowIndex;
+        row.atomCount = blockArray.length;
+        return row;
+    }
+    
+    
+    /**
+     * @return Number of rows in this block (i.e. size of child blocks)
+     */
+    public int getRowCount()
+    {
+        return atomCount / blockArray.length;
+    }
 	
 	
 	@Override
@@ -150,8 +175,8 @@ public class DataBlockParallel extends AbstractDataBlock
 	@Override
     public DataType getDataType(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getDataType(localIndex);
+		int i = blockIndex(index);
+		return blockArray[i].getDataType(localIndex(i, index));
 	}
 
 
@@ -166,11 +191,19 @@ public class DataBlockParallel extends AbstractDataBlock
 	}
 
 
-	protected void selectBlock(int index)
+	/*
+	 * Child block and local indexes are computed separately so that
+	 * no state is stored between calls and concurrent reads are safe
+	 */
+	protected final int blockIndex(int index)
+	{
+		return index % blockArray.length;
+	}
+	
+	
+	protected final int localIndex(int blockIndex, int index)
 	{
-		blockIndex = index % blockArray.length;
-        localIndex = startIndex + index / blockArray.length;
-        localIndex -= blockArray[blockIndex].startIndex;
+        return startIndex + index / blockArray.length - blockArray[blockIndex].startIndex;
 	}
 
 
@@ -181,10 +214,8 @@ public class DataBlockParallel extends AbstractDataBlock
 		buffer.append("PARALLEL: ");
 		buffer.append('[');
 
-		selectBlock(0);
-		int start = blockIndex;
-		selectBlock(getAtomCount() - 1);
-		int stop = blockIndex + 1;
+		int start = blockIndex(0);
+		int stop = blockIndex(getAtomCount() - 1) + 1;
 		
 		for (int i = start; i < stop; i++)
 		{
@@ -201,160 +232,159 @@ public class DataBlockParallel extends AbstractDataBlock
 	@Override
     public boolean getBooleanValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getBooleanValue(localIndex);
+		int i = blockIndex(index);
+		return blockArray[i].getBooleanValue(localIndex(i, index));
 	}
 
 
 	@Override
     public byte getByteValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getByteValue(localIndex);
+		int i = blockIndex(index);
+		return blockArray[i].getByteValue(localIndex(i, index));
 	}
 
 
 	@Override
     public short getShortValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getShortValue(localIndex);
+		int i = blockIndex(index);
+		return blockArray[i].getShortValue(localIndex(i, index));
 	}
 
 
 	@Override
     public int getIntValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getIntValue(localIndex);
+		int i = blockIndex(index);
+		return blockArray[i].getIntValue(localIndex(i, index));
 	}
 
 
 	@Override
     public long getLongValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getLongValue(localIndex);
+		int i = blockIndex(index);
+		return blockArray[i].getLongValue(localIndex(i, index));
 	}
 
 
 	@Override
     public float getFloatValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getFloatValue(localIndex);
+		int i = blockIndex(index);
+		return blockArray[i].getFloatValue(localIndex(i, index));
 	}
 
 
 	@Override
     public double getDoubleValue(int index)
 	{
-		selectBlock(index);
-        //System.out.println(blockIndex + " " + localIndex);
-		return blockArray[blockIndex].getDoubleValue(localIndex);
+		int i = blockIndex(index);
+		return blockArray[i].getDoubleValue(localIndex(i, index));
 	}
 
 
 	@Override
     public String getStringValue(int index)
 	{
-		selectBlock(index);
-		return blockArray[blockIndex].getStringValue(localIndex);
+		int i = blockIndex(index);
+		return blockArray[i].getStringValue(localIndex(i, index));
 	}
 
 
     @Override
     public Instant getTimeStamp(int index)
     {
-        selectBlock(index);
-        return blockArray[blockIndex].getTimeStamp(localIndex);
+        int i = blockIndex(index);
+        return blockArray[i].getTimeStamp(localIndex(i, index));
     }
 
 
     @Override
     public OffsetDateTime getDateTime(int index)
     {
-        selectBlock(index);
-        return blockArray[blockIndex].getDateTime(localIndex);
+        int i = blockIndex(index);
+        return blockArray[i].getDateTime(localIndex(i, index));
     }
 
 
 	@Override
     public void setBooleanValue(int index, boolean value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setBooleanValue(localIndex, value);
+		int i = blockIndex(index);
+		blockArray[i].setBooleanValue(localIndex(i, index), value);
 	}
 
 
 	@Override
     public void setByteValue(int index, byte value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setByteValue(localIndex, value);
+		int i = blockIndex(index);
+		blockArray[i].setByteValue(localIndex(i, index), value);
 	}
 
 
 	@Override
     public void setShortValue(int index, short value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setShortValue(localIndex, value);
+		int i = blockIndex(index);
+		blockArray[i].setShortValue(localIndex(i, index), value);
 	}
 
 
 	@Override
     public void setIntValue(int index, int value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setIntValue(localIndex, value);
+		int i = blockIndex(index);
+		blockArray[i].setIntValue(localIndex(i, index), value);
 	}
 
 
 	@Override
     public void setLongValue(int index, long value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setLongValue(localIndex, value);
+		int i = blockIndex(index);
+		blockArray[i].setLongValue(localIndex(i, index), value);
 	}
 
 
 	@Override
     public void setFloatValue(int index, float value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setFloatValue(localIndex, value);
+		int i = blockIndex(index);
+		blockArray[i].setFloatValue(localIndex(i, index), value);
 	}
 
 
 	@Override
     public void setDoubleValue(int index, double value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setDoubleValue(localIndex, value);
+		int i = blockIndex(index);
+		blockArray[i].setDoubleValue(localIndex(i, index), value);
 	}
 
 
 	@Override
     public void setStringValue(int index, String value)
 	{
-		selectBlock(index);
-		blockArray[blockIndex].setStringValue(localIndex, value);
+		int i = blockIndex(index);
+		blockArray[i].setStringValue(localIndex(i, index), value);
 	}
 
 
     @Override
     public void setTimeStamp(int index, Instant value)
     {
-        selectBlock(index);
-        blockArray[blockIndex].setTimeStamp(localIndex, value);
+        int i = blockIndex(index);
+        blockArray[i].setTimeStamp(localIndex(i, index), value);
     }
 
 
     @Override
     public void setDateTime(int index, OffsetDateTime value)
     {
-        selectBlock(index);
-        blockArray[blockIndex].setDateTime(localIndex, value);
+        int i = blockIndex(index);
+        blockArray[i].setDateTime(localIndex(i, index), value);
     }
 }
@@ -0,0 +1,379 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.data;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.vast.util.Asserts;
+import net.opengis.swe.v20.DataBlock;
+
+
+/**
+ * <p>
+ * Pool of reusable data blocks with reference counting.<br/>
+ * Blocks are acquired with a reference count of 1, and are returned to the
+ * pool when the count drops to 0, so that producers (e.g. parsers) can
+ * recycle them instead of allocating a new block for each record.
+ * Consumers must not access a block after releasing it.
+ * </p><p>
+ * Blocks that are acquired and never released are simply garbage collected,
+ * since the pool only keeps references to free blocks and to blocks whose
+ * reference count was incremented with {@link #retain(DataBlock)}. Outside
+ * of debug mode, releasing a block twice is only detected while the block
+ * is still in the free list.
+ * </p><p>
+ * In debug mode, all blocks in use are tracked, and released blocks are filled with sentinel values (NaN,
+ * {@link #POISON_STRING}, etc.) so that reads after release are visible,
+ * and are checked before being reused so that writes after release are
+ * reported, along with the stack trace of the last release.
+ * </p><p>
+ * A pool should only be used for blocks of the same data structure.
+ * </p><p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class DataBlockPool
+{
+    public static final int DEFAULT_MAX_FREE_BLOCKS = 256;
+    public static final String POISON_STRING = "<released>";
+
+    final int maxFreeBlocks;
+    final ArrayDeque<DataBlock> freeBlocks = new ArrayDeque<>();
+    final Map<DataBlock, int[]> refCounts = new IdentityHashMap<>();
+    final Map<DataBlock, ReleaseInfo> releasedBlocks = new IdentityHashMap<>();
+    boolean debugMode;
+    int inUseCount;
+    long hitCount;
+    long missCount;
+    long discardCount;
+
+
+    /*
+     * State of blocks released in debug mode
+     */
+    static class ReleaseInfo
+    {
+        final long checksum;
+        final Exception releaseTrace;
+
+        ReleaseInfo(long checksum)
+        {
+            this.checksum = checksum;
+            this.releaseTrace = new Exception("Block released here");
+        }
+    }
+
+
+    public DataBlockPool()
+    {
+        this(DEFAULT_MAX_FREE_BLOCKS);
+    }
+
+
+    /**
+     * @param maxFreeBlocks maximum number of released blocks kept for reuse
+     */
+    public DataBlockPool(int maxFreeBlocks)
+    {
+        Asserts.checkArgument(maxFreeBlocks >= 0, "maxFreeBlocks must be >= 0");
+        this.maxFreeBlocks = maxFreeBlocks;
+    }
+
+
+    /**
+     * Enables or disables detection of blocks used after release.
+     * This is slow and should only be used for debugging. It must be enabled
+     * before blocks are acquired from the pool.
+     * @param debugMode
+     */
+    public synchronized void setDebugMode(boolean debugMode)
+    {
+        this.debugMode = debugMode;
+        if (!debugMode)
+            releasedBlocks.clear();
+    }
+
+
+    /**
+     * Gets a block from the pool, or a new block if none is available
+     * @param factory function used to create a new block
+     * @return a block with a reference count of 1 (the values it contains
+     * are those of a previous record and must be overwritten)
+     * @throws IllegalStateException if a free block was modified after it
+     * was released (debug mode only)
+     */
+    public synchronized DataBlock acquire(Supplier<? extends DataBlock> factory)
+    {
+        DataBlock block = freeBlocks.pollFirst();
+        if (block != null)
+        {
+            hitCount++;
+            if (debugMode)
+                checkNotModified(block);
+        }
+        else
+        {
+            missCount++;
+            block = factory.get();
+        }
+
+        // only track all blocks in use in debug mode, so that blocks that
+        // are never released can be garbage collected
+        if (debugMode)
+            refCounts.put(block, new int[] {1});
+        inUseCount++;
+        return block;
+    }
+
+
+    /**
+     * Increments the reference count of the block, when the same block is
+     * passed to several consumers that will release it independently
+     * @param block block acquired from this pool
+     * @throws IllegalStateException if the block is not currently in use
+     */
+    public synchronized void retain(DataBlock block)
+    {
+        int[] refCount = getRefCount(block);
+        if (refCount != null)
+            refCount[0]++;
+        else
+            refCounts.put(block, new int[] {2});
+    }
+
+
+    /**
+     * Decrements the reference count of the block, and returns it to the
+     * pool when the count reaches 0
+     * @param block block acquired from this pool
+     * @return true if the block was returned to the pool
+     * @throws IllegalStateException if the block is not currently in use
+     * (e.g. it was already released)
+     */
+    public synchronized boolean release(DataBlock block)
+    {
+        int[] refCount = getRefCount(block);
+        if (refCount != null)
+        {
+            if (--refCount[0] > 0)
+                return false;
+            refCounts.remove(block);
+        }
+
+        inUseCount--;
+        if (freeBlocks.size() >= maxFreeBlocks)
+        {
+            discardCount++;
+            return false;
+        }
+
+        if (debugMode)
+        {
+            poison(block);
+            releasedBlocks.put(block, new ReleaseInfo(checksum(block)));
+        }
+
+        freeBlocks.addLast(block);
+        return true;
+    }
+
+
+    /*
+     * Get reference count of a block that was retained or acquired in debug
+     * mode, or null if the block has a single reference
+     */
+    protected int[] getRefCount(DataBlock block)
+    {
+        Asserts.checkNotNull(block, "block");
+
+        int[] refCount = refCounts.get(block);
+        if (refCount == null)
+        {
+            ReleaseInfo info = releasedBlocks.get(block);
+            if (info != null)
+                throw new IllegalStateException("Data block was already released", info.releaseTrace);
+            if (debugMode)
+                throw new IllegalStateException("Data block is not in use or was not acquired from this pool");
+            if (isFree(block))
+                throw new IllegalStateException("Data block was already released");
+        }
+
+        return refCount;
+    }
+
+
+    protected boolean isFree(DataBlock block)
+    {
+        for (DataBlock freeBlock: freeBlocks)
+        {
+            if (freeBlock == block)
+                return true;
+        }
+
+        return false;
+    }
+
+
+    protected void checkNotModified(DataBlock block)
+    {
+        ReleaseInfo info = releasedBlocks.remove(block);
+        if (info != null && checksum(block) != info.checksum)
+            throw new IllegalStateException("Data block was modified after it was released", info.releaseTrace);
+    }
+
+
+    /*
+     * Fill block with values that are easy to spot when read after release
+     */
+    protected static void poison(DataBlock block)
+    {
+        for (int i = 0; i < block.getAtomCount(); i++)
+        {
+            switch (block.getDataType(i))
+            {
+                case FLOAT:
+                case DOUBLE:
+                    block.setDoubleValue(i, Double.NaN);
+                    break;
+
+                case ASCII_STRING:
+                case UTF_STRING:
+                    block.setStringValue(i, POISON_STRING);
+                    break;
+
+                case BOOLEAN:
+                    block.setBooleanValue(i, false);
+                    break;
+
+                case INSTANT:
+                case DATETIME:
+                    block.setTimeStamp(i, null);
+                    break;
+
+                default:
+                    // integer values are kept since they can be array sizes
+                    // defining the structure of the block
+                    break;
+            }
+        }
+    }
+
+
+    protected static long checksum(DataBlock block)
+    {
+        long h = block.getAtomCount();
+        for (int i = 0; i < block.getAtomCount(); i++)
+        {
+            long v;
+            switch (block.getDataType(i))
+            {
+                case FLOAT:
+                case DOUBLE:
+                    v = Double.doubleToRawLongBits(block.getDoubleValue(i));
+                    break;
+
+                case ASCII_STRING:
+                case UTF_STRING:
+                case INSTANT:
+                case DATETIME:
+                    String s = block.getStringValue(i);
+                    v = s != null ? s.hashCode() : 0;
+                    break;
+
+                case BOOLEAN:
+                    v = block.getBooleanValue(i) ? 1 : 0;
+                    break;
+
+                default:
+                    v = block.getDataType(i).isIntegralType() ? block.getLongValue(i) : 0;
+            }
+
+            h = 31 * h + v;
+        }
+
+        return h;
+    }
+
+
+    /**
+     * Removes all free blocks from the pool.
+     * Blocks currently in use can still be released.
+     */
+    public synchronized void clear()
+    {
+        freeBlocks.clear();
+        releasedBlocks.clear();
+    }
+
+
+    /**
+     * @return number of blocks acquired from the free list
+     */
+    public synchronized long getHitCount()
+    {
+        return hitCount;
+    }
+
+
+    /**
+     * @return number of blocks that had to be created because the free list was empty
+     */
+    public synchronized long getMissCount()
+    {
+        return missCount;
+    }
+
+
+    /**
+     * @return number of released blocks dropped because the free list was full
+     */
+    public synchronized long getDiscardCount()
+    {
+        return discardCount;
+    }
+
+
+    /**
+     * @return ratio of blocks acquired from the free list
+     */
+    public synchronized double getHitRate()
+    {
+        long total = hitCount + missCount;
+        return total == 0 ? 1.0 : (double)hitCount / total;
+    }
+
+
+    /**
+     * @return number of blocks that can be reused
+     */
+    public synchronized int getFreeCount()
+    {
+        return freeBlocks.size();
+    }
+
+
+    /**
+     * @return number of blocks acquired and not released yet
+     */
+    public synchronized int getInUseCount()
+    {
+        return inUseCount;
+    }
+}
@@ -14,18 +14,14 @@ Copyright (C) 2025 Sensia Software LLC. All Rights Reserved.
 
 package org.vast.data;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.Map;
 import org.vast.cdm.common.CDMException;
-import org.vast.cdm.common.DataStreamWriter;
 import org.vast.swe.SWEHelper;
 import org.vast.swe.ScalarIndexer;
 import org.vast.util.Asserts;
@@ -54,8 +50,10 @@ import net.opengis.swe.v20.DataComponent;
  * - primitive arrays?
  * </p>
  * 
- * TODO more efficient implementation based on generated methods compiled in
- * memory with Janino or equivalent.
+ * {@link #generate(DataComponent, Class)} returns an instance of a class
+ * generated by {@link DataAccessorGenerator} when possible, which is much
+ * more efficient, and only falls back to a dynamic proxy for structures and
+ * methods the generator doesn't support.
  *
  * @author Alex Robin
  * @since Jan 20, 2025
@@ -94,8 +92,21 @@ public class DataBlockProxy implements IDataAccessor, InvocationHandler
     }
     
     
-    @SuppressWarnings("unchecked")
     public static <T extends IDataAccessor> T generate(DataComponent recordSchema, Class<T> targetInterface)
+    {
+        return DataAccessorGenerator.generate(recordSchema, targetInterface);
+    }
+    
+    
+    /**
+     * Creates an accessor implemented with a dynamic proxy, without trying
+     * to generate an accessor class first
+     * @param recordSchema Schema of records the accessor will wrap
+     * @param targetInterface Accessor interface
+     * @return The proxy instance
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends IDataAccessor> T createProxy(DataComponent recordSchema, Class<T> targetInterface)
     {
         return (T) Proxy.newProxyInstance(
             targetInterface.getClassLoader(),
@@ -363,19 +374,6 @@ public class DataBlockProxy implements IDataAccessor, InvocationHandler
     @Override
     public String toString()
     {
-        try
-        {
-            var baos = new ByteArrayOutputStream();
-            DataStreamWriter sweWriter = SWEHelper.createDataWriter(new JSONEncodingImpl());
-            sweWriter.setDataComponents(recordSchema);
-            sweWriter.setOutput(baos);
-            sweWriter.write(recordSchema.getData());
-            sweWriter.flush();
-            return baos.toString(StandardCharsets.UTF_8);
-        }
-        catch (IOException e)
-        {
-            throw new IllegalStateException("Error writing to String", e);
-        }
+        return DataAccessorBase.toJson(recordSchema);
     }
 }
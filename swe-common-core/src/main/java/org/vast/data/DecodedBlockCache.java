@@ -0,0 +1,165 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.data;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import org.vast.cdm.common.CDMException;
+import org.vast.cdm.common.CompressedStreamParser;
+import org.vast.cdm.common.DataInputExt;
+import org.vast.swe.CodecLookup;
+import org.vast.swe.DataInputStreamBI;
+import org.vast.swe.DataInputStreamLI;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import net.opengis.swe.v20.BinaryBlock;
+import net.opengis.swe.v20.ByteOrder;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+
+
+/**
+ * <p>
+ * Size bounded LRU cache of decoded data blocks, shared by all
+ * {@link DataBlockCompressed} instances.<br/>
+ * Entries are keyed by the identity of the compressed byte array, so copies
+ * of a compressed block share the same decoded data, and the total size of
+ * the cache is bounded by the number of atoms in decoded blocks.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class DecodedBlockCache
+{
+    public static final long DEFAULT_MAX_ATOM_COUNT = 64*1024*1024;
+    private static DecodedBlockCache singleton;
+
+    Cache<byte[], DataBlock> cache;
+
+
+    public static synchronized DecodedBlockCache getInstance()
+    {
+        if (singleton == null)
+            singleton = new DecodedBlockCache(DEFAULT_MAX_ATOM_COUNT);
+        return singleton;
+    }
+
+
+    public DecodedBlockCache(long maxAtomCount)
+    {
+        this.cache = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumWeight(maxAtomCount)
+            .weigher((byte[] k, DataBlock v) -> v.getAtomCount())
+            .build();
+    }
+
+
+    /**
+     * Gets the decoded data of the given block, decoding it if it is not
+     * in the cache yet
+     * @param block compressed block
+     * @return decoded data block
+     * @throws IllegalStateException if the block cannot be decoded
+     */
+    public DataBlock get(DataBlockCompressed block)
+    {
+        byte[] compressedData = block.getUnderlyingObject();
+        if (compressedData == null)
+            throw new IllegalStateException("No compressed data to decode");
+
+        try
+        {
+            return cache.get(compressedData, () -> decode(block));
+        }
+        catch (ExecutionException | UncheckedExecutionException e)
+        {
+            if (e.getCause() instanceof IllegalStateException)
+                throw (IllegalStateException)e.getCause();
+            throw new IllegalStateException("Cannot decode compressed data block", e.getCause());
+        }
+    }
+
+
+    /**
+     * Decodes the given block in the background, so it is already in the
+     * cache when it is accessed (e.g. when reading frames sequentially)
+     * @param block compressed block
+     * @param executor executor used to run the decoder
+     */
+    public void prefetch(DataBlockCompressed block, Executor executor)
+    {
+        byte[] compressedData = block.getUnderlyingObject();
+        if (compressedData == null || cache.getIfPresent(compressedData) != null)
+            return;
+
+        executor.execute(() -> {
+            try
+            {
+                get(block);
+            }
+            catch (IllegalStateException e)
+            {
+                // error will be reported again when data is accessed
+            }
+        });
+    }
+
+
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+
+    public long size()
+    {
+        return cache.size();
+    }
+
+
+    protected DataBlock decode(DataBlockCompressed block) throws CDMException
+    {
+        BinaryBlock binaryInfo = block.getBinaryInfo();
+        if (block.getBlockComponent() == null || binaryInfo == null)
+            throw new IllegalStateException("Missing codec info on compressed data block");
+
+        CompressedStreamParser decoder = CodecLookup.getInstance().createDecoder(binaryInfo.getCompression());
+        if (decoder == null)
+            throw new IllegalStateException("No decoder available for " + binaryInfo.getCompression());
+
+        // decode to a copy of the component so the block can be decoded from any thread
+        // and assign it a new block for codecs that decode values in place
+        DataComponent blockComponent = block.getBlockComponent().copy();
+        decoder.init(blockComponent, binaryInfo);
+        blockComponent.assignNewDataBlock();
+
+        ByteArrayInputStream is = new ByteArrayInputStream(block.getUnderlyingObject());
+        DataInputExt input;
+        if (block.getByteOrder() == ByteOrder.LITTLE_ENDIAN)
+            input = new DataInputStreamLI(is);
+        else
+            input = new DataInputStreamBI(is);
+        decoder.decode(input, blockComponent);
+
+        DataBlock decodedData = blockComponent.getData();
+        if (decodedData == null || decodedData instanceof DataBlockCompressed)
+            throw new IllegalStateException(binaryInfo.getCompression() + " decoder didn't produce any data");
+        return decodedData;
+    }
+}
@@ -0,0 +1,31 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.ogc;
+
+
+/**
+ * <p>
+ * Marker interface for reader/writer classes that are stateless or
+ * immutable and can thus be safely shared by several threads.<br/>
+ * {@link OGCRegistry} creates a single instance of such classes and returns
+ * it each time a reader/writer is requested.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public interface IReusable
+{
+}
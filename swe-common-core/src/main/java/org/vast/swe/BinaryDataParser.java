@@ -396,6 +396,7 @@ public class BinaryDataParser extends AbstractDataParser
                 byte[] bytes = new byte[blockSize];
                 dataInput.readFully(bytes);
                 dataBlock.setUnderlyingObject(bytes);
+                ((DataBlockCompressed)dataBlock).setCodecInfo(blockComponent.copy(), binaryInfo, ((BinaryEncoding)dataEncoding).getByteOrder());
             }
             
             // otherwise need to uncompress on-the-fly
@@ -23,6 +23,8 @@ package org.vast.swe;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import org.vast.cdm.common.DataInputExt;
 
 
@@ -39,6 +41,7 @@ import org.vast.cdm.common.DataInputExt;
 public class DataInputStreamBI extends DataInputStream implements DataInputExt
 {
     private byte[] b = new byte[4];
+    private PrimitiveArrayBuffer arrayBuf;
     
     
 	public DataInputStreamBI(InputStream is)
@@ -76,4 +79,54 @@ public class DataInputStreamBI extends DataInputStream implements DataInputExt
 				
 		return buf.toString();
 	}
+
+    
+    @Override
+    public void readShorts(short[] dst, int off, int len) throws IOException
+    {
+        getArrayBuffer().readShorts(this, dst, off, len);
+    }
+
+    
+    @Override
+    public void readInts(int[] dst, int off, int len) throws IOException
+    {
+        getArrayBuffer().readInts(this, dst, off, len);
+    }
+
+    
+    @Override
+    public void readLongs(long[] dst, int off, int len) throws IOException
+    {
+        getArrayBuffer().readLongs(this, dst, off, len);
+    }
+
+    
+    @Override
+    public void readFloats(float[] dst, int off, int len) throws IOException
+    {
+        getArrayBuffer().readFloats(this, dst, off, len);
+    }
+
+    
+    @Override
+    public void readDoubles(double[] dst, int off, int len) throws IOException
+    {
+        getArrayBuffer().readDoubles(this, dst, off, len);
+    }
+
+    
+    @Override
+    public void readValues(ByteBuffer dst, int valueSize) throws IOException
+    {
+        getArrayBuffer().readValues(this, dst, valueSize);
+    }
+
+    
+    private PrimitiveArrayBuffer getArrayBuffer()
+    {
+        if (arrayBuf == null)
+            arrayBuf = new PrimitiveArrayBuffer(ByteOrder.BIG_ENDIAN);
+        return arrayBuf;
+    }
 }
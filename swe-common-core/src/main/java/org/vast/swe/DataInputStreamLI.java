@@ -25,6 +25,8 @@ import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import org.vast.cdm.common.DataInputExt;
 
 
@@ -40,6 +42,7 @@ import org.vast.cdm.common.DataInputExt;
 public class DataInputStreamLI extends FilterInputStream implements DataInputExt
 {
     private byte[] b = new byte[8];
+    private PrimitiveArrayBuffer arrayBuf;
     
     
 	public DataInputStreamLI(InputStream is)
@@ -225,4 +228,54 @@ public class DataInputStreamLI extends FilterInputStream implements DataInputExt
 
         return total;
     }
+
+    
+    @Override
+    public void readShorts(short[] dst, int off, int len) throws IOException
+    {
+        getArrayBuffer().readShorts(this, dst, off, len);
+    }
+
+    
+    @Override
+    public void readInts(int[] dst, int off, int len) throws IOException
+    {
+        getArrayBuffer().readInts(this, dst, off, len);
+    }
+
+    
+    @Override
+    public void readLongs(long[] dst, int off, int len) throws IOException
+    {
+        getArrayBuffer().readLongs(this, dst, off, len);
+    }
+
+    
+    @Override
+    public void readFloats(float[] dst, int off, int len) throws IOException
+    {
+        getArrayBuffer().readFloats(this, dst, off, len);
+    }
+
+    
+    @Override
+    public void readDoubles(double[] dst, int off, int len) throws IOException
+    {
+        getArrayBuffer().readDoubles(this, dst, off, len);
+    }
+
+    
+    @Override
+    public void readValues(ByteBuffer dst, int valueSize) throws IOException
+    {
+        getArrayBuffer().readValues(this, dst, valueSize);
+    }
+
+    
+    private PrimitiveArrayBuffer getArrayBuffer()
+    {
+        if (arrayBuf == null)
+            arrayBuf = new PrimitiveArrayBuffer(ByteOrder.LITTLE_ENDIAN);
+        return arrayBuf;
+    }
 }
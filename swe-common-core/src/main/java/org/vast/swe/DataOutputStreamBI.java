@@ -23,6 +23,8 @@ package org.vast.swe;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import org.vast.cdm.common.DataOutputExt;
 
 
@@ -39,6 +41,7 @@ import org.vast.cdm.common.DataOutputExt;
 public class DataOutputStreamBI extends DataOutputStream implements DataOutputExt
 {
     byte[] tmpBuf = new byte[4];
+    private PrimitiveArrayBuffer arrayBuf;
     
     
 	public DataOutputStreamBI(OutputStream is)
@@ -92,4 +95,54 @@ public class DataOutputStreamBI extends DataOutputStream implements DataOutputEx
 		this.writeBytes(s);
 		this.writeByte(0);
     }
+
+    
+    @Override
+    public void writeShorts(short[] src, int off, int len) throws IOException
+    {
+        getArrayBuffer().writeShorts(this, src, off, len);
+    }
+
+    
+    @Override
+    public void writeInts(int[] src, int off, int len) throws IOException
+    {
+        getArrayBuffer().writeInts(this, src, off, len);
+    }
+
+    
+    @Override
+    public void writeLongs(long[] src, int off, int len) throws IOException
+    {
+        getArrayBuffer().writeLongs(this, src, off, len);
+    }
+
+    
+    @Override
+    public void writeFloats(float[] src, int off, int len) throws IOException
+    {
+        getArrayBuffer().writeFloats(this, src, off, len);
+    }
+
+    
+    @Override
+    public void writeDoubles(double[] src, int off, int len) throws IOException
+    {
+        getArrayBuffer().writeDoubles(this, src, off, len);
+    }
+
+    
+    @Override
+    public void writeValues(ByteBuffer src, int valueSize) throws IOException
+    {
+        getArrayBuffer().writeValues(this, src, valueSize);
+    }
+
+    
+    private PrimitiveArrayBuffer getArrayBuffer()
+    {
+        if (arrayBuf == null)
+            arrayBuf = new PrimitiveArrayBuffer(ByteOrder.BIG_ENDIAN);
+        return arrayBuf;
+    }
 }
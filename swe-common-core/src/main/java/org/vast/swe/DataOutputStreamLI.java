@@ -23,6 +23,8 @@ package org.vast.swe;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import org.vast.cdm.common.DataOutputExt;
 
 
@@ -38,6 +40,7 @@ import org.vast.cdm.common.DataOutputExt;
 public class DataOutputStreamLI extends FilterOutputStream implements DataOutputExt
 {
     byte[] tmpBuf = new byte[8];
+    private PrimitiveArrayBuffer arrayBuf;
     
     
 	public DataOutputStreamLI(OutputStream is)
@@ -205,4 +208,54 @@ public class DataOutputStreamLI extends FilterOutputStream implements DataOutput
         for (char c: chars)
             this.write(0xff & c);
     }
+
+    
+    @Override
+    public void writeShorts(short[] src, int off, int len) throws IOException
+    {
+        getArrayBuffer().writeShorts(out, src, off, len);
+    }
+
+    
+    @Override
+    public void writeInts(int[] src, int off, int len) throws IOException
+    {
+        getArrayBuffer().writeInts(out, src, off, len);
+    }
+
+    
+    @Override
+    public void writeLongs(long[] src, int off, int len) throws IOException
+    {
+        getArrayBuffer().writeLongs(out, src, off, len);
+    }
+
+    
+    @Override
+    public void writeFloats(float[] src, int off, int len) throws IOException
+    {
+        getArrayBuffer().writeFloats(out, src, off, len);
+    }
+
+    
+    @Override
+    public void writeDoubles(double[] src, int off, int len) throws IOException
+    {
+        getArrayBuffer().writeDoubles(out, src, off, len);
+    }
+
+    
+    @Override
+    public void writeValues(ByteBuffer src, int valueSize) throws IOException
+    {
+        getArrayBuffer().writeValues(out, src, valueSize);
+    }
+
+    
+    private PrimitiveArrayBuffer getArrayBuffer()
+    {
+        if (arrayBuf == null)
+            arrayBuf = new PrimitiveArrayBuffer(ByteOrder.LITTLE_ENDIAN);
+        return arrayBuf;
+    }
 }
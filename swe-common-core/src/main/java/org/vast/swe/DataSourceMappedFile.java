@@ -0,0 +1,218 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.vast.cdm.common.DataSource;
+import org.vast.cdm.common.DataStreamParser;
+import org.vast.util.Asserts;
+
+
+/**
+ * <p>
+ * Data source reading a file through memory mapped windows, so that
+ * files larger than 2GB can be read without streaming them.<br/>
+ * Windows are mapped lazily and are shared by all data inputs created by
+ * this source (see {@link MappedFileDataInput}).
+ * </p><p>
+ * Records can be accessed randomly once record offsets are known, either
+ * because records have a fixed size (see {@link #setFixedRecordSize(long, int)})
+ * or from a side index (see {@link #setRecordOffsets(long[])} and
+ * {@link #buildRecordIndex(DataStreamParser)}).
+ * </p><p>
+ * Mapped windows are released by the garbage collector only, so the file
+ * may stay locked on some platforms after {@link #close()} is called.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class DataSourceMappedFile implements DataSource, Closeable
+{
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    final FileChannel channel;
+    final long size;
+    final int windowSize;
+    final MappedByteBuffer[] windows;
+    long firstRecordOffset;
+    int recordSize = -1;
+    long[] recordOffsets;
+
+
+    public DataSourceMappedFile(Path file) throws IOException
+    {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+
+    /**
+     * @param file path of file to read
+     * @param windowSize size of memory mapped windows in bytes
+     * @throws IOException if the file cannot be opened
+     */
+    public DataSourceMappedFile(Path file, int windowSize) throws IOException
+    {
+        Asserts.checkArgument(windowSize > 0, "windowSize must be > 0");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        this.windows = new MappedByteBuffer[(int)((size + windowSize - 1) / windowSize)];
+    }
+
+
+    /**
+     * @return a new data input positioned at the beginning of the file
+     */
+    @Override
+    public MappedFileDataInput getDataStream() throws IOException
+    {
+        return new MappedFileDataInput(this, 0);
+    }
+
+
+    /**
+     * @param recordNum index of record (starting at 0)
+     * @return a new data input positioned at the beginning of the given record
+     * @throws IOException if the record offset is not known
+     */
+    public MappedFileDataInput getDataStream(long recordNum) throws IOException
+    {
+        return new MappedFileDataInput(this, getRecordOffset(recordNum));
+    }
+
+
+    /**
+     * Sets the size of records, when all records have the same size
+     * @param firstRecordOffset offset of first record (e.g. to skip a header)
+     * @param recordSize size of each record in bytes
+     */
+    public void setFixedRecordSize(long firstRecordOffset, int recordSize)
+    {
+        Asserts.checkArgument(firstRecordOffset >= 0 && firstRecordOffset <= size, "Invalid first record offset");
+        Asserts.checkArgument(recordSize > 0, "recordSize must be > 0");
+        this.firstRecordOffset = firstRecordOffset;
+        this.recordSize = recordSize;
+        this.recordOffsets = null;
+    }
+
+
+    /**
+     * Sets the offset of each record, when records have variable size
+     * @param recordOffsets array of record offsets, in increasing order
+     */
+    public void setRecordOffsets(long[] recordOffsets)
+    {
+        this.recordOffsets = Asserts.checkNotNull(recordOffsets, "recordOffsets");
+        this.recordSize = -1;
+    }
+
+
+    /**
+     * Builds the record index by parsing the whole file once
+     * @param parser parser configured with the record structure and encoding
+     * @return the offset of each record in the file
+     * @throws IOException if an error occurs while parsing
+     */
+    public long[] buildRecordIndex(DataStreamParser parser) throws IOException
+    {
+        MappedFileDataInput input = getDataStream();
+        parser.setInput(input);
+
+        long[] offsets = new long[1024];
+        int numRecords = 0;
+        long pos = input.getPosition();
+        while (parser.parseNextBlock() != null)
+        {
+            if (numRecords == offsets.length)
+                offsets = Arrays.copyOf(offsets, numRecords * 2);
+            offsets[numRecords++] = pos;
+            pos = input.getPosition();
+        }
+
+        setRecordOffsets(Arrays.copyOf(offsets, numRecords));
+        return recordOffsets;
+    }
+
+
+    /**
+     * @param recordNum index of record (starting at 0)
+     * @return offset of the given record in the file
+     * @throws IllegalStateException if record offsets are not known
+     * @throws IndexOutOfBoundsException if there is no record with this index
+     */
+    public long getRecordOffset(long recordNum)
+    {
+        if (recordNum < 0 || recordNum >= getNumRecords())
+            throw new IndexOutOfBoundsException("Invalid record index: " + recordNum);
+
+        if (recordOffsets != null)
+            return recordOffsets[(int)recordNum];
+        return firstRecordOffset + recordNum * recordSize;
+    }
+
+
+    /**
+     * @return the number of records in the file
+     * @throws IllegalStateException if record offsets are not known
+     */
+    public long getNumRecords()
+    {
+        if (recordOffsets != null)
+            return recordOffsets.length;
+        Asserts.checkState(recordSize > 0, "Record size or offsets must be set first");
+        return (size - firstRecordOffset) / recordSize;
+    }
+
+
+    public long getSize()
+    {
+        return size;
+    }
+
+
+    public int getWindowSize()
+    {
+        return windowSize;
+    }
+
+
+    synchronized MappedByteBuffer getWindow(int index) throws IOException
+    {
+        MappedByteBuffer window = windows[index];
+        if (window == null)
+        {
+            long start = (long)index * windowSize;
+            window = channel.map(MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+            windows[index] = window;
+        }
+
+        return window;
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
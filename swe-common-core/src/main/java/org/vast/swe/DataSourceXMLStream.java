@@ -0,0 +1,218 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.vast.cdm.common.DataSource;
+import org.vast.util.Asserts;
+
+
+/**
+ * <p>
+ * This DataSource streams the text content of an XML element directly
+ * from a StAX reader, so that a low level parser can parse inline values
+ * without building a DOM tree or a String with the whole content.<br/>
+ * The text is encoded as UTF-8 and the stream ends when the end tag of the
+ * element is reached, leaving the StAX reader positioned on this end tag.
+ * Since data is read directly from the underlying XML stream, the stream
+ * returned by {@link #getDataStream()} can only be consumed once.
+ * </p><p>
+ * XML encoded values can be parsed directly from the StAX reader returned
+ * by {@link #getXMLStreamReader()} instead.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class DataSourceXMLStream implements DataSource
+{
+    protected XMLStreamReader reader;
+    protected InputStream dataStream;
+
+
+    /**
+     * @param reader StAX reader positioned on the start tag of the element
+     * containing the encoded values
+     */
+    public DataSourceXMLStream(XMLStreamReader reader)
+    {
+        this.reader = Asserts.checkNotNull(reader, XMLStreamReader.class);
+        Asserts.checkState(reader.isStartElement(), "Reader must be positioned on a start tag");
+    }
+
+
+    public XMLStreamReader getXMLStreamReader()
+    {
+        return reader;
+    }
+
+
+    @Override
+    public InputStream getDataStream() throws IOException
+    {
+        if (dataStream == null)
+            dataStream = new ElementTextInputStream();
+        return dataStream;
+    }
+
+
+    /*
+     * Input stream encoding text events of the element on the fly
+     */
+    protected class ElementTextInputStream extends InputStream
+    {
+        final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        final CharBuffer chars = CharBuffer.allocate(4096);
+        final ByteBuffer bytes = ByteBuffer.allocate(8192);
+        int depth = 0;
+        int textOffset = -1;
+        boolean endOfText;
+
+
+        ElementTextInputStream()
+        {
+            chars.flip();
+            bytes.flip();
+        }
+
+
+        @Override
+        public int read() throws IOException
+        {
+            if (!bytes.hasRemaining() && !fillBytes())
+                return -1;
+            return bytes.get() & 0xFF;
+        }
+
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException
+        {
+            if (len == 0)
+                return 0;
+
+            if (!bytes.hasRemaining() && !fillBytes())
+                return -1;
+
+            len = Math.min(len, bytes.remaining());
+            bytes.get(buf, off, len);
+            return len;
+        }
+
+
+        @Override
+        public int available()
+        {
+            return bytes.remaining();
+        }
+
+
+        protected boolean fillBytes() throws IOException
+        {
+            bytes.clear();
+
+            while (bytes.position() == 0)
+            {
+                if (!chars.hasRemaining())
+                {
+                    if (endOfText)
+                        break;
+                    fillChars();
+                }
+
+                CoderResult res = encoder.encode(chars, bytes, endOfText);
+                if (res.isError())
+                    res.throwException();
+
+                if (endOfText && !chars.hasRemaining())
+                {
+                    encoder.flush(bytes);
+                    break;
+                }
+            }
+
+            bytes.flip();
+            return bytes.hasRemaining();
+        }
+
+
+        /*
+         * Copy text from XML events until char buffer is full or
+         * end tag of the element is reached
+         */
+        protected void fillChars() throws IOException
+        {
+            chars.compact();
+
+            try
+            {
+                while (chars.hasRemaining() && !endOfText)
+                {
+                    // copy remaining chars from current text event
+                    if (textOffset >= 0)
+                    {
+                        int n = reader.getTextCharacters(textOffset, chars.array(),
+                            chars.arrayOffset() + chars.position(), chars.remaining());
+                        chars.position(chars.position() + n);
+                        textOffset += n;
+
+                        // move to next event only when all chars have been copied
+                        if (n <= 0 || textOffset >= reader.getTextLength())
+                            textOffset = -1;
+                        continue;
+                    }
+
+                    switch (reader.next())
+                    {
+                        case XMLStreamConstants.CHARACTERS:
+                        case XMLStreamConstants.CDATA:
+                        case XMLStreamConstants.SPACE:
+                            textOffset = 0;
+                            break;
+
+                        case XMLStreamConstants.START_ELEMENT:
+                            depth++;
+                            break;
+
+                        case XMLStreamConstants.END_ELEMENT:
+                            if (depth-- == 0)
+                                endOfText = true;
+                            break;
+
+                        case XMLStreamConstants.END_DOCUMENT:
+                            throw new IOException("Unexpected end of XML document");
+
+                        default:
+                    }
+                }
+            }
+            catch (XMLStreamException e)
+            {
+                throw new IOException("Error reading XML content", e);
+            }
+
+            chars.flip();
+        }
+    }
+}
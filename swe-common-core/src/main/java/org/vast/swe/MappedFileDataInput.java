@@ -0,0 +1,503 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.vast.cdm.common.DataInputExt;
+
+
+/**
+ * <p>
+ * Data input reading directly from the memory mapped windows of a
+ * {@link DataSourceMappedFile}, in either byte order.<br/>
+ * Values are read from the mapped buffers without any intermediate copy,
+ * and the read position can be changed at any time with {@link #seek(long)}.
+ * Each instance keeps its own position, so several inputs can read the
+ * same file concurrently, but a single instance is not thread-safe.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class MappedFileDataInput extends InputStream implements DataInputExt
+{
+    final DataSourceMappedFile source;
+    final ByteBuffer tmp = ByteBuffer.allocate(8);
+    ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+    ByteBuffer buf;
+    long bufStart;
+    long markPos;
+
+
+    MappedFileDataInput(DataSourceMappedFile source, long position) throws IOException
+    {
+        this.source = source;
+        this.buf = ByteBuffer.allocate(0);
+        seek(position);
+    }
+
+
+    /**
+     * Sets the byte order used to read multi-byte values
+     * @param byteOrder
+     */
+    public void setByteOrder(ByteOrder byteOrder)
+    {
+        this.byteOrder = byteOrder;
+        this.buf.order(byteOrder);
+        this.tmp.order(byteOrder);
+    }
+
+
+    /**
+     * @return the current read position in the file
+     */
+    public long getPosition()
+    {
+        return bufStart + buf.position();
+    }
+
+
+    /**
+     * Moves the read position to the given offset in the file
+     * @param position offset in bytes from the beginning of the file
+     * @throws IOException if the window containing this position cannot be mapped
+     */
+    public void seek(long position) throws IOException
+    {
+        if (position < 0 || position > source.getSize())
+            throw new EOFException("Invalid file position: " + position);
+
+        // stay in current window if possible
+        if (position >= bufStart && position < bufStart + buf.limit())
+        {
+            buf.position((int)(position - bufStart));
+            return;
+        }
+
+        if (position < source.getSize())
+        {
+            int windowIndex = (int)(position / source.getWindowSize());
+            buf = source.getWindow(windowIndex).duplicate().order(byteOrder);
+            bufStart = windowIndex * (long)source.getWindowSize();
+        }
+        else
+        {
+            // empty buffer at end of file
+            buf = ByteBuffer.allocate(0).order(byteOrder);
+            bufStart = position;
+        }
+
+        buf.position((int)(position - bufStart));
+    }
+
+
+    /*
+     * Makes sure at least numBytes can be read from the current window.
+     * Returns false if the next value spans two windows
+     */
+    protected final boolean ensureRemaining(int numBytes) throws IOException
+    {
+        if (buf.remaining() >= numBytes)
+            return true;
+
+        long position = getPosition();
+        if (position + numBytes > source.getSize())
+            throw new EOFException();
+
+        if (!buf.hasRemaining())
+        {
+            seek(position);
+            return buf.remaining() >= numBytes;
+        }
+
+        return false;
+    }
+
+
+    /*
+     * Reads a value spanning two windows into the temporary buffer
+     */
+    protected final ByteBuffer readSplitValue(int numBytes) throws IOException
+    {
+        tmp.clear();
+        for (int i = 0; i < numBytes; i++)
+            tmp.put(readByte());
+        tmp.flip();
+        return tmp;
+    }
+
+
+    @Override
+    public int read() throws IOException
+    {
+        if (!buf.hasRemaining())
+        {
+            if (getPosition() >= source.getSize())
+                return -1;
+            seek(getPosition());
+        }
+
+        return buf.get() & 0xff;
+    }
+
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        if (len == 0)
+            return 0;
+
+        int avail = available();
+        if (avail == 0)
+            return -1;
+
+        len = Math.min(len, avail);
+        readFully(b, off, len);
+        return len;
+    }
+
+
+    @Override
+    public int available() throws IOException
+    {
+        return (int)Math.min(source.getSize() - getPosition(), Integer.MAX_VALUE);
+    }
+
+
+    @Override
+    public long skip(long n) throws IOException
+    {
+        long skipped = Math.max(0, Math.min(n, source.getSize() - getPosition()));
+        seek(getPosition() + skipped);
+        return skipped;
+    }
+
+
+    @Override
+    public boolean markSupported()
+    {
+        return true;
+    }
+
+
+    @Override
+    public synchronized void mark(int readLimit)
+    {
+        markPos = getPosition();
+    }
+
+
+    @Override
+    public synchronized void reset() throws IOException
+    {
+        seek(markPos);
+    }
+
+
+    @Override
+    public void readFully(byte[] b) throws IOException
+    {
+        readFully(b, 0, b.length);
+    }
+
+
+    @Override
+    public void readFully(byte[] b, int off, int len) throws IOException
+    {
+        PrimitiveArrayBuffer.checkBounds(b.length, off, len);
+        if (getPosition() + len > source.getSize())
+            throw new EOFException();
+
+        while (len > 0)
+        {
+            ensureRemaining(1);
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    @Override
+    public int skipBytes(int n) throws IOException
+    {
+        return (int)skip(n);
+    }
+
+
+    @Override
+    public boolean readBoolean() throws IOException
+    {
+        return readByte() != 0;
+    }
+
+
+    @Override
+    public byte readByte() throws IOException
+    {
+        ensureRemaining(1);
+        return buf.get();
+    }
+
+
+    @Override
+    public int readUnsignedByte() throws IOException
+    {
+        return readByte() & 0xff;
+    }
+
+
+    @Override
+    public short readShort() throws IOException
+    {
+        if (ensureRemaining(2))
+            return buf.getShort();
+        return readSplitValue(2).getShort();
+    }
+
+
+    @Override
+    public int readUnsignedShort() throws IOException
+    {
+        return readShort() & 0xffff;
+    }
+
+
+    @Override
+    public char readChar() throws IOException
+    {
+        return (char)readShort();
+    }
+
+
+    @Override
+    public int readInt() throws IOException
+    {
+        if (ensureRemaining(4))
+            return buf.getInt();
+        return readSplitValue(4).getInt();
+    }
+
+
+    @Override
+    public long readUnsignedInt() throws IOException
+    {
+        return readInt() & 0xffffffffL;
+    }
+
+
+    @Override
+    public long readLong() throws IOException
+    {
+        if (ensureRemaining(8))
+            return buf.getLong();
+        return readSplitValue(8).getLong();
+    }
+
+
+    @Override
+    public long readUnsignedLong() throws IOException
+    {
+        return readLong();
+    }
+
+
+    @Override
+    public float readFloat() throws IOException
+    {
+        return Float.intBitsToFloat(readInt());
+    }
+
+
+    @Override
+    public double readDouble() throws IOException
+    {
+        return Double.longBitsToDouble(readLong());
+    }
+
+
+    @Override
+    public String readLine() throws IOException
+    {
+        return null;
+    }
+
+
+    @Override
+    public String readUTF() throws IOException
+    {
+        return DataInputStream.readUTF(this);
+    }
+
+
+    @Override
+    public String readASCII() throws IOException
+    {
+        int val;
+        StringBuilder sb = new StringBuilder();
+        while ((val = readByte()) != 0)
+            sb.append((char)val);
+        return sb.toString();
+    }
+
+
+    @Override
+    public void readShorts(short[] dst, int off, int len) throws IOException
+    {
+        PrimitiveArrayBuffer.checkBounds(dst.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, buf.remaining() / Short.BYTES);
+            if (n == 0)
+            {
+                dst[off++] = readShort();
+                len--;
+                continue;
+            }
+
+            buf.asShortBuffer().get(dst, off, n);
+            buf.position(buf.position() + n * Short.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    @Override
+    public void readInts(int[] dst, int off, int len) throws IOException
+    {
+        PrimitiveArrayBuffer.checkBounds(dst.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, buf.remaining() / Integer.BYTES);
+            if (n == 0)
+            {
+                dst[off++] = readInt();
+                len--;
+                continue;
+            }
+
+            buf.asIntBuffer().get(dst, off, n);
+            buf.position(buf.position() + n * Integer.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    @Override
+    public void readLongs(long[] dst, int off, int len) throws IOException
+    {
+        PrimitiveArrayBuffer.checkBounds(dst.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, buf.remaining() / Long.BYTES);
+            if (n == 0)
+            {
+                dst[off++] = readLong();
+                len--;
+                continue;
+            }
+
+            buf.asLongBuffer().get(dst, off, n);
+            buf.position(buf.position() + n * Long.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    @Override
+    public void readFloats(float[] dst, int off, int len) throws IOException
+    {
+        PrimitiveArrayBuffer.checkBounds(dst.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, buf.remaining() / Float.BYTES);
+            if (n == 0)
+            {
+                dst[off++] = readFloat();
+                len--;
+                continue;
+            }
+
+            buf.asFloatBuffer().get(dst, off, n);
+            buf.position(buf.position() + n * Float.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    @Override
+    public void readDoubles(double[] dst, int off, int len) throws IOException
+    {
+        PrimitiveArrayBuffer.checkBounds(dst.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, buf.remaining() / Double.BYTES);
+            if (n == 0)
+            {
+                dst[off++] = readDouble();
+                len--;
+                continue;
+            }
+
+            buf.asDoubleBuffer().get(dst, off, n);
+            buf.position(buf.position() + n * Double.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    @Override
+    public void readValues(ByteBuffer dst, int valueSize) throws IOException
+    {
+        while (dst.remaining() >= valueSize)
+        {
+            // copy directly from mapped window to destination buffer
+            int n = Math.min(dst.remaining(), buf.remaining() / valueSize * valueSize);
+            if (n == 0)
+            {
+                // move to next window or read value spanning two windows
+                if (!ensureRemaining(valueSize))
+                    PrimitiveArrayBuffer.copyValues(readSplitValue(valueSize), dst, valueSize);
+                continue;
+            }
+
+            ByteBuffer src = buf.duplicate().order(byteOrder);
+            src.limit(src.position() + n);
+            PrimitiveArrayBuffer.copyValues(src, dst, valueSize);
+            buf.position(buf.position() + n);
+        }
+    }
+
+
+    /**
+     * Does nothing since mapped windows are owned by the data source
+     */
+    @Override
+    public void close()
+    {
+    }
+}
@@ -0,0 +1,285 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+
+
+/**
+ * <p>
+ * Reusable byte buffer used by binary data streams to convert arrays of
+ * primitive values from/to bytes in bulk, using NIO buffer views with the
+ * proper byte order. Arrays are processed in chunks of {@link #BUFFER_SIZE}
+ * bytes so the buffer size stays bounded.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+class PrimitiveArrayBuffer
+{
+    static final int BUFFER_SIZE = 8192;
+
+    final byte[] bytes = new byte[BUFFER_SIZE];
+    final ByteBuffer byteView;
+    final ShortBuffer shortView;
+    final IntBuffer intView;
+    final LongBuffer longView;
+    final FloatBuffer floatView;
+    final DoubleBuffer doubleView;
+
+
+    PrimitiveArrayBuffer(ByteOrder byteOrder)
+    {
+        ByteBuffer buf = ByteBuffer.wrap(bytes).order(byteOrder);
+        this.byteView = buf;
+        this.shortView = buf.asShortBuffer();
+        this.intView = buf.asIntBuffer();
+        this.longView = buf.asLongBuffer();
+        this.floatView = buf.asFloatBuffer();
+        this.doubleView = buf.asDoubleBuffer();
+    }
+
+
+    void readShorts(DataInput in, short[] dst, int off, int len) throws IOException
+    {
+        checkBounds(dst.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, BUFFER_SIZE / Short.BYTES);
+            in.readFully(bytes, 0, n * Short.BYTES);
+            shortView.clear();
+            shortView.get(dst, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    void readInts(DataInput in, int[] dst, int off, int len) throws IOException
+    {
+        checkBounds(dst.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, BUFFER_SIZE / Integer.BYTES);
+            in.readFully(bytes, 0, n * Integer.BYTES);
+            intView.clear();
+            intView.get(dst, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    void readLongs(DataInput in, long[] dst, int off, int len) throws IOException
+    {
+        checkBounds(dst.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, BUFFER_SIZE / Long.BYTES);
+            in.readFully(bytes, 0, n * Long.BYTES);
+            longView.clear();
+            longView.get(dst, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    void readFloats(DataInput in, float[] dst, int off, int len) throws IOException
+    {
+        checkBounds(dst.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, BUFFER_SIZE / Float.BYTES);
+            in.readFully(bytes, 0, n * Float.BYTES);
+            floatView.clear();
+            floatView.get(dst, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    void readDoubles(DataInput in, double[] dst, int off, int len) throws IOException
+    {
+        checkBounds(dst.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, BUFFER_SIZE / Double.BYTES);
+            in.readFully(bytes, 0, n * Double.BYTES);
+            doubleView.clear();
+            doubleView.get(dst, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    void writeShorts(OutputStream out, short[] src, int off, int len) throws IOException
+    {
+        checkBounds(src.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, BUFFER_SIZE / Short.BYTES);
+            shortView.clear();
+            shortView.put(src, off, n);
+            out.write(bytes, 0, n * Short.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    void writeInts(OutputStream out, int[] src, int off, int len) throws IOException
+    {
+        checkBounds(src.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, BUFFER_SIZE / Integer.BYTES);
+            intView.clear();
+            intView.put(src, off, n);
+            out.write(bytes, 0, n * Integer.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    void writeLongs(OutputStream out, long[] src, int off, int len) throws IOException
+    {
+        checkBounds(src.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, BUFFER_SIZE / Long.BYTES);
+            longView.clear();
+            longView.put(src, off, n);
+            out.write(bytes, 0, n * Long.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    void writeFloats(OutputStream out, float[] src, int off, int len) throws IOException
+    {
+        checkBounds(src.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, BUFFER_SIZE / Float.BYTES);
+            floatView.clear();
+            floatView.put(src, off, n);
+            out.write(bytes, 0, n * Float.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    void writeDoubles(OutputStream out, double[] src, int off, int len) throws IOException
+    {
+        checkBounds(src.length, off, len);
+        while (len > 0)
+        {
+            int n = Math.min(len, BUFFER_SIZE / Double.BYTES);
+            doubleView.clear();
+            doubleView.put(src, off, n);
+            out.write(bytes, 0, n * Double.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    void readValues(DataInput in, ByteBuffer dst, int valueSize) throws IOException
+    {
+        while (dst.hasRemaining())
+        {
+            int n = Math.min(dst.remaining(), BUFFER_SIZE);
+            in.readFully(bytes, 0, n);
+            byteView.clear();
+            byteView.limit(n);
+            copyValues(byteView, dst, valueSize);
+        }
+    }
+
+
+    void writeValues(OutputStream out, ByteBuffer src, int valueSize) throws IOException
+    {
+        while (src.hasRemaining())
+        {
+            int n = Math.min(src.remaining(), BUFFER_SIZE);
+            ByteBuffer chunk = src.duplicate().order(src.order());
+            chunk.limit(chunk.position() + n);
+            byteView.clear();
+            copyValues(chunk, byteView, valueSize);
+            out.write(bytes, 0, n);
+            src.position(src.position() + n);
+        }
+    }
+
+
+    /*
+     * Copies all remaining values from src to dst, swapping bytes if both
+     * buffers don't have the same byte order. Positions of both buffers
+     * are advanced by the number of bytes copied.
+     */
+    static void copyValues(ByteBuffer src, ByteBuffer dst, int valueSize)
+    {
+        int numBytes = src.remaining();
+        if (valueSize == 1 || src.order() == dst.order())
+        {
+            dst.put(src);
+            return;
+        }
+
+        switch (valueSize)
+        {
+            case 2:
+                dst.asShortBuffer().put(src.asShortBuffer());
+                break;
+
+            case 4:
+                dst.asIntBuffer().put(src.asIntBuffer());
+                break;
+
+            case 8:
+                dst.asLongBuffer().put(src.asLongBuffer());
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unsupported value size: " + valueSize);
+        }
+
+        src.position(src.position() + numBytes);
+        dst.position(dst.position() + numBytes);
+    }
+
+
+    static void checkBounds(int arrayLength, int off, int len)
+    {
+        if (off < 0 || len < 0 || off > arrayLength - len)
+            throw new IndexOutOfBoundsException();
+    }
+}
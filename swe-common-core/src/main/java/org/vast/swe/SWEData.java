@@ -155,7 +155,7 @@ public class SWEData extends DataList implements ISweInputDataStream, ISweOutput
         }
         else
         {
-            if (dataSource instanceof DataSourceDOM)
+            if (dataSource instanceof DataSourceDOM || dataSource instanceof DataSourceXMLStream)
                 encoding = SWEHelper.ensureXmlCompatible(encoding);
        
             DataStreamParser parser = SWEHelper.createDataParser(encoding);
@@ -0,0 +1,222 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ListIterator;
+import javax.xml.stream.XMLStreamReader;
+import net.opengis.swe.v20.BinaryEncoding;
+import net.opengis.swe.v20.ByteEncoding;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataEncoding;
+import net.opengis.swe.v20.JSONEncoding;
+import net.opengis.swe.v20.TextEncoding;
+import net.opengis.swe.v20.XMLEncoding;
+import org.codehaus.stax2.XMLStreamReader2;
+import org.vast.cdm.common.DataSource;
+import org.vast.cdm.common.DataStreamParser;
+import org.vast.data.DataBlockList;
+import org.vast.swe.fast.AbstractDataParser;
+import org.vast.swe.fast.BinaryDataParser;
+import org.vast.swe.fast.JsonDataParserGson;
+import org.vast.swe.fast.TextDataParser;
+import org.vast.swe.fast.XmlDataParser;
+import org.vast.util.Asserts;
+
+
+/**
+ * <p>
+ * SWE Common input data stream that parses records lazily from a data
+ * source, one record at a time, instead of loading all of them in memory
+ * like {@link SWEData} does.<br/>
+ * Records are parsed only when {@link #getNextDataBlock()} is called, so the
+ * consumer controls the pace at which data is read from the underlying
+ * stream (e.g. it can write each record to storage before asking for the
+ * next one). A new data block is returned for each record, so they can be
+ * kept by the caller.
+ * </p><p>
+ * Both {@link #getNextDataBlock()} and {@link #getNextElement()} return null
+ * when the end of the stream is reached.
+ * </p><p>
+ * Records are parsed with the parsers of the swe.fast package. XML encoded
+ * records are read directly from the StAX reader when the data source is a
+ * {@link DataSourceXMLStream}.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class SWEInputDataStream implements ISweInputDataStream, Closeable
+{
+    protected DataComponent elementType;
+    protected DataEncoding encoding;
+    protected DataSource dataSource;
+    protected DataStreamParser parser;
+    protected ListIterator<DataBlock> blockIterator;
+    protected boolean endOfData;
+
+
+    /**
+     * Creates a stream parsing records from the given data source
+     * @param elementType structure of each record
+     * @param encoding encoding of records in the data source
+     * @param dataSource source of encoded records
+     */
+    public SWEInputDataStream(DataComponent elementType, DataEncoding encoding, DataSource dataSource)
+    {
+        this.elementType = Asserts.checkNotNull(elementType, DataComponent.class);
+        this.encoding = Asserts.checkNotNull(encoding, DataEncoding.class);
+        this.dataSource = Asserts.checkNotNull(dataSource, DataSource.class);
+    }
+
+
+    /**
+     * Creates a stream reading records that were already parsed in memory
+     * @param data list of records
+     */
+    public SWEInputDataStream(SWEData data)
+    {
+        Asserts.checkNotNull(data, SWEData.class);
+        this.elementType = data.getElementType();
+        this.encoding = data.getEncoding();
+        if (data.hasData())
+            this.blockIterator = ((DataBlockList)data.getData()).blockIterator();
+        else
+            this.endOfData = true;
+    }
+
+
+    @Override
+    public DataEncoding getEncoding()
+    {
+        return encoding;
+    }
+
+
+    /**
+     * @return always -1 since the number of records is not known until
+     * the whole stream has been read
+     */
+    @Override
+    public int getNumElements()
+    {
+        return -1;
+    }
+
+
+    @Override
+    public DataComponent getElementType()
+    {
+        return elementType;
+    }
+
+
+    @Override
+    public DataComponent getNextElement() throws IOException
+    {
+        DataBlock dataBlk = getNextDataBlock();
+        if (dataBlk == null)
+            return null;
+
+        elementType.setData(dataBlk);
+        return elementType;
+    }
+
+
+    @Override
+    public DataBlock getNextDataBlock() throws IOException
+    {
+        if (endOfData)
+            return null;
+
+        DataBlock dataBlk;
+        if (blockIterator != null)
+        {
+            dataBlk = blockIterator.hasNext() ? blockIterator.next() : null;
+        }
+        else
+        {
+            if (parser == null)
+                parser = createParser();
+            dataBlk = parser.parseNextBlock();
+        }
+
+        if (dataBlk == null)
+        {
+            endOfData = true;
+            close();
+        }
+
+        return dataBlk;
+    }
+
+
+    protected DataStreamParser createParser() throws IOException
+    {
+        AbstractDataParser parser;
+        InputStream is = null;
+
+        if (encoding instanceof XMLEncoding && dataSource instanceof DataSourceXMLStream)
+        {
+            XMLStreamReader reader = ((DataSourceXMLStream)dataSource).getXMLStreamReader();
+            if (!(reader instanceof XMLStreamReader2))
+                throw new IOException("XML encoded values can only be read from a Stax2 stream reader");
+            parser = new XmlDataParser((XMLStreamReader2)reader);
+        }
+        else
+        {
+            is = dataSource.getDataStream();
+
+            if (encoding instanceof TextEncoding)
+                parser = new TextDataParser();
+            else if (encoding instanceof XMLEncoding)
+                parser = new XmlDataParser();
+            else if (encoding instanceof JSONEncoding)
+                parser = new JsonDataParserGson();
+            else if (encoding instanceof BinaryEncoding)
+            {
+                parser = new BinaryDataParser();
+                if (((BinaryEncoding)encoding).getByteEncoding() == ByteEncoding.BASE_64)
+                    is = new BufferedInputStream(new Base64Decoder(is), 1024);
+            }
+            else
+                throw new IOException("Unsupported encoding: " + encoding.getClass().getSimpleName());
+        }
+
+        parser.setDataEncoding(encoding);
+        parser.setDataComponents(elementType);
+        parser.setRenewDataBlock(true);
+        if (is != null)
+            parser.setInput(is);
+        return parser;
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        endOfData = true;
+
+        if (parser != null)
+        {
+            parser.close();
+            parser = null;
+        }
+    }
+}
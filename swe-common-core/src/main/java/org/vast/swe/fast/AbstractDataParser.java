@@ -21,6 +21,7 @@ import org.vast.cdm.common.DataHandler;
 import org.vast.cdm.common.DataStreamParser;
 import org.vast.cdm.common.ErrorHandler;
 import org.vast.cdm.common.RawDataHandler;
+import org.vast.data.DataBlockPool;
 import org.vast.util.Asserts;
 import net.opengis.swe.v20.BlockComponent;
 import net.opengis.swe.v20.DataArray;
@@ -51,6 +52,8 @@ public abstract class AbstractDataParser extends DataBlockProcessor implements D
     DataEncoding dataEncoding;
     DataBlock dataBlk;
     boolean renewDataBlock;
+    DataBlockPool blockPool;
+    int recordSize = -1;
     
     
     protected abstract boolean moreData() throws IOException;
@@ -59,12 +62,7 @@ public abstract class AbstractDataParser extends DataBlockProcessor implements D
     @Override
     public DataBlock parseNextBlock() throws IOException
     {
-        if (!processorTreeReady)
-        {
-            init();
-            dataComponents.accept(this);
-            processorTreeReady = true;
-        }
+        ensureProcessorTree();
         
         if (!moreData())
             return null;
@@ -86,6 +84,46 @@ public abstract class AbstractDataParser extends DataBlockProcessor implements D
     }
     
     
+    @Override
+    public int parseNextBlocks(DataBlock batch) throws IOException
+    {
+        ensureProcessorTree();
+        if (hasVarSizeArray || hasChoice)
+            throw new UnsupportedOperationException("Batch parsing is only supported for fixed size records");
+        
+        if (recordSize < 0)
+            recordSize = dataComponents.createDataBlock().getAtomCount();
+        Asserts.checkArgument(batch.getAtomCount() % recordSize == 0, "Batch size must be a multiple of record size");
+        
+        // go through the tree of parser atoms once per record,
+        // writing directly at the record offset in the batch
+        int maxRecords = batch.getAtomCount() / recordSize;
+        int numRecords = 0;
+        int index = 0;
+        while (numRecords < maxRecords && moreData())
+        {
+            int nextIndex = rootProcessor.process(batch, index);
+            index += recordSize;
+            Asserts.checkState(nextIndex == index, "Data block wasn't fully deserialized");
+            numRecords++;
+        }
+        
+        return numRecords;
+    }
+    
+    
+    protected void ensureProcessorTree() throws IOException
+    {
+        if (!processorTreeReady)
+        {
+            init();
+            dataComponents.accept(this);
+            processorTreeReady = true;
+            recordSize = -1;
+        }
+    }
+    
+    
     @Override
     public void reset()
     {
@@ -95,8 +133,15 @@ public abstract class AbstractDataParser extends DataBlockProcessor implements D
 
     protected DataBlock getNextDataBlock()
     {
+        // recycle blocks released by consumers if a pool is set
+        if (blockPool != null)
+        {
+            DataBlock lastBlk = dataBlk;
+            dataBlk = blockPool.acquire(() -> lastBlk != null ? lastBlk.clone() : dataComponents.createDataBlock());
+        }
+        
         // depends if parsing to array block
-        if (dataBlk != null)
+        else if (dataBlk != null)
             dataBlk = dataBlk.clone();
         else
             dataBlk = dataComponents.createDataBlock();
@@ -147,6 +192,27 @@ public abstract class AbstractDataParser extends DataBlockProcessor implements D
     }
     
     
+    /**
+     * Sets the pool used to get a new data block for each record, when
+     * the parser is in renew mode (see {@link #setRenewDataBlock(boolean)}).<br/>
+     * Values are parsed in place into blocks released by consumers, so
+     * consumers must call {@link DataBlockPool#release(DataBlock)} once they
+     * are done with each block returned by {@link #parseNextBlock()}.
+     * @param blockPool pool of data blocks, or null to allocate a new block
+     * for each record
+     */
+    public void setDataBlockPool(DataBlockPool blockPool)
+    {
+        this.blockPool = blockPool;
+    }
+    
+    
+    public DataBlockPool getDataBlockPool()
+    {
+        return blockPool;
+    }
+    
+    
     @Override
     public void parse(String uri) throws IOException
     {
@@ -14,21 +14,36 @@ Copyright (C) 2012-2022 Sensia Software LLC. All Rights Reserved.
 
 package org.vast.swe.fast;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import org.vast.cdm.common.CDMException;
+import org.vast.cdm.common.CompressedStreamParser;
 import org.vast.cdm.common.DataInputExt;
 import org.vast.data.AbstractDataBlock;
 import org.vast.data.AbstractDataComponentImpl;
+import org.vast.data.AbstractRecordImpl;
 import org.vast.data.BinaryComponentImpl;
+import org.vast.data.DataBlockByte;
+import org.vast.data.DataBlockCompressed;
+import org.vast.data.DataBlockDouble;
+import org.vast.data.DataBlockFlat;
+import org.vast.data.DataBlockFloat;
+import org.vast.data.DataBlockInt;
+import org.vast.data.DataBlockLong;
 import org.vast.data.DataBlockMixed;
+import org.vast.data.DataBlockShort;
+import org.vast.swe.CodecLookup;
 import org.vast.swe.DataInputStreamBI;
 import org.vast.swe.DataInputStreamLI;
+import org.vast.swe.MappedFileDataInput;
 import org.vast.swe.SWEHelper;
 import org.vast.util.Asserts;
 import org.vast.util.ReaderException;
+import net.opengis.swe.v20.BinaryBlock;
 import net.opengis.swe.v20.BinaryEncoding;
 import net.opengis.swe.v20.BinaryMember;
 import net.opengis.swe.v20.Boolean;
@@ -38,6 +53,8 @@ import net.opengis.swe.v20.Count;
 import net.opengis.swe.v20.DataArray;
 import net.opengis.swe.v20.DataBlock;
 import net.opengis.swe.v20.DataChoice;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataRecord;
 import net.opengis.swe.v20.DataType;
 import net.opengis.swe.v20.Quantity;
 import net.opengis.swe.v20.ScalarComponent;
@@ -50,6 +67,11 @@ import net.opengis.swe.v20.Time;
  * New implementation of binary data parser with better efficiency since the 
  * write tree is pre-computed during init instead of being re-evaluated
  * while iterating through the component tree.
+ * </p><p>
+ * Compressed binary blocks are read as length prefixed byte chunks and
+ * are stored in a {@link DataBlockCompressed}. They are also decoded
+ * with the codec provided by {@link CodecLookup} unless decoding is
+ * deferred (see {@link #setDeferBlockDecoding(boolean)}).
  * </p>
  *
  * @author Alex Robin
@@ -58,6 +80,7 @@ import net.opengis.swe.v20.Time;
 public class BinaryDataParser extends AbstractDataParser
 {
     protected DataInputExt dataInput;
+    protected boolean deferBlockDecoding;
     Map<String, ArraySizeSupplier> countParsers = new HashMap<>();
     
     
@@ -261,6 +284,13 @@ public class BinaryDataParser extends AbstractDataParser
     
     protected class ArrayParser extends ArrayProcessor
     {
+        boolean bulkRead;
+        
+        public ArrayParser(boolean bulkRead)
+        {
+            this.bulkRead = bulkRead;
+        }
+        
         @Override
         public int process(DataBlock data, int index) throws IOException
         {
@@ -269,8 +299,70 @@ public class BinaryDataParser extends AbstractDataParser
             if (varSizeArray != null)
                 updateArraySize(varSizeArray, arraySize);
             
+            // read scalar arrays directly into primitive storage when possible
+            if (bulkRead && enabled && eltProcessor.isEnabled() && readBulk(data, index, arraySize))
+                return index + arraySize;
+            
             return super.process(data, index);
         }
+        
+        protected boolean readBulk(DataBlock data, int index, int arraySize) throws IOException
+        {
+            if (!selectLeafBlock(data, index, arraySize))
+                return false;
+            
+            Object array = leafBlock.getUnderlyingObject();
+            if (eltProcessor instanceof DoubleParser && leafBlock instanceof DataBlockDouble)
+                dataInput.readDoubles((double[])array, leafIndex, arraySize);
+            else if (eltProcessor instanceof FloatParser && leafBlock instanceof DataBlockFloat)
+                dataInput.readFloats((float[])array, leafIndex, arraySize);
+            else if (eltProcessor instanceof IntParser && leafBlock instanceof DataBlockInt)
+                dataInput.readInts((int[])array, leafIndex, arraySize);
+            else if (eltProcessor instanceof ShortParser && leafBlock instanceof DataBlockShort)
+                dataInput.readShorts((short[])array, leafIndex, arraySize);
+            else if (eltProcessor instanceof LongParser && leafBlock instanceof DataBlockLong)
+                dataInput.readLongs((long[])array, leafIndex, arraySize);
+            else if (eltProcessor instanceof ByteParser && leafBlock instanceof DataBlockByte)
+                dataInput.readFully((byte[])array, leafIndex, arraySize);
+            else if (leafBlock instanceof DataBlockFlat && leafBlock.getDataType() == getBulkType())
+            {
+                // copy bytes directly into flat or off-heap buffer
+                ByteBuffer dst = ((DataBlockFlat)leafBlock).getBufferSlice(leafIndex, arraySize);
+                dataInput.readValues(dst, DataBlockFlat.Layout.getSize(leafBlock.getDataType()));
+            }
+            else
+                return false;
+            
+            return true;
+        }
+        
+        /*
+         * Returns the data type of values read by the element parser,
+         * so they can be copied to a flat block with the same data type
+         */
+        protected DataType getBulkType()
+        {
+            if (eltProcessor instanceof DoubleParser)
+                return DataType.DOUBLE;
+            else if (eltProcessor instanceof FloatParser)
+                return DataType.FLOAT;
+            else if (eltProcessor instanceof LongParser)
+                return DataType.LONG;
+            else if (eltProcessor instanceof IntParser)
+                return DataType.INT;
+            else if (eltProcessor instanceof UIntParser)
+                return DataType.UINT;
+            else if (eltProcessor instanceof ShortParser)
+                return DataType.SHORT;
+            else if (eltProcessor instanceof UShortParser)
+                return DataType.USHORT;
+            else if (eltProcessor instanceof ByteParser)
+                return DataType.BYTE;
+            else if (eltProcessor instanceof UByteParser)
+                return DataType.UBYTE;
+            else
+                return null;
+        }
     }
     
     
@@ -303,11 +395,11 @@ public class BinaryDataParser extends AbstractDataParser
         public int process(DataBlock data, int index) throws IOException
         {
             int selectedIndex = dataInput.readInt();
-            if (selectedIndex < 0 || selectedIndex >= maxChoiceIdx)
+            if (selectedIndex < 0 || selectedIndex > maxChoiceIdx)
                 throw new IOException(AbstractDataParser.INVALID_CHOICE_MSG + selectedIndex);
             
             // set selected choice index and corresponding datablock
-            data.setIntValue(index++, selectedIndex);
+            data.setIntValue(index, selectedIndex);
             var selectedData = choice.getComponent(selectedIndex).createDataBlock();
             ((DataBlockMixed)data).setBlock(1, (AbstractDataBlock)selectedData);
             
@@ -316,6 +408,155 @@ public class BinaryDataParser extends AbstractDataParser
     }
     
     
+    protected class BinaryBlockParser extends BaseProcessor
+    {
+        DataComponent blockComponent;
+        DataComponent blockTemplate;
+        DataComponent decodeComponent;
+        BinaryBlock binaryInfo;
+        int paddingBefore, paddingAfter;
+        CompressedStreamParser decoder;
+        boolean decoderInitialized;
+        ChunkInputStream chunkStream;
+        DataInputExt chunkInput;
+        
+        public BinaryBlockParser(DataComponent blockComponent, BinaryBlock binaryInfo)
+        {
+            this.blockComponent = blockComponent;
+            this.blockTemplate = blockComponent.copy();
+            this.binaryInfo = binaryInfo;
+            this.paddingBefore = binaryInfo.isSetPaddingBytesBefore() ? binaryInfo.getPaddingBytesBefore() : 0;
+            this.paddingAfter = binaryInfo.isSetPaddingBytesAfter() ? binaryInfo.getPaddingBytesAfter() : 0;
+        }
+        
+        @Override
+        public int process(DataBlock data, int index) throws IOException
+        {
+            // get compressed block corresponding to block component
+            if (blockComponent != dataComponents)
+            {
+                dataComponents.setData(data);
+                data = blockComponent.getData();
+            }
+            
+            if (!(data instanceof DataBlockCompressed))
+                throw new ReaderException("Cannot store binary block " + blockComponent.getName());
+            DataBlockCompressed compressedBlock = (DataBlockCompressed)data;
+            
+            skipFully(paddingBefore);
+            int blockSize = dataInput.readInt();
+            if (blockSize < 0)
+                throw new ReaderException("Invalid binary block size: " + blockSize);
+            
+            if (!enabled)
+            {
+                skipFully(blockSize);
+            }
+            else if (deferBlockDecoding || getDecoder() == null)
+            {
+                // keep compressed data as-is, it will be decoded on first access
+                byte[] bytes = new byte[blockSize];
+                dataInput.readFully(bytes);
+                compressedBlock.setUnderlyingObject(bytes);
+                compressedBlock.setUncompressedData(null);
+                compressedBlock.setCodecInfo(blockTemplate, binaryInfo, ((BinaryEncoding)dataEncoding).getByteOrder());
+            }
+            else
+            {
+                // read chunk in reusable buffer and decode it
+                chunkStream.read(dataInput, blockSize);
+                
+                try
+                {
+                    // decode in a new uncompressed block since codecs can
+                    // either write values in place or assign their own block
+                    decodeComponent.assignNewDataBlock();
+                    decoder.decode(chunkInput, decodeComponent);
+                }
+                catch (CDMException e)
+                {
+                    throw new ReaderException("Cannot decode binary block " + blockComponent.getName(), e);
+                }
+                
+                DataBlock decodedData = decodeComponent.getData();
+                if (decodedData == null || decodedData instanceof DataBlockCompressed)
+                    throw new ReaderException("Codec did not produce uncompressed data for binary block " + blockComponent.getName());
+                compressedBlock.setUnderlyingObject(null);
+                compressedBlock.setUncompressedData(decodedData);
+            }
+            
+            skipFully(paddingAfter);
+            return index + compressedBlock.getAtomCount();
+        }
+        
+        protected CompressedStreamParser getDecoder() throws IOException
+        {
+            if (!decoderInitialized)
+            {
+                decoderInitialized = true;
+                decoder = CodecLookup.getInstance().createDecoder(binaryInfo.getCompression());
+                if (decoder != null)
+                {
+                    try
+                    {
+                        decodeComponent = blockComponent.copy();
+                        decoder.init(decodeComponent, binaryInfo);
+                    }
+                    catch (CDMException e)
+                    {
+                        throw new ReaderException("Cannot initialize " + binaryInfo.getCompression() + " decoder", e);
+                    }
+                    
+                    chunkStream = new ChunkInputStream();
+                    if (((BinaryEncoding)dataEncoding).getByteOrder() == ByteOrder.LITTLE_ENDIAN)
+                        chunkInput = new DataInputStreamLI(chunkStream);
+                    else
+                        chunkInput = new DataInputStreamBI(chunkStream);
+                }
+            }
+            
+            return decoder;
+        }
+    }
+    
+    
+    /*
+     * Input stream on a reusable buffer holding one binary block at a time
+     */
+    protected static class ChunkInputStream extends ByteArrayInputStream
+    {
+        public ChunkInputStream()
+        {
+            super(new byte[0]);
+        }
+        
+        public void read(DataInputExt input, int length) throws IOException
+        {
+            if (buf.length < length)
+                buf = new byte[length];
+            input.readFully(buf, 0, length);
+            pos = 0;
+            mark = 0;
+            count = length;
+        }
+    }
+    
+    
+    protected void skipFully(int numBytes) throws IOException
+    {
+        while (numBytes > 0)
+        {
+            int skipped = dataInput.skipBytes(numBytes);
+            if (skipped <= 0)
+            {
+                dataInput.readByte();
+                skipped = 1;
+            }
+            numBytes -= skipped;
+        }
+    }
+    
+    
     protected void init() throws IOException
     {
         try
@@ -332,8 +573,17 @@ public class BinaryDataParser extends AbstractDataParser
     @Override
     public void setInput(InputStream is)
     {
+        boolean littleEndian = ((BinaryEncoding)dataEncoding).getByteOrder() == ByteOrder.LITTLE_ENDIAN;
+        
+        // read directly from memory mapped file if possible
+        if (is instanceof MappedFileDataInput)
+        {
+            ((MappedFileDataInput)is).setByteOrder(littleEndian ? java.nio.ByteOrder.LITTLE_ENDIAN : java.nio.ByteOrder.BIG_ENDIAN);
+            dataInput = (MappedFileDataInput)is;
+        }
+        
         // create right data output stream
-        if (((BinaryEncoding)dataEncoding).getByteOrder() == ByteOrder.LITTLE_ENDIAN)
+        else if (littleEndian)
             dataInput = new DataInputStreamLI(is);
         else
             dataInput = new DataInputStreamBI(is);
@@ -400,6 +650,39 @@ public class BinaryDataParser extends AbstractDataParser
     }
     
     
+    @Override
+    public void visit(DataRecord record)
+    {
+        if (!visitBinaryBlock(record))
+            super.visit(record);
+    }
+    
+    
+    @Override
+    public void visit(DataArray array)
+    {
+        if (!visitBinaryBlock(array))
+            super.visit(array);
+    }
+    
+    
+    /*
+     * Adds a block parser if the component is encoded as a compressed block
+     */
+    protected boolean visitBinaryBlock(DataComponent comp)
+    {
+        BinaryMember enc = ((AbstractDataComponentImpl)comp).getEncodingInfo();
+        if (!(enc instanceof BinaryBlock) || ((BinaryBlock)enc).getCompression() == null)
+            return false;
+        
+        for (AtomProcessor parent: processorStack)
+            Asserts.checkState(!(parent instanceof ArrayProcessor), "Binary blocks nested in arrays are not supported");
+        
+        addToProcessorTree(new BinaryBlockParser(comp, (BinaryBlock)enc));
+        return true;
+    }
+    
+    
     @Override
     public void visit(Boolean comp)
     {
@@ -458,7 +741,8 @@ public class BinaryDataParser extends AbstractDataParser
     @Override
     protected ArrayProcessor getArrayProcessor(DataArray array)
     {
-        return new ArrayParser();
+        // no bulk read if array elements are used as array size
+        return new ArrayParser(!array.getElementType().isSetId());
     }
     
     
@@ -481,4 +765,87 @@ public class BinaryDataParser extends AbstractDataParser
     {
         return ((InputStream)dataInput).available() > 0;
     }
+    
+    
+    /**
+     * @return the size of each record in bytes, or -1 if records can have
+     * different sizes (variable size arrays, choices, strings or compressed blocks)
+     * @throws IOException if the encoding cannot be applied to the data components
+     */
+    public int getFixedRecordSize() throws IOException
+    {
+        ensureProcessorTree();
+        if (hasVarSizeArray || hasChoice)
+            return -1;
+        return getFixedSize(dataComponents);
+    }
+    
+    
+    protected int getFixedSize(DataComponent comp)
+    {
+        BinaryMember enc = ((AbstractDataComponentImpl)comp).getEncodingInfo();
+        if (enc instanceof BinaryBlock && ((BinaryBlock)enc).getCompression() != null)
+            return -1;
+        
+        if (comp instanceof ScalarComponent)
+        {
+            switch (((BinaryComponentImpl)enc).getCdmDataType())
+            {
+                case BOOLEAN:
+                case BYTE:
+                case UBYTE:
+                    return 1;
+                    
+                case SHORT:
+                case USHORT:
+                    return 2;
+                    
+                case INT:
+                case UINT:
+                case FLOAT:
+                    return 4;
+                    
+                case LONG:
+                case ULONG:
+                case DOUBLE:
+                    return 8;
+                    
+                default:
+                    return -1;
+            }
+        }
+        
+        if (comp instanceof DataArray)
+        {
+            int eltSize = getFixedSize(((DataArray)comp).getElementType());
+            return eltSize < 0 ? -1 : eltSize * comp.getComponentCount();
+        }
+        
+        if (!(comp instanceof AbstractRecordImpl))
+            return -1;
+        
+        int size = 0;
+        for (int i = 0; i < comp.getComponentCount(); i++)
+        {
+            int compSize = getFixedSize(comp.getComponent(i));
+            if (compSize < 0)
+                return -1;
+            size += compSize;
+        }
+        
+        return size;
+    }
+    
+    
+    /**
+     * Sets whether compressed binary blocks should be decoded while parsing.<br/>
+     * When decoding is deferred, the compressed bytes are stored as-is in a
+     * {@link DataBlockCompressed}, so they can be passed through without being
+     * decoded (e.g. to forward or store video frames).
+     * @param deferDecoding true to keep compressed blocks as-is, false to decode them
+     */
+    public void setDeferBlockDecoding(boolean deferDecoding)
+    {
+        this.deferBlockDecoding = deferDecoding;
+    }
 }
@@ -14,20 +14,33 @@ Copyright (C) 2012-2022 Sensia Software LLC. All Rights Reserved.
 
 package org.vast.swe.fast;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import org.vast.cdm.common.CDMException;
+import org.vast.cdm.common.CompressedStreamWriter;
 import org.vast.cdm.common.DataOutputExt;
 import org.vast.data.AbstractDataComponentImpl;
 import org.vast.data.BinaryComponentImpl;
+import org.vast.data.DataBlockByte;
+import org.vast.data.DataBlockCompressed;
+import org.vast.data.DataBlockDouble;
+import org.vast.data.DataBlockFlat;
+import org.vast.data.DataBlockFloat;
+import org.vast.data.DataBlockInt;
+import org.vast.data.DataBlockLong;
+import org.vast.data.DataBlockShort;
+import org.vast.swe.CodecLookup;
 import org.vast.swe.DataOutputStreamBI;
 import org.vast.swe.DataOutputStreamLI;
 import org.vast.swe.SWEHelper;
 import org.vast.util.Asserts;
 import org.vast.util.WriterException;
+import net.opengis.swe.v20.BinaryBlock;
 import net.opengis.swe.v20.BinaryEncoding;
 import net.opengis.swe.v20.BinaryMember;
 import net.opengis.swe.v20.Boolean;
@@ -38,6 +51,7 @@ import net.opengis.swe.v20.DataArray;
 import net.opengis.swe.v20.DataBlock;
 import net.opengis.swe.v20.DataChoice;
 import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataRecord;
 import net.opengis.swe.v20.DataType;
 import net.opengis.swe.v20.Quantity;
 import net.opengis.swe.v20.ScalarComponent;
@@ -50,6 +64,10 @@ import net.opengis.swe.v20.Time;
  * New implementation of binary data writer with better efficiency since the 
  * write tree is pre-computed during init instead of being re-evaluated
  * while iterating through the component tree.
+ * </p><p>
+ * Compressed binary blocks are written as length prefixed byte chunks.
+ * Data already carried by a {@link DataBlockCompressed} is written as-is,
+ * otherwise it is encoded with the codec provided by {@link CodecLookup}.
  * </p>
  *
  * @author Alex Robin
@@ -266,6 +284,86 @@ public class BinaryDataWriter extends AbstractDataWriter
     }
     
     
+    protected class ArrayWriter extends ArrayProcessor
+    {
+        boolean bulkWrite;
+        
+        public ArrayWriter(boolean bulkWrite)
+        {
+            this.bulkWrite = bulkWrite;
+        }
+        
+        @Override
+        public int process(DataBlock data, int index) throws IOException
+        {
+            // write scalar arrays directly from primitive storage when possible
+            int arraySize = getArraySize();
+            if (bulkWrite && enabled && eltProcessor.isEnabled() && writeBulk(data, index, arraySize))
+                return index + arraySize;
+            
+            return super.process(data, index);
+        }
+        
+        protected boolean writeBulk(DataBlock data, int index, int arraySize) throws IOException
+        {
+            if (!selectLeafBlock(data, index, arraySize))
+                return false;
+            
+            Object array = leafBlock.getUnderlyingObject();
+            if (eltProcessor instanceof DoubleWriter && leafBlock instanceof DataBlockDouble)
+                dataOutput.writeDoubles((double[])array, leafIndex, arraySize);
+            else if (eltProcessor instanceof FloatWriter && leafBlock instanceof DataBlockFloat)
+                dataOutput.writeFloats((float[])array, leafIndex, arraySize);
+            else if (eltProcessor instanceof IntWriter && leafBlock instanceof DataBlockInt)
+                dataOutput.writeInts((int[])array, leafIndex, arraySize);
+            else if (eltProcessor instanceof ShortWriter && leafBlock instanceof DataBlockShort)
+                dataOutput.writeShorts((short[])array, leafIndex, arraySize);
+            else if (eltProcessor instanceof LongWriter && leafBlock instanceof DataBlockLong)
+                dataOutput.writeLongs((long[])array, leafIndex, arraySize);
+            else if (eltProcessor instanceof ByteWriter && leafBlock instanceof DataBlockByte)
+                dataOutput.write((byte[])array, leafIndex, arraySize);
+            else if (leafBlock instanceof DataBlockFlat && leafBlock.getDataType() == getBulkType())
+            {
+                // copy bytes directly from flat or off-heap buffer
+                ByteBuffer src = ((DataBlockFlat)leafBlock).getBufferSlice(leafIndex, arraySize);
+                dataOutput.writeValues(src, DataBlockFlat.Layout.getSize(leafBlock.getDataType()));
+            }
+            else
+                return false;
+            
+            return true;
+        }
+        
+        /*
+         * Returns the data type of values written by the element writer,
+         * so they can be copied from a flat block with the same data type
+         */
+        protected DataType getBulkType()
+        {
+            if (eltProcessor instanceof DoubleWriter)
+                return DataType.DOUBLE;
+            else if (eltProcessor instanceof FloatWriter)
+                return DataType.FLOAT;
+            else if (eltProcessor instanceof LongWriter)
+                return DataType.LONG;
+            else if (eltProcessor instanceof IntWriter)
+                return DataType.INT;
+            else if (eltProcessor instanceof UIntWriter)
+                return DataType.UINT;
+            else if (eltProcessor instanceof ShortWriter)
+                return DataType.SHORT;
+            else if (eltProcessor instanceof UShortWriter)
+                return DataType.USHORT;
+            else if (eltProcessor instanceof ByteWriter)
+                return DataType.BYTE;
+            else if (eltProcessor instanceof UByteWriter)
+                return DataType.UBYTE;
+            else
+                return null;
+        }
+    }
+    
+    
     protected class ImplicitSizeWriter extends ImplicitSizeProcessor
     {
         @Override
@@ -304,6 +402,128 @@ public class BinaryDataWriter extends AbstractDataWriter
     }
     
     
+    protected class BinaryBlockWriter extends BaseProcessor
+    {
+        DataComponent blockComponent;
+        BinaryBlock binaryInfo;
+        int paddingBefore, paddingAfter;
+        CompressedStreamWriter encoder;
+        ChunkOutputStream chunkStream;
+        DataOutputExt chunkOutput;
+        
+        public BinaryBlockWriter(DataComponent blockComponent, BinaryBlock binaryInfo)
+        {
+            this.blockComponent = blockComponent;
+            this.binaryInfo = binaryInfo;
+            this.paddingBefore = binaryInfo.isSetPaddingBytesBefore() ? binaryInfo.getPaddingBytesBefore() : 0;
+            this.paddingAfter = binaryInfo.isSetPaddingBytesAfter() ? binaryInfo.getPaddingBytesAfter() : 0;
+        }
+        
+        @Override
+        public int process(DataBlock data, int index) throws IOException
+        {
+            // get data block corresponding to block component
+            if (blockComponent != dataComponents)
+            {
+                dataComponents.setData(data);
+                data = blockComponent.getData();
+            }
+            
+            if (enabled)
+            {
+                writePadding(paddingBefore);
+                
+                byte[] compressedData = null;
+                if (data instanceof DataBlockCompressed)
+                    compressedData = ((DataBlockCompressed)data).getUnderlyingObject();
+                
+                // write already compressed data as-is
+                if (compressedData != null)
+                {
+                    dataOutput.writeInt(compressedData.length);
+                    dataOutput.write(compressedData);
+                }
+                
+                // otherwise encode in reusable buffer and write it
+                else
+                {
+                    DataBlock uncompressedData = data;
+                    if (data instanceof DataBlockCompressed)
+                        uncompressedData = ((DataBlockCompressed)data).getUncompressedData();
+                    if (uncompressedData == null)
+                        throw new WriterException("No data to write in binary block " + blockComponent.getName());
+                    
+                    try
+                    {
+                        CompressedStreamWriter encoder = getEncoder();
+                        chunkStream.reset();
+                        blockComponent.setData(uncompressedData);
+                        encoder.encode(chunkOutput, blockComponent);
+                        chunkOutput.flush();
+                    }
+                    catch (CDMException e)
+                    {
+                        throw new WriterException("Cannot encode binary block " + blockComponent.getName(), e);
+                    }
+                    
+                    dataOutput.writeInt(chunkStream.size());
+                    dataOutput.write(chunkStream.getBuffer(), 0, chunkStream.size());
+                }
+                
+                writePadding(paddingAfter);
+            }
+            
+            return index + data.getAtomCount();
+        }
+        
+        protected CompressedStreamWriter getEncoder() throws IOException
+        {
+            if (encoder == null)
+            {
+                encoder = CodecLookup.getInstance().createEncoder(binaryInfo.getCompression());
+                if (encoder == null)
+                    throw new WriterException("No encoder available for " + binaryInfo.getCompression());
+                
+                try
+                {
+                    encoder.init(blockComponent, binaryInfo);
+                }
+                catch (CDMException e)
+                {
+                    throw new WriterException("Cannot initialize " + binaryInfo.getCompression() + " encoder", e);
+                }
+                
+                chunkStream = new ChunkOutputStream();
+                if (((BinaryEncoding)dataEncoding).getByteOrder() == ByteOrder.LITTLE_ENDIAN)
+                    chunkOutput = new DataOutputStreamLI(chunkStream);
+                else
+                    chunkOutput = new DataOutputStreamBI(chunkStream);
+            }
+            
+            return encoder;
+        }
+    }
+    
+    
+    /*
+     * Output stream on a reusable buffer holding one binary block at a time
+     */
+    protected static class ChunkOutputStream extends ByteArrayOutputStream
+    {
+        public byte[] getBuffer()
+        {
+            return buf;
+        }
+    }
+    
+    
+    protected void writePadding(int numBytes) throws IOException
+    {
+        for (int i = 0; i < numBytes; i++)
+            dataOutput.writeByte(0);
+    }
+    
+    
     protected void init() throws IOException
     {
         try
@@ -396,6 +616,39 @@ public class BinaryDataWriter extends AbstractDataWriter
     }
     
     
+    @Override
+    public void visit(DataRecord record)
+    {
+        if (!visitBinaryBlock(record))
+            super.visit(record);
+    }
+    
+    
+    @Override
+    public void visit(DataArray array)
+    {
+        if (!visitBinaryBlock(array))
+            super.visit(array);
+    }
+    
+    
+    /*
+     * Adds a block writer if the component is encoded as a compressed block
+     */
+    protected boolean visitBinaryBlock(DataComponent comp)
+    {
+        BinaryMember enc = ((AbstractDataComponentImpl)comp).getEncodingInfo();
+        if (!(enc instanceof BinaryBlock) || ((BinaryBlock)enc).getCompression() == null)
+            return false;
+        
+        for (AtomProcessor parent: processorStack)
+            Asserts.checkState(!(parent instanceof ArrayProcessor), "Binary blocks nested in arrays are not supported");
+        
+        addToProcessorTree(new BinaryBlockWriter(comp, (BinaryBlock)enc));
+        return true;
+    }
+    
+    
     @Override
     public void visit(Boolean comp)
     {
@@ -451,6 +704,14 @@ public class BinaryDataWriter extends AbstractDataWriter
     }
     
     
+    @Override
+    protected ArrayProcessor getArrayProcessor(DataArray array)
+    {
+        // no bulk write if array elements are used as array size
+        return new ArrayWriter(!array.getElementType().isSetId());
+    }
+    
+    
     @Override
     protected ImplicitSizeProcessor getImplicitSizeProcessor(DataArray array)
     {
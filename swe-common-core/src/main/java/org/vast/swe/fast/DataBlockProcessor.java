@@ -18,6 +18,8 @@ import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import org.vast.data.AbstractDataBlock;
+import org.vast.data.DataBlockMixed;
 import org.vast.swe.IComponentFilter;
 import org.vast.util.Asserts;
 import net.opengis.swe.v20.CategoryRange;
@@ -54,6 +56,7 @@ public abstract class DataBlockProcessor implements DataComponentVisitor
     protected boolean enableSubTree = true;
     protected boolean processorTreeReady;
     protected boolean hasVarSizeArray = false;
+    protected boolean hasChoice = false;
     
     
     public interface AtomProcessor
@@ -140,6 +143,8 @@ public abstract class DataBlockProcessor implements DataComponentVisitor
         protected ArraySizeSupplier sizeSupplier;
         protected AtomProcessor eltProcessor;
         protected DataArray varSizeArray;
+        protected AbstractDataBlock leafBlock;
+        protected int leafIndex;
         
         @Override
         public int process(DataBlock data, int index) throws IOException
@@ -164,6 +169,34 @@ public abstract class DataBlockProcessor implements DataComponentVisitor
         {
             this.eltProcessor = processor;
         }
+        
+        /*
+         * Selects the leaf block holding count consecutive atoms starting at index,
+         * so they can be copied in bulk from/to its primitive array.
+         * Returns false if these atoms are not all stored in the same leaf block
+         */
+        protected boolean selectLeafBlock(DataBlock data, int index, int count)
+        {
+            while (data instanceof DataBlockMixed)
+            {
+                AbstractDataBlock[] childBlocks = ((DataBlockMixed)data).getUnderlyingObject();
+                index += ((DataBlockMixed)data).getStartIndex();
+                
+                int i = 0;
+                while (i < childBlocks.length && index >= childBlocks[i].getAtomCount())
+                    index -= childBlocks[i++].getAtomCount();
+                if (i == childBlocks.length)
+                    return false;
+                data = childBlocks[i];
+            }
+            
+            if (!(data instanceof AbstractDataBlock) || index + count > data.getAtomCount())
+                return false;
+            
+            leafBlock = (AbstractDataBlock)data;
+            leafIndex = leafBlock.getStartIndex() + index;
+            return true;
+        }
     }
     
     
@@ -331,6 +364,7 @@ public abstract class DataBlockProcessor implements DataComponentVisitor
     public void visit(DataChoice choice)
     {
         addToProcessorTree(getChoiceProcessor(choice));
+        hasChoice = true;
         
         for (DataComponent item: choice.getItemList())
         {
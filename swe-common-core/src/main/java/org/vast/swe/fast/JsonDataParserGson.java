@@ -17,7 +17,10 @@ package org.vast.swe.fast;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.vast.data.AbstractDataBlock;
 import org.vast.data.DataBlockDouble;
@@ -25,8 +28,11 @@ import org.vast.data.DataBlockInt;
 import org.vast.data.DataBlockList;
 import org.vast.data.DataBlockMixed;
 import org.vast.util.Asserts;
-import org.vast.util.DateTimeFormat;
+import org.vast.util.IsoDateTimeCodec;
 import org.vast.util.ReaderException;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.internal.bind.JsonTreeReader;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.MalformedJsonException;
@@ -44,6 +50,7 @@ import net.opengis.swe.v20.GeometryData;
 import net.opengis.swe.v20.GeometryData.GeomType;
 import net.opengis.swe.v20.Quantity;
 import net.opengis.swe.v20.RangeComponent;
+import net.opengis.swe.v20.ScalarComponent;
 import net.opengis.swe.v20.Text;
 import net.opengis.swe.v20.Time;
 import net.opengis.swe.v20.Vector;
@@ -70,6 +77,7 @@ public class JsonDataParserGson extends AbstractDataParser
     protected boolean multipleRecords;
     protected Map<String, IntegerReader> countReaders = new HashMap<>();
     protected boolean hasJsonArrayWrapper = false;
+    protected boolean strictFieldOrder = true;
 
 
     protected interface JsonAtomReader
@@ -126,6 +134,7 @@ public class JsonDataParserGson extends AbstractDataParser
     protected class IntegerReader extends ValueReader
     {
         int val;
+        boolean isArraySize;
 
         public IntegerReader(String eltName)
         {
@@ -184,7 +193,7 @@ public class JsonDataParserGson extends AbstractDataParser
 
     protected class IsoDateTimeReader extends ValueReader
     {
-        DateTimeFormat timeFormat = new DateTimeFormat();
+        IsoDateTimeCodec timeCodec = new IsoDateTimeCodec();
 
         public IsoDateTimeReader(String eltName)
         {
@@ -205,7 +214,7 @@ public class JsonDataParserGson extends AbstractDataParser
                 val = Double.NEGATIVE_INFINITY;
             else
             {
-                try { val = timeFormat.parseIso(str); }
+                try { val = timeCodec.parseIso(str); }
                 catch (Exception e) { throw new ReaderException(e.getMessage()); }
             }
             
@@ -269,15 +278,26 @@ public class JsonDataParserGson extends AbstractDataParser
     protected class RecordReader extends RecordProcessor implements JsonAtomReader
     {
         String eltName;
-
-        public RecordReader(String eltName)
+        DataComponent recordComponent;
+        Map<String, Integer> fieldIndexes;
+        int[] fieldAtomCounts;
+        int[] fieldOffsets;
+        int[] fieldEnds;
+        int[][] sizeFieldIndexes;
+        JsonElement[] bufferedFields;
+
+        public RecordReader(DataComponent recordComponent)
         {
-            this.eltName = eltName;
+            this.eltName = recordComponent.getName();
+            this.recordComponent = recordComponent;
         }
 
         @Override
         public int process(DataBlock data, int index) throws IOException
         {
+            if (!strictFieldOrder)
+                return processUnordered(data, index);
+            
             reader.beginObject();
             
             for (AtomProcessor p: fieldProcessors)
@@ -297,6 +317,178 @@ public class JsonDataParserGson extends AbstractDataParser
             
             return index;
         }
+        
+        /*
+         * Reads members in any order. Members are dispatched directly to their
+         * processor when their position in the datablock is known, that is
+         * when all previous fields have a fixed size or were already read.
+         * Other members (and arrays whose size was not read yet) are buffered
+         * and replayed in declared order
+         */
+        protected int processUnordered(DataBlock data, int index) throws IOException
+        {
+            if (fieldIndexes == null)
+                initFieldIndexes();
+            
+            reader.beginObject();
+            
+            int startIndex = index;
+            int nextField = 0;
+            Arrays.fill(fieldEnds, -1);
+            while (reader.hasNext())
+            {
+                var name = reader.nextName();
+                var fieldIdx = fieldIndexes.get(name);
+                
+                // skip unknown and duplicate members
+                if (fieldIdx == null || fieldEnds[fieldIdx] >= 0 || bufferedFields[fieldIdx] != null)
+                {
+                    reader.skipValue();
+                    continue;
+                }
+                
+                // dispatch to processor if field position and array sizes are known
+                // otherwise buffer member until previous fields have been read
+                if (fieldIdx == nextField && isArraySizeRead(fieldIdx))
+                    fieldEnds[fieldIdx] = fieldProcessors.get(fieldIdx).process(data, index);
+                else if (fieldOffsets[fieldIdx] >= 0 && isArraySizeRead(fieldIdx))
+                    fieldEnds[fieldIdx] = fieldProcessors.get(fieldIdx).process(data, startIndex + fieldOffsets[fieldIdx]);
+                else
+                {
+                    bufferedFields[fieldIdx] = JsonParser.parseReader(reader);
+                    continue;
+                }
+                
+                // skip fields already read and replay buffered ones that can now be processed
+                while (nextField < fieldProcessors.size())
+                {
+                    if (fieldEnds[nextField] >= 0)
+                        index = fieldEnds[nextField];
+                    else if (bufferedFields[nextField] != null && isArraySizeRead(nextField))
+                        index = processBufferedField(nextField, data, index);
+                    else
+                        break;
+                    nextField++;
+                }
+            }
+            
+            reader.endObject();
+            
+            // process remaining buffered fields and fill missing ones with nil values
+            for (; nextField < fieldProcessors.size(); nextField++)
+            {
+                if (fieldEnds[nextField] >= 0)
+                    index = fieldEnds[nextField];
+                else if (bufferedFields[nextField] != null)
+                    index = processBufferedField(nextField, data, index);
+                else
+                    index = processMissingField(nextField, data, index);
+            }
+            
+            return index;
+        }
+        
+        /*
+         * Checks that size fields of variable size arrays contained in the
+         * field have been read, when they are part of this record
+         */
+        protected boolean isArraySizeRead(int fieldIdx)
+        {
+            for (int sizeFieldIdx: sizeFieldIndexes[fieldIdx])
+            {
+                if (fieldEnds[sizeFieldIdx] < 0)
+                    return false;
+            }
+            
+            return true;
+        }
+        
+        protected int processBufferedField(int fieldIdx, DataBlock data, int index) throws IOException
+        {
+            var json = bufferedFields[fieldIdx];
+            bufferedFields[fieldIdx] = null;
+            
+            var mainReader = reader;
+            try
+            {
+                reader = new JsonTreeReader(json);
+                index = fieldProcessors.get(fieldIdx).process(data, index);
+                fieldEnds[fieldIdx] = index;
+                return index;
+            }
+            finally
+            {
+                reader = mainReader;
+            }
+        }
+        
+        protected int processMissingField(int fieldIdx, DataBlock data, int index) throws IOException
+        {
+            var p = fieldProcessors.get(fieldIdx);
+            
+            // disabled fields are never part of the JSON object
+            if (!p.isEnabled())
+                return p.process(data, index);
+            
+            // array size cannot be inferred from the array values
+            if (p instanceof IntegerReader && ((IntegerReader)p).isArraySize)
+                throw new ReaderException("Missing array size field '" + ((JsonAtomReader)p).getEltName() + "' at " + reader.getPath());
+            
+            int atomCount = fieldAtomCounts[fieldIdx];
+            if (atomCount < 0)
+                throw new ReaderException("Missing variable size field '" + ((JsonAtomReader)p).getEltName() + "' at " + reader.getPath());
+            
+            for (int i = index; i < index + atomCount; i++)
+                setNilValue(data, i);
+            return index + atomCount;
+        }
+        
+        protected void initFieldIndexes()
+        {
+            int numFields = fieldProcessors.size();
+            fieldIndexes = new HashMap<>(numFields*2);
+            fieldAtomCounts = new int[numFields];
+            fieldOffsets = new int[numFields];
+            fieldEnds = new int[numFields];
+            sizeFieldIndexes = new int[numFields][];
+            bufferedFields = new JsonElement[numFields];
+            
+            int offset = 0;
+            for (int i = 0; i < numFields; i++)
+            {
+                var p = fieldProcessors.get(i);
+                if (p.isEnabled())
+                    fieldIndexes.put(((JsonAtomReader)p).getEltName(), i);
+                
+                // offset of fields after a variable size field is unknown
+                var field = recordComponent.getComponent(i);
+                fieldAtomCounts[i] = getFixedAtomCount(field);
+                fieldOffsets[i] = offset;
+                offset = (offset < 0 || fieldAtomCounts[i] < 0) ? -1 : offset + fieldAtomCounts[i];
+                
+                var sizeFields = new ArrayList<Integer>();
+                collectSizeFields(field, sizeFields);
+                sizeFieldIndexes[i] = sizeFields.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+        
+        /*
+         * Collects indexes of fields of this record that are used as size
+         * of variable size arrays nested in the given component
+         */
+        protected void collectSizeFields(DataComponent comp, List<Integer> sizeFields)
+        {
+            if (comp instanceof DataArray && ((DataArray)comp).isVariableSize() && !((DataArray)comp).isImplicitSize())
+            {
+                var sizeReader = countReaders.get(((DataArray)comp).getArraySizeComponent().getId());
+                int sizeFieldIdx = fieldProcessors.indexOf(sizeReader);
+                if (sizeFieldIdx >= 0)
+                    sizeFields.add(sizeFieldIdx);
+            }
+            
+            for (int i = 0; i < comp.getComponentCount(); i++)
+                collectSizeFields(comp.getComponent(i), sizeFields);
+        }
 
         @Override
         public String getEltName()
@@ -304,6 +496,66 @@ public class JsonDataParserGson extends AbstractDataParser
             return eltName;
         }
     }
+    
+    
+    /*
+     * Returns the number of atoms of the component, or -1 if it can vary
+     */
+    protected static int getFixedAtomCount(DataComponent comp)
+    {
+        if (comp instanceof DataChoice || comp instanceof GeometryData)
+            return -1;
+        
+        if (comp instanceof DataArray)
+        {
+            var array = (DataArray)comp;
+            int eltCount = array.isVariableSize() ? -1 : getFixedAtomCount(array.getElementType());
+            return eltCount < 0 ? -1 : eltCount * array.getComponentCount();
+        }
+        
+        if (comp instanceof ScalarComponent)
+            return 1;
+        
+        int atomCount = 0;
+        for (int i = 0; i < comp.getComponentCount(); i++)
+        {
+            int childCount = getFixedAtomCount(comp.getComponent(i));
+            if (childCount < 0)
+                return -1;
+            atomCount += childCount;
+        }
+        
+        return atomCount;
+    }
+    
+    
+    protected static void setNilValue(DataBlock data, int index)
+    {
+        switch (data.getDataType(index))
+        {
+            case FLOAT:
+            case DOUBLE:
+                data.setDoubleValue(index, Double.NaN);
+                break;
+                
+            case ASCII_STRING:
+            case UTF_STRING:
+                data.setStringValue(index, null);
+                break;
+                
+            case BOOLEAN:
+                data.setBooleanValue(index, false);
+                break;
+                
+            case INSTANT:
+            case DATETIME:
+                data.setTimeStamp(index, null);
+                break;
+                
+            default:
+                data.setLongValue(index, 0);
+        }
+    }
 
 
     protected class ArrayReader extends ArrayProcessor implements JsonAtomReader
@@ -600,6 +852,22 @@ public class JsonDataParserGson extends AbstractDataParser
     }
     
     
+    /**
+     * Sets whether object members must appear in the same order as the
+     * record fields (the default).<br/>
+     * When set to false, members can be in any order, unknown members are
+     * ignored and missing fixed size fields are set to nil values (NaN for
+     * decimal values, null for strings and time stamps, 0 or false otherwise).
+     * This is slower, especially when members must be buffered because they
+     * are received before the fields they depend on.
+     * @param strictFieldOrder
+     */
+    public void setStrictFieldOrder(boolean strictFieldOrder)
+    {
+        this.strictFieldOrder = strictFieldOrder;
+    }
+    
+    
     @Override
     public DataBlock parseNextBlock() throws IOException
     {
@@ -607,16 +875,40 @@ public class JsonDataParserGson extends AbstractDataParser
         {
             return super.parseNextBlock();
         }
-        catch (MalformedJsonException e)
+        catch (MalformedJsonException | IllegalStateException e)
         {
-            // Fix error message advising switch to lenient mode
-            var msg = e.getMessage().replaceAll("Use JsonReader.*malformed", "Malformed");
-            throw new ReaderException(msg);
+            throw toReaderException(e);
+        }
+    }
+
+    
+    @Override
+    public int parseNextBlocks(DataBlock batch) throws IOException
+    {
+        try
+        {
+            return super.parseNextBlocks(batch);
+        }
+        catch (MalformedJsonException | IllegalStateException e)
+        {
+            throw toReaderException(e);
         }
-        catch (IllegalStateException e)
+    }
+    
+    
+    /*
+     * Converts errors reported by the JSON reader
+     */
+    protected ReaderException toReaderException(Exception e)
+    {
+        if (e instanceof MalformedJsonException)
         {
-            throw new ReaderException(e);
+            // Fix error message advising switch to lenient mode
+            var msg = e.getMessage().replaceAll("Use JsonReader.*malformed", "Malformed");
+            return new ReaderException(msg);
         }
+        
+        return new ReaderException(e);
     }
 
 
@@ -702,14 +994,14 @@ public class JsonDataParserGson extends AbstractDataParser
     @Override
     protected RecordProcessor getRecordProcessor(DataRecord record)
     {
-        return new RecordReader(record.getName());
+        return new RecordReader(record);
     }
 
 
     @Override
     protected RecordProcessor getVectorProcessor(Vector vect)
     {
-        return new RecordReader(vect.getName());
+        return new RecordReader(vect);
     }
 
 
@@ -738,6 +1030,7 @@ public class JsonDataParserGson extends AbstractDataParser
     protected ArraySizeSupplier getArraySizeSupplier(String refId)
     {
         IntegerReader sizeReader = countReaders.get(refId);
+        sizeReader.isArraySize = true;
         return () -> sizeReader.val;
     }
 
@@ -27,7 +27,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import org.vast.swe.SWEDataTypeUtils;
-import org.vast.util.DateTimeFormat;
+import org.vast.util.IsoDateTimeCodec;
 import org.vast.util.WriterException;
 import net.opengis.swe.v20.Boolean;
 import net.opengis.swe.v20.Category;
@@ -227,7 +227,8 @@ public class JsonDataWriter extends AbstractDataWriter
 
     protected class IsoDateTimeWriter extends ValueWriter
     {
-        DateTimeFormat timeFormat = new DateTimeFormat();
+        IsoDateTimeCodec timeCodec = new IsoDateTimeCodec();
+        char[] buf = new char[IsoDateTimeCodec.MAX_ISO_LENGTH];
 
         public IsoDateTimeWriter(String eltName)
         {
@@ -246,7 +247,10 @@ public class JsonDataWriter extends AbstractDataWriter
                 if (Double.isInfinite(val))
                     writer.write(SWEDataTypeUtils.getDoubleOrInfAsString(val));
                 else
-                    writer.write(timeFormat.formatIso(val, 0));
+                {
+                    int len = timeCodec.format(val, 0, buf, 0);
+                    writer.write(buf, 0, len);
+                }
                 writer.write('"');
             }
         }
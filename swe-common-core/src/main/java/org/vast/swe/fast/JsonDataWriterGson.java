@@ -25,7 +25,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import org.vast.json.JsonInliningWriter;
-import org.vast.util.DateTimeFormat;
+import org.vast.util.IsoDateTimeCodec;
 import org.vast.util.WriterException;
 import com.google.gson.Strictness;
 import com.google.gson.stream.JsonWriter;
@@ -221,7 +221,7 @@ public class JsonDataWriterGson extends AbstractDataWriter
 
     protected class IsoDateTimeWriter extends ValueWriter
     {
-        DateTimeFormat timeFormat = new DateTimeFormat();
+        IsoDateTimeCodec timeCodec = new IsoDateTimeCodec();
 
         public IsoDateTimeWriter(String eltName)
         {
@@ -239,7 +239,7 @@ public class JsonDataWriterGson extends AbstractDataWriter
             else if (val == Double.NEGATIVE_INFINITY)
                 writer.value("-INF");
             else
-                writer.value(timeFormat.formatIso(val, 0));
+                writer.value(timeCodec.formatIso(val, 0));
         }
     }
 
@@ -0,0 +1,768 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.fast;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.vast.swe.SWEDataTypeUtils;
+import org.vast.util.IsoDateTimeCodec;
+import org.vast.util.ShortestNumberFormat;
+import org.vast.util.WriterException;
+import net.opengis.swe.v20.Boolean;
+import net.opengis.swe.v20.Category;
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataChoice;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.DataType;
+import net.opengis.swe.v20.Quantity;
+import net.opengis.swe.v20.RangeComponent;
+import net.opengis.swe.v20.Text;
+import net.opengis.swe.v20.Time;
+import net.opengis.swe.v20.Vector;
+
+
+/**
+ * <p>
+ * JSON data writer producing the same output as {@link JsonDataWriter} but
+ * encoding UTF-8 directly into a reusable byte buffer instead of going
+ * through a {@link java.io.Writer}.
+ * </p><p>
+ * Numbers are formatted without creating intermediate strings (see
+ * {@link ShortestNumberFormat}), strings are escaped with a precomputed
+ * table and field names are encoded once when the writer tree is built.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class JsonDataWriterUtf8 extends AbstractDataWriter
+{
+    static final String JSON_ERROR = "Error writing JSON stream for ";
+    static final byte[][] ESCAPED_CHARS = new byte[128][];
+    static final byte[] INDENT = ascii("  ");
+    static final byte[] NULL = ascii("null");
+    static final byte[] TRUE = ascii("true");
+    static final byte[] FALSE = ascii("false");
+    static final byte[] NAN = ascii("\"NaN\"");
+    static final byte[] POS_INF = ascii("\"+INF\"");
+    static final byte[] NEG_INF = ascii("\"-INF\"");
+
+    static {
+        ESCAPED_CHARS['\n'] = ascii("\\n");
+        ESCAPED_CHARS['\t'] = ascii("\\t");
+        ESCAPED_CHARS['\"'] = ascii("\\\"");
+        ESCAPED_CHARS['\\'] = ascii("\\\\");
+    }
+
+    protected Utf8Output out;
+    protected Utf8Output nullOut = new Utf8Output(OutputStream.nullOutputStream());
+    protected int depth;
+    boolean wrapWithJsonArray;
+    boolean firstBlock = true;
+    Map<String, IntegerWriter> countWriters = new HashMap<>();
+
+
+    protected interface JsonAtomWriter
+    {
+        String getEltName();
+    }
+
+
+    protected abstract class ValueWriter extends BaseProcessor implements JsonAtomWriter
+    {
+        String eltName;
+
+        public abstract void writeValue(DataBlock data, int index) throws IOException;
+
+        @Override
+        public int process(DataBlock data, int index) throws IOException
+        {
+            try
+            {
+                writeValue(data, index);
+                return ++index;
+            }
+            catch (IOException e)
+            {
+                throw new WriterException(JSON_ERROR + eltName + " value", e);
+            }
+        }
+
+        @Override
+        public String getEltName()
+        {
+            return eltName;
+        }
+    }
+
+
+    protected class BooleanWriter extends ValueWriter
+    {
+        public BooleanWriter(String eltName)
+        {
+            this.eltName = eltName;
+        }
+
+        @Override
+        public void writeValue(DataBlock data, int index) throws IOException
+        {
+            boolean val = data.getBooleanValue(index);
+            out.write(val ? TRUE : FALSE);
+        }
+    }
+
+
+    protected class IntegerWriter extends ValueWriter
+    {
+        int val;
+
+        public IntegerWriter(String eltName)
+        {
+            this.eltName = eltName;
+        }
+
+        @Override
+        public void writeValue(DataBlock data, int index) throws IOException
+        {
+            val = data.getIntValue(index);
+            out.writeInt(val);
+        }
+    }
+
+
+    protected class DoubleWriter extends ValueWriter
+    {
+        public DoubleWriter(String eltName)
+        {
+            this.eltName = eltName;
+        }
+
+        @Override
+        public void writeValue(DataBlock data, int index) throws IOException
+        {
+            double val = data.getDoubleValue(index);
+
+            // need to add quote on special values because they are not valid literal values in JSON
+            if (Double.isNaN(val))
+                out.write(NAN);
+            else if (val == Double.POSITIVE_INFINITY)
+                out.write(POS_INF);
+            else if (val == Double.NEGATIVE_INFINITY)
+                out.write(NEG_INF);
+            else
+                out.writeDouble(val);
+        }
+    }
+
+
+    protected class FloatWriter extends ValueWriter
+    {
+        public FloatWriter(String eltName)
+        {
+            this.eltName = eltName;
+        }
+
+        @Override
+        public void writeValue(DataBlock data, int index) throws IOException
+        {
+            float val = data.getFloatValue(index);
+
+            // need to add quote on special values because they are not valid literal values in JSON
+            if (Float.isNaN(val))
+                out.write(NAN);
+            else if (val == Float.POSITIVE_INFINITY)
+                out.write(POS_INF);
+            else if (val == Float.NEGATIVE_INFINITY)
+                out.write(NEG_INF);
+            else
+                out.writeFloat(val);
+        }
+    }
+
+
+    protected class RoundingDecimalWriter extends DoubleWriter
+    {
+        NumberFormat df;
+
+        public RoundingDecimalWriter(String eltName, int numDecimalPlaces)
+        {
+            super(eltName);
+            this.df = DecimalFormat.getNumberInstance(Locale.US);
+            df.setGroupingUsed(false);
+            df.setMinimumFractionDigits(1);
+            df.setMaximumFractionDigits(numDecimalPlaces);
+        }
+
+        @Override
+        public void writeValue(DataBlock data, int index) throws IOException
+        {
+            double val = data.getDoubleValue(index);
+
+            // need to add quote on special values because they are not valid literal values in JSON
+            if (Double.isNaN(val))
+                out.write(NAN);
+            else if (val == Double.POSITIVE_INFINITY)
+                out.write(POS_INF);
+            else if (val == Double.NEGATIVE_INFINITY)
+                out.write(NEG_INF);
+            else
+                out.writeAscii(df.format(val));
+        }
+    }
+
+
+    protected class IsoDateTimeWriter extends ValueWriter
+    {
+        IsoDateTimeCodec timeCodec = new IsoDateTimeCodec();
+        char[] buf = new char[IsoDateTimeCodec.MAX_ISO_LENGTH];
+
+        public IsoDateTimeWriter(String eltName)
+        {
+            this.eltName = eltName;
+        }
+
+        @Override
+        public void writeValue(DataBlock data, int index) throws IOException
+        {
+            double val = data.getDoubleValue(index);
+            if (Double.isNaN(val))
+                out.write(NULL);
+            else
+            {
+                out.write('"');
+                if (Double.isInfinite(val))
+                    out.writeAscii(SWEDataTypeUtils.getDoubleOrInfAsString(val));
+                else
+                {
+                    int len = timeCodec.format(val, 0, buf, 0);
+                    out.writeAscii(buf, 0, len);
+                }
+                out.write('"');
+            }
+        }
+    }
+
+
+    protected class StringWriter extends ValueWriter
+    {
+        public StringWriter(String eltName)
+        {
+            this.eltName = eltName;
+        }
+
+        @Override
+        public void writeValue(DataBlock data, int index) throws IOException
+        {
+            String val = data.getStringValue(index);
+
+            if (val != null)
+            {
+                out.write('"');
+                out.writeEscaped(val, ESCAPED_CHARS);
+                out.write('"');
+            }
+            else
+                out.write(NULL);
+        }
+    }
+
+
+    protected class RangeWriter extends RecordProcessor implements JsonAtomWriter
+    {
+        String eltName;
+
+        public RangeWriter(String eltName)
+        {
+            this.eltName = eltName;
+        }
+
+        @Override
+        public int process(DataBlock data, int index) throws IOException
+        {
+            try
+            {
+                out.write('[');
+                fieldProcessors.get(0).process(data, index++);
+                out.write(',');
+                out.write(' ');
+                fieldProcessors.get(1).process(data, index++);
+                out.write(']');
+                return index;
+            }
+            catch (IOException e)
+            {
+                throw new WriterException(JSON_ERROR + eltName + " range", e);
+            }
+        }
+
+        @Override
+        public String getEltName()
+        {
+            return eltName;
+        }
+    }
+
+
+    protected class RecordWriter extends RecordProcessor implements JsonAtomWriter
+    {
+        String eltName;
+        boolean onlyScalars = true;
+        byte[][] fieldPrefixes;
+
+        public RecordWriter(String eltName)
+        {
+            this.eltName = eltName;
+        }
+
+        public RecordWriter(String eltName, boolean singleLine)
+        {
+            this.eltName = eltName;
+            this.onlyScalars = singleLine;
+        }
+
+        @Override
+        public int process(DataBlock data, int index) throws IOException
+        {
+            try
+            {
+                out.write('{');
+
+                depth++;
+                int i = 0;
+                for (int f = 0; f < fieldProcessors.size(); f++)
+                {
+                    AtomProcessor p = fieldProcessors.get(f);
+
+                    // switch to null output if this field should be skipped
+                    Utf8Output oldOut = out;
+                    if (!p.isEnabled())
+                    {
+                        out = nullOut;
+                        i--;
+                    }
+
+                    // insert separator
+                    if (i > 0)
+                        out.write(',');
+
+                    // indent only if child is complex
+                    if (!onlyScalars)
+                    {
+                        out.write('\n');
+                        indent();
+                    }
+                    else if (i > 0)
+                        out.write(' ');
+
+                    out.write(fieldPrefixes[f]);
+                    index = p.process(data, index);
+                    i++;
+
+                    out = oldOut; // restore old output
+                }
+
+                depth--;
+                if (!onlyScalars)
+                {
+                    out.write('\n');
+                    indent();
+                }
+                out.write('}');
+
+                return index;
+            }
+            catch (IOException e)
+            {
+                throw new WriterException(JSON_ERROR + eltName + " record", e);
+            }
+        }
+
+        @Override
+        public void add(AtomProcessor processor)
+        {
+            fieldProcessors.add(processor);
+            if (!(processor instanceof ValueWriter))
+                onlyScalars = false;
+
+            // pre-encode field name and separator
+            int numFields = fieldProcessors.size();
+            byte[][] prefixes = new byte[numFields][];
+            if (fieldPrefixes != null)
+                System.arraycopy(fieldPrefixes, 0, prefixes, 0, numFields - 1);
+            prefixes[numFields - 1] = utf8("\"" + ((JsonAtomWriter)processor).getEltName() + "\": ");
+            fieldPrefixes = prefixes;
+        }
+
+        @Override
+        public String getEltName()
+        {
+            return eltName;
+        }
+    }
+
+
+    protected class ArrayWriter extends ArrayProcessor implements JsonAtomWriter
+    {
+        String eltName;
+        boolean onlyScalars = true;
+
+        public ArrayWriter(String eltName)
+        {
+            this.eltName = eltName;
+        }
+
+        @Override
+        public int process(DataBlock data, int index) throws IOException
+        {
+            try
+            {
+                // retrieve variable array size
+                int arraySize = sizeSupplier.getArraySize();
+
+                out.write('[');
+
+                depth++;
+                for (int i = 0; i < arraySize; i++)
+                {
+                    // insert separator
+                    if (i > 0)
+                        out.write(',');
+
+                    // indent only if child is complex
+                    if (!onlyScalars)
+                    {
+                        out.write('\n');
+                        indent();
+                    }
+                    else if (i > 0)
+                        out.write(' ');
+
+                    index = eltProcessor.process(data, index);
+                }
+
+                depth--;
+                if (!onlyScalars)
+                {
+                    out.write('\n');
+                    indent();
+                }
+                out.write(']');
+
+                return index;
+            }
+            catch (IOException e)
+            {
+                throw new WriterException(JSON_ERROR + eltName + " array", e);
+            }
+        }
+
+        @Override
+        public void add(AtomProcessor processor)
+        {
+            super.add(processor);
+            if (!(processor instanceof ValueWriter))
+                onlyScalars = false;
+        }
+
+        @Override
+        public String getEltName()
+        {
+            return eltName;
+        }
+    }
+
+
+    protected class ChoiceWriter extends ChoiceProcessor implements JsonAtomWriter
+    {
+        String eltName;
+        boolean onlyScalars = false;
+        byte[][] choiceTokens;
+
+        public ChoiceWriter(DataChoice choice)
+        {
+            this.eltName = choice.getName();
+            choiceTokens = new byte[choice.getNumItems()][];
+            int i = 0;
+            for (DataComponent item: choice.getItemList())
+                choiceTokens[i++] = utf8("\"" + item.getName() + "\": ");
+        }
+
+        @Override
+        public int process(DataBlock data, int index) throws IOException
+        {
+            int selectedIndex = data.getIntValue(index);
+            if (selectedIndex < 0 || selectedIndex >= choiceTokens.length)
+                throw new WriterException(AbstractDataParser.INVALID_CHOICE_MSG + selectedIndex);
+
+            try
+            {
+                out.write('{');
+
+                depth++;
+                if (!onlyScalars)
+                {
+                    out.write('\n');
+                    indent();
+                }
+
+                out.write(choiceTokens[selectedIndex]);
+                index = super.process(data, ++index, selectedIndex);
+
+                depth--;
+                if (!onlyScalars)
+                {
+                    out.write('\n');
+                    indent();
+                }
+                out.write('}');
+
+                return index;
+            }
+            catch (IOException e)
+            {
+                throw new WriterException(JSON_ERROR + eltName + " choice", e);
+            }
+        }
+
+        @Override
+        public String getEltName()
+        {
+            return eltName;
+        }
+    }
+
+
+    static byte[] ascii(String s)
+    {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+
+    static byte[] utf8(String s)
+    {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    protected void indent() throws IOException
+    {
+        for (int i = 0; i < depth; i++)
+            out.write(INDENT);
+    }
+
+
+    @Override
+    protected void init()
+    {
+    }
+
+
+    @Override
+    public void setOutput(OutputStream os)
+    {
+        this.out = new Utf8Output(os);
+    }
+
+
+    @Override
+    public void write(DataBlock data) throws IOException
+    {
+        if (!firstBlock)
+        {
+            out.write(',');
+            out.write('\n');
+        }
+
+        indent();
+        super.write(data);
+
+        if (wrapWithJsonArray)
+            firstBlock = false;
+    }
+
+
+    @Override
+    public void startStream(boolean addWrapper) throws IOException
+    {
+        this.wrapWithJsonArray = addWrapper;
+
+        // wrap records with array if we're writing multiple ones together
+        if (wrapWithJsonArray)
+        {
+            out.write('[');
+            out.write('\n');
+            depth++;
+        }
+    }
+
+
+    @Override
+    public void endStream() throws IOException
+    {
+        if (wrapWithJsonArray)
+        {
+            out.write('\n');
+            out.write(']');
+            flush();
+        }
+    }
+
+
+    @Override
+    public void flush() throws IOException
+    {
+        if (out != null)
+            out.flush();
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        if (out != null)
+            out.close();
+    }
+
+
+    @Override
+    public void reset()
+    {
+        super.reset();
+        firstBlock = true;
+    }
+
+
+    @Override
+    public void visit(Boolean comp)
+    {
+        addToProcessorTree(new BooleanWriter(comp.getName()));
+    }
+
+
+    @Override
+    public void visit(Count comp)
+    {
+        IntegerWriter writer = new IntegerWriter(comp.getName());
+        if (comp.isSetId())
+            countWriters.put(comp.getId(), writer);
+        addToProcessorTree(writer);
+    }
+
+
+    @Override
+    public void visit(Quantity comp)
+    {
+        if (comp.getConstraint() != null && comp.getConstraint().isSetSignificantFigures())
+        {
+            int sigFigures = comp.getConstraint().getSignificantFigures();
+            addToProcessorTree(new RoundingDecimalWriter(comp.getName(), sigFigures));
+        }
+        else if (comp.getDataType() == DataType.FLOAT)
+            addToProcessorTree(new FloatWriter(comp.getName()));
+        else
+            addToProcessorTree(new DoubleWriter(comp.getName()));
+    }
+
+
+    @Override
+    public void visit(Time comp)
+    {
+        if (!comp.isIsoTime())
+        {
+            if (comp.getConstraint() != null && comp.getConstraint().isSetSignificantFigures())
+            {
+                int sigFigures = comp.getConstraint().getSignificantFigures();
+                addToProcessorTree(new RoundingDecimalWriter(comp.getName(), sigFigures));
+            }
+            else
+                addToProcessorTree(new DoubleWriter(comp.getName()));
+        }
+        else
+            addToProcessorTree(new IsoDateTimeWriter(comp.getName()));
+    }
+
+
+    @Override
+    public void visit(Category comp)
+    {
+        addToProcessorTree(new StringWriter(comp.getName()));
+    }
+
+
+    @Override
+    public void visit(Text comp)
+    {
+        addToProcessorTree(new StringWriter(comp.getName()));
+    }
+
+
+    @Override
+    protected AtomProcessor getRangeProcessor(RangeComponent range)
+    {
+        return new RangeWriter(range.getName());
+    }
+
+
+    @Override
+    protected RecordProcessor getRecordProcessor(DataRecord record)
+    {
+        return new RecordWriter(record.getName(), false);
+    }
+
+
+    @Override
+    protected RecordProcessor getVectorProcessor(Vector vect)
+    {
+        return new RecordWriter(vect.getName(), true);
+    }
+
+
+    @Override
+    protected ChoiceProcessor getChoiceProcessor(DataChoice choice)
+    {
+        return new ChoiceWriter(choice);
+    }
+
+
+    @Override
+    protected ArrayProcessor getArrayProcessor(DataArray array)
+    {
+        return new ArrayWriter(array.getName());
+    }
+
+
+    @Override
+    protected ImplicitSizeProcessor getImplicitSizeProcessor(DataArray array)
+    {
+        return new ImplicitSizeProcessor();
+    }
+
+
+    @Override
+    protected ArraySizeSupplier getArraySizeSupplier(String refId)
+    {
+        IntegerWriter sizeWriter = countWriters.get(refId);
+        return () -> sizeWriter.val;
+    }
+}
@@ -0,0 +1,637 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.fast;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import org.vast.cdm.common.DataHandler;
+import org.vast.cdm.common.DataStreamParser;
+import org.vast.cdm.common.ErrorHandler;
+import org.vast.cdm.common.RawDataHandler;
+import org.vast.swe.URIStreamHandler;
+import org.vast.util.Asserts;
+import net.opengis.swe.v20.BinaryEncoding;
+import net.opengis.swe.v20.BlockComponent;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataEncoding;
+import net.opengis.swe.v20.TextEncoding;
+
+
+/**
+ * <p>
+ * Parser splitting the input stream into partitions that are parsed
+ * concurrently, for large text or binary payloads.<br/>
+ * Partitions are cut at record boundaries, that is after a block separator
+ * for text encoding, or at a multiple of the record size for binary
+ * encoding (records must have a fixed size in this case, see
+ * {@link BinaryDataParser#getFixedRecordSize()}).
+ * </p><p>
+ * Each partition is parsed by a worker with its own copy of the data
+ * components and processor tree, and data blocks are returned by
+ * {@link #parseNextBlock()} in the original order. A new data block is
+ * always created for each record.
+ * </p><p>
+ * This class is not thread-safe, only the partitions are parsed in
+ * parallel.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class ParallelDataParser implements DataStreamParser
+{
+    public static final int DEFAULT_PARTITION_SIZE = 4 * 1024 * 1024;
+
+    DataComponent dataComponents;
+    DataEncoding dataEncoding;
+    DataHandler dataHandler;
+    RawDataHandler rawHandler;
+    ErrorHandler errorHandler;
+    BlockComponent parentArray;
+    int parentArrayIndex;
+    volatile boolean stopParsing;
+    Executor executor = ForkJoinPool.commonPool();
+    int partitionSize = DEFAULT_PARTITION_SIZE;
+    int maxPendingPartitions = 2 * Runtime.getRuntime().availableProcessors();
+
+    // partitioning state
+    InputStream input;
+    byte[] blockSep;
+    int recordSize;
+    byte[] remaining = new byte[0];
+    boolean eof;
+
+    final ConcurrentLinkedQueue<PartitionParser> idleParsers = new ConcurrentLinkedQueue<>();
+    volatile int generation;
+    final ArrayDeque<CompletableFuture<List<DataBlock>>> pendingPartitions = new ArrayDeque<>();
+    Iterator<DataBlock> currentPartition;
+
+
+    /*
+     * Sequential parser tagged with the generation of settings it was
+     * created with, so that parsers returned by partitions still running
+     * after a reset are not reused
+     */
+    static class PartitionParser
+    {
+        final AbstractDataParser parser;
+        final int generation;
+        
+        PartitionParser(AbstractDataParser parser, int generation)
+        {
+            this.parser = parser;
+            this.generation = generation;
+        }
+    }
+
+
+    /**
+     * Sets the executor used to parse partitions (the common fork/join pool
+     * is used by default)
+     * @param executor
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = Asserts.checkNotNull(executor, "executor");
+    }
+
+
+    /**
+     * Sets the approximate size of partitions. Partitions can be larger
+     * when a single record is larger than this size.
+     * @param partitionSize size in bytes
+     */
+    public void setPartitionSize(int partitionSize)
+    {
+        Asserts.checkArgument(partitionSize > 0, "partitionSize must be > 0");
+        this.partitionSize = partitionSize;
+    }
+
+
+    /**
+     * Sets the maximum number of partitions read ahead of the partition
+     * currently returned, which also bounds memory usage
+     * @param maxPendingPartitions
+     */
+    public void setMaxPendingPartitions(int maxPendingPartitions)
+    {
+        Asserts.checkArgument(maxPendingPartitions > 0, "maxPendingPartitions must be > 0");
+        this.maxPendingPartitions = maxPendingPartitions;
+    }
+
+
+    /**
+     * Creates a sequential parser for one partition
+     * @return new parser instance
+     */
+    protected synchronized AbstractDataParser createPartitionParser()
+    {
+        AbstractDataParser parser;
+        if (dataEncoding instanceof TextEncoding)
+            parser = new TextDataParser();
+        else if (dataEncoding instanceof BinaryEncoding)
+            parser = new BinaryDataParser();
+        else
+            throw new IllegalStateException("Parallel parsing is only supported for text and binary encodings");
+
+        parser.setDataEncoding(dataEncoding);
+        parser.setDataComponents(dataComponents);
+        parser.setRenewDataBlock(true);
+        return parser;
+    }
+
+
+    /*
+     * Computes partitioning settings again if they were reset
+     */
+    protected void ensurePartitioning() throws IOException
+    {
+        if (blockSep == null && recordSize <= 0)
+            initPartitioning();
+    }
+
+
+    /*
+     * Computes how to find record boundaries for the selected encoding
+     */
+    protected void initPartitioning() throws IOException
+    {
+        Asserts.checkState(dataComponents != null, "Data components must be set first");
+        int gen = generation;
+        AbstractDataParser parser = createPartitionParser();
+
+        if (dataEncoding instanceof TextEncoding)
+        {
+            blockSep = ((TextEncoding)dataEncoding).getBlockSeparator().getBytes(StandardCharsets.UTF_8);
+            Asserts.checkState(blockSep.length > 0, "Block separator cannot be empty");
+            recordSize = -1;
+        }
+        else
+        {
+            recordSize = ((BinaryDataParser)parser).getFixedRecordSize();
+            if (recordSize <= 0)
+                throw new IllegalStateException("Parallel parsing is only supported for binary records of fixed size");
+            blockSep = null;
+        }
+
+        idleParsers.add(new PartitionParser(parser, gen));
+    }
+
+
+    /*
+     * Reads the next partition from the input, cut at the last record
+     * boundary found. Returns null when the end of stream is reached.
+     */
+    protected InputStream readPartition() throws IOException
+    {
+        if (eof && remaining.length == 0)
+            return null;
+
+        // start with bytes left after the last boundary of previous partition
+        byte[] buf = Arrays.copyOf(remaining, Math.max(partitionSize, remaining.length * 2));
+        int len = remaining.length;
+        int end;
+
+        while (true)
+        {
+            while (!eof && len < buf.length)
+            {
+                int n = input.read(buf, len, buf.length - len);
+                if (n < 0)
+                    eof = true;
+                else
+                    len += n;
+            }
+
+            end = eof ? len : findPartitionEnd(buf, len);
+            if (end > 0 || eof)
+                break;
+
+            // no record boundary found, read more
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+
+        remaining = Arrays.copyOfRange(buf, end, len);
+        return end > 0 ? new ByteArrayInputStream(buf, 0, end) : null;
+    }
+
+
+    /*
+     * Returns the position following the last record boundary in the buffer
+     * or 0 if none was found
+     */
+    protected int findPartitionEnd(byte[] buf, int len)
+    {
+        if (recordSize > 0)
+            return len - len % recordSize;
+
+        int sepLen = blockSep.length;
+        for (int i = len - sepLen; i >= 0; i--)
+        {
+            if (regionMatches(buf, i, blockSep))
+                return i + sepLen;
+        }
+
+        return 0;
+    }
+
+
+    private static boolean regionMatches(byte[] buf, int offset, byte[] sep)
+    {
+        for (int i = 0; i < sep.length; i++)
+        {
+            if (buf[offset + i] != sep[i])
+                return false;
+        }
+
+        return true;
+    }
+
+
+    /*
+     * Gets an idle parser created with the current settings or a new one,
+     * discarding parsers created before the last reset
+     */
+    protected PartitionParser getIdleParser()
+    {
+        int gen = generation;
+        PartitionParser p;
+        while ((p = idleParsers.poll()) != null)
+        {
+            if (p.generation == gen)
+                return p;
+        }
+        
+        return new PartitionParser(createPartitionParser(), gen);
+    }
+
+
+    /*
+     * Parses all records of a partition with an idle parser
+     */
+    protected List<DataBlock> parsePartition(InputStream partition)
+    {
+        PartitionParser p = getIdleParser();
+
+        try
+        {
+            p.parser.setInput(partition);
+            List<DataBlock> blocks = new ArrayList<>();
+            DataBlock dataBlk;
+            while ((dataBlk = p.parser.parseNextBlock()) != null)
+                blocks.add(dataBlk);
+
+            // settings may have changed while parsing
+            if (p.generation == generation)
+                idleParsers.add(p);
+            return blocks;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /*
+     * Submits partitions until the maximum number of pending partitions
+     * is reached or all input has been read
+     */
+    protected void submitPartitions() throws IOException
+    {
+        InputStream partition;
+        while (pendingPartitions.size() < maxPendingPartitions && (partition = readPartition()) != null)
+        {
+            InputStream p = partition;
+            pendingPartitions.add(CompletableFuture.supplyAsync(() -> parsePartition(p), executor));
+        }
+    }
+
+
+    @Override
+    public DataBlock parseNextBlock() throws IOException
+    {
+        Asserts.checkState(input != null, "Input must be set first");
+        ensurePartitioning();
+
+        while (currentPartition == null || !currentPartition.hasNext())
+        {
+            submitPartitions();
+
+            CompletableFuture<List<DataBlock>> next = pendingPartitions.poll();
+            if (next == null)
+                return null;
+
+            try
+            {
+                currentPartition = next.get().iterator();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while parsing partition");
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException)
+                    throw ((UncheckedIOException)cause).getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException)cause;
+                throw new IOException("Error while parsing partition", cause);
+            }
+        }
+
+        return currentPartition.next();
+    }
+
+
+    /**
+     * Parses the whole stream, sending one startData/endData event per
+     * record to the data handler, or filling the parent array if one is set.<br/>
+     * Atom and block level events are not sent since records are parsed
+     * by partition workers.
+     */
+    @Override
+    public void parse(InputStream inputStream) throws IOException
+    {
+        stopParsing = false;
+
+        try
+        {
+            setInput(inputStream);
+
+            DataBlock dataBlk;
+            while (!stopParsing && (parentArray == null || parentArrayIndex < parentArray.getComponentCount()))
+            {
+                if ((dataBlk = parseNextBlock()) == null)
+                    break;
+
+                if (parentArray != null)
+                    copyToParentArray(dataBlk);
+
+                if (dataHandler != null)
+                {
+                    dataComponents.setData(dataBlk);
+                    dataHandler.startData(dataComponents);
+                    dataHandler.endData(dataComponents, dataBlk);
+                }
+            }
+        }
+        finally
+        {
+            cancelPartitions();
+            inputStream.close();
+        }
+    }
+
+
+    @Override
+    public void parse(String uri) throws IOException
+    {
+        InputStream in = URIStreamHandler.openStream(uri);
+        this.parse(new BufferedInputStream(in));
+    }
+
+
+    @Override
+    public void parse(URI uri) throws IOException
+    {
+        InputStream in = URIStreamHandler.openStream(uri);
+        this.parse(new BufferedInputStream(in));
+    }
+
+
+    /*
+     * Copies values of a parsed record to the next element of the parent array
+     */
+    protected void copyToParentArray(DataBlock dataBlk)
+    {
+        DataBlock eltBlk = parentArray.getComponent(parentArrayIndex++).getData();
+        Asserts.checkState(eltBlk.getAtomCount() == dataBlk.getAtomCount(), "Parsed record doesn't match parent array element");
+
+        for (int i = 0; i < dataBlk.getAtomCount(); i++)
+        {
+            switch (dataBlk.getDataType(i))
+            {
+                case BOOLEAN:
+                    eltBlk.setBooleanValue(i, dataBlk.getBooleanValue(i));
+                    break;
+
+                case FLOAT:
+                    eltBlk.setFloatValue(i, dataBlk.getFloatValue(i));
+                    break;
+
+                case DOUBLE:
+                    eltBlk.setDoubleValue(i, dataBlk.getDoubleValue(i));
+                    break;
+
+                case INSTANT:
+                    eltBlk.setTimeStamp(i, dataBlk.getTimeStamp(i));
+                    break;
+
+                case DATETIME:
+                    eltBlk.setDateTime(i, dataBlk.getDateTime(i));
+                    break;
+
+                default:
+                    if (dataBlk.getDataType(i).isIntegralType())
+                        eltBlk.setLongValue(i, dataBlk.getLongValue(i));
+                    else
+                        eltBlk.setStringValue(i, dataBlk.getStringValue(i));
+            }
+        }
+    }
+
+
+    @Override
+    public void setInput(InputStream is) throws IOException
+    {
+        cancelPartitions();
+        ensurePartitioning();
+
+        this.input = is;
+        this.remaining = new byte[0];
+        this.eof = false;
+    }
+
+
+    @Override
+    public void setDataComponents(DataComponent components)
+    {
+        this.dataComponents = components.copy();
+        this.parentArray = null;
+        reset();
+    }
+
+
+    @Override
+    public DataComponent getDataComponents()
+    {
+        return dataComponents;
+    }
+
+
+    @Override
+    public void setDataEncoding(DataEncoding encoding)
+    {
+        this.dataEncoding = encoding;
+        reset();
+    }
+
+
+    @Override
+    public DataEncoding getDataEncoding()
+    {
+        return dataEncoding;
+    }
+
+
+    /**
+     * Sets the array that {@link #parse(InputStream)} fills with parsed
+     * records, which also sets the data components to the array element type
+     */
+    @Override
+    public void setParentArray(BlockComponent parentArray)
+    {
+        this.dataComponents = parentArray.getElementType().copy();
+        reset();
+        this.parentArray = parentArray;
+        ((DataComponent)parentArray).renewDataBlock();
+        parentArrayIndex = 0;
+    }
+
+
+    /**
+     * @throws UnsupportedOperationException if renewDataBlock is false
+     * since a new data block is always created for each record
+     */
+    @Override
+    public void setRenewDataBlock(boolean renewDataBlock)
+    {
+        if (!renewDataBlock)
+            throw new UnsupportedOperationException("Parallel parser always creates a new data block for each record");
+    }
+
+
+    /**
+     * Cancels parsing of pending partitions. Partitioning settings are
+     * recomputed when the next block is parsed and parsers of partitions
+     * still running are discarded when they complete.
+     */
+    @Override
+    public void reset()
+    {
+        cancelPartitions();
+        generation++;
+        idleParsers.clear();
+        blockSep = null;
+        recordSize = -1;
+    }
+
+
+    /**
+     * Stops {@link #parse(InputStream)} from another thread
+     */
+    @Override
+    public void stop()
+    {
+        stopParsing = true;
+    }
+
+
+    /*
+     * Cancels parsing of pending partitions
+     */
+    protected void cancelPartitions()
+    {
+        for (CompletableFuture<?> f: pendingPartitions)
+            f.cancel(false);
+        pendingPartitions.clear();
+        currentPartition = null;
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        cancelPartitions();
+        if (input != null)
+            input.close();
+    }
+
+
+    @Override
+    public DataHandler getDataHandler()
+    {
+        return dataHandler;
+    }
+
+
+    @Override
+    public RawDataHandler getRawDataHandler()
+    {
+        return rawHandler;
+    }
+
+
+    @Override
+    public ErrorHandler getErrorHandler()
+    {
+        return errorHandler;
+    }
+
+
+    @Override
+    public void setDataHandler(DataHandler handler)
+    {
+        this.dataHandler = handler;
+    }
+
+
+    /**
+     * Sets the raw data handler. It is kept for compatibility but never
+     * called since records are not buffered individually by this parser.
+     */
+    @Override
+    public void setRawDataHandler(RawDataHandler handler)
+    {
+        this.rawHandler = handler;
+    }
+
+
+    @Override
+    public void setErrorHandler(ErrorHandler handler)
+    {
+        this.errorHandler = handler;
+    }
+}
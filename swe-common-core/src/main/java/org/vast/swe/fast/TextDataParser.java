@@ -20,6 +20,7 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import net.opengis.swe.v20.Boolean;
@@ -35,7 +36,7 @@ import net.opengis.swe.v20.TextEncoding;
 import net.opengis.swe.v20.Time;
 import org.vast.data.AbstractDataBlock;
 import org.vast.data.DataBlockMixed;
-import org.vast.util.DateTimeFormat;
+import org.vast.util.IsoDateTimeCodec;
 import org.vast.util.ReaderException;
 
 
@@ -51,16 +52,33 @@ import org.vast.util.ReaderException;
  */
 public class TextDataParser extends AbstractDataParser
 {
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+    static final int MAX_FAST_DOUBLE_DIGITS = 15;
+    static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
     protected Reader reader;
-    protected String tokenSep = ",";
+    protected char[] tokenSep = ",".toCharArray();
     protected char[] blockSep = "\n".toCharArray();
     protected boolean collapseWhiteSpaces = true;
-    protected StringBuilder tokenBuf = new StringBuilder(32);
-    protected String[] lastSplit;
-    protected int tokenIndex = -1;
-    protected int blockSepIndex = 0;
     protected  Map<String, IntegerParser> countReaders = new HashMap<>();
     
+    // tokenizer state
+    // tokens are located by their offsets in a reusable char buffer that is
+    // filled in bulk from the reader, so no string is created for numbers
+    protected char[] buf = new char[DEFAULT_BUFFER_SIZE];
+    protected int bufLen;
+    protected int bufPos;
+    protected boolean eof;
+    protected int recordPos;
+    protected int recordEnd;
+    protected boolean moreTokens;
+    protected boolean recordsRead;
+    protected int tokenStart;
+    protected int tokenEnd = -1;
+    
     
     protected class BooleanParser extends BaseProcessor
     {
@@ -106,17 +124,18 @@ public class TextDataParser extends AbstractDataParser
         @Override
         public int process(DataBlock data, int index) throws IOException
         {
-            String token = readToken();
-            
             try
             {
-                val = Integer.parseInt(token);
+                if (!nextToken())
+                    throw new NumberFormatException();
+                
+                val = parseInt(tokenStart, tokenEnd);
                 data.setIntValue(index, val);
                 return ++index;
             }
             catch (NumberFormatException e)
             {
-                throw new ReaderException(INVALID_INTEGER_MSG + token);
+                throw new ReaderException(INVALID_INTEGER_MSG + getTokenString());
             }
         }
     }   
@@ -127,25 +146,26 @@ public class TextDataParser extends AbstractDataParser
         @Override
         public int process(DataBlock data, int index) throws IOException
         {
-            String token = readToken();
-            
             try
             {
+                if (!nextToken())
+                    throw new NumberFormatException();
+                
                 double val;
                 
-                if ("INF".equals(token) || "+INF".equals(token))
+                if (tokenEquals("INF") || tokenEquals("+INF"))
                     val = Double.POSITIVE_INFINITY;
-                else if ("-INF".equals(token))
+                else if (tokenEquals("-INF"))
                     val = Double.NEGATIVE_INFINITY;
                 else
-                    val = Double.parseDouble(token);
+                    val = parseDouble(tokenStart, tokenEnd);
                 
                 data.setDoubleValue(index, val);
                 return ++index;
             }
             catch (NumberFormatException e)
             {
-                throw new ReaderException(INVALID_DECIMAL_MSG + token);
+                throw new ReaderException(INVALID_DECIMAL_MSG + getTokenString());
             }
         }
     }    
@@ -153,16 +173,20 @@ public class TextDataParser extends AbstractDataParser
     
     protected class IsoDateTimeParser extends BaseProcessor
     {
-        DateTimeFormat timeFormat = new DateTimeFormat();
+        IsoDateTimeCodec timeCodec = new IsoDateTimeCodec();
         
         @Override
         public int process(DataBlock data, int index) throws IOException
         {
-            String token = readToken();
-            
             try
             {
-                double val = timeFormat.parseIso(token);
+                if (!nextToken())
+                    throw new ParseException("Missing ISO 8601 time string", 0);
+                
+                double val = timeCodec.parse(buf, tokenStart, tokenEnd);
+                if (Double.isNaN(val))
+                    val = timeCodec.parseIso(getTokenString());
+                
                 data.setDoubleValue(index, val);
                 return ++index;
             }
@@ -210,7 +234,7 @@ public class TextDataParser extends AbstractDataParser
                 throw new ReaderException(INVALID_CHOICE_MSG + token);
             
             // set selected choice index and corresponding datablock
-            data.setIntValue(index++, selectedIndex);
+            data.setIntValue(index, selectedIndex);
             var selectedData = choice.getComponent(selectedIndex).createDataBlock();
             ((DataBlockMixed)data).setBlock(1, (AbstractDataBlock)selectedData);
             
@@ -239,70 +263,167 @@ public class TextDataParser extends AbstractDataParser
         @Override
         public int process(DataBlock data, int index) throws IOException
         {
-            String token = readToken();
-            
             try
             {
-                arraySize = Integer.parseInt(token);
+                if (!nextToken())
+                    throw new NumberFormatException();
+                
+                arraySize = parseInt(tokenStart, tokenEnd);
                 if (arraySize < 0)
                     throw new NumberFormatException();
                 return index;
             }
             catch (NumberFormatException e)
             {
-                throw new ReaderException(INVALID_ARRAY_SIZE_MSG + token);
+                throw new ReaderException(INVALID_ARRAY_SIZE_MSG + getTokenString());
             }
         }
     }
     
     
+    /*
+     * Reads the next token and returns it as a String
+     * Returns null if no more tokens are available
+     */
     private String readToken() throws IOException
+    {
+        nextToken();
+        return getTokenString();
+    }
+    
+    
+    /*
+     * Returns the last token read as a String or null if there was none
+     */
+    private String getTokenString()
+    {
+        if (tokenEnd < 0)
+            return null;
+        return new String(buf, tokenStart, tokenEnd - tokenStart);
+    }
+    
+    
+    private boolean tokenEquals(String s)
+    {
+        int len = s.length();
+        if (tokenEnd - tokenStart != len)
+            return false;
+        
+        for (int i = 0; i < len; i++)
+        {
+            if (buf[tokenStart + i] != s.charAt(i))
+                return false;
+        }
+        
+        return true;
+    }
+    
+    
+    /*
+     * Locates the next token in the buffer, reading the next record if needed
+     * Token boundaries are stored in tokenStart and tokenEnd
+     * Returns false if no more tokens are available
+     */
+    private boolean nextToken() throws IOException
+    {
+        if (!moreTokens && !readRecord())
+        {
+            tokenEnd = -1;
+            return false;
+        }
+        
+        int start = recordPos;
+        int end = indexOf(tokenSep, start, recordEnd);
+        if (end < 0)
+        {
+            end = recordEnd;
+            moreTokens = false;
+        }
+        else
+            recordPos = end + tokenSep.length;
+        
+        // trim white spaces if requested
+        if (collapseWhiteSpaces)
+        {
+            while (start < end && buf[start] <= ' ')
+                start++;
+            while (end > start && buf[end-1] <= ' ')
+                end--;
+        }
+        
+        tokenStart = start;
+        tokenEnd = end;
+        return true;
+    }
+    
+    
+    /*
+     * Reads the next record (i.e. all text until the next block separator)
+     * into the buffer, and prepares it for tokenization
+     * Empty records at the start of the stream are skipped (e.g. line break
+     * after XML start tag), other empty records end the stream
+     * Returns false if the record is empty or the end of stream was reached
+     */
+    private boolean readRecord() throws IOException
     {
         try
         {
-            if (tokenIndex < 0 || tokenIndex >= lastSplit.length)
+            int start, end;
+            boolean skip;
+            
+            do
             {
-                // read text until next block separator
-                tokenBuf.setLength(0);
-                blockSepIndex = 0;
-                int b;
-                do
+                // scan buffer for block separator, filling it as needed
+                int scanPos = bufPos;
+                int sepPos;
+                while ((sepPos = indexOf(blockSep, scanPos, bufLen)) < 0 && !eof)
                 {
-                    b = reader.read();
-                    if (b < 0)
-                        break;
-                    
-                    tokenBuf.append((char)b);
-                    
-                    // check if we have a block separator
-                    if (b == blockSep[blockSepIndex])
-                        blockSepIndex++;
-                    else
-                        blockSepIndex = 0;
+                    // resume scanning where a partial separator could start
+                    scanPos = Math.max(bufPos, bufLen - blockSep.length + 1);
+                    scanPos -= fillBuffer();
                 }
-                while (blockSepIndex < blockSep.length);
                 
-                // remove trailing separator
-                if (blockSepIndex == blockSep.length)
-                    tokenBuf.setLength(tokenBuf.length()-blockSep.length);
-                
-                // convert to string and trim white spaces if requested
-                String recString = tokenBuf.toString();
-                if (this.collapseWhiteSpaces)
-                    recString = recString.trim();
+                start = bufPos;
+                if (sepPos >= 0)
+                {
+                    end = sepPos;
+                    bufPos = sepPos + blockSep.length;
+                }
+                else
+                {
+                    end = bufLen;
+                    bufPos = bufLen;
+                }
                 
-                if (recString.isEmpty())
-                    return null;
+                // trim white spaces if requested
+                if (collapseWhiteSpaces)
+                {
+                    while (start < end && buf[start] <= ' ')
+                        start++;
+                    while (end > start && buf[end-1] <= ' ')
+                        end--;
+                }
                 
-                lastSplit = recString.split(tokenSep);
-                tokenIndex = 0;
+                skip = start >= end && sepPos >= 0 && !recordsRead;
+            }
+            while (skip);
+            
+            if (start >= end)
+            {
+                moreTokens = false;
+                return false;
             }
             
-            // return next token, trimming white spaces if requested
-            String nextToken = lastSplit[tokenIndex++];
-            if (this.collapseWhiteSpaces)
-                nextToken = nextToken.trim();
-            return nextToken;
+            // ignore trailing empty tokens
+            int sepLen = tokenSep.length;
+            while (end - start > sepLen && regionMatches(tokenSep, end - sepLen))
+                end -= sepLen;
+            
+            recordPos = start;
+            recordEnd = end;
+            moreTokens = true;
+            recordsRead = true;
+            return true;
         }
         catch (IOException e)
         {
@@ -311,12 +432,172 @@ public class TextDataParser extends AbstractDataParser
     }
     
     
+    /*
+     * Moves unread chars to the beginning of the buffer (or grows the buffer
+     * if it is full) and reads as many chars as possible from the reader
+     * Returns the number of positions by which the buffer content was shifted
+     */
+    private int fillBuffer() throws IOException
+    {
+        int shift = bufPos;
+        if (shift > 0)
+        {
+            System.arraycopy(buf, bufPos, buf, 0, bufLen - bufPos);
+            bufLen -= shift;
+            bufPos = 0;
+        }
+        else if (bufLen == buf.length)
+            buf = Arrays.copyOf(buf, buf.length*2);
+        
+        int n = reader.read(buf, bufLen, buf.length - bufLen);
+        if (n < 0)
+            eof = true;
+        else
+            bufLen += n;
+        
+        return shift;
+    }
+    
+    
+    private int indexOf(char[] sep, int from, int to)
+    {
+        char c0 = sep[0];
+        int last = to - sep.length;
+        for (int i = from; i <= last; i++)
+        {
+            if (buf[i] == c0 && regionMatches(sep, i))
+                return i;
+        }
+        
+        return -1;
+    }
+    
+    
+    private boolean regionMatches(char[] sep, int offset)
+    {
+        for (int j = 0; j < sep.length; j++)
+        {
+            if (buf[offset + j] != sep[j])
+                return false;
+        }
+        
+        return true;
+    }
+    
+    
+    /*
+     * Parses an integer directly from the buffer
+     * Falls back to Integer.parseInt for anything else than ASCII digits
+     */
+    private int parseInt(int start, int end)
+    {
+        int i = start;
+        boolean neg = false;
+        if (i < end && (buf[i] == '-' || buf[i] == '+'))
+            neg = buf[i++] == '-';
+        
+        if (i == end || end - i > 9)
+            return Integer.parseInt(new String(buf, start, end - start));
+        
+        int val = 0;
+        for (; i < end; i++)
+        {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9)
+                return Integer.parseInt(new String(buf, start, end - start));
+            val = val*10 + d;
+        }
+        
+        return neg ? -val : val;
+    }
+    
+    
+    /*
+     * Parses a decimal number directly from the buffer
+     * Only simple decimal numbers whose mantissa and power of ten are both
+     * exactly representable are decoded here, since a single multiplication
+     * or division then gives the correctly rounded result. All other cases
+     * fall back to Double.parseDouble.
+     */
+    private double parseDouble(int start, int end)
+    {
+        int i = start;
+        boolean neg = false;
+        if (i < end && (buf[i] == '-' || buf[i] == '+'))
+            neg = buf[i++] == '-';
+        
+        long mantissa = 0;
+        int numDigits = 0;
+        int exp10 = 0;
+        boolean hasDigits = false;
+        boolean fraction = false;
+        
+        for (; i < end; i++)
+        {
+            char c = buf[i];
+            if (c >= '0' && c <= '9')
+            {
+                hasDigits = true;
+                if (mantissa != 0 || c != '0')
+                {
+                    if (++numDigits > MAX_FAST_DOUBLE_DIGITS)
+                        return Double.parseDouble(new String(buf, start, end - start));
+                    mantissa = mantissa*10 + (c - '0');
+                }
+                if (fraction)
+                    exp10--;
+            }
+            else if (c == '.' && !fraction)
+                fraction = true;
+            else
+                break;
+        }
+        
+        if (!hasDigits)
+            return Double.parseDouble(new String(buf, start, end - start));
+        
+        // exponent
+        if (i < end && (buf[i] == 'e' || buf[i] == 'E'))
+        {
+            i++;
+            boolean negExp = false;
+            if (i < end && (buf[i] == '-' || buf[i] == '+'))
+                negExp = buf[i++] == '-';
+            
+            int exp = 0;
+            int expStart = i;
+            for (; i < end && exp < 1000; i++)
+            {
+                int d = buf[i] - '0';
+                if (d < 0 || d > 9)
+                    break;
+                exp = exp*10 + d;
+            }
+            
+            if (i == expStart)
+                return Double.parseDouble(new String(buf, start, end - start));
+            exp10 += negExp ? -exp : exp;
+        }
+        
+        if (i != end || exp10 < -22 || exp10 > 22)
+            return Double.parseDouble(new String(buf, start, end - start));
+        
+        double val = (double)mantissa;
+        if (exp10 < 0)
+            val /= POW10[-exp10];
+        else
+            val *= POW10[exp10];
+        
+        return neg ? -val : val;
+    }
+    
+    
     @Override
     protected void init()
     {
         if (dataEncoding != null)
         {
-            this.tokenSep = ((TextEncoding)dataEncoding).getTokenSeparator();
+            this.tokenSep = ((TextEncoding)dataEncoding).getTokenSeparator().toCharArray();
             this.blockSep = ((TextEncoding)dataEncoding).getBlockSeparator().toCharArray();
             //this.decimalSep = ((TextEncoding)dataEncoding).getDecimalSeparator().charAt(0);
             this.collapseWhiteSpaces = ((TextEncoding)dataEncoding).getCollapseWhiteSpaces();
@@ -327,16 +608,19 @@ public class TextDataParser extends AbstractDataParser
     @Override
     protected boolean moreData() throws IOException
     {
-        String token = readToken();
-        tokenIndex--;
-        return !(token == null);
+        return moreTokens || readRecord();
     }
     
 
     @Override
     public void setInput(InputStream is) throws IOException
     {
-        this.reader = new InputStreamReader(is, StandardCharsets.UTF_8);     
+        this.reader = new InputStreamReader(is, StandardCharsets.UTF_8);
+        this.bufLen = 0;
+        this.bufPos = 0;
+        this.eof = false;
+        this.moreTokens = false;
+        this.recordsRead = false;
     }
     
 
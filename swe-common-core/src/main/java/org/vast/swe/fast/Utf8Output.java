@@ -0,0 +1,291 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.fast;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import org.vast.util.ShortestNumberFormat;
+
+
+/**
+ * <p>
+ * Buffered output encoding text directly to UTF-8 bytes, used by writers
+ * that bypass {@link java.io.Writer} and other text APIs.<br/>
+ * Numbers are formatted without creating intermediate strings and unpaired
+ * surrogates are replaced by '?' like the JDK encoder does.
+ * </p><p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class Utf8Output
+{
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    final OutputStream os;
+    final byte[] buf;
+    int pos;
+
+
+    public Utf8Output(OutputStream os)
+    {
+        this(os, DEFAULT_BUFFER_SIZE);
+    }
+
+
+    public Utf8Output(OutputStream os, int bufferSize)
+    {
+        this.os = os;
+        this.buf = new byte[Math.max(bufferSize, 64)];
+    }
+
+
+    final void ensureCapacity(int numBytes) throws IOException
+    {
+        if (pos + numBytes > buf.length)
+            flushBuffer();
+    }
+
+
+    public final void write(int b) throws IOException
+    {
+        if (pos == buf.length)
+            flushBuffer();
+        buf[pos++] = (byte)b;
+    }
+
+
+    public final void write(byte[] b) throws IOException
+    {
+        if (b.length > buf.length - pos)
+        {
+            flushBuffer();
+            if (b.length > buf.length)
+            {
+                os.write(b);
+                return;
+            }
+        }
+
+        System.arraycopy(b, 0, buf, pos, b.length);
+        pos += b.length;
+    }
+
+
+    /**
+     * Writes chars that are known to be ASCII
+     * @param chars
+     * @param off
+     * @param len
+     * @throws IOException
+     */
+    public final void writeAscii(char[] chars, int off, int len) throws IOException
+    {
+        ensureCapacity(len);
+        for (int i = off; i < off + len; i++)
+            buf[pos++] = (byte)chars[i];
+    }
+
+
+    /**
+     * Writes a string that is known to be ASCII
+     * @param s
+     * @throws IOException
+     */
+    public final void writeAscii(String s) throws IOException
+    {
+        ensureCapacity(s.length());
+        for (int i = 0; i < s.length(); i++)
+            buf[pos++] = (byte)s.charAt(i);
+    }
+
+
+    public final void writeInt(int val) throws IOException
+    {
+        ensureCapacity(11);
+        long v = val;
+        if (v < 0)
+        {
+            buf[pos++] = '-';
+            v = -v;
+        }
+
+        int numDigits = 1;
+        for (long p = 10; p <= v && numDigits < 10; p *= 10)
+            numDigits++;
+
+        int end = pos + numDigits;
+        for (int i = end - 1; i >= pos; i--)
+        {
+            buf[i] = (byte)('0' + v % 10);
+            v /= 10;
+        }
+        pos = end;
+    }
+
+
+    /**
+     * Writes a double value formatted like {@link Double#toString(double)}
+     * @param val
+     * @throws IOException
+     */
+    public final void writeDouble(double val) throws IOException
+    {
+        if (ShortestNumberFormat.MATCHES_JDK_FORMAT)
+        {
+            ensureCapacity(ShortestNumberFormat.MAX_LENGTH);
+            pos += ShortestNumberFormat.format(val, buf, pos);
+        }
+        else
+            writeAscii(Double.toString(val));
+    }
+
+
+    /**
+     * Writes a float value formatted like {@link Float#toString(float)}
+     * @param val
+     * @throws IOException
+     */
+    public final void writeFloat(float val) throws IOException
+    {
+        if (ShortestNumberFormat.MATCHES_JDK_FORMAT)
+        {
+            ensureCapacity(ShortestNumberFormat.MAX_LENGTH);
+            pos += ShortestNumberFormat.format(val, buf, pos);
+        }
+        else
+            writeAscii(Float.toString(val));
+    }
+
+
+    /**
+     * Writes part of a string as UTF-8, without escaping
+     * @param s
+     * @param start index of first char to write
+     * @param end index after last char to write
+     * @throws IOException
+     */
+    public final void writeUtf8(String s, int start, int end) throws IOException
+    {
+        for (int i = start; i < end; i++)
+        {
+            // 4 bytes is the max for a surrogate pair
+            if (pos + 4 > buf.length)
+                flushBuffer();
+
+            char c = s.charAt(i);
+            if (c < 0x80)
+                buf[pos++] = (byte)c;
+            else
+                i = writeNonAscii(c, s, i, end);
+        }
+    }
+
+
+    /**
+     * Writes a string as UTF-8, replacing ASCII chars by their escape
+     * sequence when there is one in the given table
+     * @param s
+     * @param escapes table of escape sequences, indexed by char code
+     * @throws IOException
+     */
+    public final void writeEscaped(String s, byte[][] escapes) throws IOException
+    {
+        int len = s.length();
+        for (int i = 0; i < len; i++)
+        {
+            char c = s.charAt(i);
+            if (c < 0x80)
+            {
+                byte[] escaped = c < escapes.length ? escapes[c] : null;
+                if (escaped == null)
+                    write(c);
+                else
+                    write(escaped);
+            }
+            else
+            {
+                if (pos + 4 > buf.length)
+                    flushBuffer();
+                i = writeNonAscii(c, s, i, len);
+            }
+        }
+    }
+
+
+    /*
+     * Encodes a non ASCII char (or surrogate pair) and returns the index of
+     * the last char consumed. Buffer must have at least 4 bytes available
+     */
+    final int writeNonAscii(char c, String s, int i, int end)
+    {
+        if (c < 0x800)
+        {
+            buf[pos++] = (byte)(0xc0 | (c >> 6));
+            buf[pos++] = (byte)(0x80 | (c & 0x3f));
+        }
+        else if (Character.isSurrogate(c))
+        {
+            if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1)))
+            {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte)(0xf0 | (cp >> 18));
+                buf[pos++] = (byte)(0x80 | ((cp >> 12) & 0x3f));
+                buf[pos++] = (byte)(0x80 | ((cp >> 6) & 0x3f));
+                buf[pos++] = (byte)(0x80 | (cp & 0x3f));
+            }
+            else
+                buf[pos++] = '?';
+        }
+        else
+        {
+            buf[pos++] = (byte)(0xe0 | (c >> 12));
+            buf[pos++] = (byte)(0x80 | ((c >> 6) & 0x3f));
+            buf[pos++] = (byte)(0x80 | (c & 0x3f));
+        }
+
+        return i;
+    }
+
+
+    /**
+     * Writes buffered bytes to the underlying stream, without flushing it
+     * @throws IOException
+     */
+    public final void flushBuffer() throws IOException
+    {
+        if (pos > 0)
+        {
+            os.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+
+    public void flush() throws IOException
+    {
+        flushBuffer();
+        os.flush();
+    }
+
+
+    public void close() throws IOException
+    {
+        flushBuffer();
+        os.close();
+    }
+}
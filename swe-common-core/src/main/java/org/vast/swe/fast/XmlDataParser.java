@@ -22,7 +22,7 @@ import org.codehaus.stax2.XMLInputFactory2;
 import org.codehaus.stax2.XMLStreamReader2;
 import org.vast.data.*;
 import org.vast.util.Asserts;
-import org.vast.util.DateTimeFormat;
+import org.vast.util.IsoDateTimeCodec;
 import org.vast.util.ReaderException;
 
 import javax.xml.stream.XMLInputFactory;
@@ -33,12 +33,24 @@ import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * <p>
+ * Parser for XML encoded records, reading directly from a StAX stream.<br/>
+ * Records are read from the child elements of a parent element, which is
+ * the element on which the provided StAX reader is positioned, or the root
+ * element of the document when the input is set with {@link #setInput(InputStream)}
+ * (unless the root element is itself the only record). Parsing stops on the
+ * end tag of the parent element.
+ * </p>
+ */
 public class XmlDataParser extends AbstractDataParser {
 
     protected XMLStreamReader2 xmlStreamReader;
 
     protected boolean multipleRecords;
 
+    protected int parentDepth = -1;
+
     protected Map<String, IntegerReader> countReaders = new HashMap<>();
 
     protected interface XmlAtomReader {
@@ -127,7 +139,7 @@ public class XmlDataParser extends AbstractDataParser {
 
 
     protected class IsoDateTimeReader extends ValueReader {
-        DateTimeFormat timeFormat = new DateTimeFormat();
+        IsoDateTimeCodec timeCodec = new IsoDateTimeCodec();
 
         public IsoDateTimeReader(String eltName) {
             this.eltName = eltName;
@@ -146,7 +158,7 @@ public class XmlDataParser extends AbstractDataParser {
                     val = Double.NEGATIVE_INFINITY;
                 else {
                     try {
-                        val = timeFormat.parseIso(str);
+                        val = timeCodec.parseIso(str);
                     } catch (Exception e) {
                         throw new ReaderException(e.getMessage());
                     }
@@ -222,12 +234,13 @@ public class XmlDataParser extends AbstractDataParser {
                 for (DataBlockProcessor.AtomProcessor p : fieldProcessors) {
                     if (p.isEnabled()) {
                         var expectedName = ((XmlAtomReader) p).getEltName();
-                        String actualName;
+                        String actualName = null;
                         do {
                             xmlStreamReader.next();
-                            actualName = xmlStreamReader.getLocalName();
-                        } while (!actualName.equals(expectedName) && xmlStreamReader.hasNext());
-                        if (!actualName.equals(expectedName))
+                            if (xmlStreamReader.isStartElement())
+                                actualName = xmlStreamReader.getLocalName();
+                        } while (!expectedName.equals(actualName) && xmlStreamReader.hasNext());
+                        if (!expectedName.equals(actualName))
                             throw new ReaderException("Expected field '" + expectedName + "' but was '" + actualName + "'");
                     }
 
@@ -501,6 +514,10 @@ public class XmlDataParser extends AbstractDataParser {
     }
 
 
+    /**
+     * @param xmlStreamReader StAX reader positioned on the start tag of the
+     * element containing the records
+     */
     public XmlDataParser(XMLStreamReader2 xmlStreamReader) {
         this.xmlStreamReader = xmlStreamReader;
     }
@@ -518,6 +535,7 @@ public class XmlDataParser extends AbstractDataParser {
         try {
             XMLInputFactory2 instance = (XMLInputFactory2) XMLInputFactory.newInstance();
             this.xmlStreamReader = (XMLStreamReader2) instance.createXMLStreamReader(is);
+            this.parentDepth = -1;
         } catch (XMLStreamException e) {
             throw new IOException(e);
         }
@@ -536,6 +554,15 @@ public class XmlDataParser extends AbstractDataParser {
         }
     }
 
+    @Override
+    public int parseNextBlocks(DataBlock batch) throws IOException {
+        try {
+            return super.parseNextBlocks(batch);
+        } catch (IllegalStateException e) {
+            throw new ReaderException(e);
+        }
+    }
+
 
     @Override
     public void close() throws IOException {
@@ -644,9 +671,39 @@ public class XmlDataParser extends AbstractDataParser {
     @Override
     protected boolean moreData() throws IOException {
         try {
-            return xmlStreamReader.getEventType() != XMLStreamConstants.END_DOCUMENT && xmlStreamReader.hasNext();
+            if (parentDepth < 0)
+                findParentElement();
+
+            // move to start tag of next record or stop on end tag of parent
+            while (true) {
+                int eventType = xmlStreamReader.getEventType();
+                if (eventType == XMLStreamConstants.START_ELEMENT && xmlStreamReader.getDepth() == parentDepth + 1)
+                    return true;
+                if (eventType == XMLStreamConstants.END_DOCUMENT ||
+                    (eventType == XMLStreamConstants.END_ELEMENT && xmlStreamReader.getDepth() <= parentDepth))
+                    return false;
+                xmlStreamReader.next();
+            }
         } catch (XMLStreamException e) {
             throw new IOException(e);
         }
     }
+
+
+    /*
+     * Finds the element whose children are the records
+     */
+    protected void findParentElement() throws XMLStreamException {
+        if (xmlStreamReader.getEventType() == XMLStreamConstants.START_DOCUMENT) {
+            xmlStreamReader.nextTag();
+
+            // root element can also be a single record
+            if (xmlStreamReader.getLocalName().equals(dataComponents.getName())) {
+                parentDepth = 0;
+                return;
+            }
+        }
+
+        parentDepth = xmlStreamReader.getDepth();
+    }
 }
@@ -16,6 +16,7 @@ package org.vast.swe.fast;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import javax.xml.stream.XMLOutputFactory;
@@ -24,7 +25,7 @@ import javax.xml.stream.XMLStreamWriter;
 import org.vast.data.AbstractArrayImpl;
 import org.vast.data.XMLEncodingImpl;
 import org.vast.swe.SWEDataTypeUtils;
-import org.vast.util.DateTimeFormat;
+import org.vast.util.IsoDateTimeCodec;
 import org.vast.util.WriterException;
 import com.ctc.wstx.api.WstxOutputProperties;
 import net.opengis.swe.v20.Boolean;
@@ -46,6 +47,13 @@ import net.opengis.swe.v20.Vector;
  * New implementation of XML data writer with better efficiency since the 
  * write tree is pre-computed during init instead of being re-evaluated
  * while iterating through the component tree.
+ * </p><p>
+ * In direct output mode (see {@link #setDirectOutput(boolean)}), tags are
+ * encoded once when the writer tree is built and values are written
+ * directly as UTF-8 bytes, bypassing the XMLStreamWriter.
+ * </p><p>
+ * If a namespace is set on the XML encoding without a prefix, the default
+ * namespace is declared on the root element of each record.
  * </p>
  *
  * @author Alex Robin
@@ -54,18 +62,76 @@ import net.opengis.swe.v20.Vector;
 public class XmlDataWriter extends AbstractDataWriter
 {
     static final String XML_ERROR = "Error writing XML stream for ";
+    static final String RECORDS_WRAPPER = "records";
+    static final byte[] TRUE = ascii("true");
+    static final byte[] FALSE = ascii("false");
+    static final byte[] NAN = ascii("NaN");
+    static final byte[] POS_INF = ascii("+INF");
+    static final byte[] NEG_INF = ascii("-INF");
+    static final byte[] AMP = ascii("&amp;");
+    static final byte[] LT = ascii("&lt;");
+    static final byte[] GT = ascii("&gt;");
+    static final byte[] CR = ascii("&#xd;");
+    static final byte[] ELT_COUNT_ATT = ascii(" " + AbstractArrayImpl.ELT_COUNT_NAME + "=\"");
     
     protected XMLStreamWriter xmlWriter;
     protected String namespace;
     protected String prefix;
     protected Map<String, IntegerWriter> countWriters = new HashMap<>();
+    protected boolean directOutput;
+    protected Utf8Output byteOut;
+    protected boolean startTagOpen;
+    protected ElementTags wrapperTags;
+    
+    
+    /*
+     * Element name and corresponding tags, pre-encoded for direct output.
+     * The start tag is not closed so attributes can be added
+     */
+    protected class ElementTags
+    {
+        final String eltName;
+        final boolean declareDefaultNs;
+        final byte[] startTag;
+        final byte[] endTag;
+        
+        public ElementTags(String eltName)
+        {
+            this.eltName = eltName;
+            
+            // default namespace is declared on root element of each record
+            this.declareDefaultNs = namespace != null && prefix == null && processorStack.isEmpty();
+            
+            String qName = eltName;
+            String nsDecl = "";
+            if (namespace != null)
+            {
+                if (prefix != null)
+                    qName = prefix + ":" + eltName;
+                else if (declareDefaultNs)
+                    nsDecl = " xmlns=\"" + namespace + "\"";
+            }
+            
+            this.startTag = ("<" + qName + nsDecl).getBytes(StandardCharsets.UTF_8);
+            this.endTag = ("</" + qName + ">").getBytes(StandardCharsets.UTF_8);
+        }
+        
+        public ElementTags(String eltName, byte[] startTag, byte[] endTag)
+        {
+            this.eltName = eltName;
+            this.declareDefaultNs = false;
+            this.startTag = startTag;
+            this.endTag = endTag;
+        }
+    }
 
     
     protected abstract class ValueWriter extends BaseProcessor
     {
         String eltName;
+        ElementTags tags;
         
-        public abstract void writeValue(DataBlock data, int index) throws XMLStreamException;
+        public abstract void writeValue(DataBlock data, int index) throws XMLStreamException, IOException;
         
         @Override
         public int process(DataBlock data, int index) throws IOException
@@ -74,9 +140,12 @@ public class XmlDataWriter extends AbstractDataWriter
             {
                 if (enabled)
                 {
-                    writeStartElement(eltName);
+                    // range bounds have no name and are written without tags
+                    if (eltName != null)
+                        writeStartElement(tags);
                     writeValue(data, index);
-                    xmlWriter.writeEndElement();
+                    if (eltName != null)
+                        writeEndElement(tags);
                 }
                 
                 return ++index;
@@ -94,13 +163,20 @@ public class XmlDataWriter extends AbstractDataWriter
         public BooleanWriter(String eltName)
         {
             this.eltName = eltName;
+            this.tags = new ElementTags(eltName);
         }
         
         @Override
-        public void writeValue(DataBlock data, int index) throws XMLStreamException
+        public void writeValue(DataBlock data, int index) throws XMLStreamException, IOException
         {
             boolean val = data.getBooleanValue(index);
-            xmlWriter.writeCharacters(java.lang.Boolean.toString(val));
+            if (directOutput)
+            {
+                closeStartTag();
+                byteOut.write(val ? TRUE : FALSE);
+            }
+            else
+                xmlWriter.writeCharacters(java.lang.Boolean.toString(val));
         }
     }
     
@@ -112,13 +188,20 @@ public class XmlDataWriter extends AbstractDataWriter
         public IntegerWriter(String eltName)
         {
             this.eltName = eltName;
+            this.tags = new ElementTags(eltName);
         }
         
         @Override
-        public void writeValue(DataBlock data, int index) throws XMLStreamException
+        public void writeValue(DataBlock data, int index) throws XMLStreamException, IOException
         {
             val = data.getIntValue(index);
-            xmlWriter.writeCharacters(Integer.toString(val));
+            if (directOutput)
+            {
+                closeStartTag();
+                byteOut.writeInt(val);
+            }
+            else
+                xmlWriter.writeCharacters(Integer.toString(val));
         }
     }
     
@@ -128,13 +211,27 @@ public class XmlDataWriter extends AbstractDataWriter
         public DecimalWriter(String eltName)
         {
             this.eltName = eltName;
+            this.tags = new ElementTags(eltName);
         }
         
         @Override
-        public void writeValue(DataBlock data, int index) throws XMLStreamException
+        public void writeValue(DataBlock data, int index) throws XMLStreamException, IOException
         {
             double val = data.getDoubleValue(index);
-            xmlWriter.writeCharacters(SWEDataTypeUtils.getDoubleOrInfAsString(val));
+            if (directOutput)
+            {
+                closeStartTag();
+                if (Double.isNaN(val))
+                    byteOut.write(NAN);
+                else if (val == Double.POSITIVE_INFINITY)
+                    byteOut.write(POS_INF);
+                else if (val == Double.NEGATIVE_INFINITY)
+                    byteOut.write(NEG_INF);
+                else
+                    byteOut.writeDouble(val);
+            }
+            else
+                xmlWriter.writeCharacters(SWEDataTypeUtils.getDoubleOrInfAsString(val));
         }
     }
     
@@ -150,18 +247,27 @@ public class XmlDataWriter extends AbstractDataWriter
     
     protected class IsoDateTimeWriter extends ValueWriter
     {
-        DateTimeFormat timeFormat = new DateTimeFormat();
+        IsoDateTimeCodec timeCodec = new IsoDateTimeCodec();
+        char[] buf = new char[IsoDateTimeCodec.MAX_ISO_LENGTH];
         
         public IsoDateTimeWriter(String eltName)
         {
             this.eltName = eltName;
+            this.tags = new ElementTags(eltName);
         }
         
         @Override
-        public void writeValue(DataBlock data, int index) throws XMLStreamException
+        public void writeValue(DataBlock data, int index) throws XMLStreamException, IOException
         {
             double val = data.getDoubleValue(index);
-            xmlWriter.writeCharacters(timeFormat.formatIso(val, 0));
+            int len = timeCodec.format(val, 0, buf, 0);
+            if (directOutput)
+            {
+                closeStartTag();
+                byteOut.writeAscii(buf, 0, len);
+            }
+            else
+                xmlWriter.writeCharacters(buf, 0, len);
         }
     }
     
@@ -171,13 +277,17 @@ public class XmlDataWriter extends AbstractDataWriter
         public StringWriter(String eltName)
         {
             this.eltName = eltName;
+            this.tags = new ElementTags(eltName);
         }
         
         @Override
-        public void writeValue(DataBlock data, int index) throws XMLStreamException
+        public void writeValue(DataBlock data, int index) throws XMLStreamException, IOException
         {
             String val = data.getStringValue(index);
-            xmlWriter.writeCharacters(val);
+            if (directOutput)
+                writeEscapedText(val);
+            else
+                xmlWriter.writeCharacters(val);
         }
     }
     
@@ -185,10 +295,12 @@ public class XmlDataWriter extends AbstractDataWriter
     protected class RangeWriter extends RecordProcessor
     {
         String eltName;
+        ElementTags tags;
         
         public RangeWriter(String eltName)
         {
             this.eltName = eltName;
+            this.tags = new ElementTags(eltName);
         }
         
         @Override
@@ -197,17 +309,25 @@ public class XmlDataWriter extends AbstractDataWriter
             try
             {
                 if (enabled)
-                    writeStartElement(eltName);
+                    writeStartElement(tags);
                 
                 fieldProcessors.get(0).process(data, index++);
                 
                 if (enabled)
-                    xmlWriter.writeCharacters(" ");
+                {
+                    if (directOutput)
+                    {
+                        closeStartTag();
+                        byteOut.write(' ');
+                    }
+                    else
+                        xmlWriter.writeCharacters(" ");
+                }
                 
                 fieldProcessors.get(1).process(data, index++);
                 
                 if (enabled)
-                    xmlWriter.writeEndElement();
+                    writeEndElement(tags);
                 
                 return index;
             }
@@ -222,10 +342,12 @@ public class XmlDataWriter extends AbstractDataWriter
     protected class RecordWriter extends RecordProcessor
     {
         String eltName;
+        ElementTags tags;
         
         public RecordWriter(String eltName)
         {
             this.eltName = eltName;
+            this.tags = new ElementTags(eltName);
         }
         
         @Override
@@ -234,12 +356,12 @@ public class XmlDataWriter extends AbstractDataWriter
             try
             {
                 if (enabled)
-                    writeStartElement(eltName);
+                    writeStartElement(tags);
                 
                 int newIndex = super.process(data, index);
                 
                 if (enabled)
-                    xmlWriter.writeEndElement();
+                    writeEndElement(tags);
                 
                 return newIndex;
             }
@@ -254,10 +376,12 @@ public class XmlDataWriter extends AbstractDataWriter
     protected class ChoiceWriter extends ChoiceProcessor
     {
         String eltName;
+        ElementTags tags;
         
         public ChoiceWriter(String eltName)
         {
             this.eltName = eltName;
+            this.tags = new ElementTags(eltName);
         }
         
         @Override
@@ -268,12 +392,12 @@ public class XmlDataWriter extends AbstractDataWriter
             try
             {
                 if (enabled)
-                    writeStartElement(eltName);
+                    writeStartElement(tags);
                 
                 int newIndex = super.process(data, ++index, selectedIndex);
                 
                 if (enabled)
-                    xmlWriter.writeEndElement();
+                    writeEndElement(tags);
                 
                 return newIndex;
             }
@@ -288,10 +412,12 @@ public class XmlDataWriter extends AbstractDataWriter
     protected class ArrayWriter extends ArrayProcessor
     {
         String eltName;
+        ElementTags tags;
         
         public ArrayWriter(String eltName)
         {
             this.eltName = eltName;
+            this.tags = new ElementTags(eltName);
         }
         
         @Override
@@ -300,17 +426,26 @@ public class XmlDataWriter extends AbstractDataWriter
             try
             {
                 if (enabled)
-                    writeStartElement(eltName);
+                    writeStartElement(tags);
                 
                 int arraySize = getArraySize();
                 if (enabled)
-                    xmlWriter.writeAttribute(AbstractArrayImpl.ELT_COUNT_NAME, Integer.toString(arraySize));
+                {
+                    if (directOutput)
+                    {
+                        byteOut.write(ELT_COUNT_ATT);
+                        byteOut.writeInt(arraySize);
+                        byteOut.write('"');
+                    }
+                    else
+                        xmlWriter.writeAttribute(AbstractArrayImpl.ELT_COUNT_NAME, Integer.toString(arraySize));
+                }
                 
                 for (int i = 0; i < arraySize; i++)
                     index = eltProcessor.process(data, index);
                 
                 if (enabled)
-                    xmlWriter.writeEndElement();
+                    writeEndElement(tags);
                 
                 return index;
             }
@@ -322,14 +457,113 @@ public class XmlDataWriter extends AbstractDataWriter
     }
     
     
+    protected void writeStartElement(ElementTags tags) throws XMLStreamException, IOException
+    {
+        if (directOutput)
+        {
+            closeStartTag();
+            byteOut.write(tags.startTag);
+            startTagOpen = true;
+        }
+        else
+        {
+            writeStartElement(tags.eltName);
+            if (tags.declareDefaultNs)
+                xmlWriter.writeDefaultNamespace(namespace);
+        }
+    }
+    
+    
+    protected void writeEndElement(ElementTags tags) throws XMLStreamException, IOException
+    {
+        if (directOutput)
+        {
+            // write empty element if there was no content, like XMLStreamWriter does
+            if (startTagOpen)
+            {
+                byteOut.write('/');
+                byteOut.write('>');
+                startTagOpen = false;
+            }
+            else
+                byteOut.write(tags.endTag);
+        }
+        else
+            xmlWriter.writeEndElement();
+    }
+    
+    
+    /*
+     * Closes the last start tag before writing content in direct output mode
+     */
+    protected final void closeStartTag() throws IOException
+    {
+        if (startTagOpen)
+        {
+            byteOut.write('>');
+            startTagOpen = false;
+        }
+    }
+    
+    
+    /*
+     * Writes text content in direct output mode, escaping chars the same way
+     * the XMLStreamWriter does ('>' is only escaped when it could be part of
+     * a CDATA end marker, and CR is escaped so it is not normalized on read)
+     */
+    protected void writeEscapedText(String text) throws IOException
+    {
+        closeStartTag();
+        if (text == null)
+            return;
+        
+        int len = text.length();
+        int start = 0;
+        for (int i = 0; i < len; i++)
+        {
+            char c = text.charAt(i);
+            if (c > '>')
+                continue;
+            
+            byte[] escaped = null;
+            if (c == '&')
+                escaped = AMP;
+            else if (c == '<')
+                escaped = LT;
+            else if (c == '>')
+            {
+                if (i == 0 || text.charAt(i-1) == ']')
+                    escaped = GT;
+            }
+            else if (c == '\r')
+                escaped = CR;
+            else if (c < 0x20 && c != '\n' && c != '\t')
+                throw new WriterException("Invalid white space character (0x" + Integer.toHexString(c) + ") in text to output");
+            
+            if (escaped != null)
+            {
+                byteOut.writeUtf8(text, start, i);
+                byteOut.write(escaped);
+                start = i + 1;
+            }
+        }
+        
+        byteOut.writeUtf8(text, start, len);
+    }
+    
+    
+    static byte[] ascii(String s)
+    {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+    
+    
     protected void writeStartElement(String eltName) throws XMLStreamException
     {
         if (namespace != null)
         {
-            if (prefix != null)
-                xmlWriter.writeStartElement(prefix, eltName, namespace);
-            else
-                xmlWriter.writeStartElement(namespace, eltName);
+            // namespace is never bound in writer context so always provide prefix
+            xmlWriter.writeStartElement(prefix != null ? prefix : "", eltName, namespace);
         }
         else
             xmlWriter.writeStartElement(eltName);
@@ -344,9 +578,31 @@ public class XmlDataWriter extends AbstractDataWriter
     }
     
     
+    /**
+     * Enables or disables direct output mode, where tags and values are
+     * written directly as UTF-8 bytes instead of going through an XMLStreamWriter.
+     * Output is byte for byte the same in both modes.<br/>
+     * This must be called before {@link #setOutput(OutputStream)}.
+     * @param directOutput true to enable direct output mode
+     */
+    public void setDirectOutput(boolean directOutput)
+    {
+        this.directOutput = directOutput;
+        this.processorTreeReady = false;
+    }
+    
+    
     @Override
     public void setOutput(OutputStream os) throws IOException
     {
+        if (directOutput)
+        {
+            byteOut = new Utf8Output(os);
+            xmlWriter = null;
+            startTagOpen = false;
+            return;
+        }
+        
         try
         {
             XMLOutputFactory factory = XMLOutputFactory.newInstance();
@@ -367,7 +623,14 @@ public class XmlDataWriter extends AbstractDataWriter
         try
         {
             super.write(data);
-            xmlWriter.writeCharacters("\n");
+            
+            if (directOutput)
+            {
+                closeStartTag();
+                byteOut.write('\n');
+            }
+            else
+                xmlWriter.writeCharacters("\n");
         }
         catch (XMLStreamException e)
         {
@@ -382,7 +645,16 @@ public class XmlDataWriter extends AbstractDataWriter
         try
         {
             if (addWrapper)
-                xmlWriter.writeStartElement("records");
+            {
+                if (directOutput)
+                {
+                    // wrapper element is never qualified
+                    wrapperTags = new ElementTags(RECORDS_WRAPPER, ascii("<" + RECORDS_WRAPPER), ascii("</" + RECORDS_WRAPPER + ">"));
+                    writeStartElement(wrapperTags);
+                }
+                else
+                    xmlWriter.writeStartElement(RECORDS_WRAPPER);
+            }
         }
         catch (XMLStreamException e)
         {
@@ -396,7 +668,14 @@ public class XmlDataWriter extends AbstractDataWriter
     {
         try
         {
-            xmlWriter.writeEndDocument();
+            if (directOutput)
+            {
+                if (wrapperTags != null)
+                    writeEndElement(wrapperTags);
+                wrapperTags = null;
+            }
+            else
+                xmlWriter.writeEndDocument();
         }
         catch (XMLStreamException e)
         {
@@ -410,6 +689,8 @@ public class XmlDataWriter extends AbstractDataWriter
     {
         try
         {
+            if (byteOut != null)
+                byteOut.flush();
             if (xmlWriter != null)
                 xmlWriter.flush();
         }
@@ -425,6 +706,8 @@ public class XmlDataWriter extends AbstractDataWriter
     {
         try
         {
+            if (byteOut != null)
+                byteOut.close();
             if (xmlWriter != null)
                 xmlWriter.close();
         }
@@ -0,0 +1,429 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.util;
+
+import java.text.ParseException;
+
+
+/**
+ * <p>
+ * Fast ISO 8601 date/time codec that parses and formats time stamps
+ * without allocating objects, for use by data stream parsers and writers.
+ * </p><p>
+ * Results are identical to {@link DateTimeFormat#parseIso(String)} and
+ * {@link DateTimeFormat#formatIso(double, int)}. Common forms are handled
+ * directly (i.e. yyyy-MM-dd['T'HH:mm[:ss[.S]]] followed by Z or +/-HH:mm,
+ * with years 0000 to 9999) and other forms are delegated to
+ * {@link DateTimeFormat}.<br/>
+ * The date part of the last time stamp is cached so that consecutive
+ * time stamps on the same day are processed faster.
+ * </p><p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class IsoDateTimeCodec
+{
+    /**
+     * Maximum number of chars written by the format methods
+     */
+    public static final int MAX_ISO_LENGTH = 64;
+
+    static final int DATE_LENGTH = 10;
+    static final long MIN_EPOCH_DAY = epochDay(0, 1, 1);
+    static final long MAX_EPOCH_DAY = epochDay(9999, 12, 31);
+
+    final DateTimeFormat fallbackFormat = new DateTimeFormat();
+    final CharArraySequence charView = new CharArraySequence();
+    final ByteArraySequence byteView = new ByteArraySequence();
+
+    // parse cache
+    final char[] parsedDate = new char[DATE_LENGTH];
+    long parsedEpochDay = Long.MIN_VALUE;
+
+    // format cache
+    final char[] formattedDate = new char[DATE_LENGTH];
+    long formattedEpochDay = Long.MIN_VALUE;
+
+
+    /*
+     * Mutable char sequence views used to parse from arrays without copying
+     */
+    static final class CharArraySequence implements CharSequence
+    {
+        char[] buf;
+
+        @Override
+        public int length()
+        {
+            return buf.length;
+        }
+
+        @Override
+        public char charAt(int index)
+        {
+            return buf[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end)
+        {
+            return new String(buf, start, end - start);
+        }
+    }
+
+
+    static final class ByteArraySequence implements CharSequence
+    {
+        byte[] buf;
+
+        @Override
+        public int length()
+        {
+            return buf.length;
+        }
+
+        @Override
+        public char charAt(int index)
+        {
+            return (char)(buf[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end)
+        {
+            StringBuilder sb = new StringBuilder(end - start);
+            for (int i = start; i < end; i++)
+                sb.append(charAt(i));
+            return sb.toString();
+        }
+    }
+
+
+    /**
+     * Parses an ISO 8601 date/time string
+     * @param iso8601 ISO string
+     * @return unix/julian time stamp
+     * @throws ParseException if the string is not a valid ISO 8601 date/time
+     */
+    public double parseIso(String iso8601) throws ParseException
+    {
+        double val = parse(iso8601, 0, iso8601.length());
+        if (Double.isNaN(val))
+            val = fallbackFormat.parseIso(iso8601);
+        return val;
+    }
+
+
+    /**
+     * Parses an ISO 8601 date/time from a region of a char sequence
+     * @param s char sequence containing the ISO string
+     * @param start index of first char
+     * @param end index of the char following the last char
+     * @return unix/julian time stamp or NaN if the region doesn't contain
+     * one of the forms supported by this codec
+     */
+    public double parse(CharSequence s, int start, int end)
+    {
+        int len = end - start;
+        if (len < DATE_LENGTH+1 || s.charAt(start+4) != '-' || s.charAt(start+7) != '-')
+            return Double.NaN;
+
+        long epochDay = parseDate(s, start);
+        if (epochDay == Long.MIN_VALUE)
+            return Double.NaN;
+
+        int i = start + DATE_LENGTH;
+        int hour = 0, minute = 0, second = 0, nanos = 0;
+        if (s.charAt(i) == 'T')
+        {
+            if (end - i < 7 || s.charAt(i+3) != ':')
+                return Double.NaN;
+
+            hour = parseDigits(s, i+1, 2);
+            minute = parseDigits(s, i+4, 2);
+            i += 6;
+
+            if (i < end && s.charAt(i) == ':')
+            {
+                if (end - i < 3)
+                    return Double.NaN;
+                second = parseDigits(s, i+1, 2);
+                i += 3;
+
+                if (i < end && s.charAt(i) == '.')
+                {
+                    int scale = 100000000;
+                    int fracStart = ++i;
+                    for (; i < end && i - fracStart < 9; i++)
+                    {
+                        int d = s.charAt(i) - '0';
+                        if (d < 0 || d > 9)
+                            break;
+                        nanos += d*scale;
+                        scale /= 10;
+                    }
+
+                    if (i == fracStart)
+                        return Double.NaN;
+                }
+            }
+
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59)
+                return Double.NaN;
+        }
+
+        // time zone offset
+        int offsetSeconds;
+        if (i == end-1 && s.charAt(i) == 'Z')
+            offsetSeconds = 0;
+        else if (i == end-6 && (s.charAt(i) == '+' || s.charAt(i) == '-') && s.charAt(i+3) == ':')
+        {
+            int offsetHours = parseDigits(s, i+1, 2);
+            int offsetMinutes = parseDigits(s, i+4, 2);
+            if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59)
+                return Double.NaN;
+            offsetSeconds = offsetHours*3600 + offsetMinutes*60;
+            if (offsetSeconds > 18*3600)
+                return Double.NaN;
+            if (s.charAt(i) == '-')
+                offsetSeconds = -offsetSeconds;
+        }
+        else
+            return Double.NaN;
+
+        long epochSeconds = epochDay*86400L + hour*3600 + minute*60 + second - offsetSeconds;
+        return epochSeconds + nanos/1e9;
+    }
+
+
+    /**
+     * Parses an ISO 8601 date/time from a region of a char array
+     * @see #parse(CharSequence, int, int)
+     */
+    public double parse(char[] buf, int start, int end)
+    {
+        charView.buf = buf;
+        return parse(charView, start, end);
+    }
+
+
+    /**
+     * Parses an ISO 8601 date/time from a region of an ASCII or UTF-8 encoded byte array
+     * @see #parse(CharSequence, int, int)
+     */
+    public double parse(byte[] buf, int start, int end)
+    {
+        byteView.buf = buf;
+        return parse(byteView, start, end);
+    }
+
+
+    /*
+     * Parses yyyy-MM-dd and returns the epoch day or Long.MIN_VALUE if invalid
+     */
+    protected long parseDate(CharSequence s, int start)
+    {
+        // reuse epoch day if date is the same as last time
+        if (parsedEpochDay != Long.MIN_VALUE)
+        {
+            int i = 0;
+            while (i < DATE_LENGTH && s.charAt(start+i) == parsedDate[i])
+                i++;
+            if (i == DATE_LENGTH)
+                return parsedEpochDay;
+        }
+
+        int year = parseDigits(s, start, 4);
+        int month = parseDigits(s, start+5, 2);
+        int day = parseDigits(s, start+8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month))
+            return Long.MIN_VALUE;
+
+        for (int i = 0; i < DATE_LENGTH; i++)
+            parsedDate[i] = s.charAt(start+i);
+        parsedEpochDay = epochDay(year, month, day);
+        return parsedEpochDay;
+    }
+
+
+    /*
+     * Parses a fixed number of ASCII digits, returning -1 if not all are digits
+     */
+    static int parseDigits(CharSequence s, int offset, int numDigits)
+    {
+        int val = 0;
+        for (int i = offset; i < offset + numDigits; i++)
+        {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9)
+                return -1;
+            val = val*10 + d;
+        }
+
+        return val;
+    }
+
+
+    /**
+     * Formats a julian time to ISO 8601 standard
+     * @param julianTime Julian time with 1970 base
+     * @param timeZone time zone to use in the ISO string
+     * @return ISO string representing the date/time
+     */
+    public String formatIso(double julianTime, int timeZone)
+    {
+        char[] buf = new char[MAX_ISO_LENGTH];
+        int len = format(julianTime, timeZone, buf, 0);
+        return new String(buf, 0, len);
+    }
+
+
+    /**
+     * Formats a julian time to ISO 8601 standard in the provided buffer
+     * @param julianTime Julian time with 1970 base
+     * @param timeZone time zone to use in the ISO string
+     * @param buf destination buffer, must have at least {@link #MAX_ISO_LENGTH}
+     * chars available after the offset
+     * @param offset index where the first char is written
+     * @return number of chars written
+     */
+    public int format(double julianTime, int timeZone, char[] buf, int offset)
+    {
+        // compute seconds and nanos exactly like DateTimeFormat
+        long epochSeconds = (long)julianTime;
+        int nanoAdj = (int)((julianTime*1000. - epochSeconds*1000L)*1e6);
+        long seconds = epochSeconds + Math.floorDiv(nanoAdj, 1000000000);
+        int nanos = Math.floorMod(nanoAdj, 1000000000);
+
+        long localSeconds = seconds + timeZone*3600L;
+        long epochDay = Math.floorDiv(localSeconds, 86400);
+
+        // use full formatter for special cases
+        if (Math.abs(timeZone) > 18 || epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY)
+        {
+            String iso = fallbackFormat.formatIso(julianTime, timeZone);
+            iso.getChars(0, iso.length(), buf, offset);
+            return iso.length();
+        }
+
+        int pos = offset;
+
+        // date
+        if (epochDay != formattedEpochDay)
+            formatDate(epochDay);
+        System.arraycopy(formattedDate, 0, buf, pos, DATE_LENGTH);
+        pos += DATE_LENGTH;
+
+        // time
+        int secOfDay = Math.floorMod(localSeconds, 86400);
+        buf[pos++] = 'T';
+        pos = write2Digits(secOfDay / 3600, buf, pos);
+        buf[pos++] = ':';
+        pos = write2Digits((secOfDay / 60) % 60, buf, pos);
+        buf[pos++] = ':';
+        pos = write2Digits(secOfDay % 60, buf, pos);
+
+        // fraction of seconds without trailing zeros
+        if (nanos > 0)
+        {
+            buf[pos++] = '.';
+            int div = 100000000;
+            while (nanos > 0)
+            {
+                buf[pos++] = (char)('0' + nanos / div);
+                nanos %= div;
+                div /= 10;
+            }
+        }
+
+        // time zone offset
+        if (timeZone == 0)
+            buf[pos++] = 'Z';
+        else
+        {
+            buf[pos++] = timeZone < 0 ? '-' : '+';
+            pos = write2Digits(Math.abs(timeZone), buf, pos);
+            buf[pos++] = ':';
+            buf[pos++] = '0';
+            buf[pos++] = '0';
+        }
+
+        return pos - offset;
+    }
+
+
+    /*
+     * Converts epoch day to yyyy-MM-dd and store it in the cache
+     */
+    protected void formatDate(long epochDay)
+    {
+        // inverse of epochDay() computation
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era*146097;
+        long yoe = (doe - doe/1460 + doe/36524 - doe/146096) / 365;
+        long doy = doe - (365*yoe + yoe/4 - yoe/100);
+        long mp = (5*doy + 2)/153;
+        int day = (int)(doy - (153*mp + 2)/5 + 1);
+        int month = (int)(mp < 10 ? mp + 3 : mp - 9);
+        int year = (int)(yoe + era*400 + (month <= 2 ? 1 : 0));
+
+        char[] buf = formattedDate;
+        buf[0] = (char)('0' + year / 1000);
+        buf[1] = (char)('0' + (year / 100) % 10);
+        write2Digits(year % 100, buf, 2);
+        buf[4] = '-';
+        write2Digits(month, buf, 5);
+        buf[7] = '-';
+        write2Digits(day, buf, 8);
+        formattedEpochDay = epochDay;
+    }
+
+
+    static int write2Digits(int val, char[] buf, int pos)
+    {
+        buf[pos++] = (char)('0' + val / 10);
+        buf[pos++] = (char)('0' + val % 10);
+        return pos;
+    }
+
+
+    static int lengthOfMonth(int year, int month)
+    {
+        if (month == 2)
+            return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+        else if (month == 4 || month == 6 || month == 9 || month == 11)
+            return 30;
+        else
+            return 31;
+    }
+
+
+    /*
+     * Computes number of days since 1970-01-01 in the proleptic gregorian calendar
+     */
+    static long epochDay(int year, int month, int day)
+    {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era*400;
+        long doy = (153*(month + (month > 2 ? -3 : 9)) + 2)/5 + day - 1;
+        long doe = yoe*365 + yoe/4 - yoe/100 + doy;
+        return era*146097 + doe - 719468;
+    }
+}
@@ -0,0 +1,449 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.util;
+
+import java.math.BigInteger;
+
+
+/**
+ * <p>
+ * Formats double and float values to ASCII bytes using the shortest decimal
+ * representation that rounds back to the same value, without allocating
+ * any object.
+ * </p><p>
+ * Digits are computed with the Schubfach algorithm (R. Giulietti, "The
+ * Schubfach way to render doubles", 2020), and the layout follows the rules
+ * of {@link Double#toString(double)} and {@link Float#toString(float)}.
+ * Output is thus identical to these methods on Java 19+ (see
+ * {@link #MATCHES_JDK_FORMAT}), whereas older versions sometimes output more
+ * digits than necessary (e.g. 9.999999999999999E22 instead of 1.0E23).
+ * </p>
+ *
+ * @author Alex Robin
+ * @since Oct 18, 2026
+ */
+public class ShortestNumberFormat
+{
+    /**
+     * Maximum number of bytes written by the format methods
+     */
+    public static final int MAX_LENGTH = 24;
+
+    /**
+     * True if the JDK toString methods produce the same output as this class
+     */
+    public static final boolean MATCHES_JDK_FORMAT = Runtime.version().feature() >= 19;
+
+    // double constants
+    static final int D_P = 53;
+    static final int D_Q_MIN = -1074;
+    static final long D_C_MIN = 1L << (D_P - 1);
+    static final long D_T_MASK = D_C_MIN - 1;
+    static final int D_C_TINY = 3;
+
+    // float constants
+    static final int F_P = 24;
+    static final int F_Q_MIN = -149;
+    static final int F_C_MIN = 1 << (F_P - 1);
+    static final int F_T_MASK = F_C_MIN - 1;
+    static final int F_C_TINY = 8;
+
+    static final long MASK_63 = (1L << 63) - 1;
+    static final long MASK_32 = (1L << 32) - 1;
+
+    // 126-bit approximations of powers of ten, split in 2 x 63 bits
+    static final int K_MIN = -324;
+    static final int K_MAX = 292;
+    static final long[] G = new long[2 * (K_MAX - K_MIN + 1)];
+
+    static
+    {
+        // g = floor(10^-k * 2^-r) + 1, with r such that 2^125 <= g < 2^126
+        for (int k = K_MIN; k <= K_MAX; k++)
+        {
+            BigInteger g;
+            if (k <= 0)
+            {
+                BigInteger p = BigInteger.TEN.pow(-k);
+                int shift = p.bitLength() - 126;
+                g = shift > 0 ? p.shiftRight(shift) : p.shiftLeft(-shift);
+            }
+            else
+            {
+                BigInteger p = BigInteger.TEN.pow(k);
+                g = BigInteger.ONE.shiftLeft(p.bitLength() + 125).divide(p);
+            }
+
+            g = g.add(BigInteger.ONE);
+            int i = (k - K_MIN) << 1;
+            G[i] = g.shiftRight(63).longValue();
+            G[i+1] = g.longValue() & MASK_63;
+        }
+    }
+
+    static final byte[] NAN = {'N', 'a', 'N'};
+    static final byte[] POS_INF = {'I', 'n', 'f', 'i', 'n', 'i', 't', 'y'};
+    static final byte[] NEG_INF = {'-', 'I', 'n', 'f', 'i', 'n', 'i', 't', 'y'};
+    static final byte[] POS_ZERO = {'0', '.', '0'};
+    static final byte[] NEG_ZERO = {'-', '0', '.', '0'};
+
+
+    private ShortestNumberFormat()
+    {
+    }
+
+
+    /**
+     * Writes the shortest decimal representation of a double value
+     * @param v value to format
+     * @param buf destination buffer, with at least {@link #MAX_LENGTH} bytes
+     * available after offset
+     * @param offset offset where to start writing in buffer
+     * @return the number of bytes written
+     */
+    public static int format(double v, byte[] buf, int offset)
+    {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & D_T_MASK;
+        int bq = (int)(bits >>> (D_P - 1)) & 0x7ff;
+        if (bq == 0x7ff)
+            return copy(t != 0 ? NAN : bits > 0 ? POS_INF : NEG_INF, buf, offset);
+
+        int pos = offset;
+        if (bits < 0)
+            buf[pos++] = '-';
+
+        if (bq != 0)
+        {
+            // normal value
+            int mq = -D_Q_MIN + 1 - bq;
+            long c = D_C_MIN | t;
+
+            // fast path for integers
+            if (0 < mq && mq < D_P)
+            {
+                long f = c >> mq;
+                if (f << mq == c)
+                    return writeDecimal(f, 0, buf, pos) - offset;
+            }
+
+            return toDecimal(-mq, c, 0, buf, pos) - offset;
+        }
+
+        if (t != 0)
+        {
+            // subnormal value
+            if (t < D_C_TINY)
+                return toDecimal(D_Q_MIN, 10 * t, -1, buf, pos) - offset;
+            return toDecimal(D_Q_MIN, t, 0, buf, pos) - offset;
+        }
+
+        return copy(bits == 0 ? POS_ZERO : NEG_ZERO, buf, offset);
+    }
+
+
+    /**
+     * Writes the shortest decimal representation of a float value
+     * @param v value to format
+     * @param buf destination buffer, with at least {@link #MAX_LENGTH} bytes
+     * available after offset
+     * @param offset offset where to start writing in buffer
+     * @return the number of bytes written
+     */
+    public static int format(float v, byte[] buf, int offset)
+    {
+        int bits = Float.floatToRawIntBits(v);
+        int t = bits & F_T_MASK;
+        int bq = (bits >>> (F_P - 1)) & 0xff;
+        if (bq == 0xff)
+            return copy(t != 0 ? NAN : bits > 0 ? POS_INF : NEG_INF, buf, offset);
+
+        int pos = offset;
+        if (bits < 0)
+            buf[pos++] = '-';
+
+        if (bq != 0)
+        {
+            // normal value
+            int mq = -F_Q_MIN + 1 - bq;
+            int c = F_C_MIN | t;
+
+            // fast path for integers
+            if (0 < mq && mq < F_P)
+            {
+                int f = c >> mq;
+                if (f << mq == c)
+                    return writeDecimal(f, 0, buf, pos) - offset;
+            }
+
+            return toDecimal(-mq, c, 0, buf, pos) - offset;
+        }
+
+        if (t != 0)
+        {
+            // subnormal value
+            if (t < F_C_TINY)
+                return toDecimal(F_Q_MIN, 10 * t, -1, buf, pos) - offset;
+            return toDecimal(F_Q_MIN, t, 0, buf, pos) - offset;
+        }
+
+        return copy(bits == 0 ? POS_ZERO : NEG_ZERO, buf, offset);
+    }
+
+
+    /*
+     * Computes the shortest decimal in the rounding interval of c*2^q
+     */
+    static int toDecimal(int q, long c, int dk, byte[] buf, int pos)
+    {
+        int out = (int)c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+
+        // the rounding interval is asymmetric at powers of two
+        if (c != D_C_MIN || q == D_Q_MIN)
+        {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        }
+        else
+        {
+            cbl = cb - 1;
+            k = flog10ThreeQuartersPow2(q);
+        }
+
+        int h = q + flog2pow10(-k) + 2;
+        int gi = (k - K_MIN) << 1;
+        long g1 = G[gi];
+        long g0 = G[gi+1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        // try with one digit less first
+        long s = vb >> 2;
+        if (s >= 100)
+        {
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin)
+                return writeDecimal(upin ? sp10 : tp10, k, buf, pos);
+        }
+
+        // otherwise pick the closest of s and s+1
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win)
+            return writeDecimal(uin ? s : t, k + dk, buf, pos);
+
+        long cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+
+    static int toDecimal(int q, int c, int dk, byte[] buf, int pos)
+    {
+        int out = c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+
+        // the rounding interval is asymmetric at powers of two
+        if (c != F_C_MIN || q == F_Q_MIN)
+        {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        }
+        else
+        {
+            cbl = cb - 1;
+            k = flog10ThreeQuartersPow2(q);
+        }
+
+        int h = q + flog2pow10(-k) + 33;
+        long g = G[(k - K_MIN) << 1] + 1;
+
+        int vb = rop(g, cb << h);
+        int vbl = rop(g, cbl << h);
+        int vbr = rop(g, cbr << h);
+
+        // try with one digit less first
+        int s = vb >> 2;
+        if (s >= 100)
+        {
+            int sp10 = 10 * (int)(s * 1_717_986_919L >>> 34);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin)
+                return writeDecimal(upin ? sp10 : tp10, k, buf, pos);
+        }
+
+        // otherwise pick the closest of s and s+1
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win)
+            return writeDecimal(uin ? s : t, k + dk, buf, pos);
+
+        int cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+
+    /*
+     * Computes g*cp / 2^127, rounded to odd
+     */
+    static long rop(long g1, long g0, long cp)
+    {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+
+    /*
+     * Computes g*cp / 2^95, rounded to odd
+     */
+    static int rop(long g, long cp)
+    {
+        long x1 = Math.multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int)(vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+
+    // floor(e*log10(2))
+    static int flog10pow2(int e)
+    {
+        return (int)(e * 661_971_961_083L >> 41);
+    }
+
+
+    // floor(e*log10(2) + log10(3/4))
+    static int flog10ThreeQuartersPow2(int e)
+    {
+        return (int)(e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+
+    // floor(e*log2(10))
+    static int flog2pow10(int e)
+    {
+        return (int)(e * 913_124_641_741L >> 38);
+    }
+
+
+    /*
+     * Writes f*10^e using plain notation for values in [1e-3, 1e7[
+     * and computerized scientific notation otherwise
+     */
+    static int writeDecimal(long f, int e, byte[] buf, int pos)
+    {
+        // remove trailing zeros
+        while (f % 10 == 0 && f != 0)
+        {
+            f /= 10;
+            e++;
+        }
+
+        // write digits at end of buffer area first
+        int end = pos + MAX_LENGTH - 1;
+        int start = end;
+        do
+        {
+            buf[--start] = (byte)('0' + f % 10);
+            f /= 10;
+        }
+        while (f != 0);
+
+        int numDigits = end - start;
+        int exp = numDigits - 1 + e; // exponent of first digit
+
+        if (exp >= 0 && exp < 7)
+        {
+            // integer part
+            int intDigits = exp + 1;
+            int n = Math.min(intDigits, numDigits);
+            System.arraycopy(buf, start, buf, pos, n);
+            pos += n;
+            for (int i = n; i < intDigits; i++)
+                buf[pos++] = '0';
+            buf[pos++] = '.';
+
+            // fractional part
+            if (numDigits > intDigits)
+            {
+                System.arraycopy(buf, start + intDigits, buf, pos, numDigits - intDigits);
+                pos += numDigits - intDigits;
+            }
+            else
+                buf[pos++] = '0';
+        }
+        else if (exp < 0 && exp >= -3)
+        {
+            // leading zeros never overlap digits since there are at most 17 digits
+            System.arraycopy(buf, start, buf, pos - exp + 1, numDigits);
+            buf[pos++] = '0';
+            buf[pos++] = '.';
+            for (int i = -1; i > exp; i--)
+                buf[pos++] = '0';
+            pos += numDigits;
+        }
+        else
+        {
+            buf[pos++] = buf[start];
+            buf[pos++] = '.';
+            if (numDigits > 1)
+            {
+                System.arraycopy(buf, start + 1, buf, pos, numDigits - 1);
+                pos += numDigits - 1;
+            }
+            else
+                buf[pos++] = '0';
+
+            buf[pos++] = 'E';
+            if (exp < 0)
+            {
+                buf[pos++] = '-';
+                exp = -exp;
+            }
+            if (exp >= 100)
+                buf[pos++] = (byte)('0' + exp / 100);
+            if (exp >= 10)
+                buf[pos++] = (byte)('0' + exp / 10 % 10);
+            buf[pos++] = (byte)('0' + exp % 10);
+        }
+
+        return pos;
+    }
+
+
+    static int copy(byte[] src, byte[] buf, int pos)
+    {
+        System.arraycopy(src, 0, buf, pos, src.length);
+        return src.length;
+    }
+}
@@ -14,7 +14,9 @@ Copyright (C) 2012-2017 Sensia Software LLC. All Rights Reserved.
 
 package org.vast.swe.fast;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -22,13 +24,20 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.Test;
+import org.vast.data.AbstractDataBlock;
+import org.vast.data.DataBlockCompressed;
+import org.vast.data.DataBlockFactory;
+import org.vast.data.DataBlockMixed;
 import org.vast.swe.SWEHelper;
 import com.google.common.collect.Lists;
+import net.opengis.swe.v20.BinaryBlock;
 import net.opengis.swe.v20.Count;
 import net.opengis.swe.v20.DataArray;
 import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataChoice;
 import net.opengis.swe.v20.DataComponent;
 import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.DataType;
 
 
 public class TestBinaryDataParser
@@ -231,5 +240,205 @@ public class TestBinaryDataParser
         
         writeReadAndCompare(dataStruct, records);
     }
+    
+    
+    @Test
+    public void testWriteAndReadBackChoice() throws IOException
+    {
+        // create choice structure
+        SWEHelper fac = new SWEHelper();
+        DataChoice dataStruct = fac.createChoice()
+            .addItem("meas", fac.createRecord()
+                .addSamplingTimeIsoUTC("t0")
+                .addField("q1", fac.createQuantity().build())
+                .build())
+            .addItem("status", fac.createRecord()
+                .addSamplingTimeIsoUTC("t0")
+                .addField("c1", fac.createCount().build())
+                .addField("c2", fac.createCount().build())
+                .build())
+            .build();
+        
+        // test with multiple records alternating choice items
+        var now = (double)Instant.now().getEpochSecond();
+        var records = new ArrayList<DataBlock>();
+        int numRecords = 10;
+        for (int r=0; r<numRecords; r++)
+        {
+            int selected = r % 2;
+            dataStruct.setSelectedItem(selected);
+            var rec = dataStruct.createDataBlock();
+            int dataBlkIdx = 0;
+            rec.setIntValue(dataBlkIdx++, selected);
+            rec.setDoubleValue(dataBlkIdx++, now+r);
+            if (selected == 0)
+                rec.setDoubleValue(dataBlkIdx++, r/10.);
+            else
+            {
+                rec.setIntValue(dataBlkIdx++, r);
+                rec.setIntValue(dataBlkIdx++, r+100);
+            }
+            
+            records.add(rec);
+        }
+        
+        writeReadAndCompare(dataStruct, records);
+    }
 
+    
+    @Test
+    public void testWriteAndReadBackCompressedBlock() throws Exception
+    {
+        // create record structure with an array encoded as compressed block
+        SWEHelper fac = new SWEHelper();
+        DataRecord dataStruct = fac.createRecord()
+            .addSamplingTimeIsoUTC("t0")
+            .addField("img", fac.createArray()
+                .withFixedSize(16)
+                .withElement("px", fac.createCount().build())
+                .build())
+            .build();
+        
+        var encoding = SWEHelper.getDefaultBinaryEncoding(dataStruct);
+        encoding.getMemberList().removeIf(m -> m.getRef().startsWith("/img"));
+        BinaryBlock block = fac.newBinaryBlock();
+        block.setRef("/img");
+        block.setCompression("x-test-unknown");
+        block.setPaddingBytesBefore(2);
+        block.setPaddingBytesAfter(3);
+        encoding.addMemberAsBlock(block);
+        SWEHelper.assignBinaryEncoding(dataStruct, encoding);
+        
+        // create records with compressed bytes of various sizes
+        var now = (double)Instant.now().getEpochSecond();
+        var records = new ArrayList<DataBlock>();
+        int numRecords = 10;
+        for (int r=0; r<numRecords; r++)
+        {
+            var rec = (DataBlockMixed)dataStruct.createDataBlock();
+            rec.setDoubleValue(0, now+r);
+            byte[] bytes = new byte[r*3];
+            for (int i=0; i<bytes.length; i++)
+                bytes[i] = (byte)(i+r);
+            ((DataBlockCompressed)((AbstractDataBlock[])rec.getUnderlyingObject())[1]).setUnderlyingObject(bytes);
+            records.add(rec);
+        }
+        
+        // write to byte buffer
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        BinaryDataWriter writer = new BinaryDataWriter();
+        writer.setDataComponents(dataStruct.copy());
+        writer.setDataEncoding(encoding);
+        writer.setOutput(os);
+        for (var rec: records)
+            writer.write(rec);
+        writer.flush();
+        
+        // read back with no codec available so compressed bytes are kept as-is
+        BinaryDataParser parser = new BinaryDataParser();
+        parser.setDataComponents(dataStruct.copy());
+        parser.setDataEncoding(encoding);
+        parser.setInput(new ByteArrayInputStream(os.toByteArray()));
+        parser.setRenewDataBlock(true);
+        for (var rec: records)
+        {
+            var parsedRec = (DataBlockMixed)parser.parseNextBlock();
+            assertEquals(rec.getDoubleValue(0), parsedRec.getDoubleValue(0), 0.0);
+            
+            var expectedBlock = (DataBlockCompressed)((AbstractDataBlock[])rec.getUnderlyingObject())[1];
+            var parsedBlock = (DataBlockCompressed)((AbstractDataBlock[])parsedRec.getUnderlyingObject())[1];
+            assertArrayEquals(expectedBlock.getUnderlyingObject(), parsedBlock.getUnderlyingObject());
+            assertNull(parsedBlock.getUncompressedData());
+        }
+        assertNull(parser.parseNextBlock());
+    }
+    
+    
+    @Test
+    public void testWriteAndReadBackScalarArrays() throws IOException
+    {
+        // create record structure with large arrays of each primitive type
+        SWEHelper fac = new SWEHelper();
+        DataType[] dataTypes = {DataType.FLOAT, DataType.DOUBLE, DataType.INT, DataType.SHORT, DataType.LONG, DataType.BYTE};
+        int[] arraySizes = {5000, 3000, 1000, 2500, 700, 9000};
+        var builder = fac.createRecord()
+            .addSamplingTimeIsoUTC("t0");
+        for (int i=0; i<dataTypes.length; i++)
+        {
+            builder.addField("array" + i, fac.createArray()
+                .withFixedSize(arraySizes[i])
+                .withElement("val", fac.createQuantity()
+                    .dataType(dataTypes[i])
+                    .build())
+                .build());
+        }
+        DataRecord dataStruct = builder.build();
+        
+        var now = (double)Instant.now().getEpochSecond();
+        var records = new ArrayList<DataBlock>();
+        int numRecords = 5;
+        for (int r=0; r<numRecords; r++)
+        {
+            var rec = dataStruct.createDataBlock();
+            rec.setDoubleValue(0, now+r);
+            for (int i=1; i<rec.getAtomCount(); i++)
+                rec.setIntValue(i, (i*31 + r) % 250 - 125);
+            records.add(rec);
+        }
+        
+        writeReadAndCompare(dataStruct, records);
+    }
+    
+    
+    @Test
+    public void testReadBatchesOfFixedSizeArrays() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord dataStruct = fac.createRecord()
+            .addSamplingTimeIsoUTC("t0")
+            .addField("array", fac.createArray()
+                .withFixedSize(3)
+                .withElement("elt", fac.createQuantity().build())
+                .build())
+            .build();
+        var encoding = SWEHelper.getDefaultBinaryEncoding(dataStruct);
+        
+        // write records
+        var now = (double)Instant.now().getEpochSecond();
+        int numRecords = 7;
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        BinaryDataWriter writer = new BinaryDataWriter();
+        writer.setDataComponents(dataStruct.copy());
+        writer.setDataEncoding(encoding);
+        writer.setOutput(os);
+        for (int r=0; r<numRecords; r++)
+        {
+            var rec = dataStruct.createDataBlock();
+            rec.setDoubleValue(0, now+r);
+            for (int i=1; i<4; i++)
+                rec.setDoubleValue(i, r*10+i);
+            writer.write(rec);
+        }
+        writer.flush();
+        
+        // read back by batches of 3 records
+        BinaryDataParser parser = new BinaryDataParser();
+        parser.setDataComponents(dataStruct.copy());
+        parser.setDataEncoding(encoding);
+        parser.setInput(new ByteArrayInputStream(os.toByteArray()));
+        var batch = DataBlockFactory.createParallelBlock(dataStruct, 3);
+        int r = 0, count;
+        while ((count = parser.parseNextBlocks(batch)) > 0)
+        {
+            for (int i = 0; i < count; i++, r++)
+            {
+                var rec = batch.getRow(i);
+                assertEquals(now+r, rec.getDoubleValue(0), 0.0);
+                for (int j=1; j<4; j++)
+                    assertEquals(r*10+j, rec.getDoubleValue(j), 0.0);
+            }
+        }
+        
+        assertEquals("Wrong number of records", numRecords, r);
+    }
 }
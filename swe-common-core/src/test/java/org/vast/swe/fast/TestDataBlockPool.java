@@ -0,0 +1,246 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.fast;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+import org.vast.data.DataBlockPool;
+import org.vast.swe.SWEHelper;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataRecord;
+
+
+public class TestDataBlockPool
+{
+    static final int NUM_RECORDS = 20;
+
+
+    protected DataRecord createVarSizeRecord()
+    {
+        SWEHelper fac = new SWEHelper();
+        return fac.createRecord()
+            .addField("name", fac.createText().build())
+            .addField("num", fac.createCount().id("NUM").build())
+            .addField("values", fac.createArray()
+                .withVariableSize("NUM")
+                .withElement("val", fac.createQuantity().build())
+                .build())
+            .build();
+    }
+
+
+    protected byte[] writeRecords(DataComponent dataStruct) throws IOException
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        TextDataWriter writer = new TextDataWriter();
+        writer.setDataComponents(dataStruct.copy());
+        writer.setOutput(os);
+        writer.startStream(true);
+
+        for (int r = 0; r < NUM_RECORDS; r++)
+        {
+            DataComponent rec = dataStruct.copy();
+            rec.renewDataBlock();
+            ((DataArray)rec.getComponent("values")).updateSize(r % 4 + 1);
+            DataBlock dataBlk = rec.getData();
+            dataBlk.setStringValue(0, "rec" + r);
+            for (int i = 2; i < dataBlk.getAtomCount(); i++)
+                dataBlk.setDoubleValue(i, r * 10 + i);
+            writer.write(dataBlk);
+        }
+
+        writer.endStream();
+        writer.flush();
+        return os.toByteArray();
+    }
+
+
+    protected TextDataParser createParser(DataComponent dataStruct, byte[] bytes, DataBlockPool pool) throws IOException
+    {
+        TextDataParser parser = new TextDataParser();
+        parser.setDataComponents(dataStruct.copy());
+        parser.setInput(new ByteArrayInputStream(bytes));
+        parser.setRenewDataBlock(true);
+        parser.setDataBlockPool(pool);
+        return parser;
+    }
+
+
+    @Test
+    public void testParseWithPool() throws IOException
+    {
+        DataRecord dataStruct = createVarSizeRecord();
+        byte[] bytes = writeRecords(dataStruct);
+
+        DataBlockPool pool = new DataBlockPool();
+        pool.setDebugMode(true);
+        TextDataParser parser = createParser(dataStruct, bytes, pool);
+
+        DataBlock dataBlk;
+        DataBlock previousBlk = null;
+        int r = 0;
+        while ((dataBlk = parser.parseNextBlock()) != null)
+        {
+            if (previousBlk != null)
+                assertSame(previousBlk, dataBlk);
+
+            int arraySize = r % 4 + 1;
+            assertEquals(arraySize + 2, dataBlk.getAtomCount());
+            assertEquals("rec" + r, dataBlk.getStringValue(0));
+            assertEquals(arraySize, dataBlk.getIntValue(1));
+            for (int i = 2; i < dataBlk.getAtomCount(); i++)
+                assertEquals(r * 10 + i, dataBlk.getDoubleValue(i), 0.0);
+
+            pool.release(dataBlk);
+            previousBlk = dataBlk;
+            r++;
+        }
+
+        assertEquals(NUM_RECORDS, r);
+        assertEquals(1, pool.getMissCount());
+        assertEquals(NUM_RECORDS - 1, pool.getHitCount());
+        assertEquals(0, pool.getInUseCount());
+        assertEquals(1, pool.getFreeCount());
+    }
+
+
+    @Test
+    public void testRefCounting() throws IOException
+    {
+        DataRecord dataStruct = createVarSizeRecord();
+        DataBlockPool pool = new DataBlockPool();
+        TextDataParser parser = createParser(dataStruct, writeRecords(dataStruct), pool);
+
+        DataBlock blk1 = parser.parseNextBlock();
+        pool.retain(blk1);
+        assertFalse(pool.release(blk1));
+
+        // block is still in use so a new one must be allocated
+        DataBlock blk2 = parser.parseNextBlock();
+        assertNotSame(blk1, blk2);
+        assertEquals("rec0", blk1.getStringValue(0));
+        assertEquals(2, pool.getMissCount());
+
+        assertTrue(pool.release(blk1));
+        assertSame(blk1, parser.parseNextBlock());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(2, pool.getInUseCount());
+    }
+
+
+    @Test
+    public void testMaxFreeBlocks()
+    {
+        DataRecord dataStruct = createVarSizeRecord();
+        DataBlockPool pool = new DataBlockPool(1);
+
+        DataBlock blk1 = pool.acquire(dataStruct::createDataBlock);
+        DataBlock blk2 = pool.acquire(dataStruct::createDataBlock);
+        assertTrue(pool.release(blk1));
+        assertFalse(pool.release(blk2));
+        assertEquals(1, pool.getFreeCount());
+        assertEquals(1, pool.getDiscardCount());
+        assertEquals(0.0, pool.getHitRate(), 0.0);
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleRelease()
+    {
+        DataBlockPool pool = new DataBlockPool();
+        DataBlock dataBlk = pool.acquire(createVarSizeRecord()::createDataBlock);
+        pool.release(dataBlk);
+        pool.release(dataBlk);
+    }
+
+
+    @Test
+    public void testDoubleReleaseDebugMode()
+    {
+        DataBlockPool pool = new DataBlockPool();
+        pool.setDebugMode(true);
+        DataBlock dataBlk = pool.acquire(createVarSizeRecord()::createDataBlock);
+        pool.release(dataBlk);
+        try
+        {
+            pool.release(dataBlk);
+            fail("Double release not detected");
+        }
+        catch (IllegalStateException e)
+        {
+            // trace of first release is attached
+            assertNotNull(e.getCause());
+        }
+    }
+
+
+    @Test
+    public void testUnreleasedBlocksNotTracked()
+    {
+        DataRecord dataStruct = createVarSizeRecord();
+        DataBlockPool pool = new DataBlockPool();
+
+        DataBlock blk1 = pool.acquire(dataStruct::createDataBlock);
+        pool.acquire(dataStruct::createDataBlock);
+        assertEquals(2, pool.getInUseCount());
+
+        assertTrue(pool.release(blk1));
+        assertEquals(1, pool.getInUseCount());
+
+        // unknown blocks are only rejected in debug mode
+        pool.setDebugMode(true);
+        try
+        {
+            pool.release(dataStruct.createDataBlock());
+            fail("Release of unknown block not detected");
+        }
+        catch (IllegalStateException e)
+        {
+        }
+    }
+
+
+    @Test
+    public void testWriteAfterReleaseDetected()
+    {
+        DataRecord dataStruct = createVarSizeRecord();
+        DataBlockPool pool = new DataBlockPool();
+        pool.setDebugMode(true);
+
+        DataBlock dataBlk = pool.acquire(dataStruct::createDataBlock);
+        dataBlk.setStringValue(0, "test");
+        pool.release(dataBlk);
+
+        // reads after release see poisoned values
+        assertEquals(DataBlockPool.POISON_STRING, dataBlk.getStringValue(0));
+
+        // writes after release are detected on next acquire
+        dataBlk.setStringValue(0, "modified");
+        try
+        {
+            pool.acquire(dataStruct::createDataBlock);
+            fail("Write after release not detected");
+        }
+        catch (IllegalStateException e)
+        {
+            assertNotNull(e.getCause());
+        }
+    }
+}
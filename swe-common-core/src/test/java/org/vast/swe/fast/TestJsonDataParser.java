@@ -15,15 +15,21 @@ Copyright (C) 2012-2017 Sensia Software LLC. All Rights Reserved.
 package org.vast.swe.fast;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.Test;
+import org.vast.data.DataBlockFactory;
 import org.vast.swe.SWEHelper;
+import org.vast.util.ReaderException;
 import com.google.common.collect.Lists;
+import com.google.gson.stream.JsonReader;
 import net.opengis.swe.v20.Count;
 import net.opengis.swe.v20.DataArray;
 import net.opengis.swe.v20.DataBlock;
@@ -231,5 +237,233 @@ public class TestJsonDataParser
         
         writeReadAndCompare(dataStruct, records);
     }
+    
+    
+    @Test
+    public void testReadUnorderedFields() throws IOException
+    {
+        // create record structure
+        SWEHelper fac = new SWEHelper();
+        Count sizeField;
+        DataRecord dataStruct = fac.createRecord()
+            .addField("q1", fac.createQuantity().build())
+            .addField("t2", fac.createText().build())
+            .addField("size", sizeField = fac.createCount()
+                .id("NUM_POINTS")
+                .build())
+            .addField("array", fac.createArray()
+                .withSizeComponent(sizeField)
+                .withElement("elt", fac.createQuantity().build())
+                .build())
+            .addField("c4", fac.createCount().build())
+            .build();
+        
+        // members in random order, with unknown members and missing fields
+        String json =
+            "[{\"array\": [1.5, 2.5, 3.5], \"other\": {\"a\": [1, 2]}, \"c4\": 12, \"size\": 3, \"q1\": 0.1},\n" +
+            "{\"size\": 1, \"t2\": \"text\", \"array\": [4.0], \"size\": 2}]";
+        
+        JsonDataParserGson parser = new JsonDataParserGson();
+        parser.setDataComponents(dataStruct);
+        parser.setInput(new ByteArrayInputStream(json.getBytes()));
+        parser.setRenewDataBlock(true);
+        parser.setHasArrayWrapper();
+        parser.setStrictFieldOrder(false);
+        
+        DataBlock rec = parser.parseNextBlock();
+        assertEquals(7, rec.getAtomCount());
+        assertEquals(0.1, rec.getDoubleValue(0), 0.0);
+        assertEquals(null, rec.getStringValue(1));
+        assertEquals(3, rec.getIntValue(2));
+        assertEquals(1.5, rec.getDoubleValue(3), 0.0);
+        assertEquals(3.5, rec.getDoubleValue(5), 0.0);
+        assertEquals(12, rec.getIntValue(6));
+        
+        rec = parser.parseNextBlock();
+        assertEquals(5, rec.getAtomCount());
+        assertTrue(Double.isNaN(rec.getDoubleValue(0)));
+        assertEquals("text", rec.getStringValue(1));
+        assertEquals(1, rec.getIntValue(2));
+        assertEquals(4.0, rec.getDoubleValue(3), 0.0);
+        assertEquals(0, rec.getIntValue(4));
+    }
+    
+    
+    @Test
+    public void testReadUnorderedNestedRecords() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        Count sizeField;
+        DataRecord dataStruct = fac.createRecord()
+            .addField("rec1", fac.createRecord()
+                .addField("a", fac.createQuantity().build())
+                .addField("b", fac.createText().build())
+                .build())
+            .addField("size", sizeField = fac.createCount()
+                .id("NUM_POINTS")
+                .build())
+            .addField("array", fac.createArray()
+                .withSizeComponent(sizeField)
+                .withElement("elt", fac.createQuantity().build())
+                .build())
+            .addField("rec2", fac.createRecord()
+                .addField("c", fac.createCount().build())
+                .addField("d", fac.createBoolean().build())
+                .build())
+            .build();
+        
+        // nested record after the array is buffered and replayed
+        String json =
+            "{\"rec2\": {\"d\": true, \"c\": 5}, \"array\": [1.0, 2.0], \"rec1\": {\"b\": \"text\", \"a\": 0.5}, \"size\": 2}";
+        
+        JsonDataParserGson parser = new JsonDataParserGson();
+        parser.setDataComponents(dataStruct);
+        parser.setInput(new ByteArrayInputStream(json.getBytes()));
+        parser.setStrictFieldOrder(false);
+        
+        DataBlock rec = parser.parseNextBlock();
+        assertEquals(7, rec.getAtomCount());
+        assertEquals(0.5, rec.getDoubleValue(0), 0.0);
+        assertEquals("text", rec.getStringValue(1));
+        assertEquals(2, rec.getIntValue(2));
+        assertEquals(1.0, rec.getDoubleValue(3), 0.0);
+        assertEquals(2.0, rec.getDoubleValue(4), 0.0);
+        assertEquals(5, rec.getIntValue(5));
+        assertTrue(rec.getBooleanValue(6));
+    }
+    
+    
+    @Test(expected = ReaderException.class)
+    public void testMissingVarSizeField() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        Count sizeField;
+        DataRecord dataStruct = fac.createRecord()
+            .addField("size", sizeField = fac.createCount()
+                .id("NUM_POINTS")
+                .build())
+            .addField("array", fac.createArray()
+                .withSizeComponent(sizeField)
+                .withElement("elt", fac.createQuantity().build())
+                .build())
+            .build();
+        
+        JsonDataParserGson parser = new JsonDataParserGson();
+        parser.setDataComponents(dataStruct);
+        parser.setInput(new ByteArrayInputStream("{\"size\": 2}".getBytes()));
+        parser.setStrictFieldOrder(false);
+        parser.parseNextBlock();
+    }
+    
+    
+    @Test
+    public void testMissingArraySizeField() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        Count sizeField;
+        DataRecord dataStruct = fac.createRecord()
+            .addField("size", sizeField = fac.createCount()
+                .id("NUM_POINTS")
+                .build())
+            .addField("array", fac.createArray()
+                .withSizeComponent(sizeField)
+                .withElement("elt", fac.createQuantity().build())
+                .build())
+            .build();
+        
+        // size must not be reused from previous record
+        String json = "[{\"size\": 3, \"array\": [1.0, 2.0, 3.0]}, {\"array\": [4.0]}]";
+        JsonDataParserGson parser = new JsonDataParserGson();
+        parser.setDataComponents(dataStruct);
+        parser.setInput(new ByteArrayInputStream(json.getBytes()));
+        parser.setHasArrayWrapper();
+        parser.setStrictFieldOrder(false);
+        assertEquals(4, parser.parseNextBlock().getAtomCount());
+        
+        try
+        {
+            parser.parseNextBlock();
+            fail("Record with missing array size should be rejected");
+        }
+        catch (ReaderException e)
+        {
+            assertTrue(e.getMessage().contains("Missing array size field 'size'"));
+        }
+    }
+    
+    
+    protected void readBatchesAndCompare(boolean addWrapper) throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord dataStruct = fac.createRecord()
+            .addSamplingTimeIsoUTC("t0")
+            .addField("q1", fac.createQuantity().build())
+            .addField("c2", fac.createCount().build())
+            .addField("t3", fac.createText().build())
+            .build();
+        
+        var now = (double)Instant.now().getEpochSecond();
+        var json = new StringBuilder();
+        int numRecords = 10;
+        for (int r=0; r<numRecords; r++)
+        {
+            if (r > 0)
+                json.append(addWrapper ? ",\n" : "\n");
+            json.append("{\"t0\": \"").append(Instant.ofEpochSecond((long)now+r)).append("\", ")
+                .append("\"q1\": ").append(r/10.).append(", ")
+                .append("\"c2\": ").append(r+100).append(", ")
+                .append("\"t3\": \"text").append(r).append("\"}");
+        }
+        if (addWrapper)
+            json.insert(0, '[').append(']');
+        
+        // multiple records without array wrapper need a lenient reader
+        var is = new ByteArrayInputStream(json.toString().getBytes());
+        JsonDataParserGson parser;
+        if (addWrapper)
+        {
+            parser = new JsonDataParserGson();
+            parser.setInput(is);
+            parser.setHasArrayWrapper();
+        }
+        else
+        {
+            var reader = new JsonReader(new InputStreamReader(is));
+            reader.setLenient(true);
+            parser = new JsonDataParserGson(reader);
+        }
+        parser.setDataComponents(dataStruct.copy());
+        
+        // parse records 4 by 4 in the same columnar block
+        var batch = DataBlockFactory.createParallelBlock(dataStruct, 4);
+        int r = 0, count;
+        while ((count = parser.parseNextBlocks(batch)) > 0)
+        {
+            for (int i = 0; i < count; i++, r++)
+            {
+                var rec = batch.getRow(i);
+                assertEquals(now+r, rec.getDoubleValue(0), 0.0);
+                assertEquals(r/10., rec.getDoubleValue(1), 0.0);
+                assertEquals(r+100, rec.getIntValue(2));
+                assertEquals("text"+r, rec.getStringValue(3));
+            }
+        }
+        
+        assertEquals("Wrong number of records", numRecords, r);
+    }
+    
+    
+    @Test
+    public void testReadBatchesWithArrayWrapper() throws IOException
+    {
+        readBatchesAndCompare(true);
+    }
+    
+    
+    @Test
+    public void testReadBatchesWithoutArrayWrapper() throws IOException
+    {
+        readBatchesAndCompare(false);
+    }
 
 }
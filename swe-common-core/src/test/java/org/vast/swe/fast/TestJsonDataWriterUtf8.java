@@ -0,0 +1,179 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.fast;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.vast.swe.IComponentFilter;
+import org.vast.swe.SWEHelper;
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataChoice;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.DataType;
+
+
+public class TestJsonDataWriterUtf8
+{
+    static final String[] TEXT_SAMPLES = {
+        "simple text", "quoted \"text\" with \\ and\ttab\nnewline", "accents éèà", "cjk 中文字符",
+        "emoji 😀 pair", "lone \uD83D surrogate", "lone low \uDE00 surrogate", "", "ctrl \r\u0001"
+    };
+
+    Random random = new Random(20261018L);
+
+
+    protected byte[] write(AbstractDataWriter writer, DataComponent dataStruct, List<DataBlock> records, IComponentFilter filter) throws IOException
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        writer.setDataComponentFilter(filter);
+        writer.setDataComponents(dataStruct.copy());
+        writer.setOutput(os);
+        writer.startStream(records.size() > 1);
+        for (var rec: records)
+            writer.write(rec);
+        writer.endStream();
+        writer.flush();
+        return os.toByteArray();
+    }
+
+
+    protected void writeAndCompare(DataComponent dataStruct, List<DataBlock> records, IComponentFilter filter) throws IOException
+    {
+        byte[] expected = write(new JsonDataWriter(), dataStruct, records, filter);
+        byte[] actual = write(new JsonDataWriterUtf8(), dataStruct, records, filter);
+        assertArrayEquals(expected, actual);
+    }
+
+
+    protected double randomDouble()
+    {
+        switch (random.nextInt(6))
+        {
+            case 0:
+                return Double.longBitsToDouble(random.nextLong());
+            case 1:
+                return random.nextInt(100000) / 100.0;
+            case 2:
+                return random.nextInt();
+            case 3:
+                return new double[] {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0.0, -0.0, 1e23}[random.nextInt(6)];
+            default:
+                return random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+        }
+    }
+
+
+    @Test
+    public void testWriteAllTypes() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord dataStruct = fac.createRecord()
+            .addSamplingTimeIsoUTC("time")
+            .addField("flag", fac.createBoolean().build())
+            .addField("count", fac.createCount().build())
+            .addField("q", fac.createQuantity().build())
+            .addField("qf", fac.createQuantity().dataType(DataType.FLOAT).build())
+            .addField("text", fac.createText().build())
+            .addField("cat", fac.createCategory().build())
+            .addField("range", fac.createQuantityRange().build())
+            .addField("loc", fac.createVector()
+                .addCoordinate("lat", fac.createQuantity().build())
+                .addCoordinate("lon", fac.createQuantity().build())
+                .build())
+            .addField("choice", fac.createChoice()
+                .addItem("a", fac.createQuantity().build())
+                .addItem("b", fac.createText().build())
+                .build())
+            .build();
+
+        var records = new ArrayList<DataBlock>();
+        var choice = (DataChoice)dataStruct.getComponent("choice");
+        for (int r = 0; r < 2000; r++)
+        {
+            choice.setSelectedItem(r % 2);
+            var rec = dataStruct.createDataBlock();
+            int i = 0;
+            rec.setDoubleValue(i++, 1.7e9 + r * 0.1);
+            rec.setBooleanValue(i++, random.nextBoolean());
+            rec.setIntValue(i++, random.nextInt());
+            rec.setDoubleValue(i++, randomDouble());
+            rec.setFloatValue(i++, (float)randomDouble());
+            rec.setStringValue(i++, TEXT_SAMPLES[random.nextInt(TEXT_SAMPLES.length)]);
+            rec.setStringValue(i++, r % 7 == 0 ? null : "cat" + r);
+            rec.setDoubleValue(i++, randomDouble());
+            rec.setDoubleValue(i++, randomDouble());
+            rec.setDoubleValue(i++, randomDouble());
+            rec.setDoubleValue(i++, randomDouble());
+            rec.setIntValue(i++, r % 2);
+            if (r % 2 == 0)
+                rec.setDoubleValue(i++, randomDouble());
+            else
+                rec.setStringValue(i++, "item" + r);
+            records.add(rec);
+        }
+
+        writeAndCompare(dataStruct, records, null);
+        writeAndCompare(dataStruct, records.subList(0, 1), null);
+    }
+
+
+    @Test
+    public void testWriteVarSizeArrayAndDisabledField() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        Count sizeField;
+        DataRecord dataStruct = fac.createRecord()
+            .addField("name", fac.createText().build())
+            .addField("size", sizeField = fac.createCount()
+                .id("NUM_POINTS")
+                .build())
+            .addField("points", fac.createArray()
+                .withSizeComponent(sizeField)
+                .withElement("pt", fac.createRecord()
+                    .addField("x", fac.createQuantity().build())
+                    .addField("y", fac.createQuantity().build())
+                    .build())
+                .build())
+            .build();
+
+        var records = new ArrayList<DataBlock>();
+        for (int r = 0; r < 50; r++)
+        {
+            int arraySize = r % 5;
+            ((DataArray)dataStruct.getComponent("points")).updateSize(arraySize);
+            var rec = dataStruct.createDataBlock();
+            int i = 0;
+            rec.setStringValue(i++, "rec" + r);
+            rec.setIntValue(i++, arraySize);
+            for (int p = 0; p < arraySize; p++)
+            {
+                rec.setDoubleValue(i++, randomDouble());
+                rec.setDoubleValue(i++, randomDouble());
+            }
+            records.add(rec);
+        }
+
+        writeAndCompare(dataStruct, records, null);
+        writeAndCompare(dataStruct, records, comp -> !"name".equals(comp.getName()));
+    }
+}
@@ -0,0 +1,317 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.fast;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.vast.swe.DefaultParserHandler;
+import org.vast.swe.SWEData;
+import org.vast.swe.SWEHelper;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataEncoding;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.TextEncoding;
+
+
+public class TestParallelDataParser
+{
+    static final int NUM_RECORDS = 2000;
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+
+    @After
+    public void cleanup()
+    {
+        executor.shutdownNow();
+    }
+
+
+    protected DataRecord createRecord(boolean varSize)
+    {
+        SWEHelper fac = new SWEHelper();
+        return fac.createRecord()
+            .addField("time", fac.createTime().asSamplingTimeIsoUTC().build())
+            .addField("num", fac.createCount().id("NUM").build())
+            .addField("values", varSize ?
+                fac.createArray()
+                    .withVariableSize("NUM")
+                    .withElement("val", fac.createQuantity().build())
+                    .build() :
+                fac.createArray()
+                    .withFixedSize(3)
+                    .withElement("val", fac.createQuantity().build())
+                    .build())
+            .build();
+    }
+
+
+    protected List<DataBlock> createRecords(DataComponent dataStruct, boolean varSize)
+    {
+        List<DataBlock> records = new ArrayList<>();
+        for (int r = 0; r < NUM_RECORDS; r++)
+        {
+            DataComponent rec = dataStruct.copy();
+            rec.renewDataBlock();
+            int arraySize = varSize ? r % 5 : 3;
+            if (varSize)
+                ((DataArray)rec.getComponent("values")).updateSize(arraySize);
+            DataBlock dataBlk = rec.getData();
+            dataBlk.setDoubleValue(0, 1.7e9 + r);
+            dataBlk.setIntValue(1, arraySize);
+            for (int i = 2; i < dataBlk.getAtomCount(); i++)
+                dataBlk.setDoubleValue(i, r + i * 0.25);
+            records.add(dataBlk);
+        }
+
+        return records;
+    }
+
+
+    protected byte[] write(DataComponent dataStruct, DataEncoding encoding, List<DataBlock> records) throws IOException
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        AbstractDataWriter writer = encoding instanceof TextEncoding ? new TextDataWriter() : new BinaryDataWriter();
+        writer.setDataComponents(dataStruct.copy());
+        writer.setDataEncoding(encoding);
+        writer.setOutput(os);
+        writer.startStream(true);
+        for (DataBlock rec: records)
+            writer.write(rec);
+        writer.endStream();
+        writer.flush();
+        return os.toByteArray();
+    }
+
+
+    protected void parseAndCompare(DataComponent dataStruct, DataEncoding encoding, List<DataBlock> records, int partitionSize) throws IOException
+    {
+        byte[] bytes = write(dataStruct, encoding, records);
+
+        ParallelDataParser parser = new ParallelDataParser();
+        parser.setDataComponents(dataStruct);
+        parser.setDataEncoding(encoding);
+        parser.setExecutor(executor);
+        parser.setPartitionSize(partitionSize);
+        parser.setInput(new ByteArrayInputStream(bytes));
+
+        int r = 0;
+        DataBlock dataBlk;
+        while ((dataBlk = parser.parseNextBlock()) != null)
+            assertSameValues(records.get(r++), dataBlk);
+
+        assertEquals(NUM_RECORDS, r);
+    }
+
+
+    protected void assertSameValues(DataBlock expected, DataBlock dataBlk)
+    {
+        assertEquals(expected.getAtomCount(), dataBlk.getAtomCount());
+        for (int i = 0; i < expected.getAtomCount(); i++)
+            assertEquals(expected.getStringValue(i), dataBlk.getStringValue(i));
+    }
+
+
+    @Test
+    public void testParseText() throws IOException
+    {
+        DataRecord dataStruct = createRecord(true);
+        List<DataBlock> records = createRecords(dataStruct, true);
+        parseAndCompare(dataStruct, new SWEHelper().newTextEncoding(",", "\n"), records, 256);
+        parseAndCompare(dataStruct, new SWEHelper().newTextEncoding(";", "@@\n"), records, 1000);
+        parseAndCompare(dataStruct, new SWEHelper().newTextEncoding(",", "\n"), records, 1);
+    }
+
+
+    @Test
+    public void testParseBinary() throws IOException
+    {
+        DataRecord dataStruct = createRecord(false);
+        List<DataBlock> records = createRecords(dataStruct, false);
+        DataEncoding encoding = SWEHelper.getDefaultBinaryEncoding(dataStruct);
+        parseAndCompare(dataStruct, encoding, records, 100);
+        parseAndCompare(dataStruct, encoding, records, 4096);
+    }
+
+
+    @Test
+    public void testFixedRecordSize() throws IOException
+    {
+        DataRecord dataStruct = createRecord(false);
+        BinaryDataParser parser = new BinaryDataParser();
+        parser.setDataComponents(dataStruct);
+        parser.setDataEncoding(SWEHelper.getDefaultBinaryEncoding(dataStruct));
+        assertEquals(8 + 4 + 3 * 8, parser.getFixedRecordSize());
+
+        dataStruct = createRecord(true);
+        parser.setDataComponents(dataStruct);
+        parser.setDataEncoding(SWEHelper.getDefaultBinaryEncoding(dataStruct));
+        assertEquals(-1, parser.getFixedRecordSize());
+    }
+
+
+    @Test
+    public void testParseWithDataHandler() throws IOException
+    {
+        DataRecord dataStruct = createRecord(true);
+        List<DataBlock> records = createRecords(dataStruct, true);
+        TextEncoding encoding = new SWEHelper().newTextEncoding(",", "\n");
+        byte[] bytes = write(dataStruct, encoding, records);
+
+        SWEData sweData = new SWEData();
+        sweData.setElementType(dataStruct.copy());
+        ParallelDataParser parser = new ParallelDataParser();
+        parser.setDataComponents(dataStruct);
+        parser.setDataEncoding(encoding);
+        parser.setExecutor(executor);
+        parser.setPartitionSize(512);
+        parser.setDataHandler(new DefaultParserHandler(sweData));
+        parser.parse(new ByteArrayInputStream(bytes));
+
+        assertEquals(NUM_RECORDS, sweData.getNumElements());
+        for (int r = 0; r < NUM_RECORDS; r++)
+            assertSameValues(records.get(r), sweData.getComponent(r).getData());
+    }
+
+
+    @Test
+    public void testParseToParentArray() throws IOException
+    {
+        DataRecord dataStruct = createRecord(false);
+        List<DataBlock> records = createRecords(dataStruct, false);
+        DataEncoding encoding = SWEHelper.getDefaultBinaryEncoding(dataStruct);
+        byte[] bytes = write(dataStruct, encoding, records);
+
+        // array is smaller than the number of records in stream
+        int arraySize = NUM_RECORDS / 2;
+        DataArray array = new SWEHelper().createArray()
+            .withFixedSize(arraySize)
+            .withElement("rec", dataStruct.copy())
+            .build();
+
+        ParallelDataParser parser = new ParallelDataParser();
+        parser.setParentArray(array);
+        parser.setDataEncoding(encoding);
+        parser.setExecutor(executor);
+        parser.setPartitionSize(1000);
+        parser.parse(new ByteArrayInputStream(bytes));
+
+        for (int r = 0; r < arraySize; r++)
+            assertSameValues(records.get(r), array.getComponent(r).getData());
+    }
+
+
+    @Test
+    public void testChangeSettingsAfterInput() throws IOException
+    {
+        DataRecord dataStruct = createRecord(false);
+        List<DataBlock> records = createRecords(dataStruct, false);
+        TextEncoding encoding = new SWEHelper().newTextEncoding(",", "\n");
+        byte[] bytes = write(dataStruct, encoding, records);
+
+        // start with binary settings and switch to text once input is set
+        ParallelDataParser parser = new ParallelDataParser();
+        parser.setDataComponents(dataStruct);
+        parser.setDataEncoding(SWEHelper.getDefaultBinaryEncoding(dataStruct));
+        parser.setExecutor(executor);
+        parser.setPartitionSize(256);
+        parser.setInput(new ByteArrayInputStream(bytes));
+        parser.setDataEncoding(encoding);
+        parser.setDataComponents(dataStruct);
+
+        int r = 0;
+        DataBlock dataBlk;
+        while ((dataBlk = parser.parseNextBlock()) != null)
+            assertSameValues(records.get(r++), dataBlk);
+        assertEquals(NUM_RECORDS, r);
+    }
+
+
+    @Test
+    public void testStaleParserDiscardedAfterReset() throws Exception
+    {
+        DataRecord dataStruct = createRecord(false);
+        List<DataBlock> records = createRecords(dataStruct, false);
+        TextEncoding encoding = new SWEHelper().newTextEncoding(",", "\n");
+        byte[] bytes = write(dataStruct, encoding, records);
+
+        // hold partition task after it got a parser built with old settings
+        CountDownLatch parserTaken = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        ParallelDataParser parser = new ParallelDataParser() {
+            @Override
+            protected PartitionParser getIdleParser()
+            {
+                PartitionParser p = super.getIdleParser();
+                parserTaken.countDown();
+                try
+                {
+                    resume.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return p;
+            }
+        };
+        parser.setDataComponents(dataStruct);
+        parser.setDataEncoding(encoding);
+        parser.setExecutor(executor);
+        parser.setMaxPendingPartitions(1);
+        parser.setInput(new ByteArrayInputStream(bytes));
+        parser.submitPartitions();
+        assertTrue(parserTaken.await(10, TimeUnit.SECONDS));
+
+        // change settings while partition is still being parsed
+        parser.setDataComponents(createRecord(true));
+        resume.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // parser built for old settings must not be reused
+        assertTrue(parser.idleParsers.isEmpty());
+    }
+
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReuseDataBlockNotSupported()
+    {
+        new ParallelDataParser().setRenewDataBlock(false);
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void testVarSizeBinaryNotSupported() throws IOException
+    {
+        DataRecord dataStruct = createRecord(true);
+        ParallelDataParser parser = new ParallelDataParser();
+        parser.setDataComponents(dataStruct);
+        parser.setDataEncoding(SWEHelper.getDefaultBinaryEncoding(dataStruct));
+        parser.setInput(new ByteArrayInputStream(new byte[0]));
+    }
+}
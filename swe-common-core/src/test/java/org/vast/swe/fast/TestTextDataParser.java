@@ -18,15 +18,21 @@ import static org.junit.Assert.assertEquals;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
 import org.junit.Test;
+import org.vast.data.DataBlockDouble;
+import org.vast.data.DataBlockFactory;
 import org.vast.swe.SWEHelper;
 import com.google.common.collect.Lists;
 import net.opengis.swe.v20.Count;
 import net.opengis.swe.v20.DataArray;
 import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataChoice;
 import net.opengis.swe.v20.DataComponent;
 import net.opengis.swe.v20.DataRecord;
 
@@ -230,6 +236,240 @@ public class TestTextDataParser
     }
 
 
+    @Test
+    public void testWriteAndReadBackChoice() throws IOException
+    {
+        // create choice structure
+        SWEHelper fac = new SWEHelper();
+        DataChoice dataStruct = fac.createChoice()
+            .addItem("meas", fac.createRecord()
+                .addSamplingTimeIsoUTC("t0")
+                .addField("q1", fac.createQuantity().build())
+                .build())
+            .addItem("status", fac.createRecord()
+                .addSamplingTimeIsoUTC("t0")
+                .addField("c1", fac.createCount().build())
+                .addField("c2", fac.createCount().build())
+                .build())
+            .build();
+        
+        // test with multiple records alternating choice items
+        var now = (double)Instant.now().getEpochSecond();
+        var records = new ArrayList<DataBlock>();
+        int numRecords = 10;
+        for (int r=0; r<numRecords; r++)
+        {
+            int selected = r % 2;
+            dataStruct.setSelectedItem(selected);
+            var rec = dataStruct.createDataBlock();
+            int dataBlkIdx = 0;
+            rec.setIntValue(dataBlkIdx++, selected);
+            rec.setDoubleValue(dataBlkIdx++, now+r);
+            if (selected == 0)
+                rec.setDoubleValue(dataBlkIdx++, r/10.);
+            else
+            {
+                rec.setIntValue(dataBlkIdx++, r);
+                rec.setIntValue(dataBlkIdx++, r+100);
+            }
+            
+            records.add(rec);
+        }
+        
+        writeReadAndCompare(dataStruct, records);
+    }
+    
+    
+    protected List<DataBlock> parseText(DataComponent dataStruct, String tokenSep, String blockSep, String text) throws IOException
+    {
+        TextDataParser parser = new TextDataParser();
+        parser.setDataComponents(dataStruct.copy());
+        parser.setDataEncoding(new SWEHelper().newTextEncoding(tokenSep, blockSep));
+        parser.setInput(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        parser.setRenewDataBlock(true);
+        var parsedRecords = new ArrayList<DataBlock>();
+        DataBlock dataBlk;
+        while ((dataBlk = parser.parseNextBlock()) != null)
+            parsedRecords.add(dataBlk);
+        return parsedRecords;
+    }
+    
+    
+    @Test
+    public void testReadCustomSeparatorsAndSpecialValues() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord dataStruct = fac.createRecord()
+            .addField("t0", fac.createTime().asSamplingTimeIsoUTC().build())
+            .addField("q1", fac.createQuantity().build())
+            .addField("c2", fac.createCount().build())
+            .addField("txt3", fac.createText().build())
+            .build();
+        
+        String text =
+            " 2021-03-14T01:59:26.535Z ;; 1.5e3;; -42;;hello world @@\n" +
+            "2021-03-14T03:59:26+02:00;;INF;;+7;; x @@\n" +
+            "2020-02-29Z;;-INF;;0;;a;;@@\n" +
+            "2021-03-14T01:59Z;;-0.000123;;2147483647;;b;;;;";
+        
+        var records = parseText(dataStruct, ";;", "@@\n", text);
+        assertEquals(4, records.size());
+        
+        var rec = records.get(0);
+        assertEquals(1615687166.535, rec.getDoubleValue(0), 1e-6);
+        assertEquals(1500.0, rec.getDoubleValue(1), 0.0);
+        assertEquals(-42, rec.getIntValue(2));
+        assertEquals("hello world", rec.getStringValue(3));
+        
+        rec = records.get(1);
+        assertEquals(1615687166.0, rec.getDoubleValue(0), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, rec.getDoubleValue(1), 0.0);
+        assertEquals(7, rec.getIntValue(2));
+        assertEquals("x", rec.getStringValue(3));
+        
+        rec = records.get(2);
+        assertEquals(1582934400.0, rec.getDoubleValue(0), 0.0);
+        assertEquals(Double.NEGATIVE_INFINITY, rec.getDoubleValue(1), 0.0);
+        assertEquals(0, rec.getIntValue(2));
+        assertEquals("a", rec.getStringValue(3));
+        
+        rec = records.get(3);
+        assertEquals(1615687140.0, rec.getDoubleValue(0), 0.0);
+        assertEquals(-0.000123, rec.getDoubleValue(1), 0.0);
+        assertEquals(Integer.MAX_VALUE, rec.getIntValue(2));
+        assertEquals("b", rec.getStringValue(3));
+    }
+    
+    
+    @Test
+    public void testSkipLeadingEmptyRecords() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord dataStruct = fac.createRecord()
+            .addField("c1", fac.createCount().build())
+            .addField("q2", fac.createQuantity().build())
+            .build();
+        
+        // many blank lines before first record, as in XML content
+        var text = new StringBuilder();
+        for (int i = 0; i < 20000; i++)
+            text.append("  \n");
+        text.append("1,1.5\n2,2.5\n");
+        var records = parseText(dataStruct, ",", "\n", text.toString());
+        assertEquals(2, records.size());
+        assertEquals(2, records.get(1).getIntValue(0));
+        
+        // empty record after first record still ends the stream
+        records = parseText(dataStruct, ",", "\n", "\n1,1.5\n\n2,2.5\n");
+        assertEquals(1, records.size());
+        assertEquals(1.5, records.get(0).getDoubleValue(1), 0.0);
+    }
+    
+    
+    @Test
+    public void testReadDecimalsSameAsParseDouble() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord dataStruct = fac.createRecord()
+            .addField("q1", fac.createQuantity().build())
+            .addField("q2", fac.createQuantity().build())
+            .addField("q3", fac.createQuantity().build())
+            .build();
+        
+        // generate enough records to span several buffer refills
+        var random = new Random(42);
+        var expected = new ArrayList<String>();
+        var text = new StringBuilder();
+        int numRecords = 5000;
+        for (int r = 0; r < numRecords; r++)
+        {
+            String v1 = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+            String v2 = String.format(Locale.US, "%.6f", (random.nextDouble() - 0.5) * 1e6);
+            String v3 = Long.toString(random.nextLong()) + "." + random.nextInt(1000);
+            expected.add(v1);
+            expected.add(v2);
+            expected.add(v3);
+            text.append(v1).append(',').append(v2).append(',').append(v3).append('\n');
+        }
+        
+        var records = parseText(dataStruct, ",", "\n", text.toString());
+        assertEquals(numRecords, records.size());
+        for (int r = 0; r < numRecords; r++)
+        {
+            for (int i = 0; i < 3; i++)
+            {
+                double val = Double.parseDouble(expected.get(r*3+i));
+                assertEquals(expected.get(r*3+i), val, records.get(r).getDoubleValue(i), 0.0);
+            }
+        }
+    }
+    
+    
+    @Test
+    public void testReadBatches() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord dataStruct = fac.createRecord()
+            .addSamplingTimeIsoUTC("t0")
+            .addField("q1", fac.createQuantity().build())
+            .addField("c2", fac.createCount().build())
+            .addField("t3", fac.createText().build())
+            .build();
+        
+        var now = (double)Instant.now().getEpochSecond();
+        var text = new StringBuilder();
+        int numRecords = 10;
+        for (int r=0; r<numRecords; r++)
+        {
+            text.append(Instant.ofEpochSecond((long)now+r)).append(',')
+                .append(r/10.).append(',')
+                .append(r+100).append(',')
+                .append("text").append(r).append('\n');
+        }
+        
+        TextDataParser parser = new TextDataParser();
+        parser.setDataComponents(dataStruct.copy());
+        parser.setInput(new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)));
+        
+        // parse records 4 by 4 in the same columnar block
+        var batch = DataBlockFactory.createParallelBlock(dataStruct, 4);
+        int r = 0, count;
+        while ((count = parser.parseNextBlocks(batch)) > 0)
+        {
+            for (int i = 0; i < count; i++, r++)
+            {
+                var rec = batch.getRow(i);
+                assertEquals(now+r, rec.getDoubleValue(0), 0.0);
+                assertEquals(r/10., rec.getDoubleValue(1), 0.0);
+                assertEquals(r+100, rec.getIntValue(2));
+                assertEquals("text"+r, rec.getStringValue(3));
+            }
+        }
+        
+        assertEquals("Wrong number of records", numRecords, r);
+    }
+    
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadBatchesVarSizeNotSupported() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        Count sizeComp;
+        DataRecord dataStruct = fac.createRecord()
+            .addField("size", sizeComp = fac.createCount().id("SIZE").build())
+            .addField("array", fac.createArray()
+                .withSizeComponent(sizeComp)
+                .withElement("elt", fac.createQuantity().build())
+                .build())
+            .build();
+        
+        TextDataParser parser = new TextDataParser();
+        parser.setDataComponents(dataStruct);
+        parser.setInput(new ByteArrayInputStream("2,1.0,2.0\n".getBytes(StandardCharsets.UTF_8)));
+        parser.parseNextBlocks(new DataBlockDouble(9));
+    }
+    
+    
     /*
     @Test
     public void test() throws IOException
@@ -0,0 +1,160 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.fast;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.vast.data.DataBlockFactory;
+import org.vast.data.XMLEncodingImpl;
+import org.vast.swe.SWEHelper;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataRecord;
+
+
+public class TestXmlDataParser
+{
+
+    protected DataRecord createRecord()
+    {
+        SWEHelper fac = new SWEHelper();
+        return fac.createRecord()
+            .name("rec")
+            .addSamplingTimeIsoUTC("t0")
+            .addField("q1", fac.createQuantity().build())
+            .addField("c2", fac.createCount().build())
+            .addField("b3", fac.createBoolean().build())
+            .addField("t4", fac.createText().build())
+            .build();
+    }
+
+
+    protected List<DataBlock> createRecords(DataComponent dataStruct, int numRecords)
+    {
+        var now = (double)Instant.now().getEpochSecond();
+        var records = new ArrayList<DataBlock>();
+        for (int r=0; r<numRecords; r++)
+        {
+            var rec = dataStruct.createDataBlock();
+            rec.setDoubleValue(0, now+r);
+            rec.setDoubleValue(1, r/10.);
+            rec.setIntValue(2, r+100);
+            rec.setBooleanValue(3, r % 2 == 0);
+            rec.setStringValue(4, "text" + r);
+            records.add(rec);
+        }
+
+        return records;
+    }
+
+
+    protected byte[] write(DataComponent dataStruct, List<DataBlock> records, boolean addWrapper) throws IOException
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        XmlDataWriter writer = new XmlDataWriter();
+        writer.setDataComponents(dataStruct.copy());
+        writer.setDataEncoding(new XMLEncodingImpl());
+        writer.setDirectOutput(true);
+        writer.setOutput(os);
+        writer.startStream(addWrapper);
+        for (var rec: records)
+            writer.write(rec);
+        writer.endStream();
+        writer.flush();
+        return os.toByteArray();
+    }
+
+
+    protected XmlDataParser createParser(DataComponent dataStruct, byte[] bytes) throws IOException
+    {
+        XmlDataParser parser = new XmlDataParser();
+        parser.setDataComponents(dataStruct.copy());
+        parser.setDataEncoding(new XMLEncodingImpl());
+        parser.setInput(new ByteArrayInputStream(bytes));
+        return parser;
+    }
+
+
+    protected void assertSameValues(DataBlock expected, DataBlock actual)
+    {
+        assertEquals("Wrong datablock size", expected.getAtomCount(), actual.getAtomCount());
+        for (int j = 0; j < expected.getAtomCount(); j++)
+            assertEquals(expected.getStringValue(j), actual.getStringValue(j));
+    }
+
+
+    @Test
+    public void testWriteAndReadBackRecords() throws IOException
+    {
+        DataRecord dataStruct = createRecord();
+        var records = createRecords(dataStruct, 10);
+
+        XmlDataParser parser = createParser(dataStruct, write(dataStruct, records, true));
+        parser.setRenewDataBlock(true);
+        int r = 0;
+        DataBlock dataBlk;
+        while ((dataBlk = parser.parseNextBlock()) != null)
+            assertSameValues(records.get(r++), dataBlk);
+
+        assertEquals("Wrong number of records", records.size(), r);
+    }
+
+
+    @Test
+    public void testWriteAndReadBackSingleRecord() throws IOException
+    {
+        DataRecord dataStruct = createRecord();
+        var records = createRecords(dataStruct, 1);
+
+        XmlDataParser parser = createParser(dataStruct, write(dataStruct, records, false));
+        assertSameValues(records.get(0), parser.parseNextBlock());
+        assertNull(parser.parseNextBlock());
+    }
+
+
+    @Test
+    public void testReadBatches() throws IOException
+    {
+        DataRecord dataStruct = createRecord();
+        int numRecords = 10;
+        var records = createRecords(dataStruct, numRecords);
+        XmlDataParser parser = createParser(dataStruct, write(dataStruct, records, true));
+
+        // parse records 4 by 4 in the same columnar block
+        var batch = DataBlockFactory.createParallelBlock(dataStruct, 4);
+        int r = 0, count;
+        while ((count = parser.parseNextBlocks(batch)) > 0)
+        {
+            for (int i = 0; i < count; i++, r++)
+            {
+                var rec = batch.getRow(i);
+                var expected = records.get(r);
+                assertEquals(expected.getDoubleValue(0), rec.getDoubleValue(0), 0.0);
+                assertEquals(expected.getDoubleValue(1), rec.getDoubleValue(1), 0.0);
+                assertEquals(expected.getIntValue(2), rec.getIntValue(2));
+                assertEquals(expected.getBooleanValue(3), rec.getBooleanValue(3));
+                assertEquals(expected.getStringValue(4), rec.getStringValue(4));
+            }
+        }
+
+        assertEquals("Wrong number of records", numRecords, r);
+    }
+}
@@ -0,0 +1,248 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.fast;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import org.vast.data.XMLEncodingImpl;
+import org.vast.swe.SWEHelper;
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataChoice;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataRecord;
+
+
+public class TestXmlDataWriter
+{
+
+    protected String writeDirect(DataComponent dataStruct, XMLEncodingImpl encoding, boolean addWrapper, DataBlock... records) throws IOException
+    {
+        return write(dataStruct, encoding, true, addWrapper, records);
+    }
+
+
+    protected String write(DataComponent dataStruct, XMLEncodingImpl encoding, boolean directOutput, boolean addWrapper, DataBlock... records) throws IOException
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        XmlDataWriter writer = new XmlDataWriter();
+        writer.setDataComponents(dataStruct);
+        writer.setDataEncoding(encoding);
+        writer.setDirectOutput(directOutput);
+        writer.setOutput(os);
+        writer.startStream(addWrapper);
+        for (DataBlock rec: records)
+            writer.write(rec);
+        writer.endStream();
+        writer.flush();
+        return new String(os.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+
+    @Test
+    public void testWriteDirectWithPrefix() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        Count sizeField;
+        DataRecord dataStruct = fac.createRecord()
+            .name("rec")
+            .addSamplingTimeIsoUTC("time")
+            .addField("flag", fac.createBoolean().build())
+            .addField("temp", fac.createQuantity().build())
+            .addField("label", fac.createText().build())
+            .addField("size", sizeField = fac.createCount()
+                .id("NUM_POINTS")
+                .build())
+            .addField("values", fac.createArray()
+                .withSizeComponent(sizeField)
+                .withElement("v", fac.createQuantity().build())
+                .build())
+            .build();
+
+        ((DataArray)dataStruct.getComponent("values")).updateSize(2);
+        DataBlock rec1 = dataStruct.createDataBlock();
+        rec1.setDoubleValue(0, 0.0);
+        rec1.setBooleanValue(1, true);
+        rec1.setDoubleValue(2, 21.5);
+        rec1.setStringValue(3, "a < b & c > d ]]> é\r\n");
+        rec1.setIntValue(4, 2);
+        rec1.setDoubleValue(5, 1e23);
+        rec1.setDoubleValue(6, Double.NaN);
+
+        ((DataArray)dataStruct.getComponent("values")).updateSize(0);
+        DataBlock rec2 = dataStruct.createDataBlock();
+        rec2.setDoubleValue(0, 1.0);
+        rec2.setDoubleValue(2, Double.NEGATIVE_INFINITY);
+        rec2.setStringValue(3, "");
+
+        String xml = writeDirect(dataStruct, new XMLEncodingImpl("http://test.org/ns", "t"), true, rec1, rec2);
+        String expected = "<records>" +
+            "<t:rec><t:time>1970-01-01T00:00:00Z</t:time><t:flag>true</t:flag><t:temp>21.5</t:temp>" +
+            "<t:label>a &lt; b &amp; c > d ]]&gt; é&#xd;\n</t:label><t:size>2</t:size>" +
+            "<t:values elementCount=\"2\"><t:v>" + Double.toString(1e23) + "</t:v><t:v>NaN</t:v></t:values></t:rec>\n" +
+            "<t:rec><t:time>1970-01-01T00:00:01Z</t:time><t:flag>false</t:flag><t:temp>-INF</t:temp>" +
+            "<t:label></t:label><t:size>0</t:size><t:values elementCount=\"0\"/></t:rec>\n" +
+            "</records>";
+        assertEquals(expected, xml);
+    }
+
+
+    @Test
+    public void testWriteDirectDefaultNamespace() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        DataComponent dataStruct = fac.createVector()
+            .name("loc")
+            .addCoordinate("x", fac.createQuantity().build())
+            .addCoordinate("y", fac.createQuantity().build())
+            .build();
+
+        DataBlock rec = dataStruct.createDataBlock();
+        rec.setDoubleValue(0, 1.0);
+        rec.setDoubleValue(1, -2.25);
+
+        String xml = writeDirect(dataStruct, new XMLEncodingImpl("http://test.org/ns", null), false, rec);
+        assertEquals("<loc xmlns=\"http://test.org/ns\"><x>1.0</x><y>-2.25</y></loc>\n", xml);
+
+        xml = writeDirect(dataStruct, new XMLEncodingImpl(), false, rec);
+        assertEquals("<loc><x>1.0</x><y>-2.25</y></loc>\n", xml);
+    }
+
+
+    protected void assertSameOutput(DataComponent dataStruct, DataBlock... records) throws IOException
+    {
+        XMLEncodingImpl[] encodings = {
+            new XMLEncodingImpl(),
+            new XMLEncodingImpl("http://test.org/ns", null),
+            new XMLEncodingImpl("http://test.org/ns", "t")
+        };
+
+        for (XMLEncodingImpl encoding: encodings)
+        {
+            for (boolean addWrapper: new boolean[] {false, true})
+            {
+                String expected = write(dataStruct, encoding, false, addWrapper, records);
+                String xml = write(dataStruct, encoding, true, addWrapper, records);
+                assertEquals(expected, xml);
+            }
+        }
+    }
+
+
+    @Test
+    public void testDirectSameAsStreamingScalars() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord dataStruct = fac.createRecord()
+            .name("rec")
+            .addSamplingTimeIsoUTC("time")
+            .addField("flag", fac.createBoolean().build())
+            .addField("count", fac.createCount().build())
+            .addField("temp", fac.createQuantity().build())
+            .addField("julian", fac.createTime().asSamplingTimeIsoUTC().build())
+            .addField("label", fac.createText().build())
+            .addField("cat", fac.createCategory().build())
+            .build();
+
+        String[] texts = {"", "plain", "a < b & c > d", "]]>", ">start", "tab\tcr\rlf\n", "é€\uD83D\uDE00"};
+        double[] values = {0.0, -0.0, 1.0, -2.25, 1e-7, 1e23, Double.MAX_VALUE, Double.MIN_VALUE,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+        DataBlock[] records = new DataBlock[values.length * texts.length];
+        for (int r = 0; r < records.length; r++)
+        {
+            DataBlock rec = dataStruct.createDataBlock();
+            rec.setDoubleValue(0, 1.7e9 + r * 0.001);
+            rec.setBooleanValue(1, r % 2 == 0);
+            rec.setIntValue(2, r % 3 == 0 ? Integer.MIN_VALUE : r * 1000);
+            rec.setDoubleValue(3, values[r % values.length]);
+            rec.setDoubleValue(4, -1e9 + r * 86400.5);
+            rec.setStringValue(5, texts[r % texts.length]);
+            rec.setStringValue(6, texts[(r + 3) % texts.length]);
+            records[r] = rec;
+        }
+
+        assertSameOutput(dataStruct, records);
+    }
+
+
+    @Test
+    public void testDirectSameAsStreamingNested() throws IOException
+    {
+        SWEHelper fac = new SWEHelper();
+        Count sizeField;
+        DataRecord dataStruct = fac.createRecord()
+            .name("rec")
+            .addField("range", fac.createQuantityRange().build())
+            .addField("loc", fac.createVector()
+                .addCoordinate("lat", fac.createQuantity().build())
+                .addCoordinate("lon", fac.createQuantity().build())
+                .build())
+            .addField("choice", fac.createChoice()
+                .addItem("a", fac.createQuantity().build())
+                .addItem("b", fac.createText().build())
+                .build())
+            .addField("size", sizeField = fac.createCount()
+                .id("NUM_POINTS")
+                .build())
+            .addField("points", fac.createArray()
+                .withSizeComponent(sizeField)
+                .withElement("point", fac.createRecord()
+                    .addField("x", fac.createQuantity().build())
+                    .addField("name", fac.createText().build())
+                    .build())
+                .build())
+            .addField("fixed", fac.createArray()
+                .withFixedSize(2)
+                .withElement("v", fac.createCount().build())
+                .build())
+            .build();
+
+        DataChoice choice = (DataChoice)dataStruct.getComponent("choice");
+        DataArray points = (DataArray)dataStruct.getComponent("points");
+        DataBlock[] records = new DataBlock[6];
+        for (int r = 0; r < records.length; r++)
+        {
+            choice.setSelectedItem(r % 2);
+            points.updateSize(r % 3);
+            DataBlock rec = dataStruct.createDataBlock();
+            int i = 0;
+            rec.setDoubleValue(i++, -r);
+            rec.setDoubleValue(i++, r + 0.5);
+            rec.setDoubleValue(i++, 45.0 + r);
+            rec.setDoubleValue(i++, -120.25);
+            rec.setIntValue(i++, r % 2);
+            if (r % 2 == 0)
+                rec.setDoubleValue(i++, r * 1.5);
+            else
+                rec.setStringValue(i++, "item & " + r);
+            rec.setIntValue(i++, r % 3);
+            for (int p = 0; p < r % 3; p++)
+            {
+                rec.setDoubleValue(i++, p * 0.1);
+                rec.setStringValue(i++, "p<" + p + ">");
+            }
+            rec.setIntValue(i++, r);
+            rec.setIntValue(i++, -r);
+            records[r] = rec;
+        }
+
+        assertSameOutput(dataStruct, records);
+    }
+}
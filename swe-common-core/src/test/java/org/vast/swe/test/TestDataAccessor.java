@@ -13,11 +13,28 @@ forbidden unless prior written permission is obtained from Delta Air Lines, Inc.
 
 package org.vast.swe.test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.lang.reflect.Proxy;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Test;
+import org.vast.data.DataAccessorGenerator;
 import org.vast.data.DataBlockProxy;
 import org.vast.data.IDataAccessor;
 import org.vast.swe.SWEHelper;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.DataType;
 
 /**
  * <p>
@@ -42,6 +59,147 @@ public class TestDataAccessor
     }
     
     
+    interface RecordAccessor2 extends IDataAccessor
+    {
+        @SweMapping(path="time")
+        public Instant getTimeStamp();
+        
+        @SweMapping(path="time")
+        public void setTimeStamp(Instant val);
+        
+        @SweMapping(path="id")
+        public int getId();
+        
+        @SweMapping(path="id")
+        public void setId(int val);
+        
+        @SweMapping(path="count")
+        public long getCount();
+        
+        @SweMapping(path="count")
+        public void setCount(long val);
+        
+        @SweMapping(path="valid")
+        public boolean getValid();
+        
+        @SweMapping(path="valid")
+        public void setValid(boolean val);
+        
+        @SweMapping(path="name")
+        public String getName();
+        
+        @SweMapping(path="name")
+        public void setName(String val);
+        
+        @SweMapping(path="loc/lat")
+        public double getLat();
+        
+        @SweMapping(path="loc/lat")
+        public void setLat(double val);
+        
+        @SweMapping(path="loc/alt")
+        public float getAlt();
+        
+        @SweMapping(path="loc/alt")
+        public void setAlt(float val);
+    }
+    
+    
+    interface AllTypesAccessor extends IDataAccessor
+    {
+        @SweMapping(path="b")
+        public byte getByte();
+        
+        @SweMapping(path="b")
+        public void setByte(byte val);
+        
+        @SweMapping(path="s")
+        public short getShort();
+        
+        @SweMapping(path="s")
+        public void setShort(short val);
+        
+        @SweMapping(path="i")
+        public int getInt();
+        
+        @SweMapping(path="i")
+        public void setInt(int val);
+        
+        @SweMapping(path="l")
+        public long getLong();
+        
+        @SweMapping(path="l")
+        public void setLong(long val);
+        
+        @SweMapping(path="f")
+        public float getFloat();
+        
+        @SweMapping(path="f")
+        public void setFloat(float val);
+        
+        @SweMapping(path="d")
+        public double getDouble();
+        
+        @SweMapping(path="d")
+        public void setDouble(double val);
+        
+        @SweMapping(path="bool")
+        public boolean getBool();
+        
+        @SweMapping(path="bool")
+        public void setBool(boolean val);
+        
+        @SweMapping(path="text")
+        public String getText();
+        
+        @SweMapping(path="text")
+        public void setText(String val);
+        
+        @SweMapping(path="time")
+        public Instant getInstant();
+        
+        @SweMapping(path="time")
+        public void setInstant(Instant val);
+        
+        @SweMapping(path="time2")
+        public OffsetDateTime getDateTime();
+        
+        @SweMapping(path="time2")
+        public void setDateTime(OffsetDateTime val);
+        
+        public default double getDoubleTimesTwo()
+        {
+            return getDouble() * 2;
+        }
+    }
+    
+    
+    interface FieldAccessor extends IDataAccessor
+    {
+        @SweMapping(path="field")
+        public double getValue();
+        
+        @SweMapping(path="field")
+        public void setValue(double val);
+    }
+    
+    
+    interface UnmappedAccessor extends IDataAccessor
+    {
+        @SweMapping(path="temp")
+        public double getTemperature();
+        
+        public double getPress();
+    }
+    
+    
+    interface RecordMappingAccessor extends IDataAccessor
+    {
+        @SweMapping(path="loc")
+        public double getLoc();
+    }
+    
+    
     @Test
     public void testRecordOfScalars()
     {
@@ -67,5 +225,382 @@ public class TestDataAccessor
         System.out.println(accessor.getTemperature());
         
     }
-
+    
+    
+    protected DataRecord buildRecord2()
+    {
+        var swe = new SWEHelper();
+        return swe.createRecord()
+            .addField("time", swe.createTime().asSamplingTimeIsoUTC())
+            .addField("id", swe.createCount())
+            .addField("count", swe.createCount().dataType(DataType.LONG))
+            .addField("range", swe.createQuantityRange())
+            .addField("valid", swe.createBoolean())
+            .addField("name", swe.createText())
+            .addField("loc", swe.createRecord()
+                .addField("lat", swe.createQuantity())
+                .addField("lon", swe.createQuantity())
+                .addField("alt", swe.createQuantity().dataType(DataType.FLOAT)))
+            .build();
+    }
+    
+    
+    @Test
+    public void testGeneratedAccessorIsNotProxy()
+    {
+        var accessor = DataAccessorGenerator.generate(buildRecord2(), RecordAccessor2.class);
+        assertFalse(Proxy.isProxyClass(accessor.getClass()));
+        
+        // check generated class is reused
+        var accessor2 = DataAccessorGenerator.generate(buildRecord2(), RecordAccessor2.class);
+        assertEquals(accessor.getClass(), accessor2.getClass());
+    }
+    
+    
+    @Test
+    public void testGeneratedAccessorSameAsProxy()
+    {
+        var rec = buildRecord2();
+        var generated = DataAccessorGenerator.generate(rec, RecordAccessor2.class);
+        var proxy = DataBlockProxy.createProxy(rec, RecordAccessor2.class);
+        assertTrue(Proxy.isProxyClass(proxy.getClass()));
+        
+        var now = Instant.now().toEpochMilli();
+        for (int i = 0; i < 10; i++)
+        {
+            // write with one accessor
+            var db = rec.createDataBlock();
+            var writer = i % 2 == 0 ? generated : proxy;
+            writer.wrap(db);
+            writer.setTimeStamp(Instant.ofEpochMilli(now + i*1000));
+            writer.setId(i);
+            writer.setCount(10000000000L + i);
+            writer.setValid(i % 3 == 0);
+            writer.setName("rec" + i);
+            writer.setLat(45.0 + i/10.);
+            writer.setAlt(100.5f + i);
+            
+            // check we read the same values with both accessors
+            generated.wrap(db);
+            proxy.wrap(db);
+            assertEquals(proxy.getTimeStamp(), generated.getTimeStamp());
+            assertEquals(Instant.ofEpochMilli(now + i*1000), generated.getTimeStamp());
+            assertEquals(proxy.getId(), generated.getId());
+            assertEquals(i, generated.getId());
+            assertEquals(proxy.getCount(), generated.getCount());
+            assertEquals(proxy.getValid(), generated.getValid());
+            assertEquals(proxy.getName(), generated.getName());
+            assertEquals(proxy.getLat(), generated.getLat(), 0.0);
+            assertEquals(45.0 + i/10., generated.getLat(), 0.0);
+            assertEquals(proxy.getAlt(), generated.getAlt(), 0.0f);
+            assertEquals(db, generated.getDataBlock());
+            assertEquals(proxy.toString(), generated.toString());
+            
+            // check values that are not mapped are untouched
+            assertEquals(0.0, db.getDoubleValue(3), 0.0);
+            assertEquals(0.0, db.getDoubleValue(4), 0.0);
+            assertEquals(0.0, db.getDoubleValue(8), 0.0);
+        }
+    }
+    
+    
+    @Test
+    public void testFallbackToProxy()
+    {
+        var swe = new SWEHelper();
+        var rec = swe.createRecord()
+            .addField("time", swe.createTime().asSamplingTimeIsoUTC())
+            .addField("temp", swe.createQuantity())
+            .addField("choice", swe.createChoice()
+                .addItem("a", swe.createCount())
+                .addItem("b", swe.createText()))
+            .addField("press", swe.createQuantity())
+            .build();
+        
+        var accessor = DataAccessorGenerator.generate(rec, RecordAccessor1.class);
+        assertTrue(Proxy.isProxyClass(accessor.getClass()));
+        
+        var db = rec.createDataBlock();
+        db.setDoubleValue(1, 25.6);
+        accessor.wrap(db);
+        assertEquals(25.6, accessor.getTemperature(), 0.0);
+    }
+    
+    
+    @Test
+    public void testFallbackToProxyForUnmappedMethod()
+    {
+        var swe = new SWEHelper();
+        var rec = swe.createRecord()
+            .addField("temp", swe.createQuantity())
+            .addField("press", swe.createQuantity())
+            .build();
+        
+        // method without mapping is only supported by the proxy
+        var accessor = DataAccessorGenerator.generate(rec, UnmappedAccessor.class);
+        assertTrue(Proxy.isProxyClass(accessor.getClass()));
+        
+        var db = rec.createDataBlock();
+        db.setDoubleValue(0, 25.6);
+        accessor.wrap(db);
+        assertEquals(25.6, accessor.getTemperature(), 0.0);
+    }
+    
+    
+    @Test
+    public void testFallbackToProxyForNonScalarMapping()
+    {
+        var accessor = DataAccessorGenerator.generate(buildRecord2(), RecordMappingAccessor.class);
+        assertTrue(Proxy.isProxyClass(accessor.getClass()));
+        
+        // same if path doesn't exist
+        var swe = new SWEHelper();
+        var rec = swe.createRecord()
+            .addField("temp", swe.createQuantity())
+            .build();
+        var accessor2 = DataAccessorGenerator.generate(rec, FieldAccessor.class);
+        assertTrue(Proxy.isProxyClass(accessor2.getClass()));
+    }
+    
+    
+    @Test
+    public void testProxyGenerateUsesGeneratedClass()
+    {
+        var accessor = DataBlockProxy.generate(buildRecord2(), RecordAccessor2.class);
+        assertFalse(Proxy.isProxyClass(accessor.getClass()));
+        
+        var rec = buildRecord2();
+        var db = rec.createDataBlock();
+        accessor.wrap(db);
+        accessor.setId(42);
+        assertEquals(42, db.getIntValue(1));
+    }
+    
+    
+    @Test
+    public void testNoDataBlockAssigned()
+    {
+        var rec = buildRecord2();
+        var accessor = DataAccessorGenerator.generate(rec, RecordAccessor2.class);
+        assertNull(accessor.getDataBlock());
+        assertNoDataBlock(() -> accessor.getId(), true);
+        assertNoDataBlock(() -> accessor.setId(1), true);
+        assertNoDataBlock(() -> accessor.getTimeStamp(), true);
+        assertNoDataBlock(() -> accessor.setName("test"), true);
+        assertNoDataBlock(() -> accessor.getAlt(), true);
+        
+        // also after data block is removed
+        accessor.wrap(rec.createDataBlock());
+        accessor.setId(1);
+        assertEquals(1, accessor.getId());
+        accessor.wrap(null);
+        assertNoDataBlock(() -> accessor.getId(), true);
+        
+        // proxy also fails with same exception type
+        var proxy = DataBlockProxy.createProxy(rec, RecordAccessor2.class);
+        assertNoDataBlock(() -> proxy.getId(), false);
+        assertNoDataBlock(() -> proxy.setName("test"), false);
+    }
+    
+    
+    protected void assertNoDataBlock(Runnable call, boolean checkMsg)
+    {
+        try
+        {
+            call.run();
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException e)
+        {
+            if (checkMsg)
+                assertEquals("No datablock has been assigned", e.getMessage());
+        }
+    }
+    
+    
+    protected DataRecord buildAllTypesRecord()
+    {
+        var swe = new SWEHelper();
+        return swe.createRecord()
+            .addField("b", swe.createCount().dataType(DataType.BYTE))
+            .addField("s", swe.createCount().dataType(DataType.SHORT))
+            .addField("i", swe.createCount())
+            .addField("l", swe.createCount().dataType(DataType.LONG))
+            .addField("range", swe.createQuantityRange())
+            .addField("f", swe.createQuantity().dataType(DataType.FLOAT))
+            .addField("d", swe.createQuantity())
+            .addField("bool", swe.createBoolean())
+            .addField("text", swe.createText())
+            .addField("time", swe.createTime().asSamplingTimeIsoUTC())
+            .addField("time2", swe.createTime().asSamplingTimeIsoUTC())
+            .build();
+    }
+    
+    
+    @Test
+    public void testAllValueTypes()
+    {
+        var rec = buildAllTypesRecord();
+        var generated = DataAccessorGenerator.generate(rec, AllTypesAccessor.class);
+        var proxy = DataBlockProxy.createProxy(rec, AllTypesAccessor.class);
+        assertFalse(Proxy.isProxyClass(generated.getClass()));
+        
+        var time = Instant.parse("2026-10-18T12:34:56.789Z");
+        byte[] bytes = {0, 1, -1, Byte.MIN_VALUE, Byte.MAX_VALUE};
+        short[] shorts = {0, -300, Short.MIN_VALUE, Short.MAX_VALUE, 1};
+        int[] ints = {0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 70000};
+        long[] longs = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40};
+        float[] floats = {0f, -1.5f, Float.MAX_VALUE, Float.NaN, Float.NEGATIVE_INFINITY};
+        double[] doubles = {0., -0.25, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY};
+        String[] texts = {"", "text", "été", null, "a\nb"};
+        
+        for (int i = 0; i < bytes.length; i++)
+        {
+            // write all values with one accessor
+            var db = rec.createDataBlock();
+            var writer = i % 2 == 0 ? generated : proxy;
+            writer.wrap(db);
+            writer.setByte(bytes[i]);
+            writer.setShort(shorts[i]);
+            writer.setInt(ints[i]);
+            writer.setLong(longs[i]);
+            writer.setFloat(floats[i]);
+            writer.setDouble(doubles[i]);
+            writer.setBool(i % 2 == 1);
+            writer.setText(texts[i]);
+            writer.setInstant(time.plusSeconds(i));
+            writer.setDateTime(time.plusSeconds(i*60).atOffset(ZoneOffset.UTC));
+            
+            // read them back with both accessors
+            generated.wrap(db);
+            proxy.wrap(db);
+            for (var reader: new AllTypesAccessor[] {generated, proxy})
+            {
+                assertEquals(bytes[i], reader.getByte());
+                assertEquals(shorts[i], reader.getShort());
+                assertEquals(ints[i], reader.getInt());
+                assertEquals(longs[i], reader.getLong());
+                assertEquals(floats[i], reader.getFloat(), 0.0f);
+                assertEquals(doubles[i], reader.getDouble(), 0.0);
+                assertEquals(i % 2 == 1, reader.getBool());
+                assertEquals(texts[i], reader.getText());
+                assertEquals(time.plusSeconds(i), reader.getInstant());
+                assertEquals(time.plusSeconds(i*60), reader.getDateTime().toInstant());
+                assertSame(db, reader.getDataBlock());
+            }
+            
+            // default methods are inherited by generated class
+            assertEquals(doubles[i] * 2, generated.getDoubleTimesTwo(), 0.0);
+            
+            // check data is stored at the right index
+            // and that range values, which are not mapped, are untouched
+            assertEquals(ints[i], db.getIntValue(2));
+            assertEquals(0.0, db.getDoubleValue(4), 0.0);
+            assertEquals(0.0, db.getDoubleValue(5), 0.0);
+            assertEquals(doubles[i], db.getDoubleValue(7), 0.0);
+            assertEquals(texts[i], db.getStringValue(9));
+        }
+    }
+    
+    
+    @Test
+    public void testDataIndexEncodings()
+    {
+        // check all bytecode forms used to push the data index
+        var swe = new SWEHelper();
+        for (int index: new int[] {0, 1, 5, 6, 127, 128, 1000, Short.MAX_VALUE, Short.MAX_VALUE+1, 40000})
+        {
+            var builder = swe.createRecord();
+            for (int i = 0; i < index; i++)
+                builder.addField("f" + i, swe.createCount());
+            builder.addField("field", swe.createQuantity());
+            builder.addField("last", swe.createQuantity());
+            var rec = builder.build();
+            
+            var accessor = DataAccessorGenerator.generate(rec, FieldAccessor.class);
+            assertFalse(Proxy.isProxyClass(accessor.getClass()));
+            
+            var db = rec.createDataBlock();
+            accessor.wrap(db);
+            accessor.setValue(index + 0.5);
+            assertEquals(index + 0.5, db.getDoubleValue(index), 0.0);
+            assertEquals(index + 0.5, accessor.getValue(), 0.0);
+            assertEquals(0.0, db.getDoubleValue(index + 1), 0.0);
+        }
+    }
+    
+    
+    @Test
+    public void testOneClassPerLayout()
+    {
+        var swe = new SWEHelper();
+        var rec1 = swe.createRecord()
+            .addField("field", swe.createQuantity())
+            .addField("other", swe.createQuantity())
+            .build();
+        var rec2 = swe.createRecord()
+            .addField("other", swe.createQuantity())
+            .addField("field", swe.createQuantity())
+            .build();
+        
+        var accessor1 = DataAccessorGenerator.generate(rec1, FieldAccessor.class);
+        var accessor2 = DataAccessorGenerator.generate(rec2, FieldAccessor.class);
+        var accessor3 = DataAccessorGenerator.generate(rec1.copy(), FieldAccessor.class);
+        assertNotEquals(accessor1.getClass(), accessor2.getClass());
+        assertEquals(accessor1.getClass(), accessor3.getClass());
+        
+        var db1 = rec1.createDataBlock();
+        accessor1.wrap(db1);
+        accessor1.setValue(1.0);
+        assertEquals(1.0, db1.getDoubleValue(0), 0.0);
+        
+        var db2 = rec2.createDataBlock();
+        accessor2.wrap(db2);
+        accessor2.setValue(2.0);
+        assertEquals(2.0, db2.getDoubleValue(1), 0.0);
+        assertEquals(0.0, db2.getDoubleValue(0), 0.0);
+    }
+    
+    
+    @Test
+    public void testConcurrentGeneration() throws Exception
+    {
+        var swe = new SWEHelper();
+        var rec = swe.createRecord()
+            .addField("a", swe.createQuantity())
+            .addField("b", swe.createQuantity())
+            .addField("c", swe.createQuantity())
+            .addField("field", swe.createQuantity())
+            .build();
+        
+        var numThreads = 8;
+        var start = new CountDownLatch(1);
+        var exec = Executors.newFixedThreadPool(numThreads);
+        try
+        {
+            var futures = new ArrayList<Future<Class<?>>>();
+            for (int i = 0; i < numThreads; i++)
+            {
+                futures.add(exec.submit(() -> {
+                    start.await();
+                    var accessor = DataAccessorGenerator.generate(rec, FieldAccessor.class);
+                    var db = rec.createDataBlock();
+                    accessor.wrap(db);
+                    accessor.setValue(3.0);
+                    assertEquals(3.0, db.getDoubleValue(3), 0.0);
+                    return accessor.getClass();
+                }));
+            }
+            
+            start.countDown();
+            var clazz = futures.get(0).get();
+            assertFalse(Proxy.isProxyClass(clazz));
+            for (var f: futures)
+                assertEquals(clazz, f.get());
+        }
+        finally
+        {
+            exec.shutdownNow();
+        }
+    }
 }
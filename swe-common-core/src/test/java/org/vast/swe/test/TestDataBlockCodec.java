@@ -0,0 +1,302 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.Test;
+import org.vast.data.AbstractDataBlock;
+import org.vast.data.AbstractDataComponentImpl;
+import org.vast.data.DataBlockBoolean;
+import org.vast.data.DataBlockCodec;
+import org.vast.data.DataBlockDateTime;
+import org.vast.data.DataBlockFactory;
+import org.vast.data.DataBlockFactory.LayoutHint;
+import org.vast.data.DataBlockFlat;
+import org.vast.data.DataBlockInstant;
+import org.vast.data.DataBlockList;
+import org.vast.data.DataBlockMixed;
+import org.vast.data.DataBlockParallel;
+import org.vast.data.DataBlockString;
+import org.vast.swe.SWEHelper;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.DataType;
+
+
+public class TestDataBlockCodec
+{
+
+    protected DataRecord createRecord()
+    {
+        SWEHelper fac = new SWEHelper();
+        return fac.createRecord()
+            .addField("time", fac.createTime().asSamplingTimeIsoUTC().build())
+            .addField("flag", fac.createBoolean().build())
+            .addField("num", fac.createCount().build())
+            .addField("name", fac.createText().build())
+            .addField("values", fac.createArray()
+                .withFixedSize(3)
+                .withElement("val", fac.createQuantity().dataType(DataType.FLOAT).build())
+                .build())
+            .build();
+    }
+
+
+    protected DataBlock createRecordData(int offset)
+    {
+        DataBlock data = createRecord().createDataBlock();
+        data.setDoubleValue(0, 1700000000.0 + offset);
+        data.setBooleanValue(1, offset % 2 == 0);
+        data.setIntValue(2, offset);
+        data.setStringValue(3, offset % 3 == 0 ? null : "rec" + offset);
+        for (int i = 0; i < 3; i++)
+            data.setFloatValue(4 + i, offset + i * 0.5f);
+        return data;
+    }
+
+
+    protected void checkSameValues(DataBlock expected, DataBlock actual)
+    {
+        assertEquals(expected.getAtomCount(), actual.getAtomCount());
+        for (int i = 0; i < expected.getAtomCount(); i++)
+        {
+            assertEquals(expected.getDataType(i), actual.getDataType(i));
+            assertEquals(expected.getStringValue(i), actual.getStringValue(i));
+        }
+    }
+
+
+    @Test
+    public void testMixedBlock()
+    {
+        DataBlockCodec codec = new DataBlockCodec();
+        DataBlock data = createRecordData(4);
+        assertTrue(data instanceof DataBlockMixed);
+
+        DataBlock decoded = codec.decode(ByteBuffer.wrap(codec.encode(data)));
+        assertTrue(decoded instanceof DataBlockMixed);
+        checkSameValues(data, decoded);
+
+        // null strings are preserved
+        data = createRecordData(3);
+        decoded = codec.decode(ByteBuffer.wrap(codec.encode(data)));
+        assertNull(decoded.getStringValue(3));
+        checkSameValues(data, decoded);
+    }
+
+
+    @Test
+    public void testParallelBlock()
+    {
+        DataBlockCodec codec = new DataBlockCodec();
+        DataBlockParallel data = DataBlockFactory.createParallelBlock(
+            DataBlockFactory.createBlock(new double[] {1.0, 2.0, 3.0, 4.0}),
+            DataBlockFactory.createBlock(new int[] {10, 20, 30, 40}),
+            DataBlockFactory.createUnsignedBlock(new short[] {(short)65535, 1, 2, 3}));
+
+        DataBlock decoded = codec.decode(ByteBuffer.wrap(codec.encode(data)));
+        assertTrue(decoded instanceof DataBlockParallel);
+        checkSameValues(data, decoded);
+        assertEquals(65535, decoded.getIntValue(2));
+
+        // row views keep their position in the underlying arrays
+        DataBlock row = data.getRow(2);
+        decoded = codec.decode(ByteBuffer.wrap(codec.encode(row)));
+        checkSameValues(row, decoded);
+        assertEquals(30, decoded.getIntValue(1));
+    }
+
+
+    @Test
+    public void testListBlock()
+    {
+        DataBlockCodec codec = new DataBlockCodec();
+        DataBlockList data = new DataBlockList(true);
+        for (int i = 0; i < 5; i++)
+            data.add(createRecordData(i));
+
+        DataBlock decoded = codec.decode(ByteBuffer.wrap(codec.encode(data)));
+        assertTrue(decoded instanceof DataBlockList);
+        assertEquals(5, ((DataBlockList)decoded).getListSize());
+        checkSameValues(data, decoded);
+    }
+
+
+    @Test
+    public void testTimeBlocks()
+    {
+        DataBlockCodec codec = new DataBlockCodec();
+        DataBlockInstant instants = new DataBlockInstant(3);
+        instants.setTimeStamp(0, Instant.parse("2026-10-18T12:34:56.123456789Z"));
+        instants.setTimeStamp(2, Instant.parse("1950-01-01T00:00:00Z"));
+        DataBlockDateTime dateTimes = new DataBlockDateTime(2);
+        dateTimes.setDateTime(0, OffsetDateTime.of(2026, 10, 18, 8, 0, 0, 500, ZoneOffset.ofHours(-5)));
+        DataBlockString strings = new DataBlockString(1);
+        strings.setStringValue(0, "été ℃");
+
+        DataBlock data = DataBlockFactory.createMixedBlock(instants, dateTimes, strings);
+        DataBlock decoded = codec.decode(ByteBuffer.wrap(codec.encode(data)));
+        assertEquals(instants.getTimeStamp(0), decoded.getTimeStamp(0));
+        assertNull(decoded.getTimeStamp(1));
+        assertEquals(instants.getTimeStamp(2), decoded.getTimeStamp(2));
+        assertEquals(dateTimes.getDateTime(0), decoded.getDateTime(3));
+        assertNull(decoded.getDateTime(4));
+        assertEquals(strings.getStringValue(0), decoded.getStringValue(5));
+    }
+
+
+    @Test
+    public void testFlatBlock()
+    {
+        DataBlockCodec codec = new DataBlockCodec();
+        SWEHelper fac = new SWEHelper();
+        DataArray array = fac.createArray()
+            .withFixedSize(10)
+            .withElement("rec", fac.createRecord()
+                .addField("time", fac.createTime().asSamplingTimeIsoUTC().build())
+                .addField("val", fac.createQuantity().dataType(DataType.FLOAT).build())
+                .build())
+            .build();
+        ((AbstractDataComponentImpl)array).setDataBlockHint(LayoutHint.FLAT);
+
+        array.renewDataBlock();
+        DataBlockFlat data = (DataBlockFlat)array.getData();
+        for (int i = 0; i < 10; i++)
+        {
+            data.setDoubleValue(i * 2, 1700000000.0 + i);
+            data.setFloatValue(i * 2 + 1, i * 0.25f);
+        }
+
+        DataBlock decoded = codec.decode(ByteBuffer.wrap(codec.encode(data)));
+        assertTrue(decoded instanceof DataBlockFlat);
+        checkSameValues(data, decoded);
+
+        // only the record visible through a view is written
+        DataBlock view = array.getComponent(7).getData();
+        byte[] encoded = codec.encode(view);
+        decoded = codec.decode(ByteBuffer.wrap(encoded));
+        checkSameValues(view, decoded);
+        assertEquals(1700000007.0, decoded.getDoubleValue(0), 0.0);
+        assertTrue(encoded.length < 2 * data.getLayout().getRecordSize());
+    }
+
+
+    @Test
+    public void testDecodeView()
+    {
+        DataBlockCodec codec = new DataBlockCodec();
+        double[] values = {1.5, 2.5, 3.5};
+        DataBlock data = DataBlockFactory.createMixedBlock(
+            DataBlockFactory.createBlock(values),
+            DataBlockFactory.createBlock(new boolean[] {true, false}));
+
+        ByteBuffer buf = ByteBuffer.wrap(codec.encode(data));
+        DataBlock decoded = codec.decodeView(buf);
+        assertFalse(buf.hasRemaining());
+        checkSameValues(data, decoded);
+
+        // numerical values are read from the source buffer
+        DataBlock doubles = ((DataBlockMixed)decoded).getUnderlyingObject()[0];
+        assertTrue(doubles instanceof DataBlockFlat);
+        doubles.setDoubleValue(1, 42.0);
+        assertEquals(42.0, codec.decode(ByteBuffer.wrap(buf.array())).getDoubleValue(1), 0.0);
+    }
+
+
+    @Test
+    public void testPackedBooleans() throws IOException
+    {
+        // encoded size is much smaller than the number of values
+        DataBlockCodec codec = new DataBlockCodec();
+        boolean[] values = new boolean[10000];
+        for (int i = 0; i < values.length; i++)
+            values[i] = i % 3 == 0;
+        DataBlockBoolean data = DataBlockFactory.createBlock(values);
+        byte[] bytes = codec.encode(data);
+        assertTrue(bytes.length < values.length);
+        checkSameValues(data, codec.decode(ByteBuffer.wrap(bytes)));
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        codec.write(data, os);
+        DataBlock mixed = DataBlockFactory.createMixedBlock(data, (AbstractDataBlock)createRecordData(1));
+        codec.write(mixed, os);
+        ByteArrayInputStream is = new ByteArrayInputStream(os.toByteArray());
+        checkSameValues(data, codec.read(is));
+        checkSameValues(mixed, codec.read(is));
+        assertNull(codec.read(is));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLength()
+    {
+        // array length larger than what the remaining bytes can hold
+        DataBlockCodec codec = new DataBlockCodec();
+        byte[] bytes = codec.encode(DataBlockFactory.createBlock(new double[10]));
+        codec.decode(ByteBuffer.wrap(bytes, 0, bytes.length - 1));
+    }
+
+
+    @Test
+    public void testStream() throws IOException
+    {
+        DataBlockCodec codec = new DataBlockCodec();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        for (int i = 0; i < 20; i++)
+            codec.write(createRecordData(i), os);
+
+        ByteArrayInputStream is = new ByteArrayInputStream(os.toByteArray());
+        for (int i = 0; i < 20; i++)
+            checkSameValues(createRecordData(i), codec.read(is));
+        assertNull(codec.read(is));
+    }
+
+
+    @Test(expected = IOException.class)
+    public void testTruncatedStream() throws IOException
+    {
+        DataBlockCodec codec = new DataBlockCodec();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        codec.write(createRecordData(1), os);
+
+        byte[] bytes = os.toByteArray();
+        codec.read(new ByteArrayInputStream(bytes, 0, bytes.length - 3));
+    }
+
+
+    @Test
+    public void testSmallerThanJavaSerialization() throws IOException
+    {
+        DataBlockCodec codec = new DataBlockCodec();
+        DataBlock data = createRecordData(5);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos))
+        {
+            oos.writeObject(data);
+        }
+
+        assertTrue(codec.encode(data).length * 4 < bos.size());
+    }
+}
@@ -0,0 +1,298 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.vast.cdm.common.CDMException;
+import org.vast.cdm.common.CompressedStreamParser;
+import org.vast.cdm.common.CompressedStreamWriter;
+import org.vast.cdm.common.DataInputExt;
+import org.vast.cdm.common.DataOutputExt;
+import org.vast.data.AbstractDataBlock;
+import org.vast.data.DataBlockByte;
+import org.vast.data.DataBlockCompressed;
+import org.vast.data.DataBlockMixed;
+import org.vast.data.DecodedBlockCache;
+import org.vast.swe.ICodecFactory;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.fast.BinaryDataParser;
+import org.vast.swe.fast.BinaryDataWriter;
+import net.opengis.swe.v20.BinaryBlock;
+import net.opengis.swe.v20.ByteOrder;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataRecord;
+
+
+public class TestDataBlockCompressed
+{
+    static final String XOR_CODEC = "x-test-xor";
+    static final String XOR_INPLACE_CODEC = "x-test-xor-inplace";
+    static final int ARRAY_SIZE = 100;
+    static final AtomicInteger decodeCount = new AtomicInteger();
+
+    DataArray array;
+    BinaryBlock binaryInfo;
+
+
+    /*
+     * Dummy codecs xoring each byte, registered via META-INF/services.
+     * The in-place variant writes into the data block already assigned to
+     * the component, like most image and video decoders do
+     */
+    public static class XorCodecFactory implements ICodecFactory
+    {
+        @Override
+        public Map<String, Class<?>> getAvailableDecoders()
+        {
+            return Map.of(
+                XOR_CODEC, CompressedStreamParser.class,
+                XOR_INPLACE_CODEC, CompressedStreamParser.class);
+        }
+
+        @Override
+        public Map<String, Class<?>> getAvailableEncoders()
+        {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public CompressedStreamParser createDecoder(String compressionType)
+        {
+            if (!XOR_CODEC.equals(compressionType) && !XOR_INPLACE_CODEC.equals(compressionType))
+                return null;
+            boolean inPlace = XOR_INPLACE_CODEC.equals(compressionType);
+
+            return new CompressedStreamParser() {
+                @Override
+                public void init(DataComponent blockComponent, BinaryBlock binaryBlock)
+                {
+                }
+
+                @Override
+                public void decode(DataInputExt inputStream, DataComponent blockComponent) throws CDMException
+                {
+                    try
+                    {
+                        DataBlock data = inPlace ? blockComponent.getData() : new DataBlockByte(((DataArray)blockComponent).getComponentCount());
+                        for (int i = 0; i < data.getAtomCount(); i++)
+                            data.setByteValue(i, (byte)(inputStream.readByte() ^ 0x55));
+                        if (!inPlace)
+                            blockComponent.setData(data);
+                        decodeCount.incrementAndGet();
+                    }
+                    catch (IOException e)
+                    {
+                        throw new CDMException("Error reading compressed data", e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public CompressedStreamWriter createEncoder(String compressionType)
+        {
+            return null;
+        }
+    }
+
+
+    @Before
+    public void setup()
+    {
+        SWEHelper fac = new SWEHelper();
+        array = fac.createArray()
+            .withFixedSize(ARRAY_SIZE)
+            .withElement("px", fac.createCount().build())
+            .build();
+        binaryInfo = fac.newBinaryBlock();
+        binaryInfo.setCompression(XOR_CODEC);
+        DecodedBlockCache.getInstance().invalidateAll();
+        decodeCount.set(0);
+    }
+
+
+    protected DataBlockCompressed createBlock(int seed)
+    {
+        byte[] bytes = new byte[ARRAY_SIZE];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte)((i + seed) ^ 0x55);
+        DataBlockCompressed block = new DataBlockCompressed(bytes, ARRAY_SIZE);
+        block.setCodecInfo(array, binaryInfo, ByteOrder.BIG_ENDIAN);
+        return block;
+    }
+
+
+    protected void checkValues(DataBlock block, int seed)
+    {
+        for (int i = 0; i < ARRAY_SIZE; i++)
+            assertEquals((byte)(i + seed), block.getByteValue(i));
+    }
+
+
+    @Test
+    public void testDecodeOnFirstAccess()
+    {
+        DataBlockCompressed block = createBlock(3);
+        assertNull(block.getUncompressedData());
+        checkValues(block, 3);
+        assertEquals(1, decodeCount.get());
+
+        // copies share decoded data
+        checkValues(block.copy(), 3);
+        checkValues(block.clone().copy(), 3);
+        assertEquals(2, decodeCount.get());
+
+        // new compressed data is decoded again
+        block.setUnderlyingObject(createBlock(5).getUnderlyingObject());
+        checkValues(block, 5);
+        assertEquals(3, decodeCount.get());
+    }
+
+
+    @Test
+    public void testCacheSizeBounded()
+    {
+        DecodedBlockCache cache = new DecodedBlockCache(ARRAY_SIZE*4);
+        DataBlockCompressed[] blocks = new DataBlockCompressed[10];
+        for (int i = 0; i < blocks.length; i++)
+        {
+            blocks[i] = createBlock(i);
+            checkValues(cache.get(blocks[i]), i);
+        }
+        assertTrue(cache.size() <= 4);
+
+        // most recent block is still cached
+        int count = decodeCount.get();
+        cache.get(blocks[blocks.length-1]);
+        assertEquals(count, decodeCount.get());
+    }
+
+
+    @Test
+    public void testPrefetch()
+    {
+        DataBlockCompressed block = createBlock(7);
+        block.prefetch(Runnable::run);
+        assertEquals(1, decodeCount.get());
+        checkValues(block, 7);
+        assertEquals(1, decodeCount.get());
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoCodecInfo()
+    {
+        new DataBlockCompressed(new byte[10], 10).getIntValue(0);
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoDecoder()
+    {
+        DataBlockCompressed block = createBlock(0);
+        binaryInfo.setCompression("x-test-unknown");
+        block.getIntValue(0);
+    }
+
+
+    protected DataBlockCompressed parseBlock(boolean deferDecoding) throws Exception
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord rec = fac.createRecord()
+            .addField("id", fac.createCount().build())
+            .addField("img", array)
+            .build();
+
+        var encoding = SWEHelper.getDefaultBinaryEncoding(rec);
+        encoding.getMemberList().removeIf(m -> m.getRef().startsWith("/img"));
+        binaryInfo.setRef("/img");
+        encoding.addMemberAsBlock(binaryInfo);
+        SWEHelper.assignBinaryEncoding(rec, encoding);
+
+        // write compressed bytes as-is
+        var data = (DataBlockMixed)rec.createDataBlock();
+        data.setIntValue(0, 12);
+        ((AbstractDataBlock[])data.getUnderlyingObject())[1] = createBlock(9);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        BinaryDataWriter writer = new BinaryDataWriter();
+        writer.setDataComponents(rec.copy());
+        writer.setDataEncoding(encoding);
+        writer.setOutput(os);
+        writer.write(data);
+        writer.flush();
+
+        BinaryDataParser parser = new BinaryDataParser();
+        parser.setDataComponents(rec.copy());
+        parser.setDataEncoding(encoding);
+        parser.setDeferBlockDecoding(deferDecoding);
+        parser.setInput(new ByteArrayInputStream(os.toByteArray()));
+        var parsedData = (DataBlockMixed)parser.parseNextBlock();
+        assertEquals(12, parsedData.getIntValue(0));
+        return (DataBlockCompressed)((AbstractDataBlock[])parsedData.getUnderlyingObject())[1];
+    }
+
+
+    @Test
+    public void testParseAndDecode() throws Exception
+    {
+        DataBlockCompressed block = parseBlock(false);
+        assertEquals(1, decodeCount.get());
+        assertNotNull(block.getUncompressedData());
+        checkValues(block, 9);
+    }
+
+
+    @Test
+    public void testParseAndDecodeInPlace() throws Exception
+    {
+        binaryInfo.setCompression(XOR_INPLACE_CODEC);
+        DataBlockCompressed block = parseBlock(false);
+        assertEquals(1, decodeCount.get());
+        assertFalse(block.getUncompressedData() instanceof DataBlockCompressed);
+        checkValues(block, 9);
+    }
+
+
+    @Test
+    public void testParseAndDecodeLazily() throws Exception
+    {
+        DataBlockCompressed block = parseBlock(true);
+        assertEquals(0, decodeCount.get());
+        assertNull(block.getUncompressedData());
+        checkValues(block, 9);
+        assertEquals(1, decodeCount.get());
+    }
+
+
+    @Test
+    public void testParseAndDecodeLazilyInPlace() throws Exception
+    {
+        binaryInfo.setCompression(XOR_INPLACE_CODEC);
+        DataBlockCompressed block = parseBlock(true);
+        assertEquals(0, decodeCount.get());
+        checkValues(block, 9);
+        assertEquals(1, decodeCount.get());
+    }
+}
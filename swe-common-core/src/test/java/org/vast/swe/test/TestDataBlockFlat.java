@@ -0,0 +1,213 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Instant;
+import org.junit.Test;
+import org.vast.data.AbstractDataComponentImpl;
+import org.vast.data.DataBlockFactory;
+import org.vast.data.DataBlockFactory.LayoutHint;
+import org.vast.data.DataBlockFlat;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.helper.GeoPosHelper;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.DataType;
+
+
+public class TestDataBlockFlat
+{
+
+    protected DataRecord createRecord()
+    {
+        GeoPosHelper fac = new GeoPosHelper();
+        DataRecord rec = fac.createRecord()
+            .addField("time", fac.createTime().asSamplingTimeIsoUTC().build())
+            .addField("flag", fac.createBoolean().build())
+            .addField("num", fac.createCount().build())
+            .addField("loc", fac.createLocationVectorLLA().dataType(DataType.FLOAT).build())
+            .addField("values", fac.createArray()
+                .withFixedSize(3)
+                .withElement("val", fac.createQuantity().dataType(DataType.SHORT).build())
+                .build())
+            .build();
+
+        ((AbstractDataComponentImpl)rec).setDataBlockHint(LayoutHint.FLAT);
+        return rec;
+    }
+
+
+    protected void fillRecord(DataComponent rec, int offset)
+    {
+        rec.getComponent("time").getData().setTimeStamp(0, Instant.ofEpochSecond(1700000000L + offset));
+        rec.getComponent("flag").getData().setBooleanValue(offset % 2 == 0);
+        rec.getComponent("num").getData().setIntValue(offset);
+        rec.getComponent("loc").getComponent("lat").getData().setDoubleValue(offset + 0.5);
+        rec.getComponent("loc").getComponent("alt").getData().setDoubleValue(-offset);
+        DataArray array = (DataArray)rec.getComponent("values");
+        for (int i = 0; i < 3; i++)
+            array.getComponent(i).getData().setIntValue(offset * 10 + i);
+    }
+
+
+    protected void checkRecord(DataBlock data, int start, int offset)
+    {
+        assertEquals(1700000000L + offset, data.getTimeStamp(start).getEpochSecond());
+        assertEquals(offset % 2 == 0, data.getBooleanValue(start + 1));
+        assertEquals(offset, data.getIntValue(start + 2));
+        assertEquals(offset + 0.5, data.getDoubleValue(start + 3), 0.0);
+        assertEquals(-offset, data.getFloatValue(start + 5), 0.0f);
+        for (int i = 0; i < 3; i++)
+            assertEquals(offset * 10 + i, data.getShortValue(start + 6 + i));
+    }
+
+
+    @Test
+    public void testLayout()
+    {
+        DataRecord rec = createRecord();
+        DataBlock data = rec.createDataBlock();
+        assertTrue(data instanceof DataBlockFlat);
+        assertEquals(9, data.getAtomCount());
+        assertEquals(DataType.MIXED, data.getDataType());
+        assertEquals(DataType.FLOAT, data.getDataType(4));
+
+        // double, bool, int, 3 floats, 3 shorts with padding
+        DataBlockFlat.Layout layout = ((DataBlockFlat)data).getLayout();
+        assertEquals(0, layout.getOffset(0));
+        assertEquals(8, layout.getOffset(1));
+        assertEquals(12, layout.getOffset(2));
+        assertEquals(16, layout.getOffset(3));
+        assertEquals(28, layout.getOffset(6));
+        assertEquals(40, layout.getRecordSize());
+    }
+
+
+    @Test
+    public void testReadWriteThroughComponents()
+    {
+        DataRecord rec = createRecord();
+        rec.renewDataBlock();
+        fillRecord(rec, 3);
+        checkRecord(rec.getData(), 0, 3);
+
+        // write through block and read through components
+        rec.getData().setStringValue(2, "42");
+        assertEquals(42, rec.getComponent("num").getData().getIntValue());
+        assertEquals("42", rec.getComponent("num").getData().getStringValue());
+    }
+
+
+    @Test
+    public void testCloneAndRenew()
+    {
+        DataRecord rec = createRecord();
+        rec.renewDataBlock();
+        fillRecord(rec, 5);
+        DataBlock data1 = rec.getData();
+
+        DataBlock data2 = data1.clone();
+        checkRecord(data2, 0, 5);
+        assertSame(((DataBlockFlat)data1).getLayout(), ((DataBlockFlat)data2).getLayout());
+
+        // check clone doesn't share values
+        rec.setData(data2);
+        fillRecord(rec, 8);
+        checkRecord(data1, 0, 5);
+        checkRecord(data2, 0, 8);
+
+        DataBlock data3 = data1.renew();
+        assertEquals(data1.getAtomCount(), data3.getAtomCount());
+        assertEquals(0, data3.getIntValue(2));
+    }
+
+
+    @Test
+    public void testArrayOfRecords()
+    {
+        DataArray array = new SWEHelper().createArray()
+            .withFixedSize(10)
+            .withElement("rec", createRecord())
+            .build();
+        ((AbstractDataComponentImpl)array).setDataBlockHint(LayoutHint.FLAT);
+
+        array.renewDataBlock();
+        assertTrue(array.getData() instanceof DataBlockFlat);
+        assertEquals(90, array.getData().getAtomCount());
+
+        for (int i = 0; i < 10; i++)
+            fillRecord(array.getComponent(i), i);
+        for (int i = 0; i < 10; i++)
+            checkRecord(array.getData(), i * 9, i);
+
+        // clone of a single record view
+        DataBlock recData = array.getComponent(7).getData().clone();
+        assertEquals(9, recData.getAtomCount());
+        checkRecord(recData, 0, 7);
+    }
+
+
+    @Test
+    public void testFactory()
+    {
+        DataBlockFlat data = DataBlockFactory.createFlatBlock(createRecord(), 4);
+        assertEquals(36, data.getAtomCount());
+        assertEquals(4 * data.getLayout().getRecordSize(), data.getUnderlyingObject().capacity());
+    }
+
+
+    @Test
+    public void testFallbackToDefaultBlock()
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord rec = fac.createRecord()
+            .addField("name", fac.createText().build())
+            .addField("val", fac.createQuantity().build())
+            .build();
+        ((AbstractDataComponentImpl)rec).setDataBlockHint(LayoutHint.FLAT);
+
+        DataBlock data = rec.createDataBlock();
+        assertFalse(data instanceof DataBlockFlat);
+        assertEquals(2, data.getAtomCount());
+    }
+
+
+    @Test
+    public void testSerialization() throws Exception
+    {
+        DataRecord rec = createRecord();
+        rec.renewDataBlock();
+        fillRecord(rec, 12);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos))
+        {
+            oos.writeObject(rec.getData());
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray())))
+        {
+            DataBlock data = (DataBlock)ois.readObject();
+            checkRecord(data, 0, 12);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.vast.data.AbstractDataBlock;
+import org.vast.data.DataBlockDouble;
+import org.vast.data.DataBlockInt;
+import org.vast.data.DataBlockMixed;
+import org.vast.data.DataBlockParallel;
+import org.vast.data.DataBlockString;
+import org.vast.swe.SWEHelper;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataRecord;
+
+
+public class TestDataBlockMixed
+{
+
+    protected DataBlockDouble newDoubleBlock(int size, double offset)
+    {
+        DataBlockDouble block = new DataBlockDouble(size);
+        for (int i = 0; i < size; i++)
+            block.setDoubleValue(i, offset + i);
+        return block;
+    }
+
+
+    @Test
+    public void testVariableChildSizes()
+    {
+        DataBlockMixed block = new DataBlockMixed(
+            newDoubleBlock(3, 0),
+            newDoubleBlock(0, 0),
+            newDoubleBlock(1, 3),
+            new DataBlockInt(0),
+            newDoubleBlock(5, 4));
+
+        assertEquals(9, block.getAtomCount());
+        for (int i = 0; i < block.getAtomCount(); i++)
+            assertEquals(i, block.getDoubleValue(i), 0.0);
+
+        // resize child and check offsets are updated
+        block.setBlock(0, newDoubleBlock(1, 100));
+        assertEquals(7, block.getAtomCount());
+        assertEquals(100, block.getDoubleValue(0), 0.0);
+        assertEquals(3, block.getDoubleValue(1), 0.0);
+        assertEquals(8, block.getDoubleValue(6), 0.0);
+    }
+
+
+    @Test
+    public void testUniformChildSizes()
+    {
+        DataBlockString strings = new DataBlockString(2);
+        strings.setStringValue(0, "a");
+        strings.setStringValue(1, "b");
+        DataBlockMixed block = new DataBlockMixed(newDoubleBlock(2, 0), strings, newDoubleBlock(2, 2));
+
+        assertEquals(1, block.getDoubleValue(1), 0.0);
+        assertEquals("a", block.getStringValue(2));
+        assertEquals("b", block.getStringValue(3));
+        assertEquals(3, block.getDoubleValue(5), 0.0);
+    }
+
+
+    @Test
+    public void testVarSizeArrayInRecord()
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord rec = fac.createRecord()
+            .addField("num", fac.createCount().id("NUM").build())
+            .addField("a1", fac.createArray()
+                .withVariableSize("NUM")
+                .withElement("val", fac.createQuantity().build())
+                .build())
+            .addField("q", fac.createQuantity().build())
+            .build();
+
+        rec.renewDataBlock();
+        DataArray array = (DataArray)rec.getComponent("a1");
+        for (int size = 0; size < 5; size++)
+        {
+            array.updateSize(size);
+            DataBlock data = rec.getData();
+            assertEquals(size + 2, data.getAtomCount());
+            data.setDoubleValue(size + 1, size * 10.0);
+            assertEquals(size * 10.0, rec.getComponent("q").getData().getDoubleValue(), 0.0);
+        }
+    }
+
+
+    @Test
+    public void testParallelBlock()
+    {
+        DataBlockParallel block = new DataBlockParallel(2);
+        block.setChildBlock(0, newDoubleBlock(3, 0));
+        block.setChildBlock(1, newDoubleBlock(3, 10));
+
+        assertEquals(0, block.getDoubleValue(0), 0.0);
+        assertEquals(10, block.getDoubleValue(1), 0.0);
+        assertEquals(2, block.getDoubleValue(4), 0.0);
+        assertEquals(12, block.getDoubleValue(5), 0.0);
+        assertEquals(11, block.getRow(1).getDoubleValue(1), 0.0);
+    }
+
+
+    @Test
+    public void testConcurrentReads() throws Exception
+    {
+        List<AbstractDataBlock> children = new ArrayList<>();
+        int numAtoms = 0;
+        for (int i = 0; i < 50; i++)
+        {
+            int size = i % 7;
+            children.add(newDoubleBlock(size, numAtoms));
+            numAtoms += size;
+        }
+        DataBlockMixed block = new DataBlockMixed(children.toArray(new AbstractDataBlock[0]));
+
+        ExecutorService exec = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++)
+            {
+                int seed = t;
+                results.add(exec.submit(() -> {
+                    for (int n = 0; n < 20000; n++)
+                    {
+                        int i = (n * 31 + seed) % block.getAtomCount();
+                        if (block.getDoubleValue(i) != i)
+                            return false;
+                    }
+                    return true;
+                }));
+            }
+
+            for (Future<Boolean> res: results)
+                assertTrue("Wrong value read concurrently", res.get());
+        }
+        finally
+        {
+            exec.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+import org.vast.swe.DataSourceMappedFile;
+import org.vast.swe.MappedFileDataInput;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.fast.BinaryDataParser;
+import org.vast.swe.fast.BinaryDataWriter;
+import net.opengis.swe.v20.BinaryEncoding;
+import net.opengis.swe.v20.ByteOrder;
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataRecord;
+
+
+public class TestDataSourceMappedFile
+{
+    static final int NUM_RECORDS = 200;
+    static final int WINDOW_SIZE = 1001; // odd size so values span windows
+
+    Path file;
+
+
+    protected DataRecord createRecord(boolean varSize)
+    {
+        SWEHelper fac = new SWEHelper();
+        Count sizeField = fac.createCount().id("NUM_VALUES").build();
+        var array = fac.createArray()
+            .withElement("val", fac.createQuantity().build());
+        if (varSize)
+            array.withSizeComponent(sizeField);
+        else
+            array.withFixedSize(10);
+
+        return fac.createRecord()
+            .addField("time", fac.createTime().asSamplingTimeIsoUTC().build())
+            .addField("id", fac.createCount().build())
+            .addField("num", sizeField)
+            .addField("values", array.build())
+            .build();
+    }
+
+
+    protected List<DataBlock> writeFile(DataRecord rec, BinaryEncoding encoding, boolean varSize) throws IOException
+    {
+        List<DataBlock> records = new ArrayList<>();
+        file = Files.createTempFile("swe-mapped", ".bin");
+
+        try (OutputStream os = Files.newOutputStream(file))
+        {
+            BinaryDataWriter writer = new BinaryDataWriter();
+            writer.setDataComponents(rec);
+            writer.setDataEncoding(encoding);
+            writer.setOutput(os);
+
+            for (int i = 0; i < NUM_RECORDS; i++)
+            {
+                DataRecord struct = rec.copy();
+                if (varSize)
+                    ((DataArray)struct.getComponent("values")).updateSize(i % 17);
+                DataBlock data = struct.createDataBlock();
+                data.setDoubleValue(0, 1.7e9 + i);
+                data.setIntValue(1, i);
+                data.setIntValue(2, varSize ? i % 17 : 10);
+                for (int j = 3; j < data.getAtomCount(); j++)
+                    data.setDoubleValue(j, i + j * 0.001);
+                writer.write(data);
+                records.add(data);
+            }
+
+            writer.flush();
+        }
+
+        return records;
+    }
+
+
+    protected BinaryDataParser createParser(DataRecord rec, BinaryEncoding encoding)
+    {
+        BinaryDataParser parser = new BinaryDataParser();
+        parser.setDataComponents(rec);
+        parser.setDataEncoding(encoding);
+        parser.setRenewDataBlock(true);
+        return parser;
+    }
+
+
+    protected void checkRecord(DataBlock expected, DataBlock actual)
+    {
+        assertEquals(expected.getAtomCount(), actual.getAtomCount());
+        for (int j = 0; j < expected.getAtomCount(); j++)
+            assertEquals(expected.getDoubleValue(j), actual.getDoubleValue(j), 0.0);
+    }
+
+
+    protected void checkReadFile(ByteOrder byteOrder, boolean varSize) throws IOException
+    {
+        DataRecord rec = createRecord(varSize);
+        BinaryEncoding encoding = SWEHelper.getDefaultBinaryEncoding(rec);
+        encoding.setByteOrder(byteOrder);
+        List<DataBlock> records = writeFile(rec, encoding, varSize);
+
+        try (DataSourceMappedFile source = new DataSourceMappedFile(file, WINDOW_SIZE))
+        {
+            assertEquals(Files.size(file), source.getSize());
+
+            // read sequentially
+            BinaryDataParser parser = createParser(rec, encoding);
+            parser.setInput(source.getDataStream());
+            for (DataBlock expected: records)
+                checkRecord(expected, parser.parseNextBlock());
+            assertNull(parser.parseNextBlock());
+
+            // index and read records in random order
+            long[] offsets = source.buildRecordIndex(createParser(rec, encoding));
+            assertEquals(NUM_RECORDS, offsets.length);
+            assertEquals(NUM_RECORDS, source.getNumRecords());
+            for (int i = NUM_RECORDS-1; i >= 0; i -= 7)
+            {
+                parser.setInput(source.getDataStream(i));
+                checkRecord(records.get(i), parser.parseNextBlock());
+            }
+
+            // fixed size records can be accessed without index
+            if (!varSize)
+            {
+                source.setFixedRecordSize(0, (int)(source.getSize() / NUM_RECORDS));
+                assertEquals(NUM_RECORDS, source.getNumRecords());
+                MappedFileDataInput input = source.getDataStream(0);
+                parser.setInput(input);
+                for (int i = 3; i < NUM_RECORDS; i += 11)
+                {
+                    input.seek(source.getRecordOffset(i));
+                    checkRecord(records.get(i), parser.parseNextBlock());
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void testReadFixedSizeRecordsBigEndian() throws IOException
+    {
+        checkReadFile(ByteOrder.BIG_ENDIAN, false);
+    }
+
+
+    @Test
+    public void testReadFixedSizeRecordsLittleEndian() throws IOException
+    {
+        checkReadFile(ByteOrder.LITTLE_ENDIAN, false);
+    }
+
+
+    @Test
+    public void testReadVarSizeRecords() throws IOException
+    {
+        checkReadFile(ByteOrder.LITTLE_ENDIAN, true);
+    }
+
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidRecordIndex() throws IOException
+    {
+        DataRecord rec = createRecord(false);
+        BinaryEncoding encoding = SWEHelper.getDefaultBinaryEncoding(rec);
+        writeFile(rec, encoding, false);
+
+        try (DataSourceMappedFile source = new DataSourceMappedFile(file))
+        {
+            source.setFixedRecordSize(0, (int)(source.getSize() / NUM_RECORDS));
+            source.getDataStream(NUM_RECORDS);
+        }
+    }
+
+
+    @After
+    public void cleanup() throws IOException
+    {
+        if (file != null)
+            Files.deleteIfExists(file);
+    }
+}
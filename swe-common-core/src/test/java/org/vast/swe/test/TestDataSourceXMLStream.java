@@ -0,0 +1,123 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import org.junit.Test;
+import org.vast.swe.DataSourceXMLStream;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.SWEInputDataStream;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataRecord;
+
+
+public class TestDataSourceXMLStream
+{
+
+    protected String readElementText(XMLStreamReader reader) throws Exception
+    {
+        InputStream is = new DataSourceXMLStream(reader).getDataStream();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        byte[] buf = new byte[7];
+        int n;
+        while ((n = is.read(buf)) > 0)
+            os.write(buf, 0, n);
+        return new String(os.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+
+    @Test
+    public void testReadElementText() throws Exception
+    {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < 2000; i++)
+            values.append("2026-10-18T00:00:").append(i%60).append("Z,").append(i*0.1).append(",é&lt;\n");
+
+        String xml = "<root><values>" + values + "</values><next>abc</next></root>";
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+        reader.nextTag();
+        reader.nextTag();
+        assertEquals("values", reader.getLocalName());
+
+        String text = readElementText(reader);
+        assertEquals(values.toString().replace("&lt;", "<"), text);
+
+        // check reader is left on end tag
+        assertTrue(reader.isEndElement());
+        assertEquals("values", reader.getLocalName());
+        reader.nextTag();
+        assertEquals("next", reader.getLocalName());
+        assertEquals("abc", reader.getElementText());
+    }
+
+
+    @Test
+    public void testParseXmlEncodedValues() throws Exception
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord rec = fac.createRecord()
+            .name("rec")
+            .addField("a", fac.createCount().build())
+            .addField("b", fac.createText().build())
+            .build();
+
+        String xml = "<root><values>\n" +
+            "<rec><a>1</a><b>x</b></rec>\n" +
+            "<rec><a>2</a><b>y</b></rec>\n" +
+            "</values><next>abc</next></root>";
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+        reader.nextTag();
+        reader.nextTag();
+
+        // XML encoded values are parsed directly from the StAX reader
+        List<DataBlock> records = new ArrayList<>();
+        try (SWEInputDataStream dataStream = new SWEInputDataStream(rec, fac.newXMLEncoding(), new DataSourceXMLStream(reader)))
+        {
+            DataBlock dataBlk;
+            while ((dataBlk = dataStream.getNextDataBlock()) != null)
+                records.add(dataBlk);
+        }
+        assertEquals(2, records.size());
+        assertEquals(1, records.get(0).getIntValue(0));
+        assertEquals("x", records.get(0).getStringValue(1));
+        assertEquals(2, records.get(1).getIntValue(0));
+        assertEquals("y", records.get(1).getStringValue(1));
+
+        // check reader is left on end tag
+        assertTrue(reader.isEndElement());
+        assertEquals("values", reader.getLocalName());
+        reader.nextTag();
+        assertEquals("next", reader.getLocalName());
+    }
+
+
+    @Test
+    public void testReadEmptyElement() throws Exception
+    {
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader("<root><values/></root>"));
+        reader.nextTag();
+        reader.nextTag();
+        assertEquals("", readElementText(reader));
+        assertTrue(reader.isEndElement());
+    }
+}
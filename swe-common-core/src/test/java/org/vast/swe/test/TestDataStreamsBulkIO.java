@@ -0,0 +1,139 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Test;
+import org.vast.cdm.common.DataInputExt;
+import org.vast.cdm.common.DataOutputExt;
+import org.vast.swe.DataInputStreamBI;
+import org.vast.swe.DataInputStreamLI;
+import org.vast.swe.DataOutputStreamBI;
+import org.vast.swe.DataOutputStreamLI;
+
+
+public class TestDataStreamsBulkIO
+{
+    static final int NUM_VALUES = 5000;
+    static final int OFFSET = 3;
+
+    Random random = new Random(20261018L);
+
+
+    protected DataOutputExt newOutput(ByteArrayOutputStream os, boolean littleEndian)
+    {
+        return littleEndian ? new DataOutputStreamLI(os) : new DataOutputStreamBI(os);
+    }
+
+
+    protected DataInputExt newInput(byte[] bytes, boolean littleEndian)
+    {
+        ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+        return littleEndian ? new DataInputStreamLI(is) : new DataInputStreamBI(is);
+    }
+
+
+    protected void checkBulkIO(boolean littleEndian) throws IOException
+    {
+        short[] shorts = new short[NUM_VALUES + OFFSET];
+        int[] ints = new int[NUM_VALUES + OFFSET];
+        long[] longs = new long[NUM_VALUES + OFFSET];
+        float[] floats = new float[NUM_VALUES + OFFSET];
+        double[] doubles = new double[NUM_VALUES + OFFSET];
+        for (int i = 0; i < NUM_VALUES + OFFSET; i++)
+        {
+            shorts[i] = (short)random.nextInt();
+            ints[i] = random.nextInt();
+            longs[i] = random.nextLong();
+            floats[i] = random.nextFloat() * 1e6f;
+            doubles[i] = random.nextGaussian() * 1e12;
+        }
+
+        // write values in bulk
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        DataOutputExt out = newOutput(os, littleEndian);
+        out.writeShorts(shorts, OFFSET, NUM_VALUES);
+        out.writeInts(ints, OFFSET, NUM_VALUES);
+        out.writeLongs(longs, OFFSET, NUM_VALUES);
+        out.writeFloats(floats, OFFSET, NUM_VALUES);
+        out.writeDoubles(doubles, OFFSET, NUM_VALUES);
+        out.flush();
+        byte[] bulkBytes = os.toByteArray();
+
+        // write same values one at a time and check bytes are the same
+        os = new ByteArrayOutputStream();
+        out = newOutput(os, littleEndian);
+        for (int i = OFFSET; i < NUM_VALUES + OFFSET; i++)
+            out.writeShort(shorts[i]);
+        for (int i = OFFSET; i < NUM_VALUES + OFFSET; i++)
+            out.writeInt(ints[i]);
+        for (int i = OFFSET; i < NUM_VALUES + OFFSET; i++)
+            out.writeLong(longs[i]);
+        for (int i = OFFSET; i < NUM_VALUES + OFFSET; i++)
+            out.writeFloat(floats[i]);
+        for (int i = OFFSET; i < NUM_VALUES + OFFSET; i++)
+            out.writeDouble(doubles[i]);
+        out.flush();
+        assertArrayEquals(os.toByteArray(), bulkBytes);
+
+        // read back in bulk
+        DataInputExt in = newInput(bulkBytes, littleEndian);
+        short[] shorts2 = new short[NUM_VALUES + OFFSET];
+        int[] ints2 = new int[NUM_VALUES + OFFSET];
+        long[] longs2 = new long[NUM_VALUES + OFFSET];
+        float[] floats2 = new float[NUM_VALUES + OFFSET];
+        double[] doubles2 = new double[NUM_VALUES + OFFSET];
+        in.readShorts(shorts2, OFFSET, NUM_VALUES);
+        in.readInts(ints2, OFFSET, NUM_VALUES);
+        in.readLongs(longs2, OFFSET, NUM_VALUES);
+        in.readFloats(floats2, OFFSET, NUM_VALUES);
+        in.readDoubles(doubles2, OFFSET, NUM_VALUES);
+        assertEquals(-1, in.read());
+
+        for (int i = OFFSET; i < NUM_VALUES + OFFSET; i++)
+        {
+            assertEquals(shorts[i], shorts2[i]);
+            assertEquals(ints[i], ints2[i]);
+            assertEquals(longs[i], longs2[i]);
+            assertEquals(floats[i], floats2[i], 0.0f);
+            assertEquals(doubles[i], doubles2[i], 0.0);
+        }
+    }
+
+
+    @Test
+    public void testBulkIOLittleEndian() throws IOException
+    {
+        checkBulkIO(true);
+    }
+
+
+    @Test
+    public void testBulkIOBigEndian() throws IOException
+    {
+        checkBulkIO(false);
+    }
+
+
+    @Test(expected = IOException.class)
+    public void testReadPastEnd() throws IOException
+    {
+        newInput(new byte[10], true).readDoubles(new double[2], 0, 2);
+    }
+}
@@ -0,0 +1,231 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Random;
+import org.junit.Test;
+import org.vast.util.DateTimeFormat;
+import org.vast.util.IsoDateTimeCodec;
+
+
+public class TestIsoDateTimeCodec
+{
+    static final int NUM_SAMPLES = 200000;
+    static final String ISO_CHARS = "0123456789-:.TZ+ ";
+
+    DateTimeFormat refFormat = new DateTimeFormat();
+    IsoDateTimeCodec codec = new IsoDateTimeCodec();
+    Random random = new Random(20261018L);
+
+
+    protected String formatRef(double time, int tz)
+    {
+        try
+        {
+            return refFormat.formatIso(time, tz);
+        }
+        catch (RuntimeException e)
+        {
+            return e.getClass().getName();
+        }
+    }
+
+
+    protected String formatCodec(double time, int tz)
+    {
+        try
+        {
+            char[] buf = new char[IsoDateTimeCodec.MAX_ISO_LENGTH + 3];
+            int len = codec.format(time, tz, buf, 3);
+            String iso = new String(buf, 3, len);
+            assertEquals(iso, codec.formatIso(time, tz));
+            return iso;
+        }
+        catch (RuntimeException e)
+        {
+            return e.getClass().getName();
+        }
+    }
+
+
+    protected Object parseRef(String iso)
+    {
+        try
+        {
+            return refFormat.parseIso(iso);
+        }
+        catch (ParseException e)
+        {
+            return ParseException.class;
+        }
+    }
+
+
+    protected Object parseCodec(String iso)
+    {
+        try
+        {
+            double val = codec.parseIso(iso);
+
+            // also check parsing from char and byte arrays
+            char[] chars = ("  " + iso + " ").toCharArray();
+            double charVal = codec.parse(chars, 2, chars.length-1);
+            byte[] bytes = ("a" + iso).getBytes(StandardCharsets.UTF_8);
+            double byteVal = codec.parse(bytes, 1, bytes.length);
+            if (!Double.isNaN(charVal))
+                assertEquals(iso, val, charVal, 0.0);
+            if (!Double.isNaN(byteVal))
+                assertEquals(iso, val, byteVal, 0.0);
+
+            return val;
+        }
+        catch (ParseException e)
+        {
+            return ParseException.class;
+        }
+    }
+
+
+    protected double randomTime()
+    {
+        // mostly consecutive time stamps with some random jumps
+        double time;
+        switch (random.nextInt(4))
+        {
+            case 0:
+                time = (random.nextDouble() * 2 - 1) * 1e11;
+                break;
+            case 1:
+                time = (long)(random.nextDouble() * 4e9 - 1e9);
+                break;
+            case 2:
+                time = (long)(random.nextDouble() * 4e9 - 1e9) + random.nextInt(1000) / 1000.;
+                break;
+            default:
+                time = 1.7e9 + random.nextInt(86400*3) + random.nextInt(1000000) / 1e6;
+        }
+
+        return time;
+    }
+
+
+    protected String randomIso()
+    {
+        StringBuilder buf = new StringBuilder();
+        buf.append(String.format("%04d-%02d-%02d", random.nextInt(10000), random.nextInt(13), random.nextInt(32)));
+
+        int timeForm = random.nextInt(4);
+        if (timeForm > 0)
+        {
+            buf.append(String.format("T%02d:%02d", random.nextInt(25), random.nextInt(61)));
+            if (timeForm > 1)
+                buf.append(String.format(":%02d", random.nextInt(61)));
+            if (timeForm > 2)
+            {
+                buf.append('.');
+                int numDigits = random.nextInt(11);
+                for (int i = 0; i < numDigits; i++)
+                    buf.append((char)('0' + random.nextInt(10)));
+            }
+        }
+
+        switch (random.nextInt(3))
+        {
+            case 0:
+                buf.append('Z');
+                break;
+            case 1:
+                buf.append(String.format("%c%02d:%02d", random.nextBoolean() ? '+' : '-', random.nextInt(20), random.nextInt(61)));
+                break;
+            default:
+                buf.append(String.format("%c%02d", random.nextBoolean() ? '+' : '-', random.nextInt(20)));
+        }
+
+        // sometimes corrupt a char
+        if (random.nextInt(10) == 0)
+        {
+            int i = random.nextInt(buf.length());
+            buf.setCharAt(i, ISO_CHARS.charAt(random.nextInt(ISO_CHARS.length())));
+        }
+
+        return buf.toString();
+    }
+
+
+    @Test
+    public void testFormatSpecialValues()
+    {
+        double[] times = {0.0, -0.5, -1e-3, 0.1, 1e-9, -62167219200.0, -62167219200.5, 253402300799.999,
+            253402300800.0, -1e13, 1e13, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+        for (double time: times)
+        {
+            for (int tz: new int[] {0, -18, -5, 3, 18, 19})
+                assertEquals(formatRef(time, tz), formatCodec(time, tz));
+        }
+    }
+
+
+    @Test
+    public void testFormatFuzz()
+    {
+        for (int i = 0; i < NUM_SAMPLES; i++)
+        {
+            double time = randomTime();
+            int tz = random.nextInt(4) == 0 ? random.nextInt(37) - 18 : 0;
+            assertEquals("Time " + time, formatRef(time, tz), formatCodec(time, tz));
+        }
+    }
+
+
+    @Test
+    public void testParseSpecialValues()
+    {
+        String[] isoStrings = {"1970-01-01T00:00:00Z", "2026-10-18Z", "2026-10-18T12:30Z", "2024-02-29T23:59:59.999999999+18:00",
+            "2023-02-29T00:00:00Z", "2026-04-31T00:00:00Z", "2026-10-18T24:00:00Z", "0000-01-01T00:00:00-18:00",
+            "2026-10-18T00:00:00+18:30", "2026-10-18T00:00:00.Z", "2026-10-18T00:00:60Z", "2026-10-18T00:00:00",
+            "2026-10-18T00:00:00+02", "2026-10-18T00:00:00+02:00:30", "+12026-10-18T00:00:00Z", "2026-10-18t00:00:00z",
+            "2026-10-18T00:00:00.1234567890Z", "2026-10-18T1:00:00Z"};
+
+        for (String iso: isoStrings)
+            assertEquals(iso, parseRef(iso), parseCodec(iso));
+    }
+
+
+    @Test
+    public void testParseFuzz()
+    {
+        for (int i = 0; i < NUM_SAMPLES; i++)
+        {
+            String iso = randomIso();
+            assertEquals(iso, parseRef(iso), parseCodec(iso));
+        }
+    }
+
+
+    @Test
+    public void testRoundTrip()
+    {
+        for (int i = 0; i < NUM_SAMPLES; i++)
+        {
+            double time = randomTime();
+            String iso = codec.formatIso(time, 0);
+            assertEquals(iso, parseRef(iso), parseCodec(iso));
+        }
+    }
+}
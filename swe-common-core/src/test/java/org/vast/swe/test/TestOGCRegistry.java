@@ -0,0 +1,94 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.vast.ogc.IReusable;
+import org.vast.ogc.OGCRegistry;
+
+
+public class TestOGCRegistry
+{
+    public static class StatefulReader
+    {
+    }
+
+
+    public static class StatelessWriter implements IReusable
+    {
+    }
+
+
+    public static class OtherReader
+    {
+    }
+
+
+    @Test
+    public void testCreateNewInstances()
+    {
+        OGCRegistry.addReaderClass("TEST", "Op1", "1.0", StatefulReader.class.getName());
+
+        Object reader1 = OGCRegistry.createReader("TEST", "Op1", "1.0");
+        Object reader2 = OGCRegistry.createReader("test", "op1", "1.0.0");
+        assertTrue(reader1 instanceof StatefulReader);
+        assertTrue(reader2 instanceof StatefulReader);
+        assertNotSame(reader1, reader2);
+    }
+
+
+    @Test
+    public void testShareReusableInstance()
+    {
+        OGCRegistry.addWriterClass("TEST", "Op1", "1.0", StatelessWriter.class.getName());
+
+        Object writer1 = OGCRegistry.createWriter("TEST", "Op1", "1.0");
+        Object writer2 = OGCRegistry.createWriter("TEST", "Op1", "1.0");
+        assertTrue(writer1 instanceof StatelessWriter);
+        assertSame(writer1, writer2);
+    }
+
+
+    @Test
+    public void testRegistrationUpdatesCache()
+    {
+        // resolved with fallback to mapping without version
+        OGCRegistry.addReaderClass("TEST", "Op2", null, StatefulReader.class.getName());
+        assertTrue(OGCRegistry.createReader("TEST", "Op2", "2.0") instanceof StatefulReader);
+
+        // more specific mapping must be used after it's registered
+        OGCRegistry.addReaderClass("TEST", "Op2", "2.0", OtherReader.class.getName());
+        assertTrue(OGCRegistry.createReader("TEST", "Op2", "2.0") instanceof OtherReader);
+    }
+
+
+    @Test
+    public void testPrewarm()
+    {
+        OGCRegistry.addReaderClass("TEST", "Op3", "1.0", "org.vast.NonExistentClass");
+        OGCRegistry.prewarm();
+
+        try
+        {
+            OGCRegistry.createReader("TEST", "Op3", "1.0");
+            fail("Missing class should be reported");
+        }
+        catch (IllegalStateException e)
+        {
+            assertTrue(e.getCause() instanceof ClassNotFoundException);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+import org.vast.data.AbstractDataComponentImpl;
+import org.vast.data.DataBlockFactory;
+import org.vast.data.DataBlockFactory.LayoutHint;
+import org.vast.data.DataBlockFlat;
+import org.vast.swe.DataSourceMappedFile;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.fast.BinaryDataParser;
+import org.vast.swe.fast.BinaryDataWriter;
+import net.opengis.swe.v20.BinaryEncoding;
+import net.opengis.swe.v20.ByteOrder;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.DataType;
+
+
+public class TestOffHeapDataBlock
+{
+    static final int NUM_RECORDS = 20;
+    static final int ARRAY_SIZE = 1000;
+
+    Path file;
+
+
+    @After
+    public void cleanup() throws IOException
+    {
+        DataBlockFactory.setOffHeapThreshold(Long.MAX_VALUE);
+        if (file != null)
+            Files.deleteIfExists(file);
+    }
+
+
+    protected DataRecord createRecord(DataType dataType, boolean useHint)
+    {
+        SWEHelper fac = new SWEHelper();
+        DataArray array = fac.createArray()
+            .withFixedSize(ARRAY_SIZE)
+            .withElement("val", fac.createQuantity().dataType(dataType).build())
+            .build();
+        if (useHint)
+            ((AbstractDataComponentImpl)array).setDataBlockHint(LayoutHint.OFF_HEAP);
+
+        return fac.createRecord()
+            .addField("time", fac.createTime().asSamplingTimeIsoUTC().build())
+            .addField("values", array)
+            .build();
+    }
+
+
+    protected List<DataBlock> createRecords(DataRecord rec)
+    {
+        List<DataBlock> records = new ArrayList<>();
+        for (int i = 0; i < NUM_RECORDS; i++)
+        {
+            DataBlock data = rec.createDataBlock();
+            data.setDoubleValue(0, 1.7e9 + i);
+            for (int j = 1; j < data.getAtomCount(); j++)
+                data.setDoubleValue(j, i * 100 + j * 0.5);
+            records.add(data);
+        }
+
+        return records;
+    }
+
+
+    protected byte[] write(DataRecord rec, BinaryEncoding encoding, List<DataBlock> records) throws IOException
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        writeTo(rec, encoding, records, os);
+        return os.toByteArray();
+    }
+
+
+    protected void writeTo(DataRecord rec, BinaryEncoding encoding, List<DataBlock> records, OutputStream os) throws IOException
+    {
+        BinaryDataWriter writer = new BinaryDataWriter();
+        writer.setDataComponents(rec.copy());
+        writer.setDataEncoding(encoding);
+        writer.setOutput(os);
+        for (DataBlock data: records)
+            writer.write(data);
+        writer.flush();
+    }
+
+
+    protected void checkRecords(List<DataBlock> expected, BinaryDataParser parser) throws IOException
+    {
+        for (DataBlock data: expected)
+        {
+            DataBlock parsed = parser.parseNextBlock();
+            assertEquals(data.getAtomCount(), parsed.getAtomCount());
+            for (int j = 0; j < data.getAtomCount(); j++)
+                assertEquals(data.getDoubleValue(j), parsed.getDoubleValue(j), 0.0);
+        }
+    }
+
+
+    @Test
+    public void testOffHeapHint()
+    {
+        DataRecord rec = createRecord(DataType.DOUBLE, true);
+        rec.renewDataBlock();
+        DataBlock arrayData = rec.getComponent("values").getData();
+        assertTrue(arrayData instanceof DataBlockFlat);
+        assertTrue(((DataBlockFlat)arrayData).isOffHeap());
+        assertEquals(DataType.DOUBLE, arrayData.getDataType());
+        assertEquals(ARRAY_SIZE, arrayData.getAtomCount());
+
+        // write through record and read through array
+        rec.getData().setDoubleValue(ARRAY_SIZE, 12.5);
+        assertEquals(12.5, arrayData.getDoubleValue(ARRAY_SIZE - 1), 0.0);
+
+        // clone stays off heap but doesn't share values
+        DataBlockFlat clone = (DataBlockFlat)arrayData.clone();
+        assertTrue(clone.isOffHeap());
+        clone.setDoubleValue(ARRAY_SIZE - 1, 1.0);
+        assertEquals(12.5, arrayData.getDoubleValue(ARRAY_SIZE - 1), 0.0);
+        clone.close();
+    }
+
+
+    @Test
+    public void testOffHeapThreshold()
+    {
+        DataRecord rec = createRecord(DataType.FLOAT, false);
+        rec.renewDataBlock();
+        assertFalse(rec.getComponent("values").getData() instanceof DataBlockFlat);
+
+        DataBlockFactory.setOffHeapThreshold(ARRAY_SIZE * 4);
+        rec = createRecord(DataType.FLOAT, false);
+        rec.renewDataBlock();
+        DataBlock arrayData = rec.getComponent("values").getData();
+        assertTrue(((DataBlockFlat)arrayData).isOffHeap());
+        assertEquals(DataType.FLOAT, arrayData.getDataType());
+
+        // arrays below threshold stay on heap
+        DataBlockFactory.setOffHeapThreshold(ARRAY_SIZE * 4 + 1);
+        rec = createRecord(DataType.FLOAT, false);
+        rec.renewDataBlock();
+        assertFalse(rec.getComponent("values").getData() instanceof DataBlockFlat);
+    }
+
+
+    @Test
+    public void testClose()
+    {
+        DataBlockFlat data = DataBlockFactory.createOffHeapBlock(DataType.INT, 10);
+        DataBlockFlat view = data.copy();
+        data.setIntValue(3, 3);
+        assertEquals(3, view.getIntValue(3));
+        ByteBuffer slice = data.getBufferSlice(3, 1);
+
+        data.close();
+        data.close();
+
+        // views obtained before close stay valid until garbage collected
+        assertEquals(3, slice.getInt());
+
+        try
+        {
+            view.getIntValue(3);
+            fail("Closed data block should not be readable");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedType()
+    {
+        DataBlockFactory.createOffHeapBlock(DataType.UTF_STRING, 10);
+    }
+
+
+    @Test
+    public void testTooLarge()
+    {
+        // size in bytes doesn't fit in an int
+        try
+        {
+            DataBlockFactory.createOffHeapBlock(DataType.DOUBLE, 300_000_000);
+            fail("Block larger than max buffer size should not be created");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(e.getMessage().contains("max " + DataBlockFlat.MAX_SIZE));
+        }
+
+        // size in bytes wraps around to a positive int
+        DataBlockFlat data = DataBlockFactory.createOffHeapBlock(DataType.DOUBLE, 10);
+        try
+        {
+            data.resize(600_000_000);
+            fail("Block larger than max buffer size should not be created");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertEquals(10, data.getAtomCount());
+        }
+        data.close();
+    }
+
+
+    protected void checkReadWrite(DataType dataType, ByteOrder byteOrder) throws IOException
+    {
+        DataRecord rec = createRecord(dataType, true);
+        BinaryEncoding encoding = SWEHelper.getDefaultBinaryEncoding(rec);
+        encoding.setByteOrder(byteOrder);
+        List<DataBlock> records = createRecords(rec);
+        byte[] bytes = write(rec, encoding, records);
+
+        // check bytes are the same as when writing regular blocks
+        DataRecord heapRec = createRecord(dataType, false);
+        List<DataBlock> heapRecords = new ArrayList<>();
+        for (DataBlock data: records)
+        {
+            DataBlock heapData = heapRec.createDataBlock();
+            for (int j = 0; j < data.getAtomCount(); j++)
+                heapData.setDoubleValue(j, data.getDoubleValue(j));
+            heapRecords.add(heapData);
+        }
+        assertArrayEquals(write(heapRec, encoding, heapRecords), bytes);
+
+        // parse into off-heap blocks
+        BinaryDataParser parser = new BinaryDataParser();
+        parser.setDataComponents(rec);
+        parser.setDataEncoding(encoding);
+        parser.setRenewDataBlock(true);
+        parser.setInput(new ByteArrayInputStream(bytes));
+        checkRecords(records, parser);
+        assertNull(parser.parseNextBlock());
+
+        // parse from memory mapped file with windows splitting values
+        file = Files.createTempFile("swe-offheap", ".bin");
+        try (OutputStream os = Files.newOutputStream(file))
+        {
+            writeTo(rec, encoding, records, os);
+        }
+        try (DataSourceMappedFile source = new DataSourceMappedFile(file, 1001))
+        {
+            parser.setInput(source.getDataStream());
+            checkRecords(records, parser);
+        }
+        Files.delete(file);
+    }
+
+
+    @Test
+    public void testReadWriteBigEndian() throws IOException
+    {
+        checkReadWrite(DataType.DOUBLE, ByteOrder.BIG_ENDIAN);
+        checkReadWrite(DataType.FLOAT, ByteOrder.BIG_ENDIAN);
+        checkReadWrite(DataType.SHORT, ByteOrder.BIG_ENDIAN);
+    }
+
+
+    @Test
+    public void testReadWriteLittleEndian() throws IOException
+    {
+        checkReadWrite(DataType.DOUBLE, ByteOrder.LITTLE_ENDIAN);
+        checkReadWrite(DataType.INT, ByteOrder.LITTLE_ENDIAN);
+        checkReadWrite(DataType.LONG, ByteOrder.LITTLE_ENDIAN);
+    }
+}
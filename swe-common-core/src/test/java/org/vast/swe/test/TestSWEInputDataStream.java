@@ -0,0 +1,130 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.TextEncoding;
+import org.junit.Test;
+import org.vast.swe.DataSourceString;
+import org.vast.swe.DataSourceXMLStream;
+import org.vast.swe.SWEData;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.SWEInputDataStream;
+
+
+public class TestSWEInputDataStream
+{
+    static final int NUM_RECORDS = 500;
+
+
+    protected DataRecord createRecord()
+    {
+        SWEHelper fac = new SWEHelper();
+        DataRecord rec = fac.newDataRecord();
+        rec.addField("id", fac.newCount());
+        rec.addField("value", fac.newQuantity());
+        return rec;
+    }
+
+
+    protected String createText()
+    {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < NUM_RECORDS; i++)
+            buf.append(i).append(',').append(i*0.5).append('\n');
+        return buf.toString();
+    }
+
+
+    protected List<DataBlock> readAll(SWEInputDataStream dataStream) throws Exception
+    {
+        List<DataBlock> records = new ArrayList<>();
+        DataBlock dataBlk;
+        while ((dataBlk = dataStream.getNextDataBlock()) != null)
+            records.add(dataBlk);
+        assertNull(dataStream.getNextDataBlock());
+        return records;
+    }
+
+
+    protected void checkRecords(List<DataBlock> records)
+    {
+        assertEquals(NUM_RECORDS, records.size());
+        for (int i = 0; i < NUM_RECORDS; i++)
+        {
+            assertEquals(i, records.get(i).getIntValue(0));
+            assertEquals(i*0.5, records.get(i).getDoubleValue(1), 1e-12);
+        }
+    }
+
+
+    @Test
+    public void testParseLazily() throws Exception
+    {
+        TextEncoding encoding = new SWEHelper().newTextEncoding(",", "\n");
+        SWEInputDataStream dataStream = new SWEInputDataStream(createRecord(), encoding, new DataSourceString(createText()));
+        assertEquals(-1, dataStream.getNumElements());
+        checkRecords(readAll(dataStream));
+    }
+
+
+    @Test
+    public void testParseFromXMLStream() throws Exception
+    {
+        String xml = "<InsertResult><resultValues>\n" + createText() + "</resultValues></InsertResult>";
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+        reader.nextTag();
+        reader.nextTag();
+
+        TextEncoding encoding = new SWEHelper().newTextEncoding(",", "\n");
+        SWEInputDataStream dataStream = new SWEInputDataStream(createRecord(), encoding, new DataSourceXMLStream(reader));
+
+        // first record is available before the rest of the stream is read
+        DataBlock first = dataStream.getNextDataBlock();
+        assertEquals(0, first.getIntValue(0));
+        assertFalse(reader.isEndElement());
+
+        List<DataBlock> records = readAll(dataStream);
+        records.add(0, first);
+        checkRecords(records);
+        assertTrue(reader.isEndElement());
+    }
+
+
+    @Test
+    public void testReadFromMemory() throws Exception
+    {
+        TextEncoding encoding = new SWEHelper().newTextEncoding(",", "\n");
+        SWEData sweData = new SWEData();
+        sweData.setElementType(createRecord());
+        sweData.setEncoding(encoding);
+        sweData.parseData(new DataSourceString(createText()));
+
+        SWEInputDataStream dataStream = new SWEInputDataStream(sweData);
+        checkRecords(readAll(dataStream));
+
+        // also check empty list
+        SWEData emptyData = new SWEData();
+        emptyData.setElementType(createRecord());
+        assertNull(new SWEInputDataStream(emptyData).getNextElement());
+    }
+}
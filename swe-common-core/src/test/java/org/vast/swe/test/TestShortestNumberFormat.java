@@ -0,0 +1,101 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.vast.swe.test;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.Test;
+import org.vast.util.ShortestNumberFormat;
+
+
+public class TestShortestNumberFormat
+{
+    static final int NUM_SAMPLES = 1000000;
+
+    Random random = new Random(20261018L);
+    byte[] buf = new byte[ShortestNumberFormat.MAX_LENGTH + 2];
+
+
+    protected void checkDouble(double val)
+    {
+        int len = ShortestNumberFormat.format(val, buf, 2);
+        String s = new String(buf, 2, len);
+        String ref = Double.toString(val);
+
+        // older JDKs sometimes output more digits than necessary or not the closest ones
+        if (ShortestNumberFormat.MATCHES_JDK_FORMAT || Double.isNaN(val))
+            assertEquals(ref, s);
+        else
+        {
+            assertTrue(ref, s.length() <= ref.length());
+            assertEquals(ref, Double.doubleToLongBits(val), Double.doubleToLongBits(Double.parseDouble(s)));
+        }
+    }
+
+
+    protected void checkFloat(float val)
+    {
+        int len = ShortestNumberFormat.format(val, buf, 2);
+        String s = new String(buf, 2, len);
+        String ref = Float.toString(val);
+
+        if (ShortestNumberFormat.MATCHES_JDK_FORMAT || Float.isNaN(val))
+            assertEquals(ref, s);
+        else
+        {
+            assertTrue(ref, s.length() <= ref.length());
+            assertEquals(ref, Float.floatToIntBits(val), Float.floatToIntBits(Float.parseFloat(s)));
+        }
+    }
+
+
+    @Test
+    public void testSpecialValues()
+    {
+        double[] values = {0.0, -0.0, 1.0, -1.0, 0.1, 1e-3, 9.999e-4, 1e7, 9999999.0, 1e22, 1e23, 2e-3,
+            Double.MIN_VALUE, 2*Double.MIN_VALUE, 3*Double.MIN_VALUE, Double.MIN_NORMAL, Double.MAX_VALUE,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 123456.789, -1.5e300, 0x1p52, 0x1p53};
+
+        for (double val: values)
+        {
+            checkDouble(val);
+            checkFloat((float)val);
+        }
+
+        assertEquals("1.0E23", new String(buf, 0, ShortestNumberFormat.format(1e23, buf, 0)));
+    }
+
+
+    @Test
+    public void testRandomDoubles()
+    {
+        for (int i = 0; i < NUM_SAMPLES; i++)
+        {
+            checkDouble(Double.longBitsToDouble(random.nextLong()));
+            checkDouble(random.nextInt(10000000) / Math.pow(10, random.nextInt(10)));
+        }
+    }
+
+
+    @Test
+    public void testRandomFloats()
+    {
+        for (int i = 0; i < NUM_SAMPLES; i++)
+        {
+            checkFloat(Float.intBitsToFloat(random.nextInt()));
+            checkFloat((float)(random.nextInt(100000) / Math.pow(10, random.nextInt(8))));
+        }
+    }
+}